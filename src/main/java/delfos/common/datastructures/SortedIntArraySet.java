@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.common.datastructures;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Unmodifiable view of a sorted range of an int array as a {@link java.util.Set}.
+ * No copy of the values is made, so the view is as cheap to build as a range
+ * check. Membership is resolved with a binary search.
+ *
+ * <p>
+ * Optionally, the values of the range are indexes over a sorted dictionary
+ * array. In that case the set contains the values of the dictionary at those
+ * positions, which is useful to expose compact dense indexes as ids.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class SortedIntArraySet extends AbstractSet<Integer> {
+
+    private final int[] values;
+    private final int from;
+    private final int to;
+    private final int[] dictionary;
+
+    /**
+     * Creates a view over all the values of a sorted array.
+     *
+     * @param values Sorted values, without duplicates.
+     */
+    public SortedIntArraySet(int[] values) {
+        this(values, 0, values.length, null);
+    }
+
+    /**
+     * Creates a view over a range of an array.
+     *
+     * @param values Array that contains the range. The range must be sorted
+     * and without duplicates.
+     * @param from First position of the range, inclusive.
+     * @param to Last position of the range, exclusive.
+     * @param dictionary Sorted array to translate the values of the range, or
+     * null if the values are returned as they are.
+     */
+    public SortedIntArraySet(int[] values, int from, int to, int[] dictionary) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IllegalArgumentException("Invalid range [" + from + "," + to + ") for an array of length " + values.length);
+        }
+        this.values = values;
+        this.from = from;
+        this.to = to;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Integer)) {
+            return false;
+        }
+        int value = (Integer) o;
+        if (dictionary != null) {
+            value = Arrays.binarySearch(dictionary, value);
+            if (value < 0) {
+                return false;
+            }
+        }
+        return Arrays.binarySearch(values, from, to, value) >= 0;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int position = from;
+
+            @Override
+            public boolean hasNext() {
+                return position < to;
+            }
+
+            @Override
+            public Integer next() {
+                if (position >= to) {
+                    throw new NoSuchElementException();
+                }
+                int value = values[position++];
+                return dictionary == null ? value : dictionary[value];
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return to == from;
+    }
+}
@@ -92,6 +92,18 @@ public final class Parallelisation {
         }
     }
 
+    /**
+     * Número máximo de hebras que la biblioteca puede utilizar, establecido con
+     * {@link #setMaxCPU(int)}.
+     *
+     * @return Número máximo de hebras.
+     */
+    public static int getMaxCPU() {
+        synchronized (exMut) {
+            return limitNumThreads;
+        }
+    }
+
     /**
      * Espera hasta que algún hilo queda libre. No asegura que hayan hebras
      * libres una vez se ha finalizado este método, por lo que se debe comprobar
@@ -19,6 +19,7 @@ package delfos.common.parameters;
 import delfos.factories.AggregationOperatorFactory;
 import delfos.factories.DatasetLoadersFactory;
 import delfos.factories.EvaluationMeasuresFactory;
+import delfos.factories.NeighborCandidatesGeneratorFactory;
 import delfos.factories.PredictionProtocolFactory;
 import delfos.factories.PredictionTechniquesFactory;
 import delfos.factories.RecommendationCandidatesSelectorFactory;
@@ -73,6 +74,7 @@ public enum ParameterOwnerType {
     CENTRALITY_CONCEPT_DEFINITION,
     BELIEF_FUNCTION,
     RECOMMENDATION_CANDIDATES_SELECTOR,
+    NEIGHBOR_CANDIDATES_GENERATOR,
     CASE_STUDY,
     GROUPER,
     GROUP_RECOMMENDATION_SELECTION_MODE, NON_PERSONALISED_RECOMMENDER_SYSTEM;
@@ -104,6 +106,8 @@ public enum ParameterOwnerType {
                 return GroupRecommenderSystemsFactory.getInstance().getClassByName(className);
             case GROUP_RECOMMENDATION_SELECTION_MODE:
                 return GroupRecommendationsSelectorFactory.getInstance().getClassByName(className);
+            case NEIGHBOR_CANDIDATES_GENERATOR:
+                return NeighborCandidatesGeneratorFactory.getInstance().getClassByName(className);
             case NON_PERSONALISED_RECOMMENDER_SYSTEM:
                 return RecommenderSystemsFactory.getInstance().getClassByName(className);
             case PREDICTION_PROTOCOL_TECHNIQUE:
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.databaseconnections;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conjunto de conexiones JDBC reutilizables. Las conexiones se crean bajo
+ * demanda, hasta un máximo, y se devuelven al conjunto al cerrar el
+ * {@link Lease} con el que se obtuvieron, por lo que se usan con
+ * try-with-resources:
+ *
+ * <pre>
+ * try (ConnectionPool.Lease lease = pool.borrow()) {
+ *     PreparedStatement statement = lease.prepareStatement(sql);
+ *     ...
+ * }
+ * </pre>
+ *
+ * Cada conexión guarda las sentencias preparadas que se han usado con ella,
+ * para no volver a prepararlas en cada consulta.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Crea nuevas conexiones para el conjunto.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        Connection newConnection() throws SQLException;
+    }
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+
+    private final ConnectionFactory connectionFactory;
+    private final int maxConnections;
+    private final boolean closeConnections;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int numConnections = 0;
+    private boolean closed = false;
+
+    /**
+     * Crea el conjunto de conexiones.
+     *
+     * @param connectionFactory Crea las conexiones.
+     * @param maxConnections Número máximo de conexiones abiertas a la vez.
+     */
+    public ConnectionPool(ConnectionFactory connectionFactory, int maxConnections) {
+        this(connectionFactory, maxConnections, true);
+    }
+
+    private ConnectionPool(ConnectionFactory connectionFactory, int maxConnections, boolean closeConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("The maximum number of connections must be positive: " + maxConnections);
+        }
+        this.connectionFactory = connectionFactory;
+        this.maxConnections = maxConnections;
+        this.closeConnections = closeConnections;
+    }
+
+    /**
+     * Crea un conjunto de conexiones para la base de datos indicada. Si es una
+     * {@link MySQLConnection} se abren conexiones nuevas; en otro caso se
+     * comparte la única conexión que proporciona, que no se cierra al cerrar
+     * el conjunto.
+     *
+     * @param databaseConection Base de datos.
+     * @return Conjunto de conexiones a la base de datos.
+     */
+    public static ConnectionPool of(DatabaseConection databaseConection) {
+        if (databaseConection instanceof MySQLConnection) {
+            return new ConnectionPool(((MySQLConnection) databaseConection)::newConnection, DEFAULT_MAX_CONNECTIONS);
+        } else {
+            return new ConnectionPool(databaseConection::doConnection, 1, false);
+        }
+    }
+
+    /**
+     * Obtiene una conexión, esperando a que se devuelva alguna si ya se han
+     * abierto todas las permitidas.
+     *
+     * @return Conexión, que se devuelve al conjunto al cerrarla.
+     * @throws SQLException Si no se puede abrir la conexión.
+     */
+    public Lease borrow() throws SQLException {
+        PooledConnection pooledConnection = null;
+        synchronized (this) {
+            while (pooledConnection == null) {
+                if (closed) {
+                    throw new SQLException("The connection pool is closed");
+                }
+                if (!idle.isEmpty()) {
+                    pooledConnection = idle.pop();
+                } else if (numConnections < maxConnections) {
+                    numConnections++;
+                    break;
+                } else {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException(ex);
+                    }
+                }
+            }
+        }
+
+        if (pooledConnection == null) {
+            try {
+                pooledConnection = new PooledConnection(connectionFactory.newConnection());
+            } catch (SQLException | RuntimeException ex) {
+                synchronized (this) {
+                    numConnections--;
+                    notifyAll();
+                }
+                throw ex;
+            }
+        }
+        return new Lease(pooledConnection);
+    }
+
+    private synchronized void giveBack(PooledConnection pooledConnection, boolean broken) {
+        if (broken || closed) {
+            numConnections--;
+            pooledConnection.close(closeConnections);
+        } else {
+            idle.push(pooledConnection);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Número de conexiones abiertas, en uso o libres.
+     *
+     * @return Número de conexiones abiertas.
+     */
+    public synchronized int getNumConnections() {
+        return numConnections;
+    }
+
+    /**
+     * Cierra las conexiones libres. Las que están en uso se cierran al
+     * devolverlas.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        while (!idle.isEmpty()) {
+            numConnections--;
+            idle.pop().close(closeConnections);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Conexión prestada por el conjunto. Debe cerrarse para devolverla.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final PooledConnection pooledConnection;
+        private boolean broken = false;
+        private boolean returned = false;
+
+        private Lease(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        public Connection getConnection() {
+            return pooledConnection.connection;
+        }
+
+        /**
+         * Devuelve la sentencia preparada para la consulta indicada,
+         * reutilizando la de usos anteriores de esta conexión.
+         *
+         * @param sql Consulta.
+         * @return Sentencia preparada, que no se debe cerrar.
+         * @throws SQLException Si no se puede preparar la consulta.
+         */
+        public PreparedStatement prepareStatement(String sql) throws SQLException {
+            try {
+                return pooledConnection.prepareStatement(sql);
+            } catch (SQLException ex) {
+                broken = true;
+                throw ex;
+            }
+        }
+
+        /**
+         * Indica que la conexión ha fallado, para que se cierre en lugar de
+         * devolverla al conjunto.
+         */
+        public void markBroken() {
+            broken = true;
+        }
+
+        @Override
+        public void close() {
+            if (!returned) {
+                returned = true;
+                giveBack(pooledConnection, broken);
+            }
+        }
+    }
+
+    private static final class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        private PreparedStatement prepareStatement(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        private void close(boolean closeConnection) {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ex) {
+                    //La conexión ya no se va a usar.
+                }
+            }
+            statements.clear();
+            if (closeConnection) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    //La conexión ya no se va a usar.
+                }
+            }
+        }
+    }
+}
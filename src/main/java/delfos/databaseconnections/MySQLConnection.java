@@ -109,30 +109,42 @@ public class MySQLConnection implements DatabaseConection {
     @Override
     public final Connection doConnection() throws SQLException {
         if (activeConnection == null) {
-
-            try {
-                // Cargamos el controlador JDBC
-                Class.forName("com.mysql.jdbc.Driver");
-                MysqlDataSource dataSource = new MysqlDataSource();
-
-                dataSource.setUser(user);
-                dataSource.setPassword(pass);
-                dataSource.setDatabaseName(databaseName);
-                dataSource.setServerName(serverName);
-                dataSource.setPort(port);
-
-                Connection connection = dataSource.getConnection();
-                connection.setAutoCommit(true);
-                activeConnection = connection;
-            } catch (ClassNotFoundException ex) {
-                ERROR_CODES.DEPENDENCY_NOT_FOUND.exit(ex);
-                throw new IllegalArgumentException(ex);
-            }
+            activeConnection = newConnection();
         }
 
         return activeConnection;
     }
 
+    /**
+     * Abre una conexión nueva con la base de datos, independiente de la que
+     * devuelve {@link MySQLConnection#doConnection()}. Se usa para tener varias
+     * conexiones abiertas a la vez, por ejemplo en un
+     * {@link ConnectionPool}.
+     *
+     * @return Conexión nueva, que debe cerrar quien la pide.
+     * @throws SQLException Si no se puede abrir la conexión.
+     */
+    public Connection newConnection() throws SQLException {
+        try {
+            // Cargamos el controlador JDBC
+            Class.forName("com.mysql.jdbc.Driver");
+            MysqlDataSource dataSource = new MysqlDataSource();
+
+            dataSource.setUser(user);
+            dataSource.setPassword(pass);
+            dataSource.setDatabaseName(databaseName);
+            dataSource.setServerName(serverName);
+            dataSource.setPort(port);
+
+            Connection connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            return connection;
+        } catch (ClassNotFoundException ex) {
+            ERROR_CODES.DEPENDENCY_NOT_FOUND.exit(ex);
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
     @Override
     @Deprecated
     public String getPass() {
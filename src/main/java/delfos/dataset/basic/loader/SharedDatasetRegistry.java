@@ -0,0 +1,352 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.basic.loader;
+
+import delfos.common.Global;
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.ParameterOwner;
+import delfos.dataset.basic.item.ContentDataset;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.user.UsersDataset;
+import delfos.experiment.SeedHolder;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de datasets compartidos por todos los experimentos de la JVM. Los
+ * experimentos que usan el mismo {@link DatasetLoader}, con la misma
+ * configuración y los mismos ficheros, reciben los mismos datasets de
+ * valoraciones, usuarios y productos ya cargados en lugar de volver a leer e
+ * indexar el dataset. Cada experimento recibe su propia copia del cargador que
+ * leyó los datasets, de la misma clase y con los mismos parámetros que el que
+ * pidió, salvo el alias, que es el suyo. Por tanto, se puede guardar en XML
+ * como cualquier otro cargador.
+ *
+ * <p>
+ * La clave de cada dataset es la configuración del cargador, sin el alias, y
+ * una suma de comprobación del contenido de los ficheros y directorios que
+ * tiene como parámetros. Sólo se comparten los cargadores que leen ficheros y
+ * que no dependen de una semilla, ya que el resto pueden dar un dataset
+ * distinto con la misma configuración. Las copias comparten los datasets que el
+ * cargador guarda una vez leídos, como hacen todos los cargadores de ficheros.
+ *
+ * <p>
+ * Cada {@link #acquire(delfos.dataset.basic.loader.types.DatasetLoader)} debe
+ * ir acompañado de su {@link #release(delfos.dataset.basic.loader.types.DatasetLoader)}.
+ * Los datasets que no usa ningún experimento se mantienen cargados mientras no
+ * se supere el presupuesto de memoria, y se descartan primero los que se usaron
+ * hace más tiempo. Los experimentos no deben modificar los datasets
+ * compartidos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class SharedDatasetRegistry {
+
+    /**
+     * Estimación de la memoria que ocupa cada valoración indexada por usuarios
+     * y por productos.
+     */
+    public static final long ESTIMATED_BYTES_PER_RATING = 64;
+
+    private static class Holder {
+
+        private static final SharedDatasetRegistry INSTANCE = new SharedDatasetRegistry();
+    }
+
+    public static SharedDatasetRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static class SharedDataset {
+
+        private final String key;
+        private final DatasetLoader<? extends Rating> datasetLoader;
+        private RatingsDataset<? extends Rating> ratingsDataset;
+        private UsersDataset usersDataset;
+        private ContentDataset contentDataset;
+        private boolean loaded = false;
+        private int references = 0;
+        private long lastAccess;
+        private long estimatedBytes;
+
+        public SharedDataset(String key, DatasetLoader<? extends Rating> datasetLoader) {
+            this.key = key;
+            this.datasetLoader = datasetLoader;
+        }
+    }
+
+    private final Map<String, SharedDataset> sharedDatasets = new ConcurrentHashMap<>();
+    private final Map<String, Long> checksums = new ConcurrentHashMap<>();
+    private final Map<DatasetLoader<? extends Rating>, SharedDataset> acquired = new IdentityHashMap<>();
+    private long accessCounter = 0;
+    private volatile long heapBudget;
+
+    SharedDatasetRegistry() {
+        heapBudget = Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    /**
+     * Establece la memoria máxima estimada que pueden ocupar los datasets que
+     * no se están usando. Por defecto, la mitad de la memoria de la JVM.
+     *
+     * @param heapBudget Presupuesto en bytes.
+     */
+    public void setHeapBudget(long heapBudget) {
+        this.heapBudget = heapBudget;
+        evictUnused();
+    }
+
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    /**
+     * Devuelve el número de datasets registrados.
+     *
+     * @return Número de datasets.
+     */
+    public int size() {
+        return sharedDatasets.size();
+    }
+
+    /**
+     * Devuelve la memoria estimada que ocupan todos los datasets registrados.
+     *
+     * @return Memoria estimada en bytes.
+     */
+    public synchronized long getEstimatedHeapUsage() {
+        return sharedDatasets.values().stream().mapToLong(sharedDataset -> sharedDataset.estimatedBytes).sum();
+    }
+
+    /**
+     * Indica si el dataset del cargador se puede compartir entre experimentos.
+     *
+     * @param datasetLoader Cargador de dataset.
+     * @return true si el cargador lee ficheros y no depende de una semilla.
+     */
+    public boolean isShareable(DatasetLoader<? extends Rating> datasetLoader) {
+        if (datasetLoader instanceof SeedHolder) {
+            return false;
+        }
+        return !getFiles(datasetLoader).isEmpty();
+    }
+
+    /**
+     * Devuelve una copia del cargador que tiene los datasets de valoraciones,
+     * usuarios y productos compartidos ya cargados, con el alias del indicado.
+     * Si el cargador no se puede compartir, se devuelve el mismo cargador.
+     *
+     * @param <RatingType> Tipo de las valoraciones.
+     * @param datasetLoader Cargador de dataset.
+     * @return Cargador con los datasets compartidos, que se debe liberar con
+     * {@link #release(delfos.dataset.basic.loader.types.DatasetLoader)}.
+     */
+    public <RatingType extends Rating> DatasetLoader<RatingType> acquire(DatasetLoader<RatingType> datasetLoader) {
+        if (!isShareable(datasetLoader)) {
+            return datasetLoader;
+        }
+
+        String key = getKey(datasetLoader);
+        SharedDataset sharedDataset;
+        synchronized (this) {
+            sharedDataset = sharedDatasets.computeIfAbsent(key, k -> new SharedDataset(k, copy(datasetLoader)));
+            sharedDataset.references++;
+            sharedDataset.lastAccess = ++accessCounter;
+        }
+
+        synchronized (sharedDataset) {
+            if (!sharedDataset.loaded) {
+                try {
+                    load(sharedDataset);
+                } catch (RuntimeException ex) {
+                    synchronized (this) {
+                        sharedDatasets.remove(key, sharedDataset);
+                    }
+                    throw ex;
+                }
+                sharedDataset.estimatedBytes = sharedDataset.ratingsDataset.getNumRatings() * ESTIMATED_BYTES_PER_RATING;
+                sharedDataset.loaded = true;
+                Global.showInfoMessage("Dataset '" + datasetLoader.getAlias() + "' loaded and shared ("
+                        + (sharedDataset.estimatedBytes / 1024 / 1024) + " MB estimated)\n");
+            }
+        }
+
+        DatasetLoader<RatingType> sharedDatasetLoader = copy(sharedDataset.datasetLoader);
+        sharedDatasetLoader.setAlias(datasetLoader.getAlias());
+        synchronized (this) {
+            acquired.put(sharedDatasetLoader, sharedDataset);
+        }
+        evictUnused();
+
+        return sharedDatasetLoader;
+    }
+
+    /**
+     * Indica que un experimento ya no usa el cargador obtenido con
+     * {@link #acquire(delfos.dataset.basic.loader.types.DatasetLoader)}.
+     *
+     * @param datasetLoader Cargador devuelto por
+     * {@link #acquire(delfos.dataset.basic.loader.types.DatasetLoader)}.
+     */
+    public void release(DatasetLoader<? extends Rating> datasetLoader) {
+        synchronized (this) {
+            SharedDataset sharedDataset = acquired.remove(datasetLoader);
+            if (sharedDataset == null) {
+                return;
+            }
+            sharedDataset.references--;
+        }
+        evictUnused();
+    }
+
+    /**
+     * Descarta todos los datasets que no se están usando.
+     */
+    public synchronized void clear() {
+        sharedDatasets.values().removeIf(sharedDataset -> sharedDataset.references == 0);
+    }
+
+    /**
+     * Descarta los datasets sin referencias, empezando por el menos usado
+     * recientemente, hasta que la memoria estimada de los datasets sin usar
+     * cabe en el presupuesto.
+     */
+    private synchronized void evictUnused() {
+        List<SharedDataset> unused = new ArrayList<>();
+        long unusedBytes = 0;
+        for (SharedDataset sharedDataset : sharedDatasets.values()) {
+            if (sharedDataset.references == 0 && sharedDataset.loaded) {
+                unused.add(sharedDataset);
+                unusedBytes += sharedDataset.estimatedBytes;
+            }
+        }
+        unused.sort(Comparator.comparingLong(sharedDataset -> sharedDataset.lastAccess));
+
+        for (SharedDataset sharedDataset : unused) {
+            if (unusedBytes <= heapBudget) {
+                break;
+            }
+            sharedDatasets.remove(sharedDataset.key);
+            unusedBytes -= sharedDataset.estimatedBytes;
+            Global.showInfoMessage("Dataset '" + sharedDataset.datasetLoader.getAlias() + "' evicted from the shared datasets\n");
+        }
+    }
+
+    /**
+     * Copia el cargador con {@link ParameterOwner#clone()}, que copia también
+     * los datasets que ya ha leído.
+     */
+    @SuppressWarnings("unchecked")
+    private static <RatingType extends Rating> DatasetLoader<RatingType> copy(DatasetLoader<? extends Rating> datasetLoader) {
+        return (DatasetLoader<RatingType>) datasetLoader.clone();
+    }
+
+    private static void load(SharedDataset sharedDataset) {
+        sharedDataset.ratingsDataset = sharedDataset.datasetLoader.getRatingsDataset();
+        sharedDataset.usersDataset = sharedDataset.datasetLoader.getUsersDataset();
+        sharedDataset.contentDataset = sharedDataset.datasetLoader.getContentDataset();
+    }
+
+    /**
+     * Devuelve la clave del cargador: su clase, su configuración sin alias y
+     * las sumas de comprobación de sus ficheros.
+     */
+    String getKey(DatasetLoader<? extends Rating> datasetLoader) {
+        String configuration = datasetLoader.getNameWithParameters()
+                .replaceAll(ParameterOwner.ALIAS.getName() + "=([^\\s]+)", "");
+
+        StringBuilder key = new StringBuilder(datasetLoader.getClass().getName());
+        key.append(" ").append(configuration);
+        for (File file : getFiles(datasetLoader)) {
+            key.append(" ").append(file.getAbsolutePath()).append("#").append(Long.toHexString(getChecksum(file)));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Busca los ficheros y directorios en los parámetros del cargador y de sus
+     * parámetros anidados.
+     */
+    private static List<File> getFiles(ParameterOwner parameterOwner) {
+        Map<String, File> files = new TreeMap<>();
+        for (Parameter parameter : parameterOwner.getParameters()) {
+            Object value = parameterOwner.getParameterValue(parameter);
+            if (value instanceof File) {
+                File file = ((File) value).getAbsoluteFile();
+                files.put(file.getPath(), file);
+            } else if (value instanceof ParameterOwner) {
+                for (File file : getFiles((ParameterOwner) value)) {
+                    files.put(file.getPath(), file);
+                }
+            }
+        }
+        return new ArrayList<>(files.values());
+    }
+
+    private long getChecksum(File file) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles(child -> !child.getName().startsWith("."));
+            if (children == null) {
+                return 0;
+            }
+            Arrays.sort(children);
+            CRC32 crc = new CRC32();
+            for (File child : children) {
+                crc.update(child.getName().getBytes());
+                long childChecksum = getChecksum(child);
+                for (int i = 0; i < 8; i++) {
+                    crc.update((int) (childChecksum >>> (8 * i)));
+                }
+            }
+            return crc.getValue();
+        } else if (!file.exists()) {
+            return 0;
+        }
+
+        String stamp = file.getAbsolutePath() + "#" + file.length() + "#" + file.lastModified();
+        Long checksum = checksums.get(stamp);
+        if (checksum == null) {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream inputStream = new FileInputStream(file)) {
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Cannot read the dataset file '" + file.getAbsolutePath() + "'", ex);
+            }
+            checksum = crc.getValue();
+            checksums.put(stamp, checksum);
+        }
+        return checksum;
+    }
+}
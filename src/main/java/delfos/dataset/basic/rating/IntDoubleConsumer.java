@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.basic.rating;
+
+/**
+ * Operación que recibe un id y un valor primitivos, sin encapsularlos en
+ * objetos. Se usa para recorrer las valoraciones de un usuario o producto sin
+ * crear objetos {@link Rating}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ * @see RatingsDataset#forEachUserRating(int, delfos.dataset.basic.rating.IntDoubleConsumer)
+ */
+@FunctionalInterface
+public interface IntDoubleConsumer {
+
+    /**
+     * Realiza la operación con los valores indicados.
+     *
+     * @param id Id del producto (o del usuario, si se recorren las valoraciones
+     * de un producto).
+     * @param value Valor de la valoración.
+     */
+    public void accept(int id, double value);
+}
@@ -18,25 +18,32 @@ package delfos.dataset.basic.rating;
 
 import delfos.ERROR_CODES;
 import delfos.common.exceptions.dataset.users.UserNotFound;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Clase para iterar de forma genérica sobre un dataset de valoraciones.
  *
+ * <p>
+ * Recorre los usuarios en orden y, para cada uno, las valoraciones de
+ * {@link RatingsDataset#getUserRatingsRated(java.lang.Integer)} sin copiarlas
+ * ni sincronizarse con el dataset. Como cualquier iterador, no debe compartirse
+ * entre hilos; para recorrer el dataset en paralelo se usa
+ * {@link RatingsDataset#parallelStream()}.
+ *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
  * @version 1.0 07-Mar-2013 Implementada como clase, en lugar de como clase interna de {@link RatingsDatasetAdapter}.
+ * @version 1.1 18-oct-2026 Recorre las valoraciones de cada usuario sin copiarlas y sin bloqueos.
  * @param <RatingType>
  */
 public class IteratorRatingsDataset<RatingType extends Rating> implements Iterator<RatingType> {
 
-    private RatingType _next;
-    private final LinkedList<Integer> _users;
-    private final LinkedList<RatingType> _ratings;
     private final RatingsDataset<RatingType> _ratingsDataset;
-    private final Object exMut;
+    private final int[] _users;
+    private int _nextUser = 0;
+    private Iterator<RatingType> _ratings = Collections.emptyIterator();
 
     /**
      * Crea el iterador para recorrer todos los ratings del dataset indicado.
@@ -44,60 +51,35 @@ public class IteratorRatingsDataset<RatingType extends Rating> implements Iterat
      * @param ratingsDataset
      */
     public IteratorRatingsDataset(RatingsDataset<RatingType> ratingsDataset) {
-        _users = new LinkedList<>(ratingsDataset.allUsers());
         _ratingsDataset = ratingsDataset;
-        _ratings = new LinkedList<>();
-        exMut = ratingsDataset;
-        loadNextRating();
+        _users = ratingsDataset.allUsers().stream().mapToInt(Integer::intValue).sorted().toArray();
     }
 
     @Override
     public boolean hasNext() {
-        synchronized (exMut) {
-            return _next != null;
+        while (!_ratings.hasNext()) {
+            if (_nextUser >= _users.length) {
+                return false;
+            }
+            try {
+                _ratings = _ratingsDataset.getUserRatingsRated(_users[_nextUser++]).values().iterator();
+            } catch (UserNotFound ex) {
+                ERROR_CODES.USER_NOT_FOUND.exit(ex);
+            }
         }
+        return true;
     }
 
     @Override
     public RatingType next() {
-        synchronized (exMut) {
-            RatingType ret = _next;
-
-            loadNextRating();
-
-            return ret;
+        if (!hasNext()) {
+            throw new NoSuchElementException();
         }
+        return _ratings.next();
     }
 
     @Override
     public void remove() {
         throw new IllegalStateException("Not allowed method.");
     }
-
-    private void loadNextRating() {
-        if (_ratings.isEmpty()) {
-            //Lista vacía, cargar siguientes ratings.
-
-            if (_users.isEmpty()) {
-                ///No hay más usuarios, finalizar.
-                _next = null;
-            } else {
-                //Hay mas usuarios, cargar sus ratings.
-                int idUser = _users.remove(0);
-                try {
-                    for (Map.Entry<Integer, RatingType> entry : _ratingsDataset.getUserRatingsRated(idUser).entrySet()) {
-                        _ratings.add(entry.getValue());
-                    }
-                } catch (UserNotFound ex) {
-                    ERROR_CODES.USER_NOT_FOUND.exit(ex);
-                }
-
-                //Lista cargada, preparar el siguiente rating.
-                _next = _ratings.remove(0);
-            }
-        } else {
-            //La lista de ratings no está vacía, preparar siguiente rating
-            _next = _ratings.remove(0);
-        }
-    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.basic.rating;
+
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.user.User;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Valoraciones almacenadas por columnas en arrays primitivos: id de usuario, id
+ * de producto y valor. Se usa para cargar ficheros de valoraciones sin crear un
+ * objeto {@link Rating} por cada valoración, y se puede pasar a cualquier
+ * dataset en memoria mediante {@link #asRatings()}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RatingsColumns {
+
+    private int[] idUsers;
+    private int[] idItems;
+    private double[] values;
+    private int size = 0;
+
+    public RatingsColumns() {
+        this(1024);
+    }
+
+    public RatingsColumns(int initialCapacity) {
+        idUsers = new int[Math.max(1, initialCapacity)];
+        idItems = new int[idUsers.length];
+        values = new double[idUsers.length];
+    }
+
+    public void add(int idUser, int idItem, double value) {
+        ensureCapacity(size + 1);
+        idUsers[size] = idUser;
+        idItems[size] = idItem;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Añade al final todas las valoraciones de otras columnas.
+     *
+     * @param other Columnas que se añaden.
+     */
+    public void addAll(RatingsColumns other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.idUsers, 0, idUsers, size, other.size);
+        System.arraycopy(other.idItems, 0, idItems, size, other.size);
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > idUsers.length) {
+            int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, idUsers.length * 3L / 2));
+            idUsers = Arrays.copyOf(idUsers, newCapacity);
+            idItems = Arrays.copyOf(idItems, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    /**
+     * Ajusta la capacidad de las columnas al número de valoraciones, liberando
+     * la memoria reservada que no se usa.
+     */
+    public void trimToSize() {
+        if (size < idUsers.length) {
+            idUsers = Arrays.copyOf(idUsers, size);
+            idItems = Arrays.copyOf(idItems, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Entrega los arrays de las columnas, ajustados al número de valoraciones,
+     * para que un dataset los use sin volver a copiarlos. Las columnas quedan
+     * vacías.
+     *
+     * @return Arrays con las valoraciones.
+     */
+    public Detached detach() {
+        trimToSize();
+        Detached detached = new Detached(idUsers, idItems, values);
+        idUsers = new int[0];
+        idItems = new int[0];
+        values = new double[0];
+        size = 0;
+        return detached;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getIdUser(int index) {
+        checkIndex(index);
+        return idUsers[index];
+    }
+
+    public int getIdItem(int index) {
+        checkIndex(index);
+        return idItems[index];
+    }
+
+    public double getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size + " ratings");
+        }
+    }
+
+    /**
+     * Devuelve una vista de las valoraciones como lista. Los objetos
+     * {@link Rating} se crean al acceder a cada posición.
+     *
+     * @return Vista de solo lectura de las valoraciones.
+     */
+    public List<Rating> asRatings() {
+        return new RatingsView();
+    }
+
+    /**
+     * Arrays de las columnas entregados mediante {@link #detach()}, todos con
+     * una posición por valoración.
+     */
+    public static final class Detached {
+
+        public final int[] idUsers;
+        public final int[] idItems;
+        public final double[] values;
+
+        private Detached(int[] idUsers, int[] idItems, double[] values) {
+            this.idUsers = idUsers;
+            this.idItems = idItems;
+            this.values = values;
+        }
+    }
+
+    private final class RatingsView extends AbstractList<Rating> implements RandomAccess {
+
+        @Override
+        public Rating get(int index) {
+            checkIndex(index);
+            return new Rating(new User(idUsers[index]), new Item(idItems[index]), values[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
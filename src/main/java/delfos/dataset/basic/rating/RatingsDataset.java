@@ -21,6 +21,8 @@ import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.dataset.basic.rating.domain.Domain;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Almacena un datasets de ratings. (idUser,idItem,Rating)
@@ -185,4 +187,90 @@ public interface RatingsDataset<RatingType extends Rating> extends Iterable<Rati
      */
     public double getMeanRating();
 
+    /**
+     * Recorre las valoraciones de un usuario en orden ascendente de id de
+     * producto, sin crear objetos {@link Rating}. La implementación por defecto
+     * construye el vector de {@link #getUserRatingsVector(int)}; las
+     * implementaciones en memoria lo sobrescriben recorriendo sus estructuras
+     * directamente.
+     *
+     * @param idUser Usuario cuyas valoraciones se recorren.
+     * @param consumer Operación que recibe cada par (idItem, valoración).
+     * @throws UserNotFound Si el usuario no existe.
+     */
+    public default void forEachUserRating(int idUser, IntDoubleConsumer consumer) throws UserNotFound {
+        getUserRatingsVector(idUser).forEach(consumer);
+    }
+
+    /**
+     * Recorre las valoraciones de un producto en orden ascendente de id de
+     * usuario, sin crear objetos {@link Rating}.
+     *
+     * @param idItem Producto cuyas valoraciones se recorren.
+     * @param consumer Operación que recibe cada par (idUser, valoración).
+     * @throws ItemNotFound Si el producto no existe.
+     * @see #forEachUserRating(int, delfos.dataset.basic.rating.IntDoubleConsumer)
+     */
+    public default void forEachItemRating(int idItem, IntDoubleConsumer consumer) throws ItemNotFound {
+        getItemRatingsVector(idItem).forEach(consumer);
+    }
+
+    /**
+     * Devuelve las valoraciones de un usuario como vector de arrays primitivos
+     * ordenado por id de producto.
+     *
+     * @param idUser Usuario.
+     * @return Vector de valoraciones del usuario.
+     * @throws UserNotFound Si el usuario no existe.
+     */
+    public default RatingsVector getUserRatingsVector(int idUser) throws UserNotFound {
+        return RatingsVector.of(getUserRatingsRated(idUser));
+    }
+
+    /**
+     * Devuelve las valoraciones de un producto como vector de arrays primitivos
+     * ordenado por id de usuario.
+     *
+     * @param idItem Producto.
+     * @return Vector de valoraciones del producto.
+     * @throws ItemNotFound Si el producto no existe.
+     */
+    public default RatingsVector getItemRatingsVector(int idItem) throws ItemNotFound {
+        return RatingsVector.of(getItemRatingsRated(idItem));
+    }
+
+    /**
+     * Devuelve la huella del contenido del dataset, que no depende del orden de
+     * las valoraciones. La implementación por defecto recorre todas las
+     * valoraciones; los datasets que se modifican o que son vistas de otro la
+     * mantienen o derivan sin recorrerlas.
+     *
+     * @return Huella de las valoraciones del dataset.
+     * @see RatingsFingerprint
+     */
+    public default RatingsFingerprint getFingerprint() {
+        return RatingsFingerprint.compute(this);
+    }
+
+    /**
+     * Devuelve las valoraciones del dataset como {@link Stream} secuencial. Se
+     * construye con {@link #spliterator()}, que los datasets en memoria
+     * sobrescriben con un {@link RatingsSpliterator}.
+     *
+     * @return Stream de las valoraciones.
+     */
+    public default Stream<RatingType> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Devuelve las valoraciones del dataset como {@link Stream} paralelo, para
+     * recorridos completos del dataset con el pool fork-join común.
+     *
+     * @return Stream paralelo de las valoraciones.
+     * @see #stream()
+     */
+    public default Stream<RatingType> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
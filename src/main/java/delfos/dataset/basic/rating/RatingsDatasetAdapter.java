@@ -24,13 +24,11 @@ import delfos.common.statisticalfuncions.MeanIterative;
 import delfos.dataset.basic.rating.domain.Domain;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 /**
  * Clase que almacena un datasets de ratings. (idUser,idItem,Rating)
@@ -172,6 +170,44 @@ public abstract class RatingsDatasetAdapter<RatingType extends Rating> implement
         return get;
     }
 
+    /**
+     * Recorre las valoraciones del usuario. Si el mapa que devuelve
+     * {@link #getUserRatingsRated(java.lang.Integer)} ya está ordenado, se
+     * recorre directamente sin construir el vector de valoraciones.
+     *
+     * @param idUser Usuario cuyas valoraciones se recorren.
+     * @param consumer Operación que recibe cada par (idItem, valoración).
+     * @throws UserNotFound Si el usuario no existe.
+     */
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) throws UserNotFound {
+        forEachSorted(getUserRatingsRated(idUser), consumer);
+    }
+
+    /**
+     * Recorre las valoraciones del producto. Si el mapa que devuelve
+     * {@link #getItemRatingsRated(java.lang.Integer)} ya está ordenado, se
+     * recorre directamente sin construir el vector de valoraciones.
+     *
+     * @param idItem Producto cuyas valoraciones se recorren.
+     * @param consumer Operación que recibe cada par (idUser, valoración).
+     * @throws ItemNotFound Si el producto no existe.
+     */
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) throws ItemNotFound {
+        forEachSorted(getItemRatingsRated(idItem), consumer);
+    }
+
+    private static void forEachSorted(Map<Integer, ? extends Rating> ratings, IntDoubleConsumer consumer) {
+        if (ratings instanceof SortedMap && ((SortedMap) ratings).comparator() == null) {
+            for (Map.Entry<Integer, ? extends Rating> entry : ratings.entrySet()) {
+                consumer.accept(entry.getKey(), entry.getValue().getRatingValue().doubleValue());
+            }
+        } else {
+            RatingsVector.of(ratings).forEach(consumer);
+        }
+    }
+
     @Override
     public abstract Domain getRatingsDomain();
 
@@ -326,45 +362,48 @@ public abstract class RatingsDatasetAdapter<RatingType extends Rating> implement
         return super.equals(obj); //To change body of generated methods, choose Tools | Templates.
     }
 
-    private Integer hashCodeBuffer = null;
+    private RatingsFingerprint fingerprintBuffer = null;
 
+    /**
+     * Calcula la huella la primera vez que se pide y la guarda. Los datasets
+     * que cambian tras su creación deben sobrescribir este método.
+     *
+     * @return Huella de las valoraciones del dataset.
+     */
     @Override
-    public synchronized int hashCode() {
-        if (hashCodeBuffer == null) {
-            hashCodeBuffer = hashCode(this);
+    public synchronized RatingsFingerprint getFingerprint() {
+        if (fingerprintBuffer == null) {
+            fingerprintBuffer = computeFingerprint();
         }
-        return hashCodeBuffer;
+        return fingerprintBuffer;
     }
 
-    public static <RatingType extends Rating> int hashCode(RatingsDataset<RatingType> ratingsDataset) {
-        HashCodeBuilder hashCodeBuilder = new HashCodeBuilder(37, 11);
-
-        List<Integer> usersSorted = ratingsDataset.allUsers().stream().collect(Collectors.toList());
-        usersSorted.sort((i1, i2) -> Integer.compare(i1, i2));
-
-        List<Integer> itemsSorted = ratingsDataset.allRatedItems().stream().collect(Collectors.toList());
-        itemsSorted.sort((i1, i2) -> Integer.compare(i1, i2));
-
-        for (int idUser : usersSorted) {
-            hashCodeBuilder.append(idUser);
-            try {
-                Map<Integer, RatingType> userRatingsRated = ratingsDataset.getUserRatingsRated(idUser);
-
-                for (int idItem : itemsSorted) {
-                    if (userRatingsRated.containsKey(idItem)) {
-                        RatingType rating = userRatingsRated.get(idItem);
-                        double ratingValue = rating.getRatingValue().doubleValue();
-                        hashCodeBuilder.append(idItem);
-                        hashCodeBuilder.append(ratingValue);
-                    }
-                }
+    /**
+     * Calcula la huella del dataset. Por defecto recorre todas sus
+     * valoraciones; las vistas sobre otro dataset la pueden derivar de la del
+     * original.
+     *
+     * @return Huella de las valoraciones del dataset.
+     */
+    protected RatingsFingerprint computeFingerprint() {
+        return RatingsFingerprint.compute(this);
+    }
 
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-        }
+    @Override
+    public int hashCode() {
+        return getFingerprint().hashCode();
+    }
 
-        return hashCodeBuilder.hashCode();
+    /**
+     * Código hash del contenido del dataset, derivado de su huella.
+     *
+     * @param <RatingType>
+     * @param ratingsDataset Dataset de valoraciones.
+     * @return Código hash del dataset.
+     * @see RatingsDataset#getFingerprint()
+     */
+    public static <RatingType extends Rating> int hashCode(RatingsDataset<RatingType> ratingsDataset) {
+        return ratingsDataset.getFingerprint().hashCode();
     }
 
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.basic.rating;
+
+import delfos.ERROR_CODES;
+import delfos.common.exceptions.dataset.items.ItemNotFound;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Huella de 128 bits del contenido de un dataset de valoraciones. Es la suma,
+ * módulo 2^64 en cada mitad, de un hash de cada terna (usuario, producto,
+ * valor), por lo que no depende del orden en que se recorren las valoraciones
+ * y se puede mantener de forma incremental: al añadir una valoración se suma su
+ * hash y al quitarla se resta.
+ *
+ * <p>
+ * Dos datasets con las mismas valoraciones tienen la misma huella. Se usa como
+ * clave de las cachés de modelos en lugar de recorrer el dataset completo.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class RatingsFingerprint implements Serializable {
+
+    private static final long serialVersionUID = 111L;
+
+    /**
+     * Huella del dataset sin valoraciones.
+     */
+    public static final RatingsFingerprint EMPTY = new RatingsFingerprint(0, 0, 0);
+
+    private static final long SEED_HIGH = 0x9E3779B97F4A7C15L;
+    private static final long SEED_LOW = 0xC2B2AE3D27D4EB4FL;
+
+    private final long high;
+    private final long low;
+    private final long numRatings;
+
+    private RatingsFingerprint(long high, long low, long numRatings) {
+        this.high = high;
+        this.low = low;
+        this.numRatings = numRatings;
+    }
+
+    /**
+     * Huella de un dataset con una única valoración.
+     *
+     * @param idUser Usuario.
+     * @param idItem Producto.
+     * @param value Valor de la valoración.
+     * @return Huella de la valoración.
+     */
+    public static RatingsFingerprint of(int idUser, int idItem, double value) {
+        return new RatingsFingerprint(hashHigh(idUser, idItem, value), hashLow(idUser, idItem, value), 1);
+    }
+
+    /**
+     * Huella de una valoración.
+     *
+     * @param rating Valoración.
+     * @return Huella de la valoración.
+     */
+    public static RatingsFingerprint of(Rating rating) {
+        return of(rating.getIdUser(), rating.getIdItem(), rating.getRatingValue().doubleValue());
+    }
+
+    /**
+     * Calcula la huella recorriendo todas las valoraciones del dataset. Es la
+     * implementación por defecto de {@link RatingsDataset#getFingerprint()}.
+     *
+     * @param ratingsDataset Dataset de valoraciones.
+     * @return Huella del dataset.
+     */
+    public static RatingsFingerprint compute(RatingsDataset<? extends Rating> ratingsDataset) {
+        long[] sums = new long[3];
+        for (int idUser : ratingsDataset.allUsers()) {
+            try {
+                ratingsDataset.forEachUserRating(idUser, (idItem, value) -> {
+                    sums[0] += hashHigh(idUser, idItem, value);
+                    sums[1] += hashLow(idUser, idItem, value);
+                    sums[2]++;
+                });
+            } catch (UserNotFound ex) {
+                ERROR_CODES.USER_NOT_FOUND.exit(ex);
+            }
+        }
+        return new RatingsFingerprint(sums[0], sums[1], sums[2]);
+    }
+
+    /**
+     * Calcula la huella de un subconjunto de las valoraciones de un dataset,
+     * consultando únicamente las valoraciones del subconjunto.
+     *
+     * @param ratingsDataset Dataset que contiene las valoraciones.
+     * @param ratings Productos de cada usuario que forman el subconjunto.
+     * @return Huella del subconjunto.
+     * @throws IllegalArgumentException Si alguna valoración del subconjunto
+     * no está en el dataset.
+     */
+    public static RatingsFingerprint compute(RatingsDataset<? extends Rating> ratingsDataset, Map<Integer, ? extends Collection<Integer>> ratings) {
+        long high = 0;
+        long low = 0;
+        long numRatings = 0;
+        for (Map.Entry<Integer, ? extends Collection<Integer>> entry : ratings.entrySet()) {
+            int idUser = entry.getKey();
+            for (int idItem : entry.getValue()) {
+                Rating rating;
+                try {
+                    rating = ratingsDataset.getRating(idUser, idItem);
+                } catch (UserNotFound | ItemNotFound ex) {
+                    rating = null;
+                }
+                if (rating == null) {
+                    throw new IllegalArgumentException("Specified rating (idUser=" + idUser + ",idItem=" + idItem + ") not found in ratingsDataset");
+                }
+                double value = rating.getRatingValue().doubleValue();
+                high += hashHigh(idUser, idItem, value);
+                low += hashLow(idUser, idItem, value);
+                numRatings++;
+            }
+        }
+        return new RatingsFingerprint(high, low, numRatings);
+    }
+
+    /**
+     * Huella del dataset resultante de añadir las valoraciones de otro
+     * disjunto.
+     *
+     * @param other Huella de las valoraciones añadidas.
+     * @return Nueva huella.
+     */
+    public RatingsFingerprint plus(RatingsFingerprint other) {
+        return new RatingsFingerprint(high + other.high, low + other.low, numRatings + other.numRatings);
+    }
+
+    /**
+     * Huella del dataset resultante de quitar un subconjunto de sus
+     * valoraciones.
+     *
+     * @param other Huella de las valoraciones quitadas.
+     * @return Nueva huella.
+     */
+    public RatingsFingerprint minus(RatingsFingerprint other) {
+        return new RatingsFingerprint(high - other.high, low - other.low, numRatings - other.numRatings);
+    }
+
+    /**
+     * Huella tras añadir una valoración.
+     *
+     * @param idUser Usuario.
+     * @param idItem Producto.
+     * @param value Valor de la valoración.
+     * @return Nueva huella.
+     */
+    public RatingsFingerprint plus(int idUser, int idItem, double value) {
+        return new RatingsFingerprint(high + hashHigh(idUser, idItem, value), low + hashLow(idUser, idItem, value), numRatings + 1);
+    }
+
+    /**
+     * Huella tras quitar una valoración.
+     *
+     * @param idUser Usuario.
+     * @param idItem Producto.
+     * @param value Valor de la valoración.
+     * @return Nueva huella.
+     */
+    public RatingsFingerprint minus(int idUser, int idItem, double value) {
+        return new RatingsFingerprint(high - hashHigh(idUser, idItem, value), low - hashLow(idUser, idItem, value), numRatings - 1);
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getNumRatings() {
+        return numRatings;
+    }
+
+    private static long key(int idUser, int idItem) {
+        return ((long) idUser << 32) | (idItem & 0xFFFFFFFFL);
+    }
+
+    private static long valueBits(double value) {
+        //0.0 y -0.0 son la misma valoración.
+        return value == 0 ? 0 : Double.doubleToLongBits(value);
+    }
+
+    private static long hashHigh(int idUser, int idItem, double value) {
+        return mix(mix(key(idUser, idItem) + SEED_HIGH) ^ valueBits(value));
+    }
+
+    private static long hashLow(int idUser, int idItem, double value) {
+        return mix(mix(valueBits(value) + SEED_LOW) ^ Long.rotateLeft(key(idUser, idItem), 29));
+    }
+
+    /**
+     * Función de mezcla de SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RatingsFingerprint)) {
+            return false;
+        }
+        RatingsFingerprint other = (RatingsFingerprint) obj;
+        return high == other.high && low == other.low && numRatings == other.numRatings;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high ^ low);
+    }
+
+    /**
+     * Representación hexadecimal de 32 caracteres, apta para nombres de
+     * fichero.
+     *
+     * @return Huella en hexadecimal.
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.basic.rating;
+
+import delfos.ERROR_CODES;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} sobre las valoraciones de un dataset, recorridas por
+ * usuarios en orden ascendente de id. Se divide por rangos de usuarios con un
+ * número de valoraciones similar, por lo que permite recorrer el dataset en
+ * paralelo con {@link RatingsDataset#parallelStream()}.
+ *
+ * <p>
+ * Al crearlo se consulta el número de valoraciones de cada usuario, por lo que
+ * sólo es adecuado para datasets en los que
+ * {@link RatingsDataset#sizeOfUserRatings(int)} no recorre las valoraciones. No
+ * usa sincronización: el dataset no debe modificarse mientras se recorre.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ * @param <RatingType>
+ */
+public class RatingsSpliterator<RatingType extends Rating> implements Spliterator<RatingType> {
+
+    private final RatingsDataset<RatingType> ratingsDataset;
+    /**
+     * Ids de usuario ordenados.
+     */
+    private final int[] users;
+    /**
+     * Número de valoraciones de los usuarios anteriores a cada posición de
+     * {@link #users}. Tiene una posición más que {@link #users}.
+     */
+    private final long[] offsets;
+
+    /**
+     * Posición del siguiente usuario cuyas valoraciones se cargarán.
+     */
+    private int nextUser;
+    private final int endUser;
+    private long remaining;
+    private Iterator<RatingType> current = null;
+
+    /**
+     * Crea el spliterator sobre todas las valoraciones del dataset.
+     *
+     * @param ratingsDataset Dataset de valoraciones.
+     */
+    public RatingsSpliterator(RatingsDataset<RatingType> ratingsDataset) {
+        this.ratingsDataset = ratingsDataset;
+        this.users = ratingsDataset.allUsers().stream().mapToInt(Integer::intValue).sorted().toArray();
+        this.offsets = new long[users.length + 1];
+        for (int i = 0; i < users.length; i++) {
+            try {
+                offsets[i + 1] = offsets[i] + ratingsDataset.sizeOfUserRatings(users[i]);
+            } catch (UserNotFound ex) {
+                ERROR_CODES.USER_NOT_FOUND.exit(ex);
+            }
+        }
+        this.nextUser = 0;
+        this.endUser = users.length;
+        this.remaining = offsets[users.length];
+    }
+
+    private RatingsSpliterator(RatingsDataset<RatingType> ratingsDataset, int[] users, long[] offsets, int fromUser, int toUser) {
+        this.ratingsDataset = ratingsDataset;
+        this.users = users;
+        this.offsets = offsets;
+        this.nextUser = fromUser;
+        this.endUser = toUser;
+        this.remaining = offsets[toUser] - offsets[fromUser];
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super RatingType> action) {
+        while (current == null || !current.hasNext()) {
+            if (nextUser >= endUser) {
+                current = null;
+                return false;
+            }
+            try {
+                current = ratingsDataset.getUserRatingsRated(users[nextUser++]).values().iterator();
+            } catch (UserNotFound ex) {
+                ERROR_CODES.USER_NOT_FOUND.exit(ex);
+            }
+        }
+        remaining--;
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super RatingType> action) {
+        if (current != null) {
+            while (current.hasNext()) {
+                remaining--;
+                action.accept(current.next());
+            }
+            current = null;
+        }
+        for (; nextUser < endUser; nextUser++) {
+            try {
+                for (RatingType rating : ratingsDataset.getUserRatingsRated(users[nextUser]).values()) {
+                    remaining--;
+                    action.accept(rating);
+                }
+            } catch (UserNotFound ex) {
+                ERROR_CODES.USER_NOT_FOUND.exit(ex);
+            }
+        }
+    }
+
+    /**
+     * Divide los usuarios aún no recorridos en dos rangos con un número de
+     * valoraciones similar. No se divide si ya se ha empezado a recorrer un
+     * usuario.
+     *
+     * @return Spliterator con la primera mitad de los usuarios, o null si no
+     * se puede dividir.
+     */
+    @Override
+    public Spliterator<RatingType> trySplit() {
+        if (current != null || endUser - nextUser < 2) {
+            return null;
+        }
+        long half = (offsets[nextUser] + offsets[endUser]) / 2;
+        int middle = Arrays.binarySearch(offsets, nextUser, endUser + 1, half);
+        if (middle < 0) {
+            middle = -middle - 1;
+        }
+        middle = Math.max(nextUser + 1, Math.min(endUser - 1, middle));
+
+        RatingsSpliterator<RatingType> prefix = new RatingsSpliterator<>(ratingsDataset, users, offsets, nextUser, middle);
+        nextUser = middle;
+        remaining -= prefix.remaining;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | SIZED | SUBSIZED;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.basic.rating;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Vector disperso de valoraciones de un usuario (o de un producto), almacenado
+ * en dos arrays primitivos paralelos ordenados por id. Permite recorrer y
+ * cruzar perfiles sin crear objetos {@link Rating} ni encapsular los ids.
+ *
+ * <p>
+ * Los arrays se devuelven sin copiar, por lo que no deben ser modificados.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class RatingsVector {
+
+    /**
+     * Vector sin valoraciones.
+     */
+    public static final RatingsVector EMPTY = new RatingsVector(new int[0], new double[0]);
+
+    private final int[] ids;
+    private final double[] values;
+
+    /**
+     * Crea el vector con los arrays indicados, sin copiarlos.
+     *
+     * @param ids Ids ordenados de forma ascendente y sin repeticiones.
+     * @param values Valor asociado a cada id.
+     */
+    public RatingsVector(int[] ids, double[] values) {
+        if (ids.length != values.length) {
+            throw new IllegalArgumentException("Ids and values have different length (" + ids.length + " != " + values.length + ")");
+        }
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i - 1] >= ids[i]) {
+                throw new IllegalArgumentException("Ids are not sorted or contain duplicates (" + ids[i - 1] + "," + ids[i] + ")");
+            }
+        }
+        this.ids = ids;
+        this.values = values;
+    }
+
+    /**
+     * Crea el vector a partir de las valoraciones indexadas por id, tal como
+     * las devuelve {@link RatingsDataset#getUserRatingsRated(java.lang.Integer)}.
+     *
+     * @param ratings Valoraciones indexadas por id.
+     * @return Vector con las valoraciones ordenadas por id.
+     */
+    public static RatingsVector of(Map<Integer, ? extends Rating> ratings) {
+        if (ratings.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[ratings.size()];
+        double[] values = new double[ratings.size()];
+        int i = 0;
+        boolean sorted = true;
+        for (Map.Entry<Integer, ? extends Rating> entry : ratings.entrySet()) {
+            ids[i] = entry.getKey();
+            values[i] = entry.getValue().getRatingValue().doubleValue();
+            sorted &= i == 0 || ids[i - 1] < ids[i];
+            i++;
+        }
+        if (!sorted) {
+            sortById(ids, values);
+        }
+        return new RatingsVector(ids, values);
+    }
+
+    private static void sortById(int[] ids, double[] values) {
+        long[] packed = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            //El id en la parte alta conserva el orden con signo, la parte baja es la posición.
+            packed[i] = ((long) ids[i] << 32) | i;
+        }
+        Arrays.sort(packed);
+        double[] valuesCopy = values.clone();
+        for (int i = 0; i < packed.length; i++) {
+            ids[i] = (int) (packed[i] >> 32);
+            values[i] = valuesCopy[(int) packed[i]];
+        }
+    }
+
+    /**
+     * Ids del vector, ordenados de forma ascendente.
+     *
+     * @return Array interno de ids, que no debe ser modificado.
+     */
+    public int[] getIds() {
+        return ids;
+    }
+
+    /**
+     * Valores del vector, en la misma posición que su id en {@link #getIds()}.
+     *
+     * @return Array interno de valores, que no debe ser modificado.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Busca el valor asociado a un id.
+     *
+     * @param id Id buscado.
+     * @return Valor asociado, o NaN si el id no está en el vector.
+     */
+    public double get(int id) {
+        int position = Arrays.binarySearch(ids, id);
+        return position < 0 ? Double.NaN : values[position];
+    }
+
+    /**
+     * Recorre el vector en orden ascendente de id.
+     *
+     * @param consumer Operación a aplicar a cada par (id, valor).
+     */
+    public void forEach(IntDoubleConsumer consumer) {
+        for (int i = 0; i < ids.length; i++) {
+            consumer.accept(ids[i], values[i]);
+        }
+    }
+
+    /**
+     * Calcula el número de ids que tienen en común ambos vectores, mediante la
+     * mezcla de los arrays ordenados.
+     *
+     * @param other Otro vector.
+     * @return Número de ids comunes.
+     */
+    public int intersectionSize(RatingsVector other) {
+        int count = 0;
+        int i = 0, j = 0;
+        while (i < ids.length && j < other.ids.length) {
+            if (ids[i] < other.ids[j]) {
+                i++;
+            } else if (ids[i] > other.ids[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Devuelve la media de los valores del vector.
+     *
+     * @return Media de los valores, o NaN si el vector está vacío.
+     */
+    public double mean() {
+        if (ids.length == 0) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof RatingsVector)) {
+            return false;
+        }
+        RatingsVector other = (RatingsVector) obj;
+        return Arrays.equals(ids, other.ids) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(ids) + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("{");
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                str.append(", ");
+            }
+            str.append(ids[i]).append("=").append(values[i]);
+        }
+        return str.append("}").toString();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.loaders.binary;
+
+import delfos.common.Global;
+import delfos.common.exceptions.dataset.CannotLoadContentDataset;
+import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
+import delfos.common.exceptions.dataset.CannotLoadUsersDataset;
+import delfos.common.filefilters.FileFilterByExtension;
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.FileParameter;
+import delfos.dataset.basic.item.ContentDataset;
+import delfos.dataset.basic.loader.types.ContentDatasetLoader;
+import delfos.dataset.basic.loader.types.DatasetLoaderAbstract;
+import delfos.dataset.basic.loader.types.RatingsDatasetLoader;
+import delfos.dataset.basic.loader.types.UsersDatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RelevanceCriteria;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.basic.user.UsersDataset;
+import delfos.dataset.basic.user.UsersDatasetAdapter;
+import delfos.dataset.storage.mapped.MappedRatingsDataset;
+import delfos.io.binary.dataset.DatasetToBinary;
+import delfos.io.binary.dataset.EntitiesDatasetToBinary;
+import java.io.File;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Carga los datasets guardados con {@link DatasetToBinary}. El dataset de
+ * valoraciones se proyecta en memoria, por lo que la carga es casi inmediata y
+ * las páginas del fichero se comparten entre las JVM que usan el mismo
+ * dataset en la misma máquina.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class BinaryFileDatasetLoader extends DatasetLoaderAbstract<Rating> implements RatingsDatasetLoader<Rating>, ContentDatasetLoader, UsersDatasetLoader {
+
+    private static final long serialVersionUID = 1L;
+    public final static Parameter RATINGS_FILE = new Parameter("Ratings_file", new FileParameter(new File(".." + File.separator + ".." + File.separator + "datasets" + File.separator + "" + "ratings.bin"), new FileFilterByExtension(DatasetToBinary.BINARY_EXTENSION)));
+    public final static Parameter CONTENT_FILE = new Parameter("Content_file", new FileParameter(new File(".." + File.separator + ".." + File.separator + "datasets" + File.separator + "" + "content.bin"), new FileFilterByExtension(DatasetToBinary.BINARY_EXTENSION)));
+    public final static Parameter USERS_FILE = new Parameter("Users_file", new FileParameter(new File(".." + File.separator + ".." + File.separator + "datasets" + File.separator + "" + "users.bin"), new FileFilterByExtension(DatasetToBinary.BINARY_EXTENSION)));
+
+    private MappedRatingsDataset ratingsDataset;
+    private ContentDataset contentDataset;
+    private UsersDataset usersDataset;
+
+    public BinaryFileDatasetLoader() {
+        addParameter(RATINGS_FILE);
+        addParameter(CONTENT_FILE);
+        addParameter(USERS_FILE);
+        addParammeterListener(() -> {
+            ratingsDataset = null;
+            contentDataset = null;
+            usersDataset = null;
+        });
+    }
+
+    public BinaryFileDatasetLoader(File ratingsFile, File contentFile, File usersFile) {
+        this();
+        setParameterValue(RATINGS_FILE, ratingsFile);
+        setParameterValue(CONTENT_FILE, contentFile);
+        setParameterValue(USERS_FILE, usersFile);
+    }
+
+    @Override
+    public synchronized RatingsDataset<Rating> getRatingsDataset() throws CannotLoadRatingsDataset {
+        if (ratingsDataset == null) {
+            ratingsDataset = new MappedRatingsDataset(getRatingsDatasetFile());
+        }
+        return ratingsDataset;
+    }
+
+    @Override
+    public synchronized ContentDataset getContentDataset() throws CannotLoadContentDataset {
+        if (contentDataset == null) {
+            contentDataset = new EntitiesDatasetToBinary().readContentDataset(getContentDatasetFile());
+        }
+        return contentDataset;
+    }
+
+    @Override
+    public synchronized UsersDataset getUsersDataset() throws CannotLoadUsersDataset {
+        if (usersDataset == null) {
+            try {
+                usersDataset = new EntitiesDatasetToBinary().readUsersDataset(getUsersDatasetFile());
+            } catch (CannotLoadUsersDataset ex) {
+                Global.showWarning("Fail at loading binary users dataset, generating usersDataset from ratingsDataset");
+                try {
+                    Set<User> users = getRatingsDataset()
+                            .allUsers().stream()
+                            .map((idUser) -> new User(idUser))
+                            .collect(Collectors.toSet());
+
+                    usersDataset = new UsersDatasetAdapter(users);
+                } catch (CannotLoadRatingsDataset ex1) {
+                    throw new CannotLoadUsersDataset(ex1);
+                }
+            }
+        }
+        return usersDataset;
+    }
+
+    @Override
+    public RelevanceCriteria getDefaultRelevanceCriteria() {
+        return new RelevanceCriteria(4);
+    }
+
+    public File getRatingsDatasetFile() {
+        return (File) getParameterValue(RATINGS_FILE);
+    }
+
+    public File getContentDatasetFile() {
+        return (File) getParameterValue(CONTENT_FILE);
+    }
+
+    public File getUsersDatasetFile() {
+        return (File) getParameterValue(USERS_FILE);
+    }
+}
@@ -30,20 +30,21 @@ import delfos.dataset.basic.loader.types.DatasetLoaderAbstract;
 import delfos.dataset.basic.loader.types.RatingsDatasetLoader;
 import delfos.dataset.basic.loader.types.UsersDatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsColumns;
 import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.dataset.basic.user.User;
 import delfos.dataset.basic.user.UsersDataset;
 import delfos.dataset.basic.user.UsersDatasetAdapter;
 import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.storage.memory.CompactMemoryRatingsDataset;
 import delfos.dataset.storage.memory.DefaultMemoryRatingsDataset_ItemIndexed;
 import delfos.dataset.storage.memory.DefaultMemoryRatingsDataset_ItemIndexed_withMaps;
 import delfos.dataset.storage.memory.DefaultMemoryRatingsDataset_UserIndexed;
 import delfos.dataset.storage.memory.DefaultMemoryRatingsDataset_UserIndexed_withMaps;
 import delfos.io.csv.dataset.item.ContentDatasetToCSV;
 import delfos.io.csv.dataset.item.DefaultContentDatasetToCSV;
-import delfos.io.csv.dataset.rating.RatingsDatasetToCSV;
-import delfos.io.csv.dataset.rating.RatingsDatasetToCSV_JavaCSV20;
+import delfos.io.csv.dataset.rating.RatingsDatasetToCSV_Streaming;
 import delfos.io.csv.dataset.user.DefaultUsersDatasetToCSV;
 import delfos.io.csv.dataset.user.UsersDatasetToCSV;
 import java.io.File;
@@ -70,13 +71,14 @@ public class CSVfileDatasetLoader extends DatasetLoaderAbstract<Rating> implemen
     public static final String INDEX_USERS_MAPS = "INDEX_USERS_MAPS";
     public static final String INDEX_ITEMS_MAPS = "INDEX_ITEMS_MAPS";
     public static final String INDEX_BOTH = "INDEX_BOTH";
+    public static final String INDEX_BOTH_COMPACT = "INDEX_BOTH_COMPACT";
     public final static Parameter RATINGS_FILE = new Parameter("Ratings_file", new FileParameter(new File(".." + File.separator + ".." + File.separator + "datasets" + File.separator + "" + "ratings.csv"), new FileFilterByExtension("csv")));
     public final static Parameter CONTENT_FILE = new Parameter("Content_file", new FileParameter(new File(".." + File.separator + ".." + File.separator + "datasets" + File.separator + "" + "content.csv"), new FileFilterByExtension("csv")));
     public final static Parameter USERS_FILE = new Parameter("Users_file", new FileParameter(new File(".." + File.separator + ".." + File.separator + "datasets" + File.separator + "" + "users.csv"), new FileFilterByExtension("csv")));
     public final static Parameter INDEXATION;
 
     static {
-        String indexOptions[] = {INDEX_NONE, INDEX_USERS, INDEX_ITEMS, INDEX_USERS_MAPS, INDEX_ITEMS_MAPS, INDEX_BOTH};
+        String indexOptions[] = {INDEX_NONE, INDEX_USERS, INDEX_ITEMS, INDEX_USERS_MAPS, INDEX_ITEMS_MAPS, INDEX_BOTH, INDEX_BOTH_COMPACT};
 
         INDEXATION = new Parameter("INDEXATION", new ObjectParameter(indexOptions, INDEX_BOTH), "Establece la indexación que se usará en el dataset de valoraciones una vez cargado en memoria.");
     }
@@ -133,8 +135,8 @@ public class CSVfileDatasetLoader extends DatasetLoaderAbstract<Rating> implemen
     public RatingsDataset<Rating> getRatingsDataset() throws CannotLoadRatingsDataset {
         if (ratingsDataset == null) {
             try {
-                RatingsDatasetToCSV ratingsDatasetToCSV = new RatingsDatasetToCSV_JavaCSV20();
-                Collection<Rating> ratings = ratingsDatasetToCSV.readRatingsDataset(getRatingsDatasetFile());
+                RatingsColumns ratingsColumns = new RatingsDatasetToCSV_Streaming().readRatingsColumns(getRatingsDatasetFile());
+                Collection<Rating> ratings = ratingsColumns.asRatings();
 
                 String indexationMode = getIndexationMode();
                 if (indexationMode.equals(INDEX_NONE)) {
@@ -149,6 +151,9 @@ public class CSVfileDatasetLoader extends DatasetLoaderAbstract<Rating> implemen
                 if (indexationMode.equals(INDEX_BOTH)) {
                     ratingsDataset = new BothIndexRatingsDataset(ratings);
                 }
+                if (indexationMode.equals(INDEX_BOTH_COMPACT)) {
+                    ratingsDataset = new CompactMemoryRatingsDataset(ratingsColumns);
+                }
                 if (indexationMode.equals(INDEX_USERS_MAPS)) {
                     ratingsDataset = new DefaultMemoryRatingsDataset_UserIndexed_withMaps(ratings);
                 }
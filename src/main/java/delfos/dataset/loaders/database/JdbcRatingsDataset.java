@@ -0,0 +1,334 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.loaders.database;
+
+import delfos.databaseconnections.ConnectionPool;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsColumns;
+import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.domain.DecimalDomain;
+import delfos.dataset.basic.rating.domain.Domain;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.storage.memory.CompactMemoryRatingsDataset;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dataset de valoraciones que se lee de una tabla de una base de datos
+ * mediante JDBC. Las consultas usan sentencias preparadas sobre un
+ * {@link ConnectionPool}, y los perfiles de usuarios y productos que se
+ * consultan se guardan en una caché de tamaño limitado, por lo que solo una
+ * parte del dataset reside en memoria. Los conjuntos de usuarios y productos y
+ * el número de valoraciones se consultan una sola vez.
+ *
+ * <p>
+ * Para trabajar con el dataset completo en memoria, {@link #loadAll()} lo lee
+ * con una única consulta cuyo resultado se recorre en streaming.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class JdbcRatingsDataset extends RatingsDatasetAdapter<Rating> implements AutoCloseable {
+
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+    public static final int DEFAULT_FETCH_SIZE = 10000;
+    /**
+     * Tamaño de lectura que hace que el conector de MySQL devuelva las filas
+     * en streaming en lugar de cargar todo el resultado en memoria.
+     */
+    public static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final ConnectionPool connectionPool;
+    private final RatingsTable ratingsTable;
+    private final ProfileCache userProfiles;
+    private final ProfileCache itemProfiles;
+    private volatile int fetchSize = DEFAULT_FETCH_SIZE;
+
+    private volatile Set<Integer> allUsers = null;
+    private volatile Set<Integer> allRatedItems = null;
+    private volatile Integer numRatings = null;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    public JdbcRatingsDataset(ConnectionPool connectionPool, RatingsTable ratingsTable) {
+        this(connectionPool, ratingsTable, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Crea el dataset.
+     *
+     * @param connectionPool Conexiones a la base de datos.
+     * @param ratingsTable Tabla que contiene las valoraciones.
+     * @param cacheSize Número máximo de perfiles de usuario, y de producto, que
+     * se guardan en memoria.
+     */
+    public JdbcRatingsDataset(ConnectionPool connectionPool, RatingsTable ratingsTable, int cacheSize) {
+        super();
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("The cache size cannot be negative: " + cacheSize);
+        }
+        this.connectionPool = connectionPool;
+        this.ratingsTable = ratingsTable;
+        this.userProfiles = new ProfileCache(cacheSize);
+        this.itemProfiles = new ProfileCache(cacheSize);
+    }
+
+    public RatingsTable getRatingsTable() {
+        return ratingsTable;
+    }
+
+    /**
+     * Establece el número de filas que se piden a la base de datos en cada
+     * lectura al cargar el dataset completo.
+     *
+     * @param fetchSize Número de filas por lectura, o
+     * {@link #MYSQL_STREAMING_FETCH_SIZE} para MySQL.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    @Override
+    public Rating getRating(int idUser, int idItem) {
+        return getUserRatingsRated(idUser).get(idItem);
+    }
+
+    @Override
+    public Set<Integer> allUsers() {
+        if (allUsers == null) {
+            allUsers = Collections.unmodifiableSet(selectIds(ratingsTable.selectDistinctUsers()));
+        }
+        return allUsers;
+    }
+
+    @Override
+    public Set<Integer> allRatedItems() {
+        if (allRatedItems == null) {
+            allRatedItems = Collections.unmodifiableSet(selectIds(ratingsTable.selectDistinctItems()));
+        }
+        return allRatedItems;
+    }
+
+    @Override
+    public Set<Integer> getUserRated(Integer idUser) {
+        return getUserRatingsRated(idUser).keySet();
+    }
+
+    @Override
+    public Set<Integer> getItemRated(Integer idItem) {
+        return getItemRatingsRated(idItem).keySet();
+    }
+
+    @Override
+    public Map<Integer, Rating> getUserRatingsRated(Integer idUser) {
+        Map<Integer, Rating> profile = userProfiles.get(idUser);
+        if (profile == null) {
+            cacheMisses.incrementAndGet();
+            profile = selectProfile(ratingsTable.selectUserRatings(), idUser, true);
+            userProfiles.put(idUser, profile);
+        } else {
+            cacheHits.incrementAndGet();
+        }
+        return profile;
+    }
+
+    @Override
+    public Map<Integer, Rating> getItemRatingsRated(Integer idItem) {
+        Map<Integer, Rating> profile = itemProfiles.get(idItem);
+        if (profile == null) {
+            cacheMisses.incrementAndGet();
+            profile = selectProfile(ratingsTable.selectItemRatings(), idItem, false);
+            itemProfiles.put(idItem, profile);
+        } else {
+            cacheHits.incrementAndGet();
+        }
+        return profile;
+    }
+
+    @Override
+    public int getNumRatings() {
+        if (numRatings == null) {
+            try (ConnectionPool.Lease lease = connectionPool.borrow()) {
+                PreparedStatement statement = lease.prepareStatement(ratingsTable.selectCount());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    numRatings = resultSet.getInt(1);
+                } catch (SQLException ex) {
+                    lease.markBroken();
+                    throw ex;
+                }
+            } catch (SQLException ex) {
+                connectionError(ex);
+                return -1;
+            }
+        }
+        return numRatings;
+    }
+
+    @Override
+    public Domain getRatingsDomain() {
+        return new DecimalDomain(1, 5);
+    }
+
+    /**
+     * Lee todas las valoraciones de la tabla con una sola consulta, cuyo
+     * resultado se recorre en streaming.
+     *
+     * @return Valoraciones de la tabla.
+     */
+    public RatingsColumns loadAll() {
+        try (ConnectionPool.Lease lease = connectionPool.borrow();
+                PreparedStatement statement = lease.getConnection().prepareStatement(
+                        ratingsTable.selectAll(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            statement.setFetchSize(fetchSize);
+            RatingsColumns ratings = new RatingsColumns();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ratings.add(resultSet.getInt(1), resultSet.getInt(2), resultSet.getDouble(3));
+                }
+            } catch (SQLException ex) {
+                lease.markBroken();
+                throw ex;
+            }
+            return ratings;
+        } catch (SQLException ex) {
+            connectionError(ex);
+            return null;
+        }
+    }
+
+    /**
+     * Carga todas las valoraciones de la tabla en un dataset en memoria.
+     *
+     * @return Dataset en memoria con las valoraciones de la tabla.
+     */
+    public CompactMemoryRatingsDataset toMemoryDataset() {
+        return new CompactMemoryRatingsDataset(loadAll());
+    }
+
+    /**
+     * Cierra las conexiones con la base de datos.
+     */
+    @Override
+    public void close() {
+        connectionPool.close();
+    }
+
+    private Set<Integer> selectIds(String query) {
+        Set<Integer> ids = new TreeSet<>();
+        try (ConnectionPool.Lease lease = connectionPool.borrow()) {
+            PreparedStatement statement = lease.prepareStatement(query);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getInt(1));
+                }
+            } catch (SQLException ex) {
+                lease.markBroken();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            connectionError(ex);
+            return null;
+        }
+        return ids;
+    }
+
+    private Map<Integer, Rating> selectProfile(String query, int id, boolean isUser) {
+        Map<Integer, Rating> profile = new TreeMap<>();
+        try (ConnectionPool.Lease lease = connectionPool.borrow()) {
+            PreparedStatement statement = lease.prepareStatement(query);
+            statement.setInt(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int otherId = resultSet.getInt(1);
+                    double value = resultSet.getDouble(2);
+                    profile.put(otherId, isUser ? new Rating(new User(id), new Item(otherId), value) : new Rating(new User(otherId), new Item(id), value));
+                }
+            } catch (SQLException ex) {
+                lease.markBroken();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            connectionError(ex);
+            return null;
+        }
+        return Collections.unmodifiableMap(profile);
+    }
+
+    /**
+     * Método provisional para manejar el error que se produce cuando hay un
+     * error SQL. Este error está casi siempre provocado por una pérdida de
+     * conexión con la base de datos.
+     *
+     * @param ex Excepción del error.
+     */
+    protected void connectionError(SQLException ex) {
+        throw new IllegalArgumentException(ex);
+    }
+
+    /**
+     * Caché de perfiles que descarta el menos usado recientemente al superar
+     * su tamaño máximo.
+     */
+    private static final class ProfileCache {
+
+        private final Map<Integer, Map<Integer, Rating>> profiles;
+
+        private ProfileCache(int maxSize) {
+            this.profiles = new LinkedHashMap<Integer, Map<Integer, Rating>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Map<Integer, Rating>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        private synchronized Map<Integer, Rating> get(int id) {
+            return profiles.get(id);
+        }
+
+        private synchronized void put(int id, Map<Integer, Rating> profile) {
+            profiles.put(id, profile);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.loaders.database;
+
+/**
+ * Describe la tabla de una base de datos en la que se almacenan las
+ * valoraciones y genera las consultas parametrizadas que se usan para leerla.
+ * Los nombres de tabla y columnas no pueden ser parámetros de una sentencia
+ * preparada, por lo que se fijan al crear el objeto.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RatingsTable {
+
+    /**
+     * Tabla de valoraciones por defecto, la que usa
+     * {@link DatabaseRatingsDataset}.
+     */
+    public static final RatingsTable DEFAULT = new RatingsTable("ratings", "idUser", "idItem", "rating");
+
+    private final String tableName;
+    private final String userColumn;
+    private final String itemColumn;
+    private final String ratingColumn;
+
+    public RatingsTable(String tableName, String userColumn, String itemColumn, String ratingColumn) {
+        this.tableName = checkIdentifier(tableName);
+        this.userColumn = checkIdentifier(userColumn);
+        this.itemColumn = checkIdentifier(itemColumn);
+        this.ratingColumn = checkIdentifier(ratingColumn);
+    }
+
+    private static String checkIdentifier(String identifier) {
+        if (identifier == null || !identifier.matches("[A-Za-z_][A-Za-z0-9_.]*")) {
+            throw new IllegalArgumentException("Not a valid SQL identifier: '" + identifier + "'");
+        }
+        return identifier;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getUserColumn() {
+        return userColumn;
+    }
+
+    public String getItemColumn() {
+        return itemColumn;
+    }
+
+    public String getRatingColumn() {
+        return ratingColumn;
+    }
+
+    public String selectUserRatings() {
+        return "SELECT " + itemColumn + ", " + ratingColumn + " FROM " + tableName + " WHERE " + userColumn + " = ?";
+    }
+
+    public String selectItemRatings() {
+        return "SELECT " + userColumn + ", " + ratingColumn + " FROM " + tableName + " WHERE " + itemColumn + " = ?";
+    }
+
+    public String selectDistinctUsers() {
+        return "SELECT DISTINCT " + userColumn + " FROM " + tableName;
+    }
+
+    public String selectDistinctItems() {
+        return "SELECT DISTINCT " + itemColumn + " FROM " + tableName;
+    }
+
+    public String selectCount() {
+        return "SELECT COUNT(*) FROM " + tableName;
+    }
+
+    public String selectAll() {
+        return "SELECT " + userColumn + ", " + itemColumn + ", " + ratingColumn + " FROM " + tableName;
+    }
+
+    @Override
+    public String toString() {
+        return tableName + "(" + userColumn + ", " + itemColumn + ", " + ratingColumn + ")";
+    }
+}
@@ -32,7 +32,7 @@ import delfos.dataset.basic.user.UsersDataset;
 import delfos.dataset.basic.user.UsersDatasetAdapter;
 import delfos.dataset.loaders.database.DatabaseContentDataset;
 import delfos.dataset.loaders.database.DatabaseRatingsDataset;
-import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.loaders.database.JdbcRatingsDataset;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.sql.SQLException;
@@ -64,10 +64,21 @@ public class DatabaseDatasetLoader extends MySQLDatabaseDatasetLoaderAbstract im
 
         addParammeterListener(() -> {
             mcd = null;
-            mrd = null;
+            closeRatingsDataset();
         });
     }
 
+    /**
+     * Descarta el dataset de valoraciones. Si no se ha cargado en memoria,
+     * cierra las conexiones que tiene abiertas con la base de datos.
+     */
+    private void closeRatingsDataset() {
+        if (mrd instanceof JdbcRatingsDataset) {
+            ((JdbcRatingsDataset) mrd).close();
+        }
+        mrd = null;
+    }
+
     /**
      * Construye el datasets de rating de una bbdd, archivo, etc.
      *
@@ -78,8 +89,9 @@ public class DatabaseDatasetLoader extends MySQLDatabaseDatasetLoaderAbstract im
 
         if (mrd == null) {
             if ((Boolean) getParameterValue(cache)) {
-                DatabaseRatingsDataset databaseRatingsDataset = new DatabaseRatingsDataset(getConnection());
-                mrd = new BothIndexRatingsDataset(databaseRatingsDataset);
+                try (DatabaseRatingsDataset databaseRatingsDataset = new DatabaseRatingsDataset(getConnection())) {
+                    mrd = databaseRatingsDataset.toMemoryDataset();
+                }
             } else {
                 mrd = new DatabaseRatingsDataset(getConnection());
             }
@@ -25,6 +25,7 @@ import delfos.databaseconnections.MySQLConnection;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingWithTimestamp;
 import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsFingerprint;
 import delfos.dataset.basic.rating.domain.Domain;
 import delfos.dataset.changeable.ChangeableRatingsDataset;
 import delfos.dataset.storage.memory.BothIndexRatingsDataset;
@@ -265,6 +266,11 @@ public final class ChangeableMySQLRatingsDataset implements RatingsDataset<Ratin
         return ratingsDataset.getMeanRating();
     }
 
+    @Override
+    public RatingsFingerprint getFingerprint() {
+        return ratingsDataset.getFingerprint();
+    }
+
     @Override
     public Iterator<Rating> iterator() {
         return new LockedIterator<>(ratingsDataset.iterator());
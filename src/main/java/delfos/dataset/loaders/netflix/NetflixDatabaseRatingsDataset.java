@@ -16,212 +16,43 @@
  */
 package delfos.dataset.loaders.netflix;
 
+import delfos.databaseconnections.ConnectionPool;
+import delfos.databaseconnections.DatabaseConection;
 import delfos.databaseconnections.MySQLConnection;
-import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDatasetAdapter;
 import delfos.dataset.basic.rating.domain.DecimalDomain;
 import delfos.dataset.basic.rating.domain.Domain;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import delfos.dataset.loaders.database.JdbcRatingsDataset;
+import delfos.dataset.loaders.database.RatingsTable;
 
 /**
  * Objeto que sirve de interfaz a la librería para acceder al dataset
  * proporcionado por netflix en el premio finalizado 21 de Septiembre de 2009
- * NOTA: no almacena ningún valor recuperado en memoria, por lo que los accesos
- * al dataset serán lentos. Es recomendable usar este dataset solo para casos
- * muy concretos de recomendación online, nunca en evaluación de algoritmos
+ * NOTA: sólo mantiene en memoria una caché de tamaño limitado de los perfiles
+ * consultados. Para evaluación de algoritmos, es recomendable cargarlo
+ * completo en memoria con {@link #toMemoryDataset()}.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
- * @version 1.1 (21-01-2013) Ahora implementa de {@link RatingsDatasetAdapter}
+ * @version 1.1 (21-01-2013) Ahora implementa de
+ * {@link delfos.dataset.basic.rating.RatingsDatasetAdapter}
  * @version 1.0 Unknow date
+ * @version 18-oct-2026 Usa sentencias preparadas y una caché de perfiles, a
+ * través de {@link JdbcRatingsDataset}.
  */
-public class NetflixDatabaseRatingsDataset extends RatingsDatasetAdapter {
+public class NetflixDatabaseRatingsDataset extends JdbcRatingsDataset {
 
-    private final MySQLConnection conexion;
-
-    public NetflixDatabaseRatingsDataset(MySQLConnection conexion) {
-        super();
-        this.conexion = conexion;
-    }
-
-    @Override
-    public Rating getRating(int idUser, int idItem) {
-        Integer ret = null;
-        try {
-
-            String query = "SELECT userID,puntuacion,itemID FROM netflix_ratings where userID = " + idUser + " and itemID = " + idItem + ";";
-            try (
-                    Statement statement = conexion.doConnection().createStatement();
-                    ResultSet rst = statement.executeQuery(query)) {
-                while (rst.next()) {
-                    ret = rst.getInt("puntuacion");
-                }
-            }
-        } catch (SQLException ex) {
-            connectionError(ex);
-            return null;
-        }
-        if (ret == null) {
-            return null;
-        } else {
-            return new Rating(idUser, idItem, ret);
-        }
-    }
-
-    @Override
-    public Set<Integer> allUsers() {
-        Set<Integer> ret = new TreeSet<>();
-        try {
-
-            String query = "select distinct userID from netflix_ratings;";
-            try (
-                    Statement statement = conexion.doConnection().createStatement();
-                    ResultSet rst = statement.executeQuery(query)) {
-
-                int i = 0;
-                while (rst.next()) {
-                    int idUser = rst.getInt("userID");
-                    ret.add(idUser);
-                    i++;
-                }
-            }
-        } catch (SQLException ex) {
-            connectionError(ex);
-            return null;
-        }
-
-        return ret;
-    }
-
-    @Override
-    public Set<Integer> allRatedItems() {
-        Set<Integer> items = new TreeSet<>();
-        try {
-
-            String query = "SELECT distinct itemID FROM netflix_ratings;";
-            try (
-                    Statement statement = conexion.doConnection().createStatement();
-                    ResultSet rst = statement.executeQuery(query)) {
-                while (rst.next()) {
-                    int idUser = rst.getInt("itemID");
-                    items.add(idUser);
-                }
-            }
-        } catch (SQLException ex) {
-            connectionError(ex);
-            return null;
-        }
-        return items;
-    }
-
-    @Override
-    public Set<Integer> getUserRated(Integer idUser) {
-        Set<Integer> valuedItems = new TreeSet<>();
-        try {
-
-            String query = "SELECT itemID FROM netflix_ratings WHERE userID = " + idUser + ";";
-            try (
-                    Statement statement = conexion.doConnection().createStatement();
-                    ResultSet rst = statement.executeQuery(query)) {
-                while (rst.next()) {
-                    int idItem = rst.getInt("itemID");
-                    valuedItems.add(idItem);
-                }
-            }
-        } catch (SQLException ex) {
-            connectionError(ex);
-            return null;
-        }
-        return valuedItems;
-    }
-
-    @Override
-    public Map<Integer, Rating> getUserRatingsRated(Integer idUser) {
-
-        Map<Integer, Rating> valuedItems = new TreeMap<>();
-        try {
-
-            String query = "SELECT itemID,puntuacion FROM netflix_ratings WHERE userID = " + idUser + ";";
-            try (
-                    Statement statement = conexion.doConnection().createStatement();
-                    ResultSet rst = statement.executeQuery(query)) {
-                while (rst.next()) {
-                    int idItem = rst.getInt("itemID");
-                    byte rating = rst.getByte("puntuacion");
-                    valuedItems.put(idItem, new Rating(idUser, idItem, rating));
-                }
-            }
-        } catch (SQLException ex) {
-            connectionError(ex);
-            return null;
-        }
-        return valuedItems;
-    }
-
-    @Override
-    public Set<Integer> getItemRated(Integer idItem) {
-        Set<Integer> users = new TreeSet<>();
-        try {
-
-            String query = "SELECT userID FROM netflix_ratings WHERE itemID = " + idItem + ";";
-            try (
-                    Statement statement = conexion.doConnection().createStatement();
-                    ResultSet rst = statement.executeQuery(query)) {
-                while (rst.next()) {
-                    int idUser = rst.getInt("userID");
-                    users.add(idUser);
-                }
-            }
-        } catch (SQLException ex) {
-            connectionError(ex);
-            return null;
-        }
-        return users;
-    }
-
-    @Override
-    public Map<Integer, Rating> getItemRatingsRated(Integer idItem) {
-
-        Map<Integer, Rating> usersRatings = new TreeMap<>();
-        try {
+    public static final RatingsTable NETFLIX_RATINGS_TABLE = new RatingsTable("netflix_ratings", "userID", "itemID", "puntuacion");
+    public static final DecimalDomain ratingDomain = new DecimalDomain(1, 5);
 
-            String query = "SELECT userID,puntuacion FROM netflix_ratings WHERE itemID = " + idItem + ";";
-            try (
-                    Statement statement = conexion.doConnection().createStatement();
-                    ResultSet rst = statement.executeQuery(query)) {
-                while (rst.next()) {
-                    int idUser = rst.getInt("userID");
-                    byte rating = rst.getByte("puntuacion");
-                    usersRatings.put(idUser, new Rating(idUser, idItem, rating));
-                }
-            }
-        } catch (SQLException ex) {
-            connectionError(ex);
-            return null;
+    public NetflixDatabaseRatingsDataset(DatabaseConection conexion) {
+        super(ConnectionPool.of(conexion), NETFLIX_RATINGS_TABLE);
+        if (conexion instanceof MySQLConnection) {
+            setFetchSize(MYSQL_STREAMING_FETCH_SIZE);
         }
-        return usersRatings;
     }
-    public static final DecimalDomain ratingDomain = new DecimalDomain(1, 5);
 
     @Override
     public Domain getRatingsDomain() {
         return ratingDomain;
     }
-
-    /**
-     * Método provisional para manejar el error que se produce cuando hay un
-     * error SQL. Este error está casi siempre provocado por una pérdida de
-     * conexión con la base de datos.
-     *
-     * @param ex Excepción del error.
-     */
-    protected void connectionError(SQLException ex) {
-        throw new IllegalArgumentException(ex);
-    }
 }
@@ -0,0 +1,562 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.mapped;
+
+import delfos.common.datastructures.SortedIntArraySet;
+import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
+import delfos.common.exceptions.dataset.items.ItemNotFound;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsSpliterator;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.basic.rating.domain.DecimalDomain;
+import delfos.dataset.basic.rating.domain.Domain;
+import delfos.dataset.basic.user.User;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+
+/**
+ * Dataset de valoraciones que se lee directamente de un fichero binario
+ * proyectado en memoria con {@link FileChannel#map}. Las valoraciones no se
+ * copian al heap: el sistema operativo carga las páginas del fichero según se
+ * consultan y las comparte entre todas las JVM de la máquina que abren el mismo
+ * fichero, por lo que la carga es casi inmediata.
+ *
+ * <p>
+ * El fichero contiene una cabecera, los diccionarios de ids de usuarios y
+ * productos, las valoraciones en formato CSR ordenadas por usuario y por
+ * producto y la suma de las valoraciones de cada usuario y producto. Se genera
+ * con {@link delfos.io.binary.dataset.RatingsDatasetToBinary}. Todos los
+ * valores se guardan en orden big-endian.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class MappedRatingsDataset extends RatingsDatasetAdapter<Rating> {
+
+    /**
+     * Número mágico del fichero, "DLFSRTNG" en ASCII.
+     */
+    public static final long MAGIC = 0x444C465352544E47L;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    /**
+     * Indica que los valores se guardan en precisión doble.
+     */
+    public static final int FLAG_DOUBLE_VALUES = 1;
+
+    /**
+     * Índices de las secciones del fichero, en el orden en que aparecen.
+     */
+    public static final int USER_IDS = 0;
+    public static final int ITEM_IDS = 1;
+    public static final int USER_OFFSETS = 2;
+    public static final int USER_COLUMNS = 3;
+    public static final int USER_VALUES = 4;
+    public static final int ITEM_OFFSETS = 5;
+    public static final int ITEM_COLUMNS = 6;
+    public static final int ITEM_VALUES = 7;
+    public static final int USER_SUMS = 8;
+    public static final int ITEM_SUMS = 9;
+    public static final int NUM_SECTIONS = 10;
+
+    private final File file;
+    private final int[] userIds;
+    private final int[] itemIds;
+    private final MappedRows byUser;
+    private final MappedRows byItem;
+    private final DoubleBuffer userSums;
+    private final DoubleBuffer itemSums;
+    private final int numRatings;
+    private final double meanRating;
+    private final double minRating;
+    private final double maxRating;
+
+    /**
+     * Proyecta en memoria el fichero indicado. Los diccionarios de ids se
+     * copian al heap y el resto de secciones se consultan en el fichero.
+     *
+     * @param file Fichero binario de valoraciones.
+     * @throws CannotLoadRatingsDataset Si el fichero no existe o no tiene el
+     * formato correcto.
+     */
+    public MappedRatingsDataset(File file) throws CannotLoadRatingsDataset {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new CannotLoadRatingsDataset("The file '" + file.getAbsolutePath() + "' is not a binary ratings dataset.");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getLong(0) != MAGIC) {
+                throw new CannotLoadRatingsDataset("The file '" + file.getAbsolutePath() + "' is not a binary ratings dataset.");
+            }
+            if (header.getInt(8) != VERSION) {
+                throw new CannotLoadRatingsDataset("Unsupported version " + header.getInt(8) + " of binary ratings dataset '" + file.getAbsolutePath() + "'");
+            }
+            boolean doubleValues = (header.getInt(12) & FLAG_DOUBLE_VALUES) != 0;
+            int numUsers = header.getInt(16);
+            int numItems = header.getInt(20);
+            numRatings = header.getInt(24);
+            meanRating = header.getDouble(32);
+            minRating = header.getDouble(40);
+            maxRating = header.getDouble(48);
+
+            long[] sectionOffsets = getSectionOffsets(numUsers, numItems, numRatings, doubleValues);
+            if (channel.size() < sectionOffsets[NUM_SECTIONS]) {
+                throw new CannotLoadRatingsDataset("The binary ratings dataset '" + file.getAbsolutePath() + "' is truncated.");
+            }
+            ByteBuffer[] sections = new ByteBuffer[NUM_SECTIONS];
+            for (int section = 0; section < NUM_SECTIONS; section++) {
+                sections[section] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        sectionOffsets[section],
+                        sectionOffsets[section + 1] - sectionOffsets[section]);
+            }
+
+            userIds = new int[numUsers];
+            sections[USER_IDS].asIntBuffer().get(userIds);
+            itemIds = new int[numItems];
+            sections[ITEM_IDS].asIntBuffer().get(itemIds);
+
+            byUser = new MappedRows(sections[USER_OFFSETS], sections[USER_COLUMNS], sections[USER_VALUES], doubleValues);
+            byItem = new MappedRows(sections[ITEM_OFFSETS], sections[ITEM_COLUMNS], sections[ITEM_VALUES], doubleValues);
+            userSums = sections[USER_SUMS].asDoubleBuffer();
+            itemSums = sections[ITEM_SUMS].asDoubleBuffer();
+        } catch (IOException ex) {
+            throw new CannotLoadRatingsDataset(ex);
+        }
+    }
+
+    /**
+     * Calcula la posición de cada sección del fichero. Cada sección empieza en
+     * una posición múltiplo de ocho.
+     *
+     * @param numUsers Número de usuarios.
+     * @param numItems Número de productos.
+     * @param numRatings Número de valoraciones.
+     * @param doubleValues Si los valores se guardan en precisión doble.
+     * @return Posición de inicio de cada sección y, en la última posición, el
+     * tamaño total del fichero.
+     */
+    public static long[] getSectionOffsets(int numUsers, int numItems, int numRatings, boolean doubleValues) {
+        long valueBytes = doubleValues ? Double.BYTES : Float.BYTES;
+
+        long[] sizes = new long[NUM_SECTIONS];
+        sizes[USER_IDS] = (long) numUsers * Integer.BYTES;
+        sizes[ITEM_IDS] = (long) numItems * Integer.BYTES;
+        sizes[USER_OFFSETS] = (long) (numUsers + 1) * Integer.BYTES;
+        sizes[USER_COLUMNS] = (long) numRatings * Integer.BYTES;
+        sizes[USER_VALUES] = numRatings * valueBytes;
+        sizes[ITEM_OFFSETS] = (long) (numItems + 1) * Integer.BYTES;
+        sizes[ITEM_COLUMNS] = (long) numRatings * Integer.BYTES;
+        sizes[ITEM_VALUES] = numRatings * valueBytes;
+        sizes[USER_SUMS] = (long) numUsers * Double.BYTES;
+        sizes[ITEM_SUMS] = (long) numItems * Double.BYTES;
+
+        long[] offsets = new long[NUM_SECTIONS + 1];
+        offsets[0] = HEADER_SIZE;
+        for (int section = 0; section < NUM_SECTIONS; section++) {
+            if (sizes[section] > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The dataset is too big for the binary format (section " + section + " has " + sizes[section] + " bytes)");
+            }
+            offsets[section + 1] = align(offsets[section] + sizes[section]);
+        }
+        return offsets;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Devuelve el valor mínimo de las valoraciones del fichero.
+     *
+     * @return Valoración mínima, o NaN si no hay valoraciones.
+     */
+    public double getMinRating() {
+        return minRating;
+    }
+
+    /**
+     * Devuelve el valor máximo de las valoraciones del fichero.
+     *
+     * @return Valoración máxima, o NaN si no hay valoraciones.
+     */
+    public double getMaxRating() {
+        return maxRating;
+    }
+
+    private int getUserIndex(int idUser) {
+        return Arrays.binarySearch(userIds, idUser);
+    }
+
+    private int getItemIndex(int idItem) {
+        return Arrays.binarySearch(itemIds, idItem);
+    }
+
+    @Override
+    public Rating getRating(int idUser, int idItem) {
+        int userIndex = getUserIndex(idUser);
+        int itemIndex = getItemIndex(idItem);
+        if (userIndex < 0 || itemIndex < 0) {
+            return null;
+        }
+        int position = byUser.find(userIndex, itemIndex);
+        if (position < 0) {
+            return null;
+        }
+        return new Rating(new User(idUser), new Item(idItem), byUser.value(position));
+    }
+
+    @Override
+    public Set<Integer> allUsers() {
+        return new SortedIntArraySet(userIds);
+    }
+
+    @Override
+    public Set<Integer> allRatedItems() {
+        return new SortedIntArraySet(itemIds);
+    }
+
+    @Override
+    public Set<Integer> getUserRated(Integer idUser) {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex < 0) {
+            return Collections.emptySet();
+        }
+        return new SortedIntArraySet(byUser.rowIds(userIndex, itemIds));
+    }
+
+    @Override
+    public Set<Integer> getItemRated(Integer idItem) {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex < 0) {
+            return Collections.emptySet();
+        }
+        return new SortedIntArraySet(byItem.rowIds(itemIndex, userIds));
+    }
+
+    @Override
+    public Map<Integer, Rating> getUserRatingsRated(Integer idUser) {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex < 0) {
+            return Collections.emptyMap();
+        }
+        return new RowRatings(userIndex, true);
+    }
+
+    @Override
+    public Map<Integer, Rating> getItemRatingsRated(Integer idItem) {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex < 0) {
+            return Collections.emptyMap();
+        }
+        return new RowRatings(itemIndex, false);
+    }
+
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex >= 0) {
+            byUser.forEachInRow(userIndex, itemIds, consumer);
+        }
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex >= 0) {
+            byItem.forEachInRow(itemIndex, userIds, consumer);
+        }
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) {
+        int userIndex = getUserIndex(idUser);
+        return userIndex < 0 ? RatingsVector.EMPTY : byUser.rowVector(userIndex, itemIds);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) {
+        int itemIndex = getItemIndex(idItem);
+        return itemIndex < 0 ? RatingsVector.EMPTY : byItem.rowVector(itemIndex, userIds);
+    }
+
+    @Override
+    public double getMeanRatingUser(int idUser) throws UserNotFound {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex < 0) {
+            throw new UserNotFound(idUser);
+        }
+        int size = byUser.rowSize(userIndex);
+        return size == 0 ? Double.NaN : userSums.get(userIndex) / size;
+    }
+
+    @Override
+    public double getMeanRatingItem(int idItem) throws ItemNotFound {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex < 0) {
+            throw new ItemNotFound(idItem);
+        }
+        int size = byItem.rowSize(itemIndex);
+        return size == 0 ? Double.NaN : itemSums.get(itemIndex) / size;
+    }
+
+    @Override
+    public double getMeanRating() {
+        return meanRating;
+    }
+
+    /**
+     * Devuelve el dominio entre la valoración mínima y máxima de la cabecera
+     * del fichero. Si no hay valoraciones o todas tienen el mismo valor, el
+     * dominio no se puede deducir y se devuelve [1,5], como
+     * {@link delfos.dataset.storage.memory.BothIndexRatingsDataset}.
+     *
+     * @return Dominio de valoración del dataset.
+     */
+    @Override
+    public Domain getRatingsDomain() {
+        if (minRating < maxRating) {
+            return new DecimalDomain(minRating, maxRating);
+        } else {
+            return new DecimalDomain(1, 5);
+        }
+    }
+
+    @Override
+    public Spliterator<Rating> spliterator() {
+        return new RatingsSpliterator<>(this);
+    }
+
+    @Override
+    public int getNumRatings() {
+        return numRatings;
+    }
+
+    @Override
+    public int sizeOfUserRatings(int idUser) {
+        int userIndex = getUserIndex(idUser);
+        return userIndex < 0 ? 0 : byUser.rowSize(userIndex);
+    }
+
+    @Override
+    public int sizeOfItemRatings(int idItem) {
+        int itemIndex = getItemIndex(idItem);
+        return itemIndex < 0 ? 0 : byItem.rowSize(itemIndex);
+    }
+
+    @Override
+    public boolean isRatedUser(int idUser) {
+        return sizeOfUserRatings(idUser) != 0;
+    }
+
+    @Override
+    public boolean isRatedItem(int idItem) {
+        return sizeOfItemRatings(idItem) != 0;
+    }
+
+    /**
+     * Vista de solo lectura de las valoraciones de una fila (usuario o
+     * producto), indexadas por el id de la columna. Las valoraciones se crean
+     * al acceder a ellas.
+     */
+    private final class RowRatings extends AbstractMap<Integer, Rating> {
+
+        private final int row;
+        private final boolean rowIsUser;
+        private final MappedRows rows;
+        private final int[] rowIds;
+        private final int[] columnIds;
+
+        private RowRatings(int row, boolean rowIsUser) {
+            this.row = row;
+            this.rowIsUser = rowIsUser;
+            this.rows = rowIsUser ? byUser : byItem;
+            this.rowIds = rowIsUser ? userIds : itemIds;
+            this.columnIds = rowIsUser ? itemIds : userIds;
+        }
+
+        private Rating ratingAt(int position) {
+            int idRow = rowIds[row];
+            int idColumn = columnIds[rows.columns.get(position)];
+            if (rowIsUser) {
+                return new Rating(new User(idRow), new Item(idColumn), rows.value(position));
+            } else {
+                return new Rating(new User(idColumn), new Item(idRow), rows.value(position));
+            }
+        }
+
+        private int positionOf(Object key) {
+            if (!(key instanceof Integer)) {
+                return -1;
+            }
+            int column = Arrays.binarySearch(columnIds, (Integer) key);
+            return column < 0 ? -1 : rows.find(row, column);
+        }
+
+        @Override
+        public Rating get(Object key) {
+            int position = positionOf(key);
+            return position < 0 ? null : ratingAt(position);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return positionOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return rows.rowSize(row);
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return new SortedIntArraySet(rows.rowIds(row, columnIds));
+        }
+
+        @Override
+        public Set<Entry<Integer, Rating>> entrySet() {
+            return new AbstractSet<Entry<Integer, Rating>>() {
+                @Override
+                public Iterator<Entry<Integer, Rating>> iterator() {
+                    return new Iterator<Entry<Integer, Rating>>() {
+                        private int position = rows.offsets.get(row);
+                        private final int end = rows.offsets.get(row + 1);
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < end;
+                        }
+
+                        @Override
+                        public Entry<Integer, Rating> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Rating rating = ratingAt(position);
+                            int id = columnIds[rows.columns.get(position)];
+                            position++;
+                            return new SimpleImmutableEntry<>(id, rating);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return rows.rowSize(row);
+                }
+            };
+        }
+    }
+
+    /**
+     * Matriz dispersa en formato CSR sobre las secciones proyectadas del
+     * fichero. Solo se usan lecturas absolutas, por lo que se puede consultar
+     * desde varios hilos a la vez.
+     */
+    private static final class MappedRows {
+
+        private final IntBuffer offsets;
+        private final IntBuffer columns;
+        private final FloatBuffer values;
+        private final DoubleBuffer exactValues;
+
+        private MappedRows(ByteBuffer offsets, ByteBuffer columns, ByteBuffer values, boolean doubleValues) {
+            this.offsets = offsets.asIntBuffer();
+            this.columns = columns.asIntBuffer();
+            this.values = doubleValues ? null : values.asFloatBuffer();
+            this.exactValues = doubleValues ? values.asDoubleBuffer() : null;
+        }
+
+        private double value(int position) {
+            return exactValues == null ? values.get(position) : exactValues.get(position);
+        }
+
+        private int rowSize(int row) {
+            return offsets.get(row + 1) - offsets.get(row);
+        }
+
+        private int find(int row, int column) {
+            int low = offsets.get(row);
+            int high = offsets.get(row + 1) - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleColumn = columns.get(middle);
+                if (middleColumn < column) {
+                    low = middle + 1;
+                } else if (middleColumn > column) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        private int[] rowIds(int row, int[] columnIds) {
+            int from = offsets.get(row);
+            int[] ids = new int[rowSize(row)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = columnIds[columns.get(from + i)];
+            }
+            return ids;
+        }
+
+        private void forEachInRow(int row, int[] columnIds, IntDoubleConsumer consumer) {
+            int end = offsets.get(row + 1);
+            for (int position = offsets.get(row); position < end; position++) {
+                consumer.accept(columnIds[columns.get(position)], value(position));
+            }
+        }
+
+        private RatingsVector rowVector(int row, int[] columnIds) {
+            int from = offsets.get(row);
+            int size = rowSize(row);
+            int[] ids = new int[size];
+            double[] rowValues = new double[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = columnIds[columns.get(from + i)];
+                rowValues[i] = value(from + i);
+            }
+            return new RatingsVector(ids, rowValues);
+        }
+    }
+}
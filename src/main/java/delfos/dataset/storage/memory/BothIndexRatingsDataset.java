@@ -18,14 +18,19 @@ package delfos.dataset.storage.memory;
 
 import delfos.ERROR_CODES;
 import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsSpliterator;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.basic.rating.domain.DecimalDomain;
 import delfos.dataset.basic.rating.domain.Domain;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.logging.Level;
@@ -47,6 +52,7 @@ public class BothIndexRatingsDataset<RatingType extends Rating> extends RatingsD
     protected Map<Integer, Map<Integer, RatingType>> userIndex = new TreeMap<>();
     protected Map<Integer, Map<Integer, RatingType>> itemIndex = new TreeMap<>();
     protected int numRatings = 0;
+    private RatingsFingerprint fingerprint = RatingsFingerprint.EMPTY;
 
     /**
      * Crea un dataset doblemente indexado (por usuarios y por productos) para
@@ -201,6 +207,17 @@ public class BothIndexRatingsDataset<RatingType extends Rating> extends RatingsD
             throw new IllegalArgumentException("User index and item index is different!");
         }
         numRatings++;
+        fingerprint = fingerprint.plus(idUser, idItem, rating.getRatingValue().doubleValue());
+    }
+
+    /**
+     * Devuelve la huella, que se actualiza con cada valoración añadida.
+     *
+     * @return Huella de las valoraciones del dataset.
+     */
+    @Override
+    public RatingsFingerprint getFingerprint() {
+        return fingerprint;
     }
 
     @Override
@@ -251,6 +268,53 @@ public class BothIndexRatingsDataset<RatingType extends Rating> extends RatingsD
         }
     }
 
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) {
+        forEach(userIndex.get(idUser), consumer);
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) {
+        forEach(itemIndex.get(idItem), consumer);
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) {
+        return toVector(userIndex.get(idUser));
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) {
+        return toVector(itemIndex.get(idItem));
+    }
+
+    /**
+     * Recorre uno de los índices, que son {@link TreeMap} y por tanto ya están
+     * ordenados por id.
+     */
+    private static void forEach(Map<Integer, ? extends Rating> ratings, IntDoubleConsumer consumer) {
+        if (ratings != null) {
+            for (Map.Entry<Integer, ? extends Rating> entry : ratings.entrySet()) {
+                consumer.accept(entry.getKey(), entry.getValue().getRatingValue().doubleValue());
+            }
+        }
+    }
+
+    private static RatingsVector toVector(Map<Integer, ? extends Rating> ratings) {
+        if (ratings == null || ratings.isEmpty()) {
+            return RatingsVector.EMPTY;
+        }
+        int[] ids = new int[ratings.size()];
+        double[] values = new double[ratings.size()];
+        int i = 0;
+        for (Map.Entry<Integer, ? extends Rating> entry : ratings.entrySet()) {
+            ids[i] = entry.getKey();
+            values[i] = entry.getValue().getRatingValue().doubleValue();
+            i++;
+        }
+        return new RatingsVector(ids, values);
+    }
+
     @Override
     public Domain getRatingsDomain() {
         return new DecimalDomain(1, 5);
@@ -259,7 +323,7 @@ public class BothIndexRatingsDataset<RatingType extends Rating> extends RatingsD
     @Override
     public boolean isRatedItem(int idItem) {
         if (itemIndex.containsKey(idItem)) {
-            return itemIndex.get(idItem).isEmpty();
+            return !itemIndex.get(idItem).isEmpty();
         } else {
             return false;
         }
@@ -268,12 +332,22 @@ public class BothIndexRatingsDataset<RatingType extends Rating> extends RatingsD
     @Override
     public boolean isRatedUser(int idUser) {
         if (userIndex.containsKey(idUser)) {
-            return userIndex.get(idUser).isEmpty();
+            return !userIndex.get(idUser).isEmpty();
         } else {
             return false;
         }
     }
 
+    /**
+     * Recorre las valoraciones por rangos de usuarios, sin sincronización.
+     *
+     * @return Spliterator de las valoraciones del dataset.
+     */
+    @Override
+    public Spliterator<RatingType> spliterator() {
+        return new RatingsSpliterator<>(this);
+    }
+
     @Override
     public int getNumRatings() {
         return numRatings;
@@ -0,0 +1,659 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.memory;
+
+import delfos.ERROR_CODES;
+import delfos.common.datastructures.SortedIntArraySet;
+import delfos.common.exceptions.dataset.items.ItemNotFound;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsColumns;
+import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsSpliterator;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.basic.rating.domain.DecimalDomain;
+import delfos.dataset.basic.rating.domain.Domain;
+import delfos.dataset.basic.user.User;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeMap;
+
+/**
+ * Dataset que almacena las valoraciones doblemente indexadas, por usuarios y por
+ * productos, en formato compacto CSR (compressed sparse rows). Los ids de
+ * usuarios y productos se traducen a índices densos y las valoraciones se
+ * guardan en arrays primitivos, por lo que no se mantiene ningún objeto
+ * {@link Rating} en memoria. Es intercambiable con
+ * {@link BothIndexRatingsDataset}, pero ocupa una fracción de su memoria.
+ *
+ * <p>
+ * Los objetos {@link Rating} que devuelven los métodos de consulta se crean bajo
+ * demanda, por lo que no se conserva el tipo concreto de las valoraciones de
+ * origen (por ejemplo, la marca de tiempo de {@code RatingWithTimestamp}). Los
+ * valores se almacenan en precisión simple, salvo que alguno no se pueda
+ * representar sin pérdida, en cuyo caso se usa precisión doble.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class CompactMemoryRatingsDataset extends RatingsDatasetAdapter<Rating> {
+
+    /**
+     * Ids de los usuarios, ordenados. La posición de cada id es su índice
+     * denso.
+     */
+    private final int[] userIds;
+    /**
+     * Ids de los productos, ordenados. La posición de cada id es su índice
+     * denso.
+     */
+    private final int[] itemIds;
+    private final User[] users;
+    private final Item[] items;
+    /**
+     * Valoraciones indexadas por usuario. Las columnas son índices densos de
+     * producto.
+     */
+    private final CompressedRows byUser;
+    /**
+     * Valoraciones indexadas por producto. Las columnas son índices densos de
+     * usuario.
+     */
+    private final CompressedRows byItem;
+    private final double meanRating;
+
+    /**
+     * Genera el dataset con las valoraciones de otro. Constructor por copia.
+     *
+     * @param ratingsDataset Dataset de origen.
+     */
+    public CompactMemoryRatingsDataset(RatingsDataset<? extends Rating> ratingsDataset) {
+        this(allRatings(ratingsDataset));
+    }
+
+    /**
+     * Crea el dataset con las valoraciones indicadas.
+     *
+     * @param ratings Valoraciones del dataset.
+     * @throws IllegalArgumentException Si una valoración de un usuario sobre un
+     * producto aparece repetida.
+     */
+    public CompactMemoryRatingsDataset(Collection<? extends Rating> ratings) {
+        this(new DenseRatings(ratings));
+    }
+
+    /**
+     * Crea el dataset con las valoraciones almacenadas por columnas, sin crear
+     * objetos {@link Rating} intermedios. El dataset se queda con los arrays
+     * de las columnas, que quedan vacías.
+     *
+     * @param ratings Valoraciones del dataset.
+     * @throws IllegalArgumentException Si una valoración de un usuario sobre un
+     * producto aparece repetida.
+     */
+    public CompactMemoryRatingsDataset(RatingsColumns ratings) {
+        this(new DenseRatings(ratings));
+    }
+
+    private CompactMemoryRatingsDataset(DenseRatings dense) {
+        userIds = dense.userIds;
+        itemIds = dense.itemIds;
+        users = dense.users;
+        items = dense.items;
+
+        boolean singlePrecision = true;
+        double sum = 0;
+        for (double value : dense.values) {
+            singlePrecision &= ((double) (float) value) == value;
+            sum += value;
+        }
+        meanRating = dense.values.length == 0 ? Double.NaN : sum / dense.values.length;
+
+        //Primero se agrupan por usuario, sin orden dentro de cada fila.
+        CompressedRows unsortedByUser = CompressedRows.group(userIds.length, dense.userIndexes, dense.itemIndexes, dense.values, singlePrecision);
+        //Al recorrer por usuarios, las filas de productos quedan ordenadas.
+        byItem = unsortedByUser.transpose(itemIds.length);
+        //Y al transponer de nuevo, las filas de usuarios quedan ordenadas.
+        byUser = byItem.transpose(userIds.length);
+
+        byUser.checkNoDuplicates(userIds, itemIds);
+    }
+
+    private static List<Rating> allRatings(RatingsDataset<? extends Rating> ratingsDataset) {
+        List<Rating> ratings = new ArrayList<>(ratingsDataset.getNumRatings());
+        for (int idUser : ratingsDataset.allUsers()) {
+            try {
+                ratings.addAll(ratingsDataset.getUserRatingsRated(idUser).values());
+            } catch (UserNotFound ex) {
+                ERROR_CODES.USER_NOT_FOUND.exit(ex);
+            }
+        }
+        return ratings;
+    }
+
+    /**
+     * Devuelve el índice denso de un usuario.
+     *
+     * @param idUser Id del usuario.
+     * @return Índice denso del usuario, o un valor negativo si el usuario no
+     * tiene valoraciones.
+     */
+    public int getUserIndex(int idUser) {
+        return Arrays.binarySearch(userIds, idUser);
+    }
+
+    /**
+     * Devuelve el índice denso de un producto.
+     *
+     * @param idItem Id del producto.
+     * @return Índice denso del producto, o un valor negativo si el producto no
+     * tiene valoraciones.
+     */
+    public int getItemIndex(int idItem) {
+        return Arrays.binarySearch(itemIds, idItem);
+    }
+
+    @Override
+    public Rating getRating(int idUser, int idItem) {
+        int userIndex = getUserIndex(idUser);
+        int itemIndex = getItemIndex(idItem);
+        if (userIndex < 0 || itemIndex < 0) {
+            return null;
+        }
+        int position = byUser.find(userIndex, itemIndex);
+        if (position < 0) {
+            return null;
+        }
+        return new Rating(users[userIndex], items[itemIndex], byUser.value(position));
+    }
+
+    @Override
+    public Set<Integer> allUsers() {
+        return new SortedIntArraySet(userIds);
+    }
+
+    @Override
+    public Set<Integer> allRatedItems() {
+        return new SortedIntArraySet(itemIds);
+    }
+
+    @Override
+    public Set<Integer> getUserRated(Integer idUser) {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex < 0) {
+            return Collections.emptySet();
+        }
+        return byUser.rowColumns(userIndex, itemIds);
+    }
+
+    @Override
+    public Set<Integer> getItemRated(Integer idItem) {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex < 0) {
+            return Collections.emptySet();
+        }
+        return byItem.rowColumns(itemIndex, userIds);
+    }
+
+    @Override
+    public Map<Integer, Rating> getUserRatingsRated(Integer idUser) {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex < 0) {
+            return Collections.emptyMap();
+        }
+        return new RowRatings(userIndex, true);
+    }
+
+    @Override
+    public Map<Integer, Rating> getItemRatingsRated(Integer idItem) {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex < 0) {
+            return Collections.emptyMap();
+        }
+        return new RowRatings(itemIndex, false);
+    }
+
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex >= 0) {
+            byUser.forEachInRow(userIndex, itemIds, consumer);
+        }
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex >= 0) {
+            byItem.forEachInRow(itemIndex, userIds, consumer);
+        }
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) {
+        int userIndex = getUserIndex(idUser);
+        return userIndex < 0 ? RatingsVector.EMPTY : byUser.rowVector(userIndex, itemIds);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) {
+        int itemIndex = getItemIndex(idItem);
+        return itemIndex < 0 ? RatingsVector.EMPTY : byItem.rowVector(itemIndex, userIds);
+    }
+
+    @Override
+    public double getMeanRatingUser(int idUser) throws UserNotFound {
+        int userIndex = getUserIndex(idUser);
+        if (userIndex < 0) {
+            throw new UserNotFound(idUser);
+        }
+        return byUser.rowMean(userIndex);
+    }
+
+    @Override
+    public double getMeanRatingItem(int idItem) throws ItemNotFound {
+        int itemIndex = getItemIndex(idItem);
+        if (itemIndex < 0) {
+            throw new ItemNotFound(idItem);
+        }
+        return byItem.rowMean(itemIndex);
+    }
+
+    @Override
+    public double getMeanRating() {
+        return meanRating;
+    }
+
+    /**
+     * Devuelve el mismo dominio que {@link BothIndexRatingsDataset}, para que
+     * ambas implementaciones sean intercambiables.
+     *
+     * @return Dominio de valoración del dataset.
+     */
+    @Override
+    public Domain getRatingsDomain() {
+        return new DecimalDomain(1, 5);
+    }
+
+    /**
+     * Recorre las valoraciones por rangos de usuarios, sin sincronización.
+     *
+     * @return Spliterator de las valoraciones del dataset.
+     */
+    @Override
+    public Spliterator<Rating> spliterator() {
+        return new RatingsSpliterator<>(this);
+    }
+
+    @Override
+    public int getNumRatings() {
+        return byUser.size();
+    }
+
+    @Override
+    public int sizeOfUserRatings(int idUser) {
+        int userIndex = getUserIndex(idUser);
+        return userIndex < 0 ? 0 : byUser.rowSize(userIndex);
+    }
+
+    @Override
+    public int sizeOfItemRatings(int idItem) {
+        int itemIndex = getItemIndex(idItem);
+        return itemIndex < 0 ? 0 : byItem.rowSize(itemIndex);
+    }
+
+    @Override
+    public boolean isRatedUser(int idUser) {
+        return sizeOfUserRatings(idUser) != 0;
+    }
+
+    @Override
+    public boolean isRatedItem(int idItem) {
+        return sizeOfItemRatings(idItem) != 0;
+    }
+
+    /**
+     * Vista de solo lectura de las valoraciones de una fila (usuario o
+     * producto), indexadas por el id de la columna. Las valoraciones se crean
+     * al acceder a ellas.
+     */
+    private final class RowRatings extends AbstractMap<Integer, Rating> {
+
+        private final int row;
+        private final boolean rowIsUser;
+        private final CompressedRows rows;
+        private final int[] columnIds;
+
+        private RowRatings(int row, boolean rowIsUser) {
+            this.row = row;
+            this.rowIsUser = rowIsUser;
+            this.rows = rowIsUser ? byUser : byItem;
+            this.columnIds = rowIsUser ? itemIds : userIds;
+        }
+
+        private Rating ratingAt(int position) {
+            int column = rows.columns[position];
+            if (rowIsUser) {
+                return new Rating(users[row], items[column], rows.value(position));
+            } else {
+                return new Rating(users[column], items[row], rows.value(position));
+            }
+        }
+
+        private int positionOf(Object key) {
+            if (!(key instanceof Integer)) {
+                return -1;
+            }
+            int column = Arrays.binarySearch(columnIds, (Integer) key);
+            return column < 0 ? -1 : rows.find(row, column);
+        }
+
+        @Override
+        public Rating get(Object key) {
+            int position = positionOf(key);
+            return position < 0 ? null : ratingAt(position);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return positionOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return rows.rowSize(row);
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return rows.rowColumns(row, columnIds);
+        }
+
+        @Override
+        public Set<Entry<Integer, Rating>> entrySet() {
+            return new AbstractSet<Entry<Integer, Rating>>() {
+                @Override
+                public Iterator<Entry<Integer, Rating>> iterator() {
+                    return new Iterator<Entry<Integer, Rating>>() {
+                        private int position = rows.offsets[row];
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < rows.offsets[row + 1];
+                        }
+
+                        @Override
+                        public Entry<Integer, Rating> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Rating rating = ratingAt(position);
+                            int id = columnIds[rows.columns[position]];
+                            position++;
+                            return new SimpleImmutableEntry<>(id, rating);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return rows.rowSize(row);
+                }
+            };
+        }
+    }
+
+    /**
+     * Matriz dispersa en formato CSR: las columnas y valores de la fila
+     * {@code r} ocupan las posiciones {@code [offsets[r], offsets[r+1])}.
+     */
+    static final class CompressedRows {
+
+        final int[] offsets;
+        final int[] columns;
+        final float[] values;
+        /**
+         * Valores en precisión doble. Solo se usan si alguna valoración no se
+         * puede representar en precisión simple, en cuyo caso {@link #values}
+         * es null.
+         */
+        final double[] exactValues;
+
+        private CompressedRows(int[] offsets, int[] columns, float[] values, double[] exactValues) {
+            this.offsets = offsets;
+            this.columns = columns;
+            this.values = values;
+            this.exactValues = exactValues;
+        }
+
+        private static CompressedRows allocate(int[] offsets, boolean singlePrecision) {
+            int size = offsets[offsets.length - 1];
+            return new CompressedRows(
+                    offsets,
+                    new int[size],
+                    singlePrecision ? new float[size] : null,
+                    singlePrecision ? null : new double[size]);
+        }
+
+        /**
+         * Agrupa los triples (fila, columna, valor) por fila, manteniendo el
+         * orden de aparición dentro de cada fila.
+         */
+        static CompressedRows group(int numRows, int[] rowIndexes, int[] columnIndexes, double[] values, boolean singlePrecision) {
+            int[] offsets = new int[numRows + 1];
+            for (int rowIndex : rowIndexes) {
+                offsets[rowIndex + 1]++;
+            }
+            for (int row = 0; row < numRows; row++) {
+                offsets[row + 1] += offsets[row];
+            }
+
+            CompressedRows ret = allocate(offsets, singlePrecision);
+            int[] next = Arrays.copyOf(offsets, numRows);
+            for (int i = 0; i < rowIndexes.length; i++) {
+                ret.set(next[rowIndexes[i]]++, columnIndexes[i], values[i]);
+            }
+            return ret;
+        }
+
+        /**
+         * Devuelve la matriz traspuesta. Como las filas se recorren en orden,
+         * las filas de la traspuesta quedan ordenadas por columna.
+         */
+        CompressedRows transpose(int numColumns) {
+            int[] transposedOffsets = new int[numColumns + 1];
+            for (int column : columns) {
+                transposedOffsets[column + 1]++;
+            }
+            for (int column = 0; column < numColumns; column++) {
+                transposedOffsets[column + 1] += transposedOffsets[column];
+            }
+
+            CompressedRows ret = allocate(transposedOffsets, exactValues == null);
+            int[] next = Arrays.copyOf(transposedOffsets, numColumns);
+            for (int row = 0; row < offsets.length - 1; row++) {
+                for (int position = offsets[row]; position < offsets[row + 1]; position++) {
+                    ret.set(next[columns[position]]++, row, value(position));
+                }
+            }
+            return ret;
+        }
+
+        private void set(int position, int column, double value) {
+            columns[position] = column;
+            if (exactValues == null) {
+                values[position] = (float) value;
+            } else {
+                exactValues[position] = value;
+            }
+        }
+
+        void checkNoDuplicates(int[] rowIds, int[] columnIds) {
+            for (int row = 0; row < offsets.length - 1; row++) {
+                for (int position = offsets[row] + 1; position < offsets[row + 1]; position++) {
+                    if (columns[position] == columns[position - 1]) {
+                        throw new IllegalArgumentException("The rating was already in the dataset ("
+                                + rowIds[row] + "," + columnIds[columns[position]] + ")");
+                    }
+                }
+            }
+        }
+
+        double value(int position) {
+            return exactValues == null ? values[position] : exactValues[position];
+        }
+
+        int find(int row, int column) {
+            int position = Arrays.binarySearch(columns, offsets[row], offsets[row + 1], column);
+            return position < 0 ? -1 : position;
+        }
+
+        int rowSize(int row) {
+            return offsets[row + 1] - offsets[row];
+        }
+
+        int size() {
+            return columns.length;
+        }
+
+        double rowMean(int row) {
+            if (rowSize(row) == 0) {
+                return Double.NaN;
+            }
+            double sum = 0;
+            for (int position = offsets[row]; position < offsets[row + 1]; position++) {
+                sum += value(position);
+            }
+            return sum / rowSize(row);
+        }
+
+        void forEachInRow(int row, int[] columnIds, IntDoubleConsumer consumer) {
+            for (int position = offsets[row]; position < offsets[row + 1]; position++) {
+                consumer.accept(columnIds[columns[position]], value(position));
+            }
+        }
+
+        RatingsVector rowVector(int row, int[] columnIds) {
+            int size = rowSize(row);
+            int[] ids = new int[size];
+            double[] rowValues = new double[size];
+            for (int i = 0, position = offsets[row]; i < size; i++, position++) {
+                ids[i] = columnIds[columns[position]];
+                rowValues[i] = value(position);
+            }
+            return new RatingsVector(ids, rowValues);
+        }
+
+        Set<Integer> rowColumns(int row, int[] columnIds) {
+            return new SortedIntArraySet(columns, offsets[row], offsets[row + 1], columnIds);
+        }
+    }
+
+    /**
+     * Valoraciones con los ids traducidos a índices densos, a partir de las
+     * que se construyen las filas comprimidas.
+     */
+    private static final class DenseRatings {
+
+        private final int[] userIds;
+        private final int[] itemIds;
+        private final User[] users;
+        private final Item[] items;
+        private final int[] userIndexes;
+        private final int[] itemIndexes;
+        private final double[] values;
+
+        private DenseRatings(Collection<? extends Rating> ratings) {
+            final int numRatings = ratings.size();
+
+            Map<Integer, User> usersById = new TreeMap<>();
+            Map<Integer, Item> itemsById = new TreeMap<>();
+            for (Rating rating : ratings) {
+                usersById.putIfAbsent(rating.getIdUser(), rating.getUser());
+                itemsById.putIfAbsent(rating.getIdItem(), rating.getItem());
+            }
+
+            userIds = usersById.keySet().stream().mapToInt(Integer::intValue).toArray();
+            itemIds = itemsById.keySet().stream().mapToInt(Integer::intValue).toArray();
+            users = usersById.values().toArray(new User[0]);
+            items = itemsById.values().toArray(new Item[0]);
+
+            userIndexes = new int[numRatings];
+            itemIndexes = new int[numRatings];
+            values = new double[numRatings];
+            int i = 0;
+            for (Rating rating : ratings) {
+                userIndexes[i] = Arrays.binarySearch(userIds, rating.getIdUser());
+                itemIndexes[i] = Arrays.binarySearch(itemIds, rating.getIdItem());
+                values[i] = rating.getRatingValue().doubleValue();
+                i++;
+            }
+        }
+
+        private DenseRatings(RatingsColumns ratings) {
+            RatingsColumns.Detached columns = ratings.detach();
+            final int numRatings = columns.values.length;
+
+            userIndexes = columns.idUsers;
+            itemIndexes = columns.idItems;
+            values = columns.values;
+
+            userIds = distinctSorted(userIndexes);
+            itemIds = distinctSorted(itemIndexes);
+            users = new User[userIds.length];
+            for (int index = 0; index < userIds.length; index++) {
+                users[index] = new User(userIds[index]);
+            }
+            items = new Item[itemIds.length];
+            for (int index = 0; index < itemIds.length; index++) {
+                items[index] = new Item(itemIds[index]);
+            }
+
+            //Se reutilizan los arrays de ids para guardar los índices densos.
+            for (int i = 0; i < numRatings; i++) {
+                userIndexes[i] = Arrays.binarySearch(userIds, userIndexes[i]);
+                itemIndexes[i] = Arrays.binarySearch(itemIds, itemIndexes[i]);
+            }
+        }
+
+        private static int[] distinctSorted(int[] ids) {
+            int[] sorted = ids.clone();
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.validationdatasets;
+
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Partición de validación definida como una máscara de bits sobre las
+ * valoraciones de un {@link BitmapRatingsStore}: el bit de una valoración está
+ * activo si pertenece al conjunto de test. El conjunto de entrenamiento y el de
+ * test comparten la misma máscara y el mismo almacén, sin copiar valoraciones.
+ *
+ * <p>
+ * Al crear la partición se calculan el número de valoraciones y la suma de sus
+ * valores en test para cada usuario y producto. Los de entrenamiento se
+ * obtienen restándolos de los totales del almacén.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class BitmapFold {
+
+    final BitmapRatingsStore store;
+    /**
+     * Conjunto de test a partir del que se creó la máscara. Se guarda para
+     * reconocer la partición cuando se pide el otro conjunto del par.
+     */
+    final Map<Integer, Set<Integer>> testSet;
+    final BitSet testMask;
+
+    final int[] testSizeByUser;
+    final int[] testSizeByItem;
+    final double[] testSumByUser;
+    final double[] testSumByItem;
+    final int testSize;
+    final double testSum;
+    /**
+     * Huella de las valoraciones de test. La de entrenamiento se obtiene
+     * restándola de la del almacén.
+     */
+    final RatingsFingerprint testFingerprint;
+
+    private int[] trainingItems;
+    private int[] testUsers;
+    private int[] testItems;
+
+    /**
+     * Crea la partición.
+     *
+     * @param store Almacén de valoraciones.
+     * @param testSet Productos de test de cada usuario.
+     * @throws IllegalArgumentException Si alguna valoración de test no está en
+     * el dataset original.
+     */
+    BitmapFold(BitmapRatingsStore store, Map<Integer, Set<Integer>> testSet) {
+        this.store = store;
+        this.testSet = testSet;
+        this.testMask = new BitSet(store.size());
+        this.testSizeByUser = new int[store.userIds.length];
+        this.testSumByUser = new double[store.userIds.length];
+        this.testSizeByItem = new int[store.itemIds.length];
+        this.testSumByItem = new double[store.itemIds.length];
+
+        int size = 0;
+        double sum = 0;
+        RatingsFingerprint fingerprint = RatingsFingerprint.EMPTY;
+        for (Map.Entry<Integer, Set<Integer>> entry : testSet.entrySet()) {
+            int idUser = entry.getKey();
+            int userIndex = store.userIndex(idUser);
+            for (int idItem : entry.getValue()) {
+                int itemIndex = store.itemIndex(idItem);
+                int position = (userIndex < 0 || itemIndex < 0) ? -1 : store.find(userIndex, itemIndex);
+                if (position < 0) {
+                    throw new IllegalArgumentException("Specified rating (idUser=" + idUser + ",idItem=" + idItem + ") not found in originalDataset");
+                }
+                if (!testMask.get(position)) {
+                    testMask.set(position);
+                    double value = store.values[position];
+                    testSizeByUser[userIndex]++;
+                    testSumByUser[userIndex] += value;
+                    testSizeByItem[itemIndex]++;
+                    testSumByItem[itemIndex] += value;
+                    size++;
+                    sum += value;
+                    fingerprint = fingerprint.plus(idUser, idItem, value);
+                }
+            }
+        }
+        this.testSize = size;
+        this.testSum = sum;
+        this.testFingerprint = fingerprint;
+    }
+
+    boolean isTest(int position) {
+        return testMask.get(position);
+    }
+
+    int trainingSizeOfUser(int userIndex) {
+        return store.userSize(userIndex) - testSizeByUser[userIndex];
+    }
+
+    int trainingSizeOfItem(int itemIndex) {
+        return store.itemSize(itemIndex) - testSizeByItem[itemIndex];
+    }
+
+    /**
+     * Ids ordenados de los productos con alguna valoración de entrenamiento.
+     */
+    synchronized int[] trainingItems() {
+        if (trainingItems == null) {
+            trainingItems = IntStream.range(0, store.itemIds.length)
+                    .filter(itemIndex -> trainingSizeOfItem(itemIndex) > 0)
+                    .map(itemIndex -> store.itemIds[itemIndex])
+                    .toArray();
+        }
+        return trainingItems;
+    }
+
+    /**
+     * Ids ordenados de los usuarios con alguna valoración de test.
+     */
+    synchronized int[] testUsers() {
+        if (testUsers == null) {
+            testUsers = IntStream.range(0, store.userIds.length)
+                    .filter(userIndex -> testSizeByUser[userIndex] > 0)
+                    .map(userIndex -> store.userIds[userIndex])
+                    .toArray();
+        }
+        return testUsers;
+    }
+
+    /**
+     * Ids ordenados de los productos con alguna valoración de test.
+     */
+    synchronized int[] testItems() {
+        if (testItems == null) {
+            testItems = IntStream.range(0, store.itemIds.length)
+                    .filter(itemIndex -> testSizeByItem[itemIndex] > 0)
+                    .map(itemIndex -> store.itemIds[itemIndex])
+                    .toArray();
+        }
+        return testItems;
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.validationdatasets;
+
+import delfos.common.exceptions.dataset.items.ItemNotFound;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsSpliterator;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.basic.rating.domain.Domain;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+
+/**
+ * Vista de las valoraciones de un {@link BitmapRatingsStore} que deja visibles
+ * las valoraciones de test o las de entrenamiento de una {@link BitmapFold}.
+ * Ninguna consulta copia valoraciones: los conjuntos y mapas que se devuelven
+ * son vistas de solo lectura que consultan la máscara de la partición, y los
+ * tamaños y medias están precalculados en la partición.
+ *
+ * <p>
+ * Los objetos {@link Rating} que se devuelven son los del dataset original,
+ * que se consultan al acceder a ellos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ * @param <RatingType>
+ */
+abstract class BitmapMaskedRatingsDataset<RatingType extends Rating> extends RatingsDatasetAdapter<RatingType> {
+
+    protected final RatingsDataset<RatingType> originalDataset;
+    protected final BitmapFold fold;
+    protected final BitmapRatingsStore store;
+    /**
+     * True si la vista muestra las valoraciones de test, false si muestra las
+     * de entrenamiento.
+     */
+    private final boolean showTest;
+
+    protected BitmapMaskedRatingsDataset(RatingsDataset<RatingType> originalDataset, BitmapFold fold, boolean showTest) {
+        if (fold.store.originalDataset != originalDataset) {
+            throw new IllegalArgumentException("The fold was not created over the given dataset");
+        }
+        this.originalDataset = originalDataset;
+        this.fold = fold;
+        this.store = fold.store;
+        this.showTest = showTest;
+    }
+
+    protected final boolean isVisible(int position) {
+        return fold.isTest(position) == showTest;
+    }
+
+    protected final int visibleSizeOfUser(int userIndex) {
+        return showTest ? fold.testSizeByUser[userIndex] : fold.trainingSizeOfUser(userIndex);
+    }
+
+    protected final int visibleSizeOfItem(int itemIndex) {
+        return showTest ? fold.testSizeByItem[itemIndex] : fold.trainingSizeOfItem(itemIndex);
+    }
+
+    private int userIndexOrThrow(int idUser) throws UserNotFound {
+        int userIndex = store.userIndex(idUser);
+        if (userIndex < 0) {
+            throw new UserNotFound(idUser);
+        }
+        return userIndex;
+    }
+
+    private int itemIndexOrThrow(int idItem) throws ItemNotFound {
+        int itemIndex = store.itemIndex(idItem);
+        if (itemIndex < 0) {
+            throw new ItemNotFound(idItem);
+        }
+        return itemIndex;
+    }
+
+    @Override
+    public RatingType getRating(int idUser, int idItem) throws UserNotFound, ItemNotFound {
+        int userIndex = store.userIndex(idUser);
+        int itemIndex = store.itemIndex(idItem);
+        if (userIndex < 0 || itemIndex < 0) {
+            return null;
+        }
+        int position = store.find(userIndex, itemIndex);
+        if (position < 0 || !isVisible(position)) {
+            return null;
+        }
+        return originalDataset.getRating(idUser, idItem);
+    }
+
+    @Override
+    public Set<Integer> getUserRated(Integer idUser) throws UserNotFound {
+        return getUserRatingsRated(idUser).keySet();
+    }
+
+    @Override
+    public Set<Integer> getItemRated(Integer idItem) throws ItemNotFound {
+        return getItemRatingsRated(idItem).keySet();
+    }
+
+    @Override
+    public Map<Integer, RatingType> getUserRatingsRated(Integer idUser) throws UserNotFound {
+        return new RowRatings(userIndexOrThrow(idUser), true);
+    }
+
+    @Override
+    public Map<Integer, RatingType> getItemRatingsRated(Integer idItem) throws ItemNotFound {
+        return new RowRatings(itemIndexOrThrow(idItem), false);
+    }
+
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) throws UserNotFound {
+        int userIndex = userIndexOrThrow(idUser);
+        for (int position = store.userOffsets[userIndex]; position < store.userOffsets[userIndex + 1]; position++) {
+            if (isVisible(position)) {
+                consumer.accept(store.itemIds[store.itemColumns[position]], store.values[position]);
+            }
+        }
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) throws ItemNotFound {
+        int itemIndex = itemIndexOrThrow(idItem);
+        for (int itemPosition = store.itemOffsets[itemIndex]; itemPosition < store.itemOffsets[itemIndex + 1]; itemPosition++) {
+            int position = store.userPositions[itemPosition];
+            if (isVisible(position)) {
+                consumer.accept(store.userIds[store.userColumns[itemPosition]], store.values[position]);
+            }
+        }
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) throws UserNotFound {
+        int userIndex = userIndexOrThrow(idUser);
+        int size = visibleSizeOfUser(userIndex);
+        int[] ids = new int[size];
+        double[] values = new double[size];
+        int i = 0;
+        for (int position = store.userOffsets[userIndex]; position < store.userOffsets[userIndex + 1]; position++) {
+            if (isVisible(position)) {
+                ids[i] = store.itemIds[store.itemColumns[position]];
+                values[i] = store.values[position];
+                i++;
+            }
+        }
+        return new RatingsVector(ids, values);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) throws ItemNotFound {
+        int itemIndex = itemIndexOrThrow(idItem);
+        int size = visibleSizeOfItem(itemIndex);
+        int[] ids = new int[size];
+        double[] values = new double[size];
+        int i = 0;
+        for (int itemPosition = store.itemOffsets[itemIndex]; itemPosition < store.itemOffsets[itemIndex + 1]; itemPosition++) {
+            int position = store.userPositions[itemPosition];
+            if (isVisible(position)) {
+                ids[i] = store.userIds[store.userColumns[itemPosition]];
+                values[i] = store.values[position];
+                i++;
+            }
+        }
+        return new RatingsVector(ids, values);
+    }
+
+    /**
+     * Valoración media del usuario en esta vista. Como en
+     * {@link RatingsDatasetAdapter#getMeanRatingUser(int)}, si el usuario no
+     * tiene valoraciones visibles se devuelve cero.
+     */
+    @Override
+    public double getMeanRatingUser(int idUser) throws UserNotFound {
+        int userIndex = userIndexOrThrow(idUser);
+        int size = visibleSizeOfUser(userIndex);
+        if (size == 0) {
+            return 0;
+        }
+        double sum = showTest
+                ? fold.testSumByUser[userIndex]
+                : store.userSums[userIndex] - fold.testSumByUser[userIndex];
+        return sum / size;
+    }
+
+    /**
+     * Valoración media del producto en esta vista. Como en
+     * {@link RatingsDatasetAdapter#getMeanRatingItem(int)}, si el producto no
+     * tiene valoraciones visibles se devuelve cero.
+     */
+    @Override
+    public double getMeanRatingItem(int idItem) throws ItemNotFound {
+        int itemIndex = itemIndexOrThrow(idItem);
+        int size = visibleSizeOfItem(itemIndex);
+        if (size == 0) {
+            return 0;
+        }
+        double sum = showTest
+                ? fold.testSumByItem[itemIndex]
+                : store.itemSums[itemIndex] - fold.testSumByItem[itemIndex];
+        return sum / size;
+    }
+
+    @Override
+    public double getMeanRating() {
+        int size = getNumRatings();
+        if (size == 0) {
+            return Double.NaN;
+        }
+        return (showTest ? fold.testSum : store.sum - fold.testSum) / size;
+    }
+
+    @Override
+    public RatingsFingerprint getFingerprint() {
+        return showTest ? fold.testFingerprint : store.fingerprint.minus(fold.testFingerprint);
+    }
+
+    /**
+     * Recorre las valoraciones por rangos de usuarios, sin sincronización.
+     *
+     * @return Spliterator de las valoraciones del dataset.
+     */
+    @Override
+    public Spliterator<RatingType> spliterator() {
+        return new RatingsSpliterator<>(this);
+    }
+
+    @Override
+    public int getNumRatings() {
+        return showTest ? fold.testSize : store.size() - fold.testSize;
+    }
+
+    @Override
+    public int sizeOfUserRatings(int idUser) throws UserNotFound {
+        int userIndex = store.userIndex(idUser);
+        return userIndex < 0 ? 0 : visibleSizeOfUser(userIndex);
+    }
+
+    @Override
+    public int sizeOfItemRatings(int idItem) throws ItemNotFound {
+        int itemIndex = store.itemIndex(idItem);
+        return itemIndex < 0 ? 0 : visibleSizeOfItem(itemIndex);
+    }
+
+    @Override
+    public boolean isRatedUser(int idUser) throws UserNotFound {
+        return sizeOfUserRatings(idUser) != 0;
+    }
+
+    @Override
+    public boolean isRatedItem(int idItem) throws ItemNotFound {
+        return sizeOfItemRatings(idItem) != 0;
+    }
+
+    @Override
+    public Domain getRatingsDomain() {
+        return originalDataset.getRatingsDomain();
+    }
+
+    public RatingsDataset<RatingType> getOriginalDataset() {
+        return originalDataset;
+    }
+
+    /**
+     * Vista de solo lectura de las valoraciones visibles de un usuario o un
+     * producto, indexadas por el id de la otra entidad.
+     */
+    private final class RowRatings extends AbstractMap<Integer, RatingType> {
+
+        private final int row;
+        private final boolean rowIsUser;
+        private final int from;
+        private final int to;
+
+        private RowRatings(int row, boolean rowIsUser) {
+            this.row = row;
+            this.rowIsUser = rowIsUser;
+            this.from = rowIsUser ? store.userOffsets[row] : store.itemOffsets[row];
+            this.to = rowIsUser ? store.userOffsets[row + 1] : store.itemOffsets[row + 1];
+        }
+
+        /**
+         * Posición en el índice por usuarios de la entrada indicada de la fila.
+         */
+        private int ratingPosition(int entry) {
+            return rowIsUser ? entry : store.userPositions[entry];
+        }
+
+        private int idAt(int entry) {
+            return rowIsUser
+                    ? store.itemIds[store.itemColumns[entry]]
+                    : store.userIds[store.userColumns[entry]];
+        }
+
+        private RatingType ratingAt(int entry) {
+            int id = idAt(entry);
+            try {
+                return rowIsUser
+                        ? originalDataset.getRating(store.userIds[row], id)
+                        : originalDataset.getRating(id, store.itemIds[row]);
+            } catch (UserNotFound | ItemNotFound ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        private int entryOf(Object key) {
+            if (!(key instanceof Integer)) {
+                return -1;
+            }
+            int column = rowIsUser
+                    ? store.itemIndex((Integer) key)
+                    : store.userIndex((Integer) key);
+            if (column < 0) {
+                return -1;
+            }
+            int entry = Arrays.binarySearch(rowIsUser ? store.itemColumns : store.userColumns, from, to, column);
+            return (entry < 0 || !isVisible(ratingPosition(entry))) ? -1 : entry;
+        }
+
+        private int nextVisible(int entry) {
+            while (entry < to && !isVisible(ratingPosition(entry))) {
+                entry++;
+            }
+            return entry;
+        }
+
+        @Override
+        public RatingType get(Object key) {
+            int entry = entryOf(key);
+            return entry < 0 ? null : ratingAt(entry);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return entryOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return rowIsUser ? visibleSizeOfUser(row) : visibleSizeOfItem(row);
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return new AbstractSet<Integer>() {
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+
+                @Override
+                public Iterator<Integer> iterator() {
+                    return new Iterator<Integer>() {
+                        private int entry = nextVisible(from);
+
+                        @Override
+                        public boolean hasNext() {
+                            return entry < to;
+                        }
+
+                        @Override
+                        public Integer next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int id = idAt(entry);
+                            entry = nextVisible(entry + 1);
+                            return id;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return RowRatings.this.size();
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<Integer, RatingType>> entrySet() {
+            return new AbstractSet<Entry<Integer, RatingType>>() {
+                @Override
+                public Iterator<Entry<Integer, RatingType>> iterator() {
+                    return new Iterator<Entry<Integer, RatingType>>() {
+                        private int entry = nextVisible(from);
+
+                        @Override
+                        public boolean hasNext() {
+                            return entry < to;
+                        }
+
+                        @Override
+                        public Entry<Integer, RatingType> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<Integer, RatingType> ret = new SimpleImmutableEntry<>(idAt(entry), ratingAt(entry));
+                            entry = nextVisible(entry + 1);
+                            return ret;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return RowRatings.this.size();
+                }
+            };
+        }
+    }
+}
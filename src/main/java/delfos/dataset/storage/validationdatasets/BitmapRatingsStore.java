@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.validationdatasets;
+
+import delfos.ERROR_CODES;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
+import java.util.Arrays;
+
+/**
+ * Copia compacta (CSR) de las valoraciones de un dataset, indexada por usuario
+ * y por producto, sobre la que se definen las particiones de validación con
+ * {@link BitmapFold}. Se construye una sola vez por dataset original y la
+ * comparten todas las particiones y todos los conjuntos de entrenamiento y test
+ * que se generan sobre él.
+ *
+ * <p>
+ * Cada valoración se identifica por su posición en el índice por usuarios. El
+ * índice por productos guarda, para cada entrada, esa posición, de manera que
+ * una misma máscara de bits sirve para ambos índices.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class BitmapRatingsStore {
+
+    final RatingsDataset<? extends Rating> originalDataset;
+
+    /**
+     * Ids de usuarios y productos ordenados. La posición es el índice denso.
+     */
+    final int[] userIds;
+    final int[] itemIds;
+
+    /**
+     * Índice por usuarios: las valoraciones del usuario {@code u} ocupan las
+     * posiciones {@code [userOffsets[u], userOffsets[u+1])}, ordenadas por
+     * producto.
+     */
+    final int[] userOffsets;
+    final int[] itemColumns;
+    final double[] values;
+
+    /**
+     * Índice por productos: las valoraciones del producto {@code i} ocupan las
+     * posiciones {@code [itemOffsets[i], itemOffsets[i+1])}, ordenadas por
+     * usuario. {@link #userPositions} indica la posición de cada entrada en el
+     * índice por usuarios.
+     */
+    final int[] itemOffsets;
+    final int[] userColumns;
+    final int[] userPositions;
+
+    final double[] userSums;
+    final double[] itemSums;
+    final double sum;
+    final RatingsFingerprint fingerprint;
+
+    BitmapRatingsStore(RatingsDataset<? extends Rating> originalDataset) {
+        this.originalDataset = originalDataset;
+
+        userIds = originalDataset.allUsers().stream().mapToInt(Integer::intValue).sorted().toArray();
+        itemIds = originalDataset.allRatedItems().stream().mapToInt(Integer::intValue).sorted().toArray();
+
+        RatingsVector[] userRatings = new RatingsVector[userIds.length];
+        userOffsets = new int[userIds.length + 1];
+        for (int userIndex = 0; userIndex < userIds.length; userIndex++) {
+            try {
+                userRatings[userIndex] = originalDataset.getUserRatingsVector(userIds[userIndex]);
+            } catch (UserNotFound ex) {
+                ERROR_CODES.USER_NOT_FOUND.exit(ex);
+                throw new IllegalStateException(ex);
+            }
+            userOffsets[userIndex + 1] = userOffsets[userIndex] + userRatings[userIndex].size();
+        }
+
+        final int numRatings = userOffsets[userIds.length];
+        itemColumns = new int[numRatings];
+        values = new double[numRatings];
+        userSums = new double[userIds.length];
+        itemOffsets = new int[itemIds.length + 1];
+        double totalSum = 0;
+        for (int userIndex = 0; userIndex < userIds.length; userIndex++) {
+            int[] ids = userRatings[userIndex].getIds();
+            double[] userValues = userRatings[userIndex].getValues();
+            for (int i = 0; i < ids.length; i++) {
+                int position = userOffsets[userIndex] + i;
+                int itemIndex = Arrays.binarySearch(itemIds, ids[i]);
+                if (itemIndex < 0) {
+                    throw new IllegalStateException("Item " + ids[i] + " rated by user " + userIds[userIndex] + " is not in the rated items of the dataset");
+                }
+                itemColumns[position] = itemIndex;
+                values[position] = userValues[i];
+                userSums[userIndex] += userValues[i];
+                itemOffsets[itemIndex + 1]++;
+            }
+            totalSum += userSums[userIndex];
+            userRatings[userIndex] = null;
+        }
+        sum = totalSum;
+        fingerprint = originalDataset.getFingerprint();
+
+        for (int itemIndex = 0; itemIndex < itemIds.length; itemIndex++) {
+            itemOffsets[itemIndex + 1] += itemOffsets[itemIndex];
+        }
+
+        //Al recorrer por usuarios en orden, las filas de cada producto quedan ordenadas por usuario.
+        userColumns = new int[numRatings];
+        userPositions = new int[numRatings];
+        itemSums = new double[itemIds.length];
+        int[] next = Arrays.copyOf(itemOffsets, itemIds.length);
+        for (int userIndex = 0; userIndex < userIds.length; userIndex++) {
+            for (int position = userOffsets[userIndex]; position < userOffsets[userIndex + 1]; position++) {
+                int itemIndex = itemColumns[position];
+                int itemPosition = next[itemIndex]++;
+                userColumns[itemPosition] = userIndex;
+                userPositions[itemPosition] = position;
+                itemSums[itemIndex] += values[position];
+            }
+        }
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    int userIndex(int idUser) {
+        return Arrays.binarySearch(userIds, idUser);
+    }
+
+    int itemIndex(int idItem) {
+        return Arrays.binarySearch(itemIds, idItem);
+    }
+
+    int userSize(int userIndex) {
+        return userOffsets[userIndex + 1] - userOffsets[userIndex];
+    }
+
+    int itemSize(int itemIndex) {
+        return itemOffsets[itemIndex + 1] - itemOffsets[itemIndex];
+    }
+
+    /**
+     * Posición de la valoración en el índice por usuarios.
+     *
+     * @return Posición, o -1 si el usuario no ha valorado el producto.
+     */
+    int find(int userIndex, int itemIndex) {
+        int position = Arrays.binarySearch(itemColumns, userOffsets[userIndex], userOffsets[userIndex + 1], itemIndex);
+        return position < 0 ? -1 : position;
+    }
+}
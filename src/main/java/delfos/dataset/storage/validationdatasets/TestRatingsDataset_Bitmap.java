@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.validationdatasets;
+
+import delfos.common.datastructures.SortedIntArraySet;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import java.util.Set;
+
+/**
+ * Conjunto de test de una partición de validación representada con una máscara
+ * de bits. Deja visibles únicamente las valoraciones del conjunto de test, sin
+ * copiarlas.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ * @param <RatingType>
+ * @see ValidationDatasets.Backend#BITMAP
+ */
+public class TestRatingsDataset_Bitmap<RatingType extends Rating>
+        extends BitmapMaskedRatingsDataset<RatingType>
+        implements TestRatingsDataset<RatingType> {
+
+    TestRatingsDataset_Bitmap(RatingsDataset<RatingType> originalDataset, BitmapFold fold) {
+        super(originalDataset, fold, true);
+    }
+
+    @Override
+    public Set<Integer> allUsers() {
+        return new SortedIntArraySet(fold.testUsers());
+    }
+
+    @Override
+    public Set<Integer> allRatedItems() {
+        return new SortedIntArraySet(fold.testItems());
+    }
+}
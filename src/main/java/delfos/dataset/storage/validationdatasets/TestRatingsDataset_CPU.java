@@ -20,10 +20,14 @@ import delfos.ERROR_CODES;
 import delfos.common.Global;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.basic.rating.domain.Domain;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -47,6 +51,10 @@ public class TestRatingsDataset_CPU<RatingType extends Rating> extends RatingsDa
      * Valoraciones de test. Son las valoraciones que son accesibles.
      */
     private final Map<Integer, Set<Integer>> testRatings_byUser;
+    /**
+     * Conjunto de test en arrays ordenados, para filtrar sin copiar mapas.
+     */
+    private final TestSetIndex testSetIndex;
     /**
      * Dataset original que contiene el conjunto de datos completo.
      */
@@ -61,6 +69,7 @@ public class TestRatingsDataset_CPU<RatingType extends Rating> extends RatingsDa
         this.originalDataset = originalDatset;
 
         this.testRatings_byUser = testSet;
+        this.testSetIndex = new TestSetIndex(testSet);
         for (int idUser : testSet.keySet()) {
             for (int idItem : testSet.get(idUser)) {
                 if (originalDatset.getRating(idUser, idItem) == null) {
@@ -174,11 +183,59 @@ public class TestRatingsDataset_CPU<RatingType extends Rating> extends RatingsDa
         return ret;
     }
 
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) throws UserNotFound {
+        if (!testRatings_byUser.containsKey(idUser)) {
+            super.forEachUserRating(idUser, consumer);
+            return;
+        }
+        final int[] itemsInTestSet = testSetIndex.itemsOf(idUser);
+        originalDataset.forEachUserRating(idUser, (idItem, value) -> {
+            if (Arrays.binarySearch(itemsInTestSet, idItem) >= 0) {
+                consumer.accept(idItem, value);
+            }
+        });
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) throws ItemNotFound {
+        final int[] usersInTestSet = testSetIndex.usersOf(idItem);
+        if (usersInTestSet.length != 0) {
+            originalDataset.forEachItemRating(idItem, (idUser, value) -> {
+                if (Arrays.binarySearch(usersInTestSet, idUser) >= 0) {
+                    consumer.accept(idUser, value);
+                }
+            });
+        }
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) throws UserNotFound {
+        if (!testRatings_byUser.containsKey(idUser)) {
+            return super.getUserRatingsVector(idUser);
+        }
+        return TestSetIndex.filter(originalDataset.getUserRatingsVector(idUser), testSetIndex.itemsOf(idUser), true);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) throws ItemNotFound {
+        final int[] usersInTestSet = testSetIndex.usersOf(idItem);
+        if (usersInTestSet.length == 0) {
+            return RatingsVector.EMPTY;
+        }
+        return TestSetIndex.filter(originalDataset.getItemRatingsVector(idItem), usersInTestSet, true);
+    }
+
     @Override
     public Domain getRatingsDomain() {
         return originalDataset.getRatingsDomain();
     }
 
+    @Override
+    protected RatingsFingerprint computeFingerprint() {
+        return RatingsFingerprint.compute(originalDataset, testRatings_byUser);
+    }
+
     @Override
     public RatingsDataset<RatingType> getOriginalDataset() {
         return originalDataset;
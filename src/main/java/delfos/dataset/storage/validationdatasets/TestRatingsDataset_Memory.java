@@ -23,9 +23,12 @@ import java.util.Map;
 import java.util.Set;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.storage.memory.BothIndexRatingsDataset;
 import delfos.dataset.basic.rating.domain.DecimalDomain;
 import delfos.dataset.basic.rating.domain.Domain;
@@ -117,11 +120,36 @@ public class TestRatingsDataset_Memory<RatingType extends Rating> extends Rating
         return testRatingsDataset.getItemRatingsRated(idItem);
     }
 
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) {
+        testRatingsDataset.forEachUserRating(idUser, consumer);
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) {
+        testRatingsDataset.forEachItemRating(idItem, consumer);
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) {
+        return testRatingsDataset.getUserRatingsVector(idUser);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) {
+        return testRatingsDataset.getItemRatingsVector(idItem);
+    }
+
     @Override
     public Domain getRatingsDomain() {
         return testRatingsDataset.getRatingsDomain();
     }
 
+    @Override
+    public RatingsFingerprint getFingerprint() {
+        return testRatingsDataset.getFingerprint();
+    }
+
     @Override
     public RatingsDataset<RatingType> getOriginalDataset() {
         return originalRatingsDataset;
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.validationdatasets;
+
+import delfos.dataset.basic.rating.RatingsVector;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conjunto de test indexado por usuario y por producto en arrays ordenados,
+ * para filtrar las valoraciones del dataset original sin copiar mapas ni
+ * encapsular ids.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class TestSetIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Integer, int[]> itemsByUser;
+    private final Map<Integer, int[]> usersByItem;
+
+    TestSetIndex(Map<Integer, Set<Integer>> testSet) {
+        Map<Integer, int[]> itemsByUserBuilder = new HashMap<>();
+        Map<Integer, Integer> numUsersByItem = new HashMap<>();
+        for (Map.Entry<Integer, Set<Integer>> entry : testSet.entrySet()) {
+            int[] items = entry.getValue().stream().mapToInt(Integer::intValue).sorted().toArray();
+            itemsByUserBuilder.put(entry.getKey(), items);
+            for (int idItem : items) {
+                numUsersByItem.merge(idItem, 1, Integer::sum);
+            }
+        }
+
+        Map<Integer, int[]> usersByItemBuilder = new HashMap<>();
+        Map<Integer, Integer> next = new HashMap<>();
+        numUsersByItem.forEach((idItem, numUsers) -> {
+            usersByItemBuilder.put(idItem, new int[numUsers]);
+            next.put(idItem, 0);
+        });
+        for (Map.Entry<Integer, int[]> entry : itemsByUserBuilder.entrySet()) {
+            for (int idItem : entry.getValue()) {
+                int position = next.merge(idItem, 1, Integer::sum) - 1;
+                usersByItemBuilder.get(idItem)[position] = entry.getKey();
+            }
+        }
+        usersByItemBuilder.values().forEach(Arrays::sort);
+
+        this.itemsByUser = Collections.unmodifiableMap(itemsByUserBuilder);
+        this.usersByItem = Collections.unmodifiableMap(usersByItemBuilder);
+    }
+
+    /**
+     * Productos de test del usuario, ordenados.
+     */
+    int[] itemsOf(int idUser) {
+        return itemsByUser.getOrDefault(idUser, EMPTY);
+    }
+
+    /**
+     * Usuarios de test del producto, ordenados.
+     */
+    int[] usersOf(int idItem) {
+        return usersByItem.getOrDefault(idItem, EMPTY);
+    }
+
+    /**
+     * Devuelve el vector con los elementos cuyo id está (o no está, según
+     * {@code keepMembers}) en el array ordenado de ids.
+     */
+    static RatingsVector filter(RatingsVector vector, int[] sortedIds, boolean keepMembers) {
+        if (sortedIds.length == 0) {
+            return keepMembers ? RatingsVector.EMPTY : vector;
+        }
+        int[] ids = vector.getIds();
+        double[] values = vector.getValues();
+        int[] filteredIds = new int[ids.length];
+        double[] filteredValues = new double[ids.length];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < ids.length; i++) {
+            while (j < sortedIds.length && sortedIds[j] < ids[i]) {
+                j++;
+            }
+            boolean member = j < sortedIds.length && sortedIds[j] == ids[i];
+            if (member == keepMembers) {
+                filteredIds[size] = ids[i];
+                filteredValues[size] = values[i];
+                size++;
+            }
+        }
+        return new RatingsVector(Arrays.copyOf(filteredIds, size), Arrays.copyOf(filteredValues, size));
+    }
+}
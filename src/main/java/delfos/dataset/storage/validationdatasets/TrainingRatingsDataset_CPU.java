@@ -19,10 +19,14 @@ package delfos.dataset.storage.validationdatasets;
 import delfos.common.Global;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.basic.rating.domain.Domain;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -45,6 +49,10 @@ public class TrainingRatingsDataset_CPU<RatingType extends Rating>
         implements TrainingRatingsDataset<RatingType> {
 
     private final Map<Integer, Set<Integer>> testRatings_byUser;
+    /**
+     * Conjunto de test en arrays ordenados, para filtrar sin copiar mapas.
+     */
+    private final TestSetIndex testSetIndex;
     private final RatingsDataset<RatingType> originalDataset;
     private Set<Integer> allRatedItems;
     /**
@@ -57,6 +65,7 @@ public class TrainingRatingsDataset_CPU<RatingType extends Rating>
         super();
         this.originalDataset = originalDataset;
         this.testRatings_byUser = testSet;
+        this.testSetIndex = new TestSetIndex(testSet);
         for (int idUser : testSet.keySet()) {
             for (int idItem : testSet.get(idUser)) {
                 if (originalDataset.getRating(idUser, idItem) == null) {
@@ -155,11 +164,58 @@ public class TrainingRatingsDataset_CPU<RatingType extends Rating>
         }
     }
 
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) throws UserNotFound {
+        final int[] itemsInTestSet = testSetIndex.itemsOf(idUser);
+        if (itemsInTestSet.length == 0) {
+            originalDataset.forEachUserRating(idUser, consumer);
+        } else {
+            originalDataset.forEachUserRating(idUser, (idItem, value) -> {
+                if (Arrays.binarySearch(itemsInTestSet, idItem) < 0) {
+                    consumer.accept(idItem, value);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) throws ItemNotFound {
+        final int[] usersInTestSet = testSetIndex.usersOf(idItem);
+        if (usersInTestSet.length == 0) {
+            originalDataset.forEachItemRating(idItem, consumer);
+        } else {
+            originalDataset.forEachItemRating(idItem, (idUser, value) -> {
+                if (Arrays.binarySearch(usersInTestSet, idUser) < 0) {
+                    consumer.accept(idUser, value);
+                }
+            });
+        }
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) throws UserNotFound {
+        return TestSetIndex.filter(originalDataset.getUserRatingsVector(idUser), testSetIndex.itemsOf(idUser), false);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) throws ItemNotFound {
+        return TestSetIndex.filter(originalDataset.getItemRatingsVector(idItem), testSetIndex.usersOf(idItem), false);
+    }
+
     @Override
     public Domain getRatingsDomain() {
         return originalDataset.getRatingsDomain();
     }
 
+    /**
+     * La huella es la del dataset original menos la de las valoraciones de
+     * test, por lo que sólo se consultan éstas.
+     */
+    @Override
+    protected RatingsFingerprint computeFingerprint() {
+        return originalDataset.getFingerprint().minus(RatingsFingerprint.compute(originalDataset, testRatings_byUser));
+    }
+
     @Override
     public RatingsDataset<RatingType> getOriginalDataset() {
         return originalDataset;
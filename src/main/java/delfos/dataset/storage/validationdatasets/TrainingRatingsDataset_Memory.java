@@ -26,9 +26,12 @@ import java.util.TreeMap;
 import delfos.common.Global;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.storage.memory.BothIndexRatingsDataset;
 import delfos.dataset.basic.rating.domain.DecimalDomain;
 import delfos.dataset.basic.rating.domain.Domain;
@@ -136,11 +139,36 @@ public class TrainingRatingsDataset_Memory<RatingType extends Rating> extends Ra
         return trainingRatingsDataset.getItemRatingsRated(idItem);
     }
 
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) {
+        trainingRatingsDataset.forEachUserRating(idUser, consumer);
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) {
+        trainingRatingsDataset.forEachItemRating(idItem, consumer);
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) {
+        return trainingRatingsDataset.getUserRatingsVector(idUser);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) {
+        return trainingRatingsDataset.getItemRatingsVector(idItem);
+    }
+
     @Override
     public Domain getRatingsDomain() {
         return trainingRatingsDataset.getRatingsDomain();
     }
 
+    @Override
+    public RatingsFingerprint getFingerprint() {
+        return trainingRatingsDataset.getFingerprint();
+    }
+
     @Override
     public RatingsDataset<RatingType> getOriginalDataset() {
         return originalRatingsDataset;
@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.dataset.storage.validationdatasets;
+
+import delfos.common.exceptions.dataset.items.ItemNotFound;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.IntDoubleConsumer;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsDatasetAdapter;
+import delfos.dataset.basic.rating.RatingsFingerprint;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.basic.rating.domain.Domain;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Dataset que oculta algunas valoraciones de un único usuario del dataset
+ * original. Se usa en la fase de predicción de los casos de estudio, donde se
+ * crea uno por cada petición de recomendaciones: su construcción sólo ordena
+ * los productos ocultos y las consultas sobre el resto de usuarios se delegan
+ * directamente en el dataset original.
+ *
+ * <p>
+ * A diferencia de {@link TrainingRatingsDataset_CPU}, no comprueba que las
+ * valoraciones ocultas existan en el dataset original: un producto que el
+ * usuario no ha valorado no tiene nada que ocultar.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ * @param <RatingType>
+ */
+public class UserHiddenItemsRatingsDataset<RatingType extends Rating>
+        extends RatingsDatasetAdapter<RatingType>
+        implements TrainingRatingsDataset<RatingType> {
+
+    private final RatingsDataset<RatingType> originalDataset;
+    private final int idUser;
+    /**
+     * Productos ocultos, ordenados.
+     */
+    private final int[] hiddenItems;
+    /**
+     * Valoraciones ocultas que existen en el dataset original. Se calculan la
+     * primera vez que se necesitan.
+     */
+    private volatile List<RatingType> hiddenRatings = null;
+    private Set<Integer> allRatedItems = null;
+
+    /**
+     * Crea el dataset.
+     *
+     * @param originalDataset Dataset original.
+     * @param idUser Usuario cuyas valoraciones se ocultan.
+     * @param hiddenItems Productos del usuario que se ocultan.
+     */
+    public UserHiddenItemsRatingsDataset(RatingsDataset<RatingType> originalDataset, int idUser, Collection<Integer> hiddenItems) {
+        super();
+        this.originalDataset = originalDataset;
+        this.idUser = idUser;
+        this.hiddenItems = hiddenItems.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+    }
+
+    public int getIdUser() {
+        return idUser;
+    }
+
+    private boolean isHidden(int idUser, int idItem) {
+        return idUser == this.idUser && Arrays.binarySearch(hiddenItems, idItem) >= 0;
+    }
+
+    private boolean isHiddenItem(int idItem) {
+        return Arrays.binarySearch(hiddenItems, idItem) >= 0;
+    }
+
+    private List<RatingType> hiddenRatings() {
+        List<RatingType> ret = hiddenRatings;
+        if (ret == null) {
+            ret = new ArrayList<>(hiddenItems.length);
+            if (originalDataset.allUsers().contains(idUser)) {
+                Map<Integer, RatingType> userRatings = originalDataset.getUserRatingsRated(idUser);
+                for (int idItem : hiddenItems) {
+                    RatingType rating = userRatings.get(idItem);
+                    if (rating != null) {
+                        ret.add(rating);
+                    }
+                }
+            }
+            hiddenRatings = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    public RatingType getRating(int idUser, int idItem) throws UserNotFound, ItemNotFound {
+        if (isHidden(idUser, idItem)) {
+            return null;
+        } else {
+            return originalDataset.getRating(idUser, idItem);
+        }
+    }
+
+    @Override
+    public Set<Integer> allUsers() {
+        return originalDataset.allUsers();
+    }
+
+    /**
+     * Los productos valorados son los del dataset original, salvo los que sólo
+     * tenían la valoración oculta.
+     */
+    @Override
+    public synchronized Set<Integer> allRatedItems() {
+        if (allRatedItems == null) {
+            Set<Integer> itemsWithoutRatings = new TreeSet<>();
+            for (RatingType rating : hiddenRatings()) {
+                if (originalDataset.sizeOfItemRatings(rating.getIdItem()) == 1) {
+                    itemsWithoutRatings.add(rating.getIdItem());
+                }
+            }
+            if (itemsWithoutRatings.isEmpty()) {
+                allRatedItems = originalDataset.allRatedItems();
+            } else {
+                Set<Integer> ret = new TreeSet<>(originalDataset.allRatedItems());
+                ret.removeAll(itemsWithoutRatings);
+                allRatedItems = Collections.unmodifiableSet(ret);
+            }
+        }
+        return allRatedItems;
+    }
+
+    @Override
+    public Set<Integer> getUserRated(Integer idUser) throws UserNotFound {
+        if (idUser != this.idUser) {
+            return originalDataset.getUserRated(idUser);
+        }
+        return getUserRatingsRated(idUser).keySet();
+    }
+
+    @Override
+    public Map<Integer, RatingType> getUserRatingsRated(Integer idUser) throws UserNotFound {
+        if (idUser != this.idUser) {
+            return originalDataset.getUserRatingsRated(idUser);
+        }
+
+        TreeMap<Integer, RatingType> ret = new TreeMap<>(originalDataset.getUserRatingsRated(idUser));
+        for (int idItem : hiddenItems) {
+            ret.remove(idItem);
+        }
+        return ret;
+    }
+
+    @Override
+    public Set<Integer> getItemRated(Integer idItem) throws ItemNotFound {
+        if (!isHiddenItem(idItem)) {
+            return originalDataset.getItemRated(idItem);
+        }
+        return getItemRatingsRated(idItem).keySet();
+    }
+
+    @Override
+    public Map<Integer, RatingType> getItemRatingsRated(Integer idItem) throws ItemNotFound {
+        if (!isHiddenItem(idItem)) {
+            return originalDataset.getItemRatingsRated(idItem);
+        }
+
+        TreeMap<Integer, RatingType> ret = new TreeMap<>(originalDataset.getItemRatingsRated(idItem));
+        ret.remove(idUser);
+        return ret;
+    }
+
+    @Override
+    public void forEachUserRating(int idUser, IntDoubleConsumer consumer) throws UserNotFound {
+        if (idUser != this.idUser) {
+            originalDataset.forEachUserRating(idUser, consumer);
+        } else {
+            originalDataset.forEachUserRating(idUser, (idItem, value) -> {
+                if (!isHiddenItem(idItem)) {
+                    consumer.accept(idItem, value);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void forEachItemRating(int idItem, IntDoubleConsumer consumer) throws ItemNotFound {
+        if (!isHiddenItem(idItem)) {
+            originalDataset.forEachItemRating(idItem, consumer);
+        } else {
+            originalDataset.forEachItemRating(idItem, (idUser, value) -> {
+                if (idUser != this.idUser) {
+                    consumer.accept(idUser, value);
+                }
+            });
+        }
+    }
+
+    @Override
+    public RatingsVector getUserRatingsVector(int idUser) throws UserNotFound {
+        if (idUser != this.idUser) {
+            return originalDataset.getUserRatingsVector(idUser);
+        }
+        return TestSetIndex.filter(originalDataset.getUserRatingsVector(idUser), hiddenItems, false);
+    }
+
+    @Override
+    public RatingsVector getItemRatingsVector(int idItem) throws ItemNotFound {
+        if (!isHiddenItem(idItem)) {
+            return originalDataset.getItemRatingsVector(idItem);
+        }
+        return TestSetIndex.filter(originalDataset.getItemRatingsVector(idItem), new int[]{idUser}, false);
+    }
+
+    @Override
+    public int sizeOfUserRatings(int idUser) throws UserNotFound {
+        if (idUser != this.idUser) {
+            return originalDataset.sizeOfUserRatings(idUser);
+        }
+        return originalDataset.sizeOfUserRatings(idUser) - hiddenRatings().size();
+    }
+
+    @Override
+    public int sizeOfItemRatings(int idItem) throws ItemNotFound {
+        int size = originalDataset.sizeOfItemRatings(idItem);
+        if (isHiddenItem(idItem)) {
+            for (RatingType rating : hiddenRatings()) {
+                if (rating.getIdItem() == idItem) {
+                    size--;
+                }
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int getNumRatings() {
+        return originalDataset.getNumRatings() - hiddenRatings().size();
+    }
+
+    @Override
+    public double getMeanRatingUser(int idUser) throws UserNotFound {
+        if (idUser != this.idUser) {
+            return originalDataset.getMeanRatingUser(idUser);
+        }
+        return super.getMeanRatingUser(idUser);
+    }
+
+    @Override
+    public double getMeanRatingItem(int idItem) throws ItemNotFound {
+        if (!isHiddenItem(idItem)) {
+            return originalDataset.getMeanRatingItem(idItem);
+        }
+        return super.getMeanRatingItem(idItem);
+    }
+
+    /**
+     * La media se obtiene de la del dataset original descontando las
+     * valoraciones ocultas, sin recorrer el dataset.
+     */
+    @Override
+    public double getMeanRating() {
+        List<RatingType> hidden = hiddenRatings();
+        if (hidden.isEmpty()) {
+            return originalDataset.getMeanRating();
+        }
+
+        double sum = originalDataset.getMeanRating() * originalDataset.getNumRatings();
+        for (RatingType rating : hidden) {
+            sum -= rating.getRatingValue().doubleValue();
+        }
+        return sum / getNumRatings();
+    }
+
+    @Override
+    public Domain getRatingsDomain() {
+        return originalDataset.getRatingsDomain();
+    }
+
+    @Override
+    protected RatingsFingerprint computeFingerprint() {
+        RatingsFingerprint fingerprint = originalDataset.getFingerprint();
+        for (RatingType rating : hiddenRatings()) {
+            fingerprint = fingerprint.minus(RatingsFingerprint.of(rating));
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public RatingsDataset<RatingType> getOriginalDataset() {
+        return originalDataset;
+    }
+}
@@ -16,6 +16,8 @@
  */
 package delfos.dataset.storage.validationdatasets;
 
+import java.lang.ref.WeakReference;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
@@ -30,8 +32,41 @@ import delfos.dataset.basic.rating.RatingsDataset;
  */
 public class ValidationDatasets {
 
+    /**
+     * Implementación de los conjuntos de entrenamiento y test.
+     */
+    public enum Backend {
+
+        /**
+         * Vistas sobre el dataset original que filtran el conjunto de test en
+         * cada consulta ({@link TrainingRatingsDataset_CPU} y
+         * {@link TestRatingsDataset_CPU}).
+         */
+        CPU,
+        /**
+         * Máscara de bits por partición sobre una copia compacta del dataset
+         * original, compartida por todas las particiones
+         * ({@link TrainingRatingsDataset_Bitmap} y
+         * {@link TestRatingsDataset_Bitmap}). El conjunto de entrenamiento y el
+         * de test de una partición comparten la máscara, y los tamaños y medias
+         * se calculan una sola vez por partición.
+         */
+        BITMAP
+    }
+
     private static final ValidationDatasets instance = new ValidationDatasets();
 
+    /**
+     * Última copia compacta creada, para reutilizarla en todas las particiones
+     * del mismo dataset.
+     */
+    private WeakReference<BitmapRatingsStore> lastStore = new WeakReference<>(null);
+    /**
+     * Última partición creada, para que el conjunto de entrenamiento y el de
+     * test del mismo par compartan la máscara.
+     */
+    private WeakReference<BitmapFold> lastFold = new WeakReference<>(null);
+
     private ValidationDatasets() {
 
     }
@@ -41,11 +76,88 @@ public class ValidationDatasets {
     }
 
     public <RatingType extends Rating> TrainingRatingsDataset<RatingType> createTrainingDataset(RatingsDataset<RatingType> ratingsDataset, Map<Integer, Set<Integer>> testSet) throws UserNotFound, ItemNotFound {
+        return createTrainingDataset(ratingsDataset, testSet, Backend.CPU);
+    }
+
+    /**
+     * Crea el conjunto de entrenamiento con la implementación indicada.
+     *
+     * @param <RatingType>
+     * @param ratingsDataset Dataset original.
+     * @param testSet Productos de test de cada usuario.
+     * @param backend Implementación del conjunto de entrenamiento.
+     * @return Dataset sin las valoraciones de test.
+     */
+    public <RatingType extends Rating> TrainingRatingsDataset<RatingType> createTrainingDataset(RatingsDataset<RatingType> ratingsDataset, Map<Integer, Set<Integer>> testSet, Backend backend) throws UserNotFound, ItemNotFound {
+        validateBackend(backend);
+        if (backend == Backend.BITMAP) {
+            return new TrainingRatingsDataset_Bitmap<>(ratingsDataset, getFold(ratingsDataset, testSet));
+        }
         return new TrainingRatingsDataset_CPU<>(ratingsDataset, testSet);
     }
 
+    /**
+     * Crea un dataset que oculta algunas valoraciones de un único usuario. Su
+     * coste de construcción sólo depende del número de productos ocultos, por
+     * lo que se puede crear uno por cada petición de recomendaciones.
+     *
+     * @param <RatingType>
+     * @param ratingsDataset Dataset original.
+     * @param idUser Usuario cuyas valoraciones se ocultan.
+     * @param hiddenItems Productos del usuario que se ocultan.
+     * @return Dataset sin las valoraciones indicadas.
+     */
+    public <RatingType extends Rating> TrainingRatingsDataset<RatingType> createUserHiddenItemsDataset(RatingsDataset<RatingType> ratingsDataset, int idUser, Collection<Integer> hiddenItems) {
+        return new UserHiddenItemsRatingsDataset<>(ratingsDataset, idUser, hiddenItems);
+    }
+
     public <RatingType extends Rating> TestRatingsDataset<RatingType> createTestDataset(RatingsDataset<RatingType> ratingsDataset, Map<Integer, Set<Integer>> testSet) throws UserNotFound, ItemNotFound {
+        return createTestDataset(ratingsDataset, testSet, Backend.CPU);
+    }
+
+    /**
+     * Crea el conjunto de test con la implementación indicada.
+     *
+     * @param <RatingType>
+     * @param ratingsDataset Dataset original.
+     * @param testSet Productos de test de cada usuario.
+     * @param backend Implementación del conjunto de test.
+     * @return Dataset con las valoraciones de test.
+     */
+    public <RatingType extends Rating> TestRatingsDataset<RatingType> createTestDataset(RatingsDataset<RatingType> ratingsDataset, Map<Integer, Set<Integer>> testSet, Backend backend) throws UserNotFound, ItemNotFound {
+        validateBackend(backend);
+        if (backend == Backend.BITMAP) {
+            return new TestRatingsDataset_Bitmap<>(ratingsDataset, getFold(ratingsDataset, testSet));
+        }
         return new TestRatingsDataset_CPU<>(ratingsDataset, testSet);
     }
 
+    private static void validateBackend(Backend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("The backend cannot be null");
+        }
+    }
+
+    /**
+     * Devuelve la partición del conjunto de test indicado. Las validaciones
+     * piden el conjunto de entrenamiento y el de test de cada partición
+     * seguidos, por lo que basta con recordar la última partición y la última
+     * copia del dataset. Se comparan por identidad.
+     */
+    private synchronized BitmapFold getFold(RatingsDataset<? extends Rating> ratingsDataset, Map<Integer, Set<Integer>> testSet) {
+        BitmapFold fold = lastFold.get();
+        if (fold != null && fold.store.originalDataset == ratingsDataset && fold.testSet == testSet) {
+            return fold;
+        }
+
+        BitmapRatingsStore store = lastStore.get();
+        if (store == null || store.originalDataset != ratingsDataset) {
+            store = new BitmapRatingsStore(ratingsDataset);
+            lastStore = new WeakReference<>(store);
+        }
+
+        fold = new BitmapFold(store, testSet);
+        lastFold = new WeakReference<>(fold);
+        return fold;
+    }
 }
@@ -25,6 +25,7 @@ import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.configfile.rs.single.RecommenderSystemConfiguration;
 import delfos.configfile.rs.single.RecommenderSystemConfigurationFileParser;
+import delfos.dataset.basic.loader.SharedDatasetRegistry;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
 import delfos.experiment.casestudy.CaseStudy;
@@ -120,7 +121,7 @@ public class ExecuteManyExperiments {
         for (File configurationFile : listOfFiles) {
             try {
                 RecommenderSystemConfiguration loadConfigFile = RecommenderSystemConfigurationFileParser.loadConfigFile(configurationFile.getAbsolutePath());
-                DatasetLoader<? extends Rating> datasetLoader = loadConfigFile.datasetLoader;
+                DatasetLoader<? extends Rating> datasetLoader = SharedDatasetRegistry.getInstance().acquire(loadConfigFile.datasetLoader);
                 ret.add(datasetLoader);
             } catch (Exception ex) {
                 ex.printStackTrace(System.err);
@@ -181,6 +182,10 @@ public class ExecuteManyExperiments {
         } catch (Throwable ex) {
             ex.printStackTrace(System.err);
             throw new IllegalArgumentException(ex);
+        } finally {
+            for (DatasetLoader<?> datasetLoader : datasets) {
+                SharedDatasetRegistry.getInstance().release(datasetLoader);
+            }
         }
     }
 }
@@ -30,8 +30,10 @@ import delfos.experiment.validation.validationtechnique.ValidationTechnique;
 import delfos.results.MeasureResult;
 import delfos.results.evaluationmeasures.EvaluationMeasure;
 import delfos.rs.RecommendationModelBuildingProgressListener;
+import delfos.rs.RecommendationModelMeasures;
 import delfos.rs.RecommenderSystem;
 import java.util.Collection;
+import java.util.Map;
 
 /**
  *
@@ -89,6 +91,17 @@ public abstract class CaseStudy extends ExperimentAdapter implements Recommendat
      */
     public abstract MeasureResult getMeasureResult(EvaluationMeasure em);
 
+    /**
+     * Devuelve las medidas del modelo de recomendación construido en una
+     * partición, si el modelo las proporciona.
+     *
+     * @param execution Ejecución.
+     * @param split Partición.
+     * @return Medidas del modelo por nombre, vacío si el modelo no tiene.
+     * @see RecommendationModelMeasures
+     */
+    public abstract Map<String, Double> getModelMeasures(int execution, int split);
+
     public abstract int getNumExecutions();
 
     @Override
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.experiment.casestudy.cluster;
+
+import delfos.Constants;
+import delfos.ERROR_CODES;
+import delfos.common.Global;
+import delfos.main.Main;
+import delfos.main.managers.experiment.ExecuteGroupXML;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Trabajador que vacía una {@link ExperimentQueue}: toma experimentos de la
+ * cola, los ejecuta y renueva su concesión mientras se ejecutan. Se pueden
+ * lanzar tantos trabajadores como se desee, en la misma JVM o en varias, sobre
+ * el mismo directorio de experimentos.
+ *
+ * <p>
+ * Para lanzar un trabajador en una JVM aparte:
+ * <code>java -cp delfos.jar delfos.experiment.casestudy.cluster.DistributedExperimentRunner
+ * &lt;directorio&gt; [&lt;clase de ExperimentTask&gt;]</code>
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class DistributedExperimentRunner {
+
+    /**
+     * Tarea que ejecuta un experimento de la cola. Si el trabajador pierde la
+     * concesión del experimento, se interrumpe el hilo de la tarea, que debe
+     * terminar sin escribir más resultados. El trabajador no toma otro
+     * experimento hasta que la tarea interrumpida termina.
+     */
+    public interface ExperimentTask {
+
+        public void execute(File experimentDirectory) throws Exception;
+    }
+
+    /**
+     * Ejecuta el experimento de la misma forma que
+     * {@link TuringPreparator#executeAllExperimentsInDirectory(java.io.File)},
+     * pero en una JVM hija. La ejecución de un caso de estudio no atiende a las
+     * interrupciones, por lo que si se pierde la concesión se mata el proceso
+     * para que no siga escribiendo resultados.
+     */
+    public static final ExperimentTask EXECUTE_GROUP_XML = experimentDirectory -> executeInChildProcess(
+            Main.class,
+            ExecuteGroupXML.MODE_PARAMETER,
+            ExecuteGroupXML.XML_DIRECTORY, experimentDirectory.getPath(),
+            Constants.PRINT_FULL_XML,
+            Constants.RAW_DATA);
+
+    private static final AtomicInteger WORKERS_OF_THIS_JVM = new AtomicInteger(0);
+
+    private final ExperimentQueue experimentQueue;
+    private final ExperimentTask experimentTask;
+    private final String worker;
+    private long pollMillis = 1000;
+
+    public DistributedExperimentRunner(ExperimentQueue experimentQueue, ExperimentTask experimentTask) {
+        this.experimentQueue = experimentQueue;
+        this.experimentTask = experimentTask;
+        this.worker = ManagementFactory.getRuntimeMXBean().getName() + "#" + WORKERS_OF_THIS_JVM.incrementAndGet();
+    }
+
+    public String getWorker() {
+        return worker;
+    }
+
+    /**
+     * Ejecuta el método main de la clase indicada en una JVM hija con el mismo
+     * classpath y las mismas opciones que esta. Si se interrumpe el hilo, se
+     * mata el proceso y se espera a que termine.
+     *
+     * @param mainClass Clase con el método main.
+     * @param args Parámetros de la línea de comandos.
+     * @throws IOException Si no se puede lanzar el proceso.
+     * @throws InterruptedException Si se interrumpe el hilo antes de que
+     * termine el proceso.
+     */
+    static void executeInChildProcess(Class<?> mainClass, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(argument -> !argument.startsWith("-agentlib:jdwp"))
+                .forEach(command::add);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.addAll(Arrays.asList(args));
+
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        try {
+            int exitValue = process.waitFor();
+            if (exitValue != 0) {
+                throw new IllegalStateException("Process of " + mainClass.getName() + " " + Arrays.toString(args) + " finished with exit code " + exitValue);
+            }
+        } catch (InterruptedException ex) {
+            process.destroyForcibly().waitFor();
+            throw ex;
+        }
+    }
+
+    /**
+     * Establece cada cuánto se vuelve a consultar la cola cuando no hay
+     * experimentos disponibles pero otros trabajadores aún no han terminado.
+     *
+     * @param pollMillis Milisegundos de espera.
+     */
+    public void setPollMillis(long pollMillis) {
+        this.pollMillis = pollMillis;
+    }
+
+    /**
+     * Ejecuta experimentos de la cola hasta que todos han terminado. Si un
+     * experimento falla, se libera para que se vuelva a intentar. Si se pierde
+     * la concesión de un experimento, se interrumpe su ejecución y no se marca
+     * como terminado, ya que otro trabajador puede estar ejecutándolo. En ese
+     * caso no se toma otro experimento hasta que la ejecución interrumpida ha
+     * terminado realmente.
+     *
+     * @return Número de experimentos que ha terminado este trabajador.
+     */
+    public int execute() {
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heartbeat " + worker);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeatMillis = Math.max(1, experimentQueue.getLeaseMillis() / 3);
+
+        int numExecuted = 0;
+        Thread executionThread = null;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ExperimentLease experimentLease = experimentQueue.claim(worker);
+                if (experimentLease == null) {
+                    if (experimentQueue.isFinished()) {
+                        break;
+                    }
+                    Thread.sleep(pollMillis);
+                    continue;
+                }
+
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                executionThread = new Thread(() -> {
+                    try {
+                        experimentTask.execute(experimentLease.getExperimentDirectory());
+                    } catch (Throwable ex) {
+                        failure.set(ex);
+                    }
+                }, "experiment " + worker);
+                executionThread.setDaemon(true);
+                executionThread.start();
+
+                Thread execution = executionThread;
+                AtomicBoolean leaseLost = new AtomicBoolean(false);
+                ScheduledFuture<?> renewal = heartbeat.scheduleAtFixedRate(() -> {
+                    try {
+                        if (!experimentQueue.renew(experimentLease) && leaseLost.compareAndSet(false, true)) {
+                            Global.showWarning("Lease lost for experiment " + experimentLease + ", waiting for its execution to be cancelled");
+                            execution.interrupt();
+                        }
+                    } catch (RuntimeException ex) {
+                        Global.showWarning("Cannot renew lease of experiment " + experimentLease);
+                        Global.showError(ex);
+                    }
+                }, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+                executionThread.join();
+                executionThread = null;
+                renewal.cancel(false);
+
+                if (leaseLost.get()) {
+                    Global.showWarning("Execution of experiment " + experimentLease + " cancelled, its results are discarded");
+                } else if (failure.get() != null) {
+                    Global.showWarning("Experiment failed in directory '" + experimentLease.getExperimentDirectory().getAbsolutePath());
+                    Global.showError(failure.get());
+                    experimentQueue.fail(experimentLease);
+                } else if (experimentQueue.complete(experimentLease)) {
+                    numExecuted++;
+                }
+
+                Global.showMessageTimestamped(worker + ": "
+                        + experimentQueue.getNumDone() + " done, "
+                        + experimentQueue.getNumFailed() + " failed of "
+                        + experimentQueue.getNumExperiments() + " experiments\n");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            heartbeat.shutdownNow();
+            if (executionThread != null) {
+                executionThread.interrupt();
+            }
+        }
+        return numExecuted;
+    }
+
+    /**
+     * Lanza varios trabajadores en esta JVM sobre la misma cola y espera a que
+     * terminen.
+     *
+     * @param experimentQueue Cola de experimentos.
+     * @param experimentTask Tarea que ejecuta cada experimento.
+     * @param numWorkers Número de trabajadores.
+     * @return Número de experimentos terminados por los trabajadores.
+     */
+    public static int execute(ExperimentQueue experimentQueue, ExperimentTask experimentTask, int numWorkers) {
+        ExecutorService workers = Executors.newFixedThreadPool(numWorkers);
+        try {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < numWorkers; i++) {
+                DistributedExperimentRunner runner = new DistributedExperimentRunner(experimentQueue, experimentTask);
+                futures.add(CompletableFuture.supplyAsync(runner::execute, workers));
+            }
+            int numExecuted = 0;
+            for (CompletableFuture<Integer> future : futures) {
+                try {
+                    numExecuted += future.join();
+                } catch (CompletionException ex) {
+                    if (ex.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) ex.getCause();
+                    }
+                    throw ex;
+                }
+            }
+            return numExecuted;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            ERROR_CODES.COMMAND_LINE_PARAMETERS_ERROR.exit(new IllegalArgumentException(
+                    "Usage: " + DistributedExperimentRunner.class.getName() + " <experimentsDirectory> [<experimentTaskClass>]"));
+            return;
+        }
+        ExperimentQueue experimentQueue = new ExperimentQueue(new File(args[0]));
+        ExperimentTask experimentTask = EXECUTE_GROUP_XML;
+        if (args.length > 1) {
+            try {
+                experimentTask = (ExperimentTask) Class.forName(args[1]).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException ex) {
+                ERROR_CODES.COMMAND_LINE_PARAMETERS_ERROR.exit(new IllegalArgumentException("Cannot create the experiment task '" + args[1] + "'", ex));
+                return;
+            }
+        }
+
+        new DistributedExperimentRunner(experimentQueue, experimentTask).execute();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.experiment.casestudy.cluster;
+
+import java.io.File;
+
+/**
+ * Concesión temporal de un experimento a un trabajador de una
+ * {@link ExperimentQueue}. Mientras la concesión no caduque, ningún otro
+ * trabajador ejecuta el experimento. El trabajador debe renovarla
+ * periódicamente con {@link ExperimentQueue#renew(delfos.experiment.casestudy.cluster.ExperimentLease)}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class ExperimentLease {
+
+    private final File experimentDirectory;
+    private final String worker;
+    private final int attempt;
+    private final long start;
+    private volatile long expiration;
+
+    ExperimentLease(File experimentDirectory, String worker, int attempt, long start, long expiration) {
+        this.experimentDirectory = experimentDirectory;
+        this.worker = worker;
+        this.attempt = attempt;
+        this.start = start;
+        this.expiration = expiration;
+    }
+
+    public File getExperimentDirectory() {
+        return experimentDirectory;
+    }
+
+    public String getExperimentName() {
+        return experimentDirectory.getName();
+    }
+
+    public String getWorker() {
+        return worker;
+    }
+
+    /**
+     * Devuelve el número de intento de este experimento, empezando en uno.
+     *
+     * @return Número de intento.
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Devuelve el instante en que el trabajador obtuvo la concesión.
+     *
+     * @return Milisegundos desde epoch.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Devuelve el instante en que caduca la concesión si no se renueva.
+     *
+     * @return Milisegundos desde epoch.
+     */
+    public long getExpiration() {
+        return expiration;
+    }
+
+    void setExpiration(long expiration) {
+        this.expiration = expiration;
+    }
+
+    @Override
+    public String toString() {
+        return getExperimentName() + " (worker=" + worker + ", attempt=" + attempt + ")";
+    }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.experiment.casestudy.cluster;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Cola de trabajo sobre un directorio de experimentos con la estructura de
+ * {@link TuringPreparator}, en la que cada subdirectorio es un experimento.
+ * Permite que varios trabajadores, en la misma o en distintas JVM que
+ * compartan el sistema de ficheros, ejecuten todos los experimentos sin que
+ * dos de ellos ejecuten el mismo a la vez.
+ *
+ * <p>
+ * El estado de la cola se guarda en el subdirectorio {@link #QUEUE_DIRECTORY}
+ * y todas las transiciones se hacen con un bloqueo exclusivo sobre un fichero,
+ * por lo que no se necesita ningún proceso coordinador. Cada experimento en
+ * ejecución tiene una concesión ({@link ExperimentLease}) que el trabajador
+ * renueva periódicamente. Si el trabajador muere, la concesión caduca y otro
+ * trabajador vuelve a ejecutar el experimento, hasta un máximo de intentos.
+ * Los tiempos de caducidad se comparan con el reloj de cada máquina, por lo
+ * que deben estar sincronizados si los trabajadores están en máquinas
+ * distintas.
+ *
+ * <p>
+ * Cada intento terminado se añade al índice de resultados
+ * {@link #RESULTS_INDEX_FILE}, un CSV con las columnas
+ * <code>experiment,worker,attempt,start,end,durationMs,status</code>.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class ExperimentQueue {
+
+    public static final String QUEUE_DIRECTORY = ".queue";
+    public static final String RESULTS_INDEX_FILE = "results.csv";
+
+    public static final String STATUS_DONE = "done";
+    public static final String STATUS_ERROR = "error";
+    public static final String STATUS_EXPIRED = "expired";
+    public static final String STATUS_FAILED = "failed";
+
+    public static final long DEFAULT_LEASE_MILLIS = 60 * 1000;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final String LEASE_WORKER = "worker";
+    private static final String LEASE_ATTEMPT = "attempt";
+    private static final String LEASE_START = "start";
+    private static final String LEASE_EXPIRATION = "expiration";
+    private static final String LEASE_RELEASED = "released";
+
+    /**
+     * Los bloqueos de fichero son de la JVM completa, por lo que los
+     * trabajadores de una misma JVM se coordinan además con este bloqueo.
+     */
+    private static final Map<String, ReentrantLock> LOCKS_OF_THIS_JVM = new ConcurrentHashMap<>();
+
+    private final File experimentsDirectory;
+    private final File queueDirectory;
+    private final File leasesDirectory;
+    private final File doneDirectory;
+    private final File failedDirectory;
+    private final File lockFile;
+    private final File resultsIndexFile;
+    private final long leaseMillis;
+    private final int maxAttempts;
+
+    public ExperimentQueue(File experimentsDirectory) {
+        this(experimentsDirectory, DEFAULT_LEASE_MILLIS, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Crea la cola sobre el directorio de experimentos indicado.
+     *
+     * @param experimentsDirectory Directorio que contiene un subdirectorio por
+     * experimento.
+     * @param leaseMillis Milisegundos tras los que caduca una concesión que no
+     * se renueva.
+     * @param maxAttempts Número máximo de veces que se intenta ejecutar un
+     * experimento antes de marcarlo como fallido.
+     */
+    public ExperimentQueue(File experimentsDirectory, long leaseMillis, int maxAttempts) {
+        if (!experimentsDirectory.isDirectory()) {
+            throw new IllegalArgumentException("The experiments directory '" + experimentsDirectory.getAbsolutePath() + "' does not exist.");
+        }
+        if (leaseMillis <= 0) {
+            throw new IllegalArgumentException("The lease time must be positive (" + leaseMillis + ")");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("The number of attempts must be positive (" + maxAttempts + ")");
+        }
+
+        this.experimentsDirectory = experimentsDirectory.getAbsoluteFile();
+        this.queueDirectory = new File(this.experimentsDirectory, QUEUE_DIRECTORY);
+        this.leasesDirectory = new File(queueDirectory, "leases");
+        this.doneDirectory = new File(queueDirectory, "done");
+        this.failedDirectory = new File(queueDirectory, "failed");
+        this.lockFile = new File(queueDirectory, "queue.lock");
+        this.resultsIndexFile = new File(queueDirectory, RESULTS_INDEX_FILE);
+        this.leaseMillis = leaseMillis;
+        this.maxAttempts = maxAttempts;
+
+        leasesDirectory.mkdirs();
+        doneDirectory.mkdirs();
+        failedDirectory.mkdirs();
+    }
+
+    public File getExperimentsDirectory() {
+        return experimentsDirectory;
+    }
+
+    public File getResultsIndexFile() {
+        return resultsIndexFile;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Devuelve los directorios de experimentos, ordenados por nombre. Se
+     * ignoran los ficheros y los directorios ocultos, como el de la propia
+     * cola.
+     *
+     * @return Directorios de experimentos.
+     */
+    public List<File> getExperiments() {
+        File[] files = experimentsDirectory.listFiles(file -> file.isDirectory() && !file.getName().startsWith("."));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(files)
+                .sorted(Comparator.comparing(File::getName))
+                .collect(Collectors.toList());
+    }
+
+    public int getNumExperiments() {
+        return getExperiments().size();
+    }
+
+    public int getNumDone() {
+        return (int) getExperiments().stream().filter(experiment -> isDone(experiment.getName())).count();
+    }
+
+    public int getNumFailed() {
+        return (int) getExperiments().stream().filter(experiment -> isFailed(experiment.getName())).count();
+    }
+
+    /**
+     * Indica si todos los experimentos han terminado, bien correctamente o bien
+     * tras agotar sus intentos.
+     *
+     * @return true si no queda ningún experimento pendiente ni en ejecución.
+     */
+    public boolean isFinished() {
+        return getExperiments().stream()
+                .map(File::getName)
+                .allMatch(name -> isDone(name) || isFailed(name));
+    }
+
+    /**
+     * Asigna al trabajador el primer experimento que no ha terminado y que no
+     * tiene una concesión vigente. Los experimentos cuya concesión ha caducado
+     * sin renovarse vuelven a ejecutarse, salvo que hayan agotado sus intentos.
+     *
+     * @param worker Nombre del trabajador.
+     * @return Concesión del experimento, o null si ahora mismo no hay ninguno
+     * disponible.
+     */
+    public ExperimentLease claim(String worker) {
+        return locked(() -> {
+            long now = System.currentTimeMillis();
+            for (File experiment : getExperiments()) {
+                String name = experiment.getName();
+                if (isDone(name) || isFailed(name)) {
+                    continue;
+                }
+
+                int attempts = 0;
+                Properties lease = readLease(name);
+                if (lease != null) {
+                    if (Long.parseLong(lease.getProperty(LEASE_EXPIRATION)) > now) {
+                        continue;
+                    }
+                    attempts = Integer.parseInt(lease.getProperty(LEASE_ATTEMPT));
+                    if (!Boolean.parseBoolean(lease.getProperty(LEASE_RELEASED))) {
+                        appendToResultsIndex(name, lease, now, STATUS_EXPIRED);
+                    }
+                    if (attempts >= maxAttempts) {
+                        markFailed(name);
+                        appendToResultsIndex(name, lease, now, STATUS_FAILED);
+                        continue;
+                    }
+                }
+
+                ExperimentLease experimentLease = new ExperimentLease(experiment, worker, attempts + 1, now, now + leaseMillis);
+                writeLease(experimentLease, false);
+                return experimentLease;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Renueva la concesión para que no caduque durante otros
+     * {@link #getLeaseMillis()} milisegundos.
+     *
+     * @param experimentLease Concesión a renovar.
+     * @return true si se ha renovado, false si el trabajador ya no tiene la
+     * concesión.
+     */
+    public boolean renew(ExperimentLease experimentLease) {
+        return locked(() -> {
+            if (!isOwner(experimentLease)) {
+                return false;
+            }
+            experimentLease.setExpiration(System.currentTimeMillis() + leaseMillis);
+            writeLease(experimentLease, false);
+            return true;
+        });
+    }
+
+    /**
+     * Marca el experimento como terminado y registra su tiempo en el índice de
+     * resultados.
+     *
+     * @param experimentLease Concesión del experimento.
+     * @return true si se ha marcado, false si el trabajador ya no tenía la
+     * concesión.
+     */
+    public boolean complete(ExperimentLease experimentLease) {
+        return locked(() -> {
+            if (!isOwner(experimentLease)) {
+                return false;
+            }
+            long end = System.currentTimeMillis();
+            Files.write(new File(doneDirectory, experimentLease.getExperimentName()).toPath(), experimentLease.getWorker().getBytes());
+            Files.delete(leaseFile(experimentLease.getExperimentName()).toPath());
+            appendToResultsIndex(experimentLease, end, STATUS_DONE);
+            return true;
+        });
+    }
+
+    /**
+     * Libera la concesión de un experimento cuya ejecución ha fallado, para que
+     * se vuelva a intentar. Si ha agotado sus intentos, se marca como fallido.
+     *
+     * @param experimentLease Concesión del experimento.
+     * @return true si se ha liberado, false si el trabajador ya no tenía la
+     * concesión.
+     */
+    public boolean fail(ExperimentLease experimentLease) {
+        return locked(() -> {
+            if (!isOwner(experimentLease)) {
+                return false;
+            }
+            long end = System.currentTimeMillis();
+            appendToResultsIndex(experimentLease, end, STATUS_ERROR);
+            if (experimentLease.getAttempt() >= maxAttempts) {
+                markFailed(experimentLease.getExperimentName());
+                Files.delete(leaseFile(experimentLease.getExperimentName()).toPath());
+                appendToResultsIndex(experimentLease, end, STATUS_FAILED);
+            } else {
+                experimentLease.setExpiration(0);
+                writeLease(experimentLease, true);
+            }
+            return true;
+        });
+    }
+
+    private boolean isDone(String experimentName) {
+        return new File(doneDirectory, experimentName).exists();
+    }
+
+    private boolean isFailed(String experimentName) {
+        return new File(failedDirectory, experimentName).exists();
+    }
+
+    private void markFailed(String experimentName) throws IOException {
+        new File(failedDirectory, experimentName).createNewFile();
+    }
+
+    private boolean isOwner(ExperimentLease experimentLease) throws IOException {
+        Properties lease = readLease(experimentLease.getExperimentName());
+        return lease != null
+                && !Boolean.parseBoolean(lease.getProperty(LEASE_RELEASED))
+                && experimentLease.getWorker().equals(lease.getProperty(LEASE_WORKER))
+                && Integer.toString(experimentLease.getAttempt()).equals(lease.getProperty(LEASE_ATTEMPT));
+    }
+
+    private File leaseFile(String experimentName) {
+        return new File(leasesDirectory, experimentName + ".lease");
+    }
+
+    private Properties readLease(String experimentName) throws IOException {
+        File leaseFile = leaseFile(experimentName);
+        if (!leaseFile.exists()) {
+            return null;
+        }
+        Properties lease = new Properties();
+        try (InputStream inputStream = new FileInputStream(leaseFile)) {
+            lease.load(inputStream);
+        }
+        return lease;
+    }
+
+    /**
+     * Escribe la concesión en un fichero temporal que luego se renombra, para
+     * que nunca se lea una concesión a medio escribir.
+     */
+    private void writeLease(ExperimentLease experimentLease, boolean released) throws IOException {
+        Properties lease = new Properties();
+        lease.setProperty(LEASE_WORKER, experimentLease.getWorker());
+        lease.setProperty(LEASE_ATTEMPT, Integer.toString(experimentLease.getAttempt()));
+        lease.setProperty(LEASE_START, Long.toString(experimentLease.getStart()));
+        lease.setProperty(LEASE_EXPIRATION, Long.toString(experimentLease.getExpiration()));
+        lease.setProperty(LEASE_RELEASED, Boolean.toString(released));
+
+        File leaseFile = leaseFile(experimentLease.getExperimentName());
+        File temporaryFile = new File(leasesDirectory, leaseFile.getName() + ".tmp");
+        try (OutputStream outputStream = new FileOutputStream(temporaryFile)) {
+            lease.store(outputStream, null);
+        }
+        Files.move(temporaryFile.toPath(), leaseFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void appendToResultsIndex(String experimentName, Properties lease, long end, String status) throws IOException {
+        appendToResultsIndex(
+                experimentName,
+                lease.getProperty(LEASE_WORKER),
+                Integer.parseInt(lease.getProperty(LEASE_ATTEMPT)),
+                Long.parseLong(lease.getProperty(LEASE_START)),
+                end, status);
+    }
+
+    private void appendToResultsIndex(ExperimentLease experimentLease, long end, String status) throws IOException {
+        appendToResultsIndex(
+                experimentLease.getExperimentName(),
+                experimentLease.getWorker(),
+                experimentLease.getAttempt(),
+                experimentLease.getStart(),
+                end, status);
+    }
+
+    private void appendToResultsIndex(String experimentName, String worker, int attempt, long start, long end, String status) throws IOException {
+        boolean newIndex = !resultsIndexFile.exists();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(resultsIndexFile, true))) {
+            if (newIndex) {
+                writer.println("experiment,worker,attempt,start,end,durationMs,status");
+            }
+            writer.println(csvField(experimentName) + "," + csvField(worker) + ","
+                    + attempt + "," + start + "," + end + "," + (end - start) + "," + status);
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        } else {
+            return value;
+        }
+    }
+
+    private <T> T locked(QueueOperation<T> operation) {
+        ReentrantLock lockOfThisJVM = LOCKS_OF_THIS_JVM.computeIfAbsent(lockFile.getPath(), path -> new ReentrantLock());
+        lockOfThisJVM.lock();
+        try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            //El bloqueo se libera al cerrar el canal.
+            channel.lock();
+            return operation.execute();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot update the experiments queue '" + queueDirectory.getAbsolutePath() + "'", ex);
+        } finally {
+            lockOfThisJVM.unlock();
+        }
+    }
+
+    private interface QueueOperation<T> {
+
+        T execute() throws IOException;
+    }
+}
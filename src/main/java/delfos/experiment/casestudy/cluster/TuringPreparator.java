@@ -141,7 +141,7 @@ public class TuringPreparator implements ExperimentPreparator {
     }
 
     public void executeAllExperimentsInDirectory(File directory) {
-        List<File> experimentsToBeExecuted = Arrays.asList(directory.listFiles());
+        List<File> experimentsToBeExecuted = listExperimentDirectories(directory);
 
         Collections.shuffle(experimentsToBeExecuted, getRandomToShuffleExperiments());
 
@@ -166,7 +166,7 @@ public class TuringPreparator implements ExperimentPreparator {
     }
 
     public void executeAllExperimentsInDirectory(File directory, int numExec) {
-        List<File> experimentsToBeExecuted = Arrays.asList(directory.listFiles());
+        List<File> experimentsToBeExecuted = listExperimentDirectories(directory);
 
         Collections.shuffle(experimentsToBeExecuted, getRandomToShuffleExperiments());
 
@@ -195,12 +195,33 @@ public class TuringPreparator implements ExperimentPreparator {
         });
     }
 
+    /**
+     * Executes all the experiments in the directory with several workers that
+     * share the work through an {@link ExperimentQueue}. It can be called at
+     * the same time from several JVMs over the same directory: each experiment
+     * is executed once and, if a JVM dies, other JVM takes its experiments when
+     * their lease expires.
+     *
+     * @param directory Experiments directory.
+     * @param numWorkers Number of workers in this JVM.
+     * @return Number of experiments executed by this JVM.
+     */
+    public int executeAllExperimentsInDirectory_distributed(File directory, int numWorkers) {
+        ExperimentQueue experimentQueue = new ExperimentQueue(directory);
+        return DistributedExperimentRunner.execute(experimentQueue, DistributedExperimentRunner.EXECUTE_GROUP_XML, numWorkers);
+    }
+
+    public int executeAllExperimentsInDirectory_distributed(File directory) {
+        int numWorkers = parallel ? Runtime.getRuntime().availableProcessors() : 1;
+        return executeAllExperimentsInDirectory_distributed(directory, numWorkers);
+    }
+
     public int sizeOfAllExperimentsInDirectory(File directory) {
-        return Arrays.asList(directory.listFiles()).size();
+        return listExperimentDirectories(directory).size();
     }
 
     public void executeAllExperimentsInDirectory_withSeed(File directory, int numExec, int seedValue) {
-        List<File> experimentsToBeExecuted = Arrays.asList(directory.listFiles());
+        List<File> experimentsToBeExecuted = listExperimentDirectories(directory);
 
         Collections.shuffle(experimentsToBeExecuted, getRandomToShuffleExperiments());
 
@@ -224,6 +245,16 @@ public class TuringPreparator implements ExperimentPreparator {
         });
     }
 
+    /**
+     * Lists the experiment directories, ignoring hidden entries such as the
+     * {@link ExperimentQueue#QUEUE_DIRECTORY}.
+     */
+    private static List<File> listExperimentDirectories(File directory) {
+        return Arrays.stream(directory.listFiles())
+                .filter(file -> !file.getName().startsWith("."))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Renames the case studys to a default alias with the hash of the technique
      * and validation and the alias of the GRS.
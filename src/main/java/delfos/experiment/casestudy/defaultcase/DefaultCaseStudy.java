@@ -25,7 +25,10 @@ import delfos.common.exceptions.dataset.CannotLoadUsersDataset;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.parallelwork.notblocking.MultiThreadExecutionManager_NotBlocking;
+import delfos.common.parameters.Parameter;
 import delfos.common.parameters.ParameterListener;
+import delfos.common.parameters.restriction.BooleanParameter;
+import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.dataset.basic.loader.types.ContentDatasetLoader;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.loader.types.TrustDatasetLoader;
@@ -51,17 +54,22 @@ import delfos.factories.EvaluationMeasuresFactory;
 import delfos.results.MeasureResult;
 import delfos.results.RecommendationResults;
 import delfos.results.evaluationmeasures.EvaluationMeasure;
+import delfos.rs.RecommendationModelMeasures;
 import delfos.rs.RecommenderSystem;
 import delfos.rs.nonpersonalised.randomrecommender.RandomRecommender;
 import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.RecommendationsToUser;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -78,9 +86,32 @@ import java.util.stream.Collectors;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  * @version 1.0 (19 Octubre 2011)
+ * @version 18-oct-2026 Ejecución solapada de las particiones con
+ * {@link #PIPELINED_FOLDS}.
  */
 public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
 
+    /**
+     * Si está activado, las particiones se ejecutan solapadas: mientras se
+     * construye el modelo de una partición se calculan las recomendaciones de
+     * la anterior y se evalúan las previas. Cada partición usa una copia del
+     * sistema de recomendación y del protocolo de predicción con su semilla,
+     * por lo que los resultados son los mismos que en la ejecución secuencial.
+     */
+    public static final Parameter PIPELINED_FOLDS = new Parameter(
+            "PIPELINED_FOLDS",
+            new BooleanParameter(Boolean.FALSE));
+
+    /**
+     * Número máximo de modelos de recomendación que existen a la vez cuando se
+     * usa {@link #PIPELINED_FOLDS}. Un modelo existe desde que comienza su
+     * construcción hasta que se han calculado las recomendaciones de su
+     * partición.
+     */
+    public static final Parameter MAX_LIVE_MODELS = new Parameter(
+            "MAX_LIVE_MODELS",
+            new IntegerParameter(1, 64, 2));
+
     protected final ArrayList<CaseStudyParameterChangedListener> propertyListeners = new ArrayList<>();
     protected final ArrayList<ExperimentListener> experimentProgressListeners = new ArrayList<>();
     private boolean running;
@@ -92,6 +123,7 @@ public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
     protected final RecommenderSystem<? extends Object> recommenderSystem;
     protected Collection<EvaluationMeasure> evaluationMeasures;
     protected Map<EvaluationMeasure, MeasureResult>[][] executionsResult;
+    protected Map<String, Double>[][] modelMeasures;
     protected DatasetLoader<? extends Rating> datasetLoader;
     protected RelevanceCriteria relevanceCriteria;
     private final PredictionProtocol predictionProtocolTechnique;
@@ -137,6 +169,9 @@ public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
             int numEjecuciones) {
         super();
 
+        addParameter(PIPELINED_FOLDS);
+        addParameter(MAX_LIVE_MODELS);
+
         this.relevanceCriteria = relevanceCriteria;
         this.validationTechnique = validationTechnique;
 
@@ -194,9 +229,11 @@ public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
     @SuppressWarnings({"unchecked", "rawtypes"})
     private void initStructures(int executionNumber, int splitNumber) {
         executionsResult = (Map<EvaluationMeasure, MeasureResult>[][]) new Map[executionNumber][splitNumber];
+        modelMeasures = (Map<String, Double>[][]) new Map[executionNumber][splitNumber];
         for (int execution = 0; execution < executionNumber; execution++) {
             for (int split = 0; split < splitNumber; split++) {
                 executionsResult[execution][split] = new TreeMap<>();
+                modelMeasures[execution][split] = new TreeMap<>();
             }
         }
     }
@@ -236,6 +273,13 @@ public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
                 );
         multiThreadExecutionManagerEvaluationMeasures.runInBackground();
 
+        final boolean pipelinedFolds = (Boolean) getParameterValue(PIPELINED_FOLDS);
+        final Semaphore liveModels = new Semaphore((Integer) getParameterValue(MAX_LIVE_MODELS));
+        final ExecutorService foldExecutor = pipelinedFolds
+                ? Executors.newFixedThreadPool((Integer) getParameterValue(MAX_LIVE_MODELS))
+                : null;
+        final List<CompletableFuture<Void>> foldsInProgress = new ArrayList<>();
+
         loopCount = 0;
         for (_ejecucionActual = 0; _ejecucionActual < executionNumber; _ejecucionActual++) {
 //            this.recommenderProgressChanged("Realizando conjuntos train y test", 0);
@@ -256,80 +300,53 @@ public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
             for (_conjuntoActual = 0; _conjuntoActual < pairsValidation.length; _conjuntoActual++) {
 
                 setNextSeedToSeedHolders(getSeedValue() + loopCount);
-                final RecommendationResults esr = new RecommendationResults();
-
-                long initTime = System.currentTimeMillis();
-
-                executionProgressFireEvent(getAlias() + "Building recommendation model", 0, -1);
-                final Object model = recommenderSystem.buildRecommendationModel(pairsValidation[_conjuntoActual].getTrainingDatasetLoader());
-
-                final long modelBuildTime = System.currentTimeMillis() - initTime;
-
-                Global.showInfoMessage("----------------------- End of Build ----------------------------------" + "\n");
-                this.executionProgressFireEvent(getAlias() + " --> Recommendation process", 50, -1);
-
-                Collection<Integer> thisDatasetUsers = pairsValidation[_conjuntoActual].test.allUsers();
-
-                Map<Integer, Collection<Recommendation>> predictions = thisDatasetUsers.parallelStream().map(idUser -> datasetLoader.getUsersDataset().get(idUser))
-                        .filter(user -> !predictionProtocolTechnique.getRecommendationRequests(pairsValidation[_conjuntoActual].test, user.getId()).isEmpty())
-                        .map(user -> {
-                            List<Recommendation> ret = predictionProtocolTechnique
-                            .getRecommendationRequests(pairsValidation[_conjuntoActual].test, user.getId())
-                            .parallelStream()
-                            .map(candidateItems -> {
-
-                                Integer idUser = user.getId();
-                                try {
-                                    Map<Integer, Set<Integer>> predictionRatings = new TreeMap<>();
-                                    predictionRatings.put(idUser, new TreeSet<>(candidateItems));
-                                    RatingsDataset<Rating> predictionRatingsDataset = ValidationDatasets.getInstance().createTrainingDataset((RatingsDataset<Rating>) datasetLoader.getRatingsDataset(), predictionRatings);
-                                    DatasetLoader<Rating> predictionDatasetLoader = new DatasetLoaderGivenRatingsDataset<>(
-                                            datasetLoader,
-                                            predictionRatingsDataset);
-                                    return new SingleUserRecommendationTask(
-                                            recommenderSystem,
-                                            predictionDatasetLoader,
-                                            model,
-                                            idUser,
-                                            candidateItems.stream().map(idItem -> datasetLoader.getContentDataset().get(idItem)).collect(Collectors.toSet())
-                                    );
-
-                                } catch (UserNotFound ex) {
-                                    ERROR_CODES.USER_NOT_FOUND.exit(ex);
-                                    throw new IllegalStateException(ex);
-                                } catch (ItemNotFound ex) {
-                                    ERROR_CODES.ITEM_NOT_FOUND.exit(ex);
-                                    throw new IllegalStateException(ex);
-                                }
-                            }).map(new SingleUserRecommendationTaskExecutor())
-                            .map(recommendations2 -> recommendations2.getRecommendations())
-                            .flatMap(recommendations2 -> recommendations2.stream())
-                            .collect(Collectors.toList());
-
-                            return new RecommendationsToUser(user, ret);
-                        }).collect(Collectors.toMap(
-                                        recommendationsToUser -> recommendationsToUser.getUser().getId(),
-                                        recommendationsToUser -> recommendationsToUser.getRecommendations()));
-
-                predictions.entrySet().stream().forEach((entry) -> {
-                    int idUser = entry.getKey();
-                    Collection<Recommendation> prediction = entry.getValue();
-                    esr.add(idUser, prediction);
-                });
-
-                multiThreadExecutionManagerEvaluationMeasures.addTask(new DefaultCaseStudyEvaluationMeasures_Task(
-                        _ejecucionActual,
-                        _conjuntoActual,
-                        esr,
-                        pairsValidation[_conjuntoActual].test,
-                        evaluationMeasures,
-                        relevanceCriteria));
+
+                final int ejecucion = _ejecucionActual;
+                final int particion = _conjuntoActual;
+                final PairOfTrainTestRatingsDataset<? extends Rating> pairValidation = pairsValidation[_conjuntoActual];
+
+                if (pipelinedFolds) {
+                    liveModels.acquireUninterruptibly();
+
+                    //Copias con la semilla de esta partición, para que no les afecte la siguiente.
+                    final RecommenderSystem<? extends Object> foldRecommenderSystem = (RecommenderSystem<? extends Object>) recommenderSystem.clone();
+                    final PredictionProtocol foldPredictionProtocol = (PredictionProtocol) predictionProtocolTechnique.clone();
+
+                    foldsInProgress.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            multiThreadExecutionManagerEvaluationMeasures.addTask(
+                                    executeFold(foldRecommenderSystem, foldPredictionProtocol, ejecucion, particion, pairValidation));
+                        } finally {
+                            liveModels.release();
+                        }
+                    }, foldExecutor));
+                } else {
+                    multiThreadExecutionManagerEvaluationMeasures.addTask(
+                            executeFold(recommenderSystem, predictionProtocolTechnique, ejecucion, particion, pairValidation));
+                }
 
                 this.loopCount++;
                 loopCount++;
             }
         }
 
+        if (pipelinedFolds) {
+            try {
+                for (CompletableFuture<Void> fold : foldsInProgress) {
+                    try {
+                        fold.join();
+                    } catch (CompletionException ex) {
+                        if (ex.getCause() instanceof RuntimeException) {
+                            throw (RuntimeException) ex.getCause();
+                        }
+                        throw new IllegalStateException(ex.getCause());
+                    }
+                }
+            } finally {
+                foldExecutor.shutdownNow();
+            }
+        }
+
         try {
             multiThreadExecutionManagerEvaluationMeasures.waitUntilFinished();
         } catch (InterruptedException ex) {
@@ -353,6 +370,98 @@ public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
 
     }
 
+    /**
+     * Construye el modelo con el conjunto de entrenamiento de una partición y
+     * calcula las recomendaciones de los usuarios de test.
+     *
+     * @param recommenderSystem Sistema de recomendación, con la semilla de la
+     * partición.
+     * @param predictionProtocol Protocolo de predicción, con la semilla de la
+     * partición.
+     * @param ejecucion Ejecución a la que pertenece la partición.
+     * @param particion Índice de la partición.
+     * @param pairValidation Conjuntos de entrenamiento y test.
+     * @return Tarea para calcular las medidas de evaluación de la partición.
+     */
+    private DefaultCaseStudyEvaluationMeasures_Task executeFold(
+            RecommenderSystem<? extends Object> recommenderSystem,
+            PredictionProtocol predictionProtocol,
+            int ejecucion,
+            int particion,
+            PairOfTrainTestRatingsDataset<? extends Rating> pairValidation) {
+
+        final RecommendationResults esr = new RecommendationResults();
+
+        long initTime = System.currentTimeMillis();
+
+        executionProgressFireEvent(getAlias() + "Building recommendation model", 0, -1);
+        final Object model = recommenderSystem.buildRecommendationModel(pairValidation.getTrainingDatasetLoader());
+
+        final long modelBuildTime = System.currentTimeMillis() - initTime;
+
+        if (model instanceof RecommendationModelMeasures) {
+            modelMeasures[ejecucion][particion] = new TreeMap<>(((RecommendationModelMeasures) model).getModelMeasures());
+        }
+
+        Global.showInfoMessage("----------------------- End of Build ----------------------------------" + "\n");
+        this.executionProgressFireEvent(getAlias() + " --> Recommendation process", 50, -1);
+
+        Collection<Integer> thisDatasetUsers = pairValidation.test.allUsers();
+
+        Map<Integer, Collection<Recommendation>> predictions = thisDatasetUsers.parallelStream().map(idUser -> datasetLoader.getUsersDataset().get(idUser))
+                .filter(user -> !predictionProtocol.getRecommendationRequests(pairValidation.test, user.getId()).isEmpty())
+                .map(user -> {
+                    List<Recommendation> ret = predictionProtocol
+                    .getRecommendationRequests(pairValidation.test, user.getId())
+                    .parallelStream()
+                    .map(candidateItems -> {
+
+                        Integer idUser = user.getId();
+                        try {
+                            RatingsDataset<Rating> predictionRatingsDataset = ValidationDatasets.getInstance().createUserHiddenItemsDataset((RatingsDataset<Rating>) datasetLoader.getRatingsDataset(), idUser, candidateItems);
+                            DatasetLoader<Rating> predictionDatasetLoader = new DatasetLoaderGivenRatingsDataset<>(
+                                    datasetLoader,
+                                    predictionRatingsDataset);
+                            return new SingleUserRecommendationTask(
+                                    recommenderSystem,
+                                    predictionDatasetLoader,
+                                    model,
+                                    idUser,
+                                    candidateItems.stream().map(idItem -> datasetLoader.getContentDataset().get(idItem)).collect(Collectors.toSet())
+                            );
+
+                        } catch (UserNotFound ex) {
+                            ERROR_CODES.USER_NOT_FOUND.exit(ex);
+                            throw new IllegalStateException(ex);
+                        } catch (ItemNotFound ex) {
+                            ERROR_CODES.ITEM_NOT_FOUND.exit(ex);
+                            throw new IllegalStateException(ex);
+                        }
+                    }).map(new SingleUserRecommendationTaskExecutor())
+                    .map(recommendations2 -> recommendations2.getRecommendations())
+                    .flatMap(recommendations2 -> recommendations2.stream())
+                    .collect(Collectors.toList());
+
+                    return new RecommendationsToUser(user, ret);
+                }).collect(Collectors.toMap(
+                                recommendationsToUser -> recommendationsToUser.getUser().getId(),
+                                recommendationsToUser -> recommendationsToUser.getRecommendations()));
+
+        predictions.entrySet().stream().forEach((entry) -> {
+            int idUser = entry.getKey();
+            Collection<Recommendation> prediction = entry.getValue();
+            esr.add(idUser, prediction);
+        });
+
+        return new DefaultCaseStudyEvaluationMeasures_Task(
+                ejecucion,
+                particion,
+                esr,
+                pairValidation.test,
+                evaluationMeasures,
+                relevanceCriteria);
+    }
+
     public void loadDataset(DatasetLoader<? extends Rating> datasetLoader) throws CannotLoadContentDataset, CannotLoadTrustDataset, CannotLoadRatingsDataset, CannotLoadUsersDataset {
         executionProgressFireEvent("Loading dataset", 0, -1);
 
@@ -400,6 +509,11 @@ public class DefaultCaseStudy extends CaseStudy implements ParameterListener {
         return executionsResult[execution][split].get(em);
     }
 
+    @Override
+    public Map<String, Double> getModelMeasures(int execution, int split) {
+        return Collections.unmodifiableMap(modelMeasures[execution][split]);
+    }
+
     @Override
     public RecommenderSystem<? extends Object> getRecommenderSystem() {
         return recommenderSystem;
@@ -18,11 +18,11 @@ package delfos.experiment.casestudy.defaultcase;
 
 import delfos.common.Global;
 import delfos.common.parallelwork.SingleTaskExecute;
-import delfos.results.MeasureResult;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
+import delfos.results.evaluationmeasures.FusedEvaluation;
 
 /**
  *
+ * @version 18-oct-2026 Medidas calculadas con {@link FusedEvaluation}.
  * @version 29-may-2014
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  */
@@ -32,14 +32,11 @@ public class DefaultCaseStudyEvaluationMeasures_SingleTaskExecutor
     @Override
     public void executeSingleTask(DefaultCaseStudyEvaluationMeasures_Task task) {
         try {
-            for (EvaluationMeasure e : task.evaluationMeasures) {
-                try {
-                    MeasureResult measureResult = e.getMeasureResult(task.recommendationResults, task.testSet, task.relevanceCriteria);
-                    task.executionsResult.put(e, measureResult);
-                } catch (Throwable ex) {
-                    Global.showWarning(ex);
-                }
-            }
+            task.executionsResult.putAll(FusedEvaluation.evaluate(
+                    task.evaluationMeasures,
+                    task.recommendationResults,
+                    task.testSet,
+                    task.relevanceCriteria));
         } catch (Throwable ex) {
             Global.showWarning(ex);
         }
@@ -65,6 +65,7 @@ public class CrossFoldValidation_Ratings extends ValidationTechnique {
         super();
 
         addParameter(NUM_PARTITIONS);
+        addParameter(VALIDATION_DATASETS_BACKEND);
     }
 
     @Override
@@ -147,8 +148,8 @@ public class CrossFoldValidation_Ratings extends ValidationTechnique {
             try {
                 ret[idPartition] = new PairOfTrainTestRatingsDataset(
                         datasetLoader,
-                        ValidationDatasets.getInstance().createTrainingDataset(datasetLoader.getRatingsDataset(), todosConjuntosTest.get(idPartition)),
-                        ValidationDatasets.getInstance().createTestDataset(datasetLoader.getRatingsDataset(), todosConjuntosTest.get(idPartition)),
+                        ValidationDatasets.getInstance().createTrainingDataset(datasetLoader.getRatingsDataset(), todosConjuntosTest.get(idPartition), getValidationDatasetsBackend()),
+                        ValidationDatasets.getInstance().createTestDataset(datasetLoader.getRatingsDataset(), todosConjuntosTest.get(idPartition), getValidationDatasetsBackend()),
                         "_" + this.getClass().getSimpleName() + "_seed=" + getSeedValue() + "_partition=" + idPartition);
             } catch (UserNotFound ex) {
                 ERROR_CODES.USER_NOT_FOUND.exit(ex);
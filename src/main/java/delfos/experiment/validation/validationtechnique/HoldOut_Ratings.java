@@ -60,6 +60,7 @@ public class HoldOut_Ratings extends ValidationTechnique {
     public HoldOut_Ratings() {
         super();
         addParameter(TRAIN_PERCENT);
+        addParameter(VALIDATION_DATASETS_BACKEND);
     }
 
     @Override
@@ -107,8 +108,8 @@ public class HoldOut_Ratings extends ValidationTechnique {
         try {
             ret[0] = new PairOfTrainTestRatingsDataset(
                     datasetLoader,
-                    ValidationDatasets.getInstance().createTrainingDataset(datasetLoader.getRatingsDataset(), testSet),
-                    ValidationDatasets.getInstance().createTestDataset(datasetLoader.getRatingsDataset(), testSet),
+                    ValidationDatasets.getInstance().createTrainingDataset(datasetLoader.getRatingsDataset(), testSet, getValidationDatasetsBackend()),
+                    ValidationDatasets.getInstance().createTestDataset(datasetLoader.getRatingsDataset(), testSet, getValidationDatasetsBackend()),
                     "_" + this.getClass().getSimpleName() + "_seed=" + getSeedValue());
         } catch (UserNotFound ex) {
             ERROR_CODES.USER_NOT_FOUND.exit(ex);
@@ -48,6 +48,7 @@ public class LeaveOneOut extends ValidationTechnique {
      */
     protected LeaveOneOut() {
         super();
+        addParameter(VALIDATION_DATASETS_BACKEND);
     }
 
     @Override
@@ -67,8 +68,8 @@ public class LeaveOneOut extends ValidationTechnique {
 
             ret[split] = new PairOfTrainTestRatingsDataset(
                     datasetLoader,
-                    ValidationDatasets.getInstance().createTrainingDataset(datasetLoader.getRatingsDataset(), conjuntoTest),
-                    ValidationDatasets.getInstance().createTestDataset(datasetLoader.getRatingsDataset(), conjuntoTest),
+                    ValidationDatasets.getInstance().createTrainingDataset(datasetLoader.getRatingsDataset(), conjuntoTest, getValidationDatasetsBackend()),
+                    ValidationDatasets.getInstance().createTestDataset(datasetLoader.getRatingsDataset(), conjuntoTest, getValidationDatasetsBackend()),
                     "_" + this.getClass().getSimpleName() + "_seed=" + getSeedValue());
 
             split++;
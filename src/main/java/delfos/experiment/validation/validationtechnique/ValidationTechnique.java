@@ -19,12 +19,15 @@ package delfos.experiment.validation.validationtechnique;
 import delfos.common.Global;
 import delfos.common.exceptions.dataset.CannotLoadContentDataset;
 import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
+import delfos.common.parameters.Parameter;
 import delfos.common.parameters.ParameterListener;
 import delfos.common.parameters.ParameterOwnerAdapter;
 import delfos.common.parameters.ParameterOwnerType;
+import delfos.common.parameters.restriction.ObjectParameter;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.storage.validationdatasets.PairOfTrainTestRatingsDataset;
+import delfos.dataset.storage.validationdatasets.ValidationDatasets;
 import delfos.experiment.SeedHolder;
 import java.util.LinkedList;
 
@@ -38,6 +41,15 @@ import java.util.LinkedList;
  */
 public abstract class ValidationTechnique extends ParameterOwnerAdapter implements SeedHolder {
 
+    /**
+     * Implementación de los conjuntos de entrenamiento y test que generan las técnicas de validación que ocultan
+     * valoraciones del dataset original. Sólo lo añaden las técnicas que lo usan.
+     */
+    public static final Parameter VALIDATION_DATASETS_BACKEND = new Parameter(
+            "VALIDATION_DATASETS_BACKEND",
+            new ObjectParameter(ValidationDatasets.Backend.values(), ValidationDatasets.Backend.CPU),
+            "Implementación de los conjuntos de entrenamiento y test.");
+
     //--------------- Métodos para garantizar los valores aleatorios -----------
     /**
      * Constructor por defecto que agrega el parámetro para la semilla e inicializa la variable random. Además, añade el
@@ -129,6 +141,19 @@ public abstract class ValidationTechnique extends ParameterOwnerAdapter implemen
         });
     }
 
+    /**
+     * Devuelve la implementación de los conjuntos de entrenamiento y test que usa esta técnica.
+     *
+     * @return Implementación de los conjuntos de validación, {@link ValidationDatasets.Backend#CPU} si la técnica no
+     * tiene el parámetro {@link ValidationTechnique#VALIDATION_DATASETS_BACKEND}.
+     */
+    public ValidationDatasets.Backend getValidationDatasetsBackend() {
+        if (!haveParameter(VALIDATION_DATASETS_BACKEND)) {
+            return ValidationDatasets.Backend.CPU;
+        }
+        return (ValidationDatasets.Backend) getParameterValue(VALIDATION_DATASETS_BACKEND);
+    }
+
     @Override
     public ParameterOwnerType getParameterOwnerType() {
         return ParameterOwnerType.VALIDATION_TECHNIQUE;
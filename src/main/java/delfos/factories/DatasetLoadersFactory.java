@@ -18,6 +18,7 @@ package delfos.factories;
 
 import delfos.configureddatasets.ConfiguredDatasetLoader;
 import delfos.dataset.generated.random.RandomDatasetLoader;
+import delfos.dataset.loaders.binary.BinaryFileDatasetLoader;
 import delfos.dataset.loaders.csv.CSVfileDatasetLoader;
 import delfos.dataset.loaders.csv.changeable.ChangeableCSVFileDatasetLoader;
 import delfos.dataset.loaders.database.mysql.DatabaseDatasetLoader;
@@ -48,6 +49,7 @@ public class DatasetLoadersFactory extends Factory<DatasetLoader> {
     static {
         instance = new DatasetLoadersFactory();
         instance.addClass(CSVfileDatasetLoader.class);
+        instance.addClass(BinaryFileDatasetLoader.class);
         instance.addClass(DatabaseDatasetLoader.class);
         instance.addClass(Jester.class);
         instance.addClass(RandomDatasetLoader.class);
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.factories;
+
+import delfos.rs.collaborativefiltering.knn.candidates.AllNeighborCandidates;
+import delfos.rs.collaborativefiltering.knn.candidates.MinHashNeighborCandidates;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesGenerator;
+import delfos.rs.collaborativefiltering.knn.candidates.RandomHyperplaneNeighborCandidates;
+
+/**
+ * Clase que almacena las técnicas de selección de vecinos candidatos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class NeighborCandidatesGeneratorFactory extends Factory<NeighborCandidatesGenerator> {
+
+    private static final NeighborCandidatesGeneratorFactory instance;
+
+    public static NeighborCandidatesGeneratorFactory getInstance() {
+        return instance;
+    }
+
+    static {
+        instance = new NeighborCandidatesGeneratorFactory();
+
+        instance.addClass(AllNeighborCandidates.class);
+        instance.addClass(MinHashNeighborCandidates.class);
+        instance.addClass(RandomHyperplaneNeighborCandidates.class);
+    }
+
+    private NeighborCandidatesGeneratorFactory() {
+    }
+}
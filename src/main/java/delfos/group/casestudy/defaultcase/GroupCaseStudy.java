@@ -27,6 +27,7 @@ import delfos.common.parameters.ParameterOwnerType;
 import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.common.parameters.restriction.ParameterOwnerRestriction;
 import delfos.configureddatasets.ConfiguredDatasetLoader;
+import delfos.dataset.basic.loader.SharedDatasetRegistry;
 import delfos.dataset.basic.loader.types.ContentDatasetLoader;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.loader.types.TrustDatasetLoader;
@@ -333,11 +334,17 @@ public class GroupCaseStudy extends ExperimentAdapter {
         groupPredictionProtocol.setSeedValue(getSeedValue());
     }
 
+    /**
+     * @deprecated Cada dataset se carga con su propio cerrojo, para que datasets
+     * distintos se puedan cargar a la vez. Los datasets compartidos se cargan
+     * una sola vez mediante {@link SharedDatasetRegistry}.
+     */
+    @Deprecated
     public static final Object exmutLoadDatasetsOnceAtATime = 1;
 
     private void loadDataset(DatasetLoader<? extends Rating> datasetLoader) throws CannotLoadContentDataset, CannotLoadTrustDataset, CannotLoadRatingsDataset, CannotLoadUsersDataset {
 
-        synchronized (exmutLoadDatasetsOnceAtATime) {
+        synchronized (datasetLoader) {
             final String taskName = "Loading dataset '" + datasetLoader.getAlias() + "'";
             setExperimentProgress(taskName, 0, -1);
 
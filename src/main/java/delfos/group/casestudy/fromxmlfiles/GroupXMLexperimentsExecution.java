@@ -22,6 +22,7 @@ import delfos.common.Global;
 import delfos.common.exceptions.dataset.CannotLoadContentDataset;
 import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
 import delfos.common.filefilters.FileFilterByExtension;
+import delfos.dataset.basic.loader.SharedDatasetRegistry;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
 import delfos.group.casestudy.GroupCaseStudyConfiguration;
@@ -138,10 +139,13 @@ public class GroupXMLexperimentsExecution {
         }
 
         List<ExecuteGroupCaseStudy_Task> listOfTasks = new ArrayList<>();
+        List<DatasetLoader<? extends Rating>> sharedDatasetLoaders = new ArrayList<>();
 
         for (File datasetFile : datasetFiles) {
             try {
-                final DatasetLoader<? extends Rating> datasetLoader = GroupCaseStudyXML.loadGroupCaseDescription(datasetFile).getDatasetLoader();
+                final DatasetLoader<? extends Rating> datasetLoader = SharedDatasetRegistry.getInstance().acquire(
+                        GroupCaseStudyXML.loadGroupCaseDescription(datasetFile).getDatasetLoader());
+                sharedDatasetLoaders.add(datasetLoader);
 
                 File[] experimentFiles = experimentsDirectoryDirectory.listFiles(new FileFilterByExtension(false, "xml"));
 
@@ -169,7 +173,11 @@ public class GroupXMLexperimentsExecution {
             }
         }
 
-        listOfTasks.stream().forEach(new GroupCaseStudyExecutor());
+        try {
+            listOfTasks.stream().forEach(new GroupCaseStudyExecutor());
+        } finally {
+            sharedDatasetLoaders.stream().forEach(SharedDatasetRegistry.getInstance()::release);
+        }
 
 //        File aggregateFile = FileUtilities.addSufix(resultsDirectory, File.separator + "aggregateResults.xls");
 //        try {
@@ -25,6 +25,7 @@ import delfos.common.parameters.restriction.DirectoryParameter;
 import delfos.common.parameters.restriction.ParameterOwnerRestriction;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsFingerprint;
 import delfos.group.groupsofusers.GroupOfUsers;
 import java.io.File;
 import java.io.FileInputStream;
@@ -67,9 +68,14 @@ public class GroupFormationTechnique_cache extends GroupFormationTechnique {
     public Collection<GroupOfUsers> generateGroups(DatasetLoader<? extends Rating> datasetLoader) throws CannotLoadRatingsDataset {
 
         final GroupFormationTechnique groupFormationTechnique = getGroupFormationTechnique();
-        final int datasetHashCode = datasetLoader.hashCode();
+        final RatingsFingerprint datasetFingerprint = datasetLoader.getRatingsDataset().getFingerprint();
+        final int contentDatasetHashCode = datasetLoader.getContentDataset().hashCode();
+        final int usersDatasetHashCode = datasetLoader.getUsersDataset().hashCode();
         final int groupFormationTechniqueHashCode = groupFormationTechnique.hashCode();
-        String recommendationModelKey = "dl=" + datasetHashCode + "_rs=" + groupFormationTechniqueHashCode;
+        String recommendationModelKey = "dl=" + datasetFingerprint
+                + "_content=" + contentDatasetHashCode
+                + "_users=" + usersDatasetHashCode
+                + "_rs=" + groupFormationTechniqueHashCode;
 
         recommendationModelKey = recommendationModelKey + "";
 
@@ -114,10 +120,10 @@ public class GroupFormationTechnique_cache extends GroupFormationTechnique {
 
     private Collection<GroupOfUsers> actuallyGenerateGroups(DatasetLoader<? extends Rating> datasetLoader, GroupFormationTechnique groupFormationTechnique) {
         Collection<GroupOfUsers> groupsGenerated;
-        int ratingsDatasetHashCode = datasetLoader.getRatingsDataset().hashCode();
+        RatingsFingerprint ratingsDatasetFingerprint = datasetLoader.getRatingsDataset().getFingerprint();
         String datasetLoaderAlias = datasetLoader.getAlias();
         String groupFormationString = "_gftHash=" + groupFormationTechnique.hashCode();
-        String datasetLoaderString = "_datasetLoader=" + datasetLoaderAlias + "_DLHash=" + ratingsDatasetHashCode;
+        String datasetLoaderString = "_datasetLoader=" + datasetLoaderAlias + "_DLHash=" + ratingsDatasetFingerprint;
 
         File file = new File(getDirectory().getPath() + File.separator + groupFormationTechnique.getName() + groupFormationString + datasetLoaderString);
 
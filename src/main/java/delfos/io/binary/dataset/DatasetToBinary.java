@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.io.binary.dataset;
+
+import delfos.common.exceptions.dataset.CannotLoadContentDataset;
+import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
+import delfos.common.exceptions.dataset.CannotLoadUsersDataset;
+import delfos.common.exceptions.dataset.CannotSaveUsersDataset;
+import delfos.common.filefilters.FileFilterByExtension;
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.FileParameter;
+import delfos.dataset.basic.item.ContentDataset;
+import delfos.dataset.basic.loader.types.ContentDatasetLoader;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.loader.types.UsersDatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.user.UsersDataset;
+import delfos.dataset.storage.mapped.MappedRatingsDataset;
+import delfos.io.types.DatasetSaver;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Clase que almacena datasets de valoraciones, de contenido y de usuarios en
+ * ficheros binarios, que se pueden cargar proyectándolos en memoria con
+ * {@link delfos.dataset.loaders.binary.BinaryFileDatasetLoader}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class DatasetToBinary extends DatasetSaver {
+
+    private static final long serialVersionUID = 1L;
+    public static final String BINARY_EXTENSION = "bin";
+    private static final String[] extensions = {BINARY_EXTENSION};
+    public static final Parameter RATINGS_FILE = new Parameter("Ratings_file", new FileParameter(new File("ratings.bin"), new FileFilterByExtension(extensions)));
+    public static final Parameter CONTENT_FILE = new Parameter("Content_file", new FileParameter(new File("content.bin"), new FileFilterByExtension(extensions)));
+    public static final Parameter USERS_FILE = new Parameter("Users_file", new FileParameter(new File("users.bin"), new FileFilterByExtension(extensions)));
+
+    public DatasetToBinary() {
+        addParameter(RATINGS_FILE);
+        addParameter(CONTENT_FILE);
+        addParameter(USERS_FILE);
+    }
+
+    public DatasetToBinary(File ratingsFile, File contentFile, File usersFile) {
+        this();
+
+        setParameterValue(RATINGS_FILE, ratingsFile);
+        setParameterValue(CONTENT_FILE, contentFile);
+        setParameterValue(USERS_FILE, usersFile);
+    }
+
+    /**
+     * Guarda los datasets de valoraciones, contenido y usuarios del dataset
+     * indicado. El contenido y los usuarios solo se guardan si el dataset los
+     * proporciona.
+     *
+     * @param datasetLoader Dataset que se desea almacenar.
+     */
+    public void saveDataset(DatasetLoader<? extends Rating> datasetLoader) {
+        saveRatingsDataset(datasetLoader.getRatingsDataset());
+
+        if (datasetLoader instanceof ContentDatasetLoader) {
+            saveContentDataset(((ContentDatasetLoader) datasetLoader).getContentDataset());
+        }
+        if (datasetLoader instanceof UsersDatasetLoader) {
+            saveUsersDataset(((UsersDatasetLoader) datasetLoader).getUsersDataset());
+        }
+    }
+
+    @Override
+    public void saveRatingsDataset(RatingsDataset<? extends Rating> rd) {
+        try {
+            new RatingsDatasetToBinary().writeDataset(rd, getRATINGS_FILE());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public void saveContentDataset(ContentDataset cd) {
+        try {
+            new EntitiesDatasetToBinary().writeContentDataset(cd, getCONTENT_FILE());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public void saveUsersDataset(UsersDataset usersDataset) throws CannotSaveUsersDataset {
+        try {
+            new EntitiesDatasetToBinary().writeUsersDataset(usersDataset, getUSERS_FILE());
+        } catch (IOException ex) {
+            throw new CannotSaveUsersDataset(ex);
+        }
+    }
+
+    @Override
+    public RatingsDataset<? extends Rating> loadRatingsDataset() throws CannotLoadRatingsDataset, FileNotFoundException {
+        checkExists(getRATINGS_FILE());
+        return new MappedRatingsDataset(getRATINGS_FILE());
+    }
+
+    @Override
+    public ContentDataset loadContentDataset() throws CannotLoadContentDataset, FileNotFoundException {
+        checkExists(getCONTENT_FILE());
+        return new EntitiesDatasetToBinary().readContentDataset(getCONTENT_FILE());
+    }
+
+    @Override
+    public UsersDataset loadUsersDataset() throws CannotLoadUsersDataset, FileNotFoundException {
+        checkExists(getUSERS_FILE());
+        return new EntitiesDatasetToBinary().readUsersDataset(getUSERS_FILE());
+    }
+
+    public File getRATINGS_FILE() {
+        return (File) getParameterValue(RATINGS_FILE);
+    }
+
+    public File getCONTENT_FILE() {
+        return (File) getParameterValue(CONTENT_FILE);
+    }
+
+    public File getUSERS_FILE() {
+        return (File) getParameterValue(USERS_FILE);
+    }
+
+    private static void checkExists(File file) throws FileNotFoundException {
+        if (!file.exists()) {
+            throw new FileNotFoundException("The file '" + file.getAbsolutePath() + "' does not exist.");
+        }
+    }
+}
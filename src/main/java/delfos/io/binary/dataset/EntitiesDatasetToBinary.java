@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.io.binary.dataset;
+
+import delfos.common.FileUtilities;
+import delfos.common.exceptions.dataset.CannotLoadContentDataset;
+import delfos.common.exceptions.dataset.CannotLoadUsersDataset;
+import delfos.dataset.basic.features.CollectionOfEntitiesWithFeatures;
+import delfos.dataset.basic.features.EntityWithFeatures;
+import delfos.dataset.basic.features.Feature;
+import delfos.dataset.basic.features.FeatureGenerator;
+import delfos.dataset.basic.item.ContentDataset;
+import delfos.dataset.basic.item.ContentDatasetDefault;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.basic.user.UsersDataset;
+import delfos.dataset.basic.user.UsersDatasetAdapter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Lee y escribe datasets de usuarios y de contenido en formato binario. El
+ * fichero contiene el diccionario de características, por su nombre extendido,
+ * y después cada entidad con su id, su nombre y los valores de las
+ * características que tiene definidas, en el formato de
+ * {@link delfos.dataset.basic.features.FeatureType#featureValueToString(java.lang.Object)}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class EntitiesDatasetToBinary {
+
+    /**
+     * Número mágico de los ficheros de usuarios, "DLFSUSRS" en ASCII.
+     */
+    public static final long USERS_MAGIC = 0x444C465355535253L;
+    /**
+     * Número mágico de los ficheros de contenido, "DLFSITMS" en ASCII.
+     */
+    public static final long CONTENT_MAGIC = 0x444C465349544D53L;
+    public static final int VERSION = 1;
+
+    public void writeUsersDataset(UsersDataset usersDataset, File file) throws IOException {
+        writeEntities(usersDataset, USERS_MAGIC, file);
+    }
+
+    public void writeContentDataset(ContentDataset contentDataset, File file) throws IOException {
+        writeEntities(contentDataset, CONTENT_MAGIC, file);
+    }
+
+    public UsersDataset readUsersDataset(File file) throws CannotLoadUsersDataset {
+        Set<User> users = new TreeSet<>();
+        try {
+            readEntities(file, USERS_MAGIC, (id, name, features, values) -> users.add(new User(id, name, features, values)));
+        } catch (IOException ex) {
+            throw new CannotLoadUsersDataset(ex);
+        }
+        return new UsersDatasetAdapter(users);
+    }
+
+    public ContentDataset readContentDataset(File file) throws CannotLoadContentDataset {
+        Set<Item> items = new TreeSet<>();
+        try {
+            readEntities(file, CONTENT_MAGIC, (id, name, features, values) -> items.add(new Item(id, name, features, values)));
+        } catch (IOException ex) {
+            throw new CannotLoadContentDataset(ex);
+        }
+        return new ContentDatasetDefault(items);
+    }
+
+    private static void writeEntities(CollectionOfEntitiesWithFeatures<? extends EntityWithFeatures> entities, long magic, File file) throws IOException {
+        Feature[] features = entities.getFeatures();
+        Map<Feature, Integer> featureIndex = new HashMap<>();
+        for (int i = 0; i < features.length; i++) {
+            featureIndex.put(features[i], i);
+        }
+
+        FileUtilities.createDirectoriesForFile(file);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            output.writeLong(magic);
+            output.writeInt(VERSION);
+            output.writeInt(features.length);
+            for (Feature feature : features) {
+                writeString(output, feature.getExtendedName());
+            }
+
+            output.writeInt(entities.size());
+            for (EntityWithFeatures entity : entities) {
+                Feature[] entityFeatures = entity.getFeatures().stream()
+                        .filter(feature -> entity.getFeatureValue(feature) != null)
+                        .toArray(Feature[]::new);
+
+                output.writeInt(entity.getId());
+                writeString(output, entity.getName());
+                output.writeInt(entityFeatures.length);
+                for (Feature feature : entityFeatures) {
+                    Integer index = featureIndex.get(feature);
+                    if (index == null) {
+                        throw new IllegalArgumentException("Feature '" + feature.getExtendedName() + "' of entity " + entity.getId() + " is not in the dataset features " + Arrays.toString(features));
+                    }
+                    output.writeInt(index);
+                    writeString(output, feature.getType().featureValueToString(entity.getFeatureValue(feature)));
+                }
+            }
+        }
+    }
+
+    private static void readEntities(File file, long magic, EntityConsumer consumer) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (input.readLong() != magic) {
+                throw new IOException("The file '" + file.getAbsolutePath() + "' is not a binary dataset of the expected type.");
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of binary dataset '" + file.getAbsolutePath() + "'");
+            }
+
+            FeatureGenerator featureGenerator = new FeatureGenerator();
+            Feature[] features = new Feature[input.readInt()];
+            for (int i = 0; i < features.length; i++) {
+                features[i] = featureGenerator.createFeatureByExtendedName(readString(input));
+            }
+
+            int numEntities = input.readInt();
+            for (int n = 0; n < numEntities; n++) {
+                int id = input.readInt();
+                String name = readString(input);
+                Feature[] entityFeatures = new Feature[input.readInt()];
+                Object[] values = new Object[entityFeatures.length];
+                for (int i = 0; i < entityFeatures.length; i++) {
+                    entityFeatures[i] = features[input.readInt()];
+                    values[i] = entityFeatures[i].getType().parseFeatureValue(readString(input));
+                }
+                consumer.accept(id, name, entityFeatures, values);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface EntityConsumer {
+
+        void accept(int id, String name, Feature[] features, Object[] values);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.io.binary.dataset;
+
+import delfos.common.FileUtilities;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.storage.mapped.MappedRatingsDataset;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Escribe un dataset de valoraciones en el formato binario que lee
+ * {@link MappedRatingsDataset}.
+ *
+ * <p>
+ * Los valores se guardan en precisión simple si todas las valoraciones se
+ * pueden representar sin pérdida como float, y en precisión doble en otro caso.
+ * El fichero se escribe en un fichero temporal y después se renombra, para que
+ * las JVM que tengan proyectada una versión anterior no lean un fichero a
+ * medio escribir.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RatingsDatasetToBinary {
+
+    /**
+     * Escribe el dataset de valoraciones en el fichero indicado.
+     *
+     * @param ratingsDataset Dataset de valoraciones.
+     * @param file Fichero destino.
+     * @throws IOException Si no se puede escribir el fichero.
+     */
+    public void writeDataset(RatingsDataset<? extends Rating> ratingsDataset, File file) throws IOException {
+        int[] userIds = ratingsDataset.allUsers().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] itemIds = ratingsDataset.allRatedItems().stream().mapToInt(Integer::intValue).sorted().toArray();
+
+        RatingsVector[] userVectors = new RatingsVector[userIds.length];
+        for (int userIndex = 0; userIndex < userIds.length; userIndex++) {
+            userVectors[userIndex] = ratingsDataset.getUserRatingsVector(userIds[userIndex]);
+        }
+        RatingsVector[] itemVectors = new RatingsVector[itemIds.length];
+        for (int itemIndex = 0; itemIndex < itemIds.length; itemIndex++) {
+            itemVectors[itemIndex] = ratingsDataset.getItemRatingsVector(itemIds[itemIndex]);
+        }
+
+        long numRatingsLong = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        boolean floatValues = true;
+        for (RatingsVector userVector : userVectors) {
+            numRatingsLong += userVector.size();
+            for (double value : userVector.getValues()) {
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                floatValues &= (double) (float) value == value;
+            }
+        }
+        if (numRatingsLong > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The dataset has too many ratings for the binary format: " + numRatingsLong);
+        }
+        int numRatings = (int) numRatingsLong;
+        double mean = numRatings == 0 ? Double.NaN : sum / numRatings;
+        if (numRatings == 0) {
+            min = Double.NaN;
+            max = Double.NaN;
+        }
+
+        long[] sectionOffsets = MappedRatingsDataset.getSectionOffsets(userIds.length, itemIds.length, numRatings, !floatValues);
+
+        FileUtilities.createDirectoriesForFile(file);
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (CountingOutput output = new CountingOutput(temporaryFile)) {
+            output.writeLong(MappedRatingsDataset.MAGIC);
+            output.writeInt(MappedRatingsDataset.VERSION);
+            output.writeInt(floatValues ? 0 : MappedRatingsDataset.FLAG_DOUBLE_VALUES);
+            output.writeInt(userIds.length);
+            output.writeInt(itemIds.length);
+            output.writeInt(numRatings);
+            output.writeInt(0);
+            output.writeDouble(mean);
+            output.writeDouble(min);
+            output.writeDouble(max);
+            output.writeLong(0);
+
+            output.startSection(sectionOffsets[MappedRatingsDataset.USER_IDS]);
+            output.writeInts(userIds);
+            output.startSection(sectionOffsets[MappedRatingsDataset.ITEM_IDS]);
+            output.writeInts(itemIds);
+
+            writeRows(output, sectionOffsets, MappedRatingsDataset.USER_OFFSETS, userVectors, itemIds, floatValues);
+            writeRows(output, sectionOffsets, MappedRatingsDataset.ITEM_OFFSETS, itemVectors, userIds, floatValues);
+
+            output.startSection(sectionOffsets[MappedRatingsDataset.USER_SUMS]);
+            writeSums(output, userVectors);
+            output.startSection(sectionOffsets[MappedRatingsDataset.ITEM_SUMS]);
+            writeSums(output, itemVectors);
+            output.startSection(sectionOffsets[MappedRatingsDataset.NUM_SECTIONS]);
+        }
+
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Escribe las secciones de desplazamientos, columnas y valores de una de
+     * las dos ordenaciones de las valoraciones.
+     */
+    private static void writeRows(CountingOutput output, long[] sectionOffsets, int offsetsSection,
+            RatingsVector[] rows, int[] columnIds, boolean floatValues) throws IOException {
+
+        output.startSection(sectionOffsets[offsetsSection]);
+        int position = 0;
+        output.writeInt(position);
+        for (RatingsVector row : rows) {
+            position += row.size();
+            output.writeInt(position);
+        }
+
+        output.startSection(sectionOffsets[offsetsSection + 1]);
+        for (RatingsVector row : rows) {
+            for (int id : row.getIds()) {
+                int column = Arrays.binarySearch(columnIds, id);
+                if (column < 0) {
+                    throw new IllegalStateException("The id " + id + " is not indexed in the ratings dataset");
+                }
+                output.writeInt(column);
+            }
+        }
+
+        output.startSection(sectionOffsets[offsetsSection + 2]);
+        for (RatingsVector row : rows) {
+            for (double value : row.getValues()) {
+                if (floatValues) {
+                    output.writeFloat((float) value);
+                } else {
+                    output.writeDouble(value);
+                }
+            }
+        }
+    }
+
+    private static void writeSums(CountingOutput output, RatingsVector[] rows) throws IOException {
+        for (RatingsVector row : rows) {
+            double sum = 0;
+            for (double value : row.getValues()) {
+                sum += value;
+            }
+            output.writeDouble(sum);
+        }
+    }
+
+    /**
+     * Salida que rellena con ceros hasta el inicio de cada sección y comprueba
+     * que lo escrito coincide con las posiciones calculadas. Cuenta los bytes
+     * con un long, ya que el fichero puede superar los 2GB.
+     */
+    private static final class CountingOutput extends DataOutputStream {
+
+        private final ByteCounter counter;
+
+        private CountingOutput(File file) throws IOException {
+            this(new ByteCounter(new BufferedOutputStream(new FileOutputStream(file), 1 << 16)));
+        }
+
+        private CountingOutput(ByteCounter counter) {
+            super(counter);
+            this.counter = counter;
+        }
+
+        private void startSection(long sectionOffset) throws IOException {
+            if (counter.count > sectionOffset) {
+                throw new IllegalStateException("Section overflow: written " + counter.count + " bytes, section starts at " + sectionOffset);
+            }
+            while (counter.count < sectionOffset) {
+                write(0);
+            }
+        }
+
+        private void writeInts(int[] values) throws IOException {
+            for (int value : values) {
+                writeInt(value);
+            }
+        }
+    }
+
+    private static final class ByteCounter extends FilterOutputStream {
+
+        private long count = 0;
+
+        private ByteCounter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
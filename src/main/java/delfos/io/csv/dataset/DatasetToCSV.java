@@ -34,6 +34,7 @@ import delfos.io.csv.dataset.item.ContentDatasetToCSV;
 import delfos.io.csv.dataset.item.DefaultContentDatasetToCSV;
 import delfos.io.csv.dataset.rating.RatingsDatasetToCSV;
 import delfos.io.csv.dataset.rating.RatingsDatasetToCSV_JavaCSV20;
+import delfos.io.csv.dataset.rating.RatingsDatasetToCSV_Streaming;
 import delfos.io.csv.dataset.user.DefaultUsersDatasetToCSV;
 import delfos.io.csv.dataset.user.UsersDatasetToCSV;
 import delfos.io.types.DatasetSaver;
@@ -113,7 +114,7 @@ public class DatasetToCSV extends DatasetSaver {
 
     @Override
     public RatingsDataset<? extends Rating> loadRatingsDataset() throws CannotLoadRatingsDataset, FileNotFoundException {
-        RatingsDatasetToCSV ratingsDatasetToCSV = new RatingsDatasetToCSV_JavaCSV20();
+        RatingsDatasetToCSV ratingsDatasetToCSV = new RatingsDatasetToCSV_Streaming();
         Collection<Rating> ratings = ratingsDatasetToCSV.readRatingsDataset(getRATINGS_FILE());
         return new BothIndexRatingsDataset(ratings);
     }
@@ -16,15 +16,15 @@
  */
 package delfos.io.csv.dataset.rating;
 
-import delfos.common.Global;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -42,7 +42,10 @@ public class CSVReader {
 
     private final BufferedReader reader;
 
+    private final Pattern fieldSeparatorPattern;
+
     private String rawRecord;
+    private String[] record;
 
     private final Map<String, Integer> headerIndex;
     private boolean headersAlreadyReaded;
@@ -52,6 +55,8 @@ public class CSVReader {
         this.stringSeparator = stringSeparator;
         this.fieldSeparator = fieldSeparator;
 
+        this.fieldSeparatorPattern = Pattern.compile(Pattern.quote(fieldSeparator));
+
         reader = new BufferedReader(new FileReader(csvFile));
         headerIndex = new TreeMap<String, Integer>();
     }
@@ -62,21 +67,28 @@ public class CSVReader {
 
     public String[] splitRecord(String rawRecord) {
         if (!rawRecord.contains(stringSeparator)) {
-            return rawRecord.split(fieldSeparator);
+            return fieldSeparatorPattern.split(rawRecord);
         } else {
-
-            Matcher ma = Pattern.compile("(?:\\s*(?:\\\"([^\\\"]*)\\\"|([^,]+))\\s*,?)+?").matcher(rawRecord);
-            while (ma.find()) {
-                if (ma.group(1) == null) {
-                    Global.showln(ma.group(2));
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (i < rawRecord.length()) {
+                if (rawRecord.startsWith(stringSeparator, i)) {
+                    quoted = !quoted;
+                    i += stringSeparator.length();
+                } else if (!quoted && rawRecord.startsWith(fieldSeparator, i)) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    i += fieldSeparator.length();
                 } else {
-                    Global.showln(ma.group(1));
+                    field.append(rawRecord.charAt(i));
+                    i++;
                 }
             }
+            fields.add(field.toString());
+            return fields.toArray(new String[0]);
         }
-
-        return null;
-
     }
 
     public String[] readHeaders() throws IOException {
@@ -99,7 +111,7 @@ public class CSVReader {
         rawRecord = reader.readLine();
 
         if (rawRecord != null) {
-            String[] records = splitRecord(rawRecord);
+            record = splitRecord(rawRecord);
             return true;
         } else {
             return false;
@@ -107,7 +119,7 @@ public class CSVReader {
     }
 
     public String get(int index) {
-        return splitRecord(rawRecord)[index];
+        return record[index];
     }
 
     public String get(String headerName) {
@@ -124,6 +136,7 @@ public class CSVReader {
 
     public void close() throws IOException {
         rawRecord = null;
+        record = null;
         reader.close();
     }
 
@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.io.csv.dataset.rating;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsColumns;
+import delfos.dataset.basic.rating.RatingsDataset;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lector de ficheros CSV de valoraciones pensado para ficheros grandes. El
+ * fichero se lee por bloques, que se analizan en paralelo directamente desde
+ * los bytes a columnas primitivas ({@link RatingsColumns}), sin crear objetos
+ * {@link String} ni {@link Rating} por cada valoración. Admite ficheros
+ * comprimidos con gzip, que se detectan por su cabecera.
+ *
+ * <p>
+ * El fichero debe tener una cabecera con las columnas
+ * {@link RatingsDatasetToCSV#ID_USER_COLUMN_NAME},
+ * {@link RatingsDatasetToCSV#ID_ITEM_COLUMN_NAME} y
+ * {@link RatingsDatasetToCSV#RATING_COLUMN_NAME}, en cualquier orden. El resto
+ * de columnas se ignoran. Los registros que no se pueden leer se descartan con
+ * un aviso, igual que en {@link RatingsDatasetToCSV_JavaCSV20}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RatingsDatasetToCSV_Streaming implements RatingsDatasetToCSV {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    /**
+     * Número de valoraciones entre dos mensajes de progreso.
+     */
+    public static final int PROGRESS_STEP = 1000000;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    /**
+     * Capacidad inicial de las columnas. Crecen según se leen valoraciones y
+     * se ajustan al terminar, ya que el tamaño del fichero no permite estimar
+     * bien el número de valoraciones (por ejemplo, si está comprimido).
+     */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private final byte fieldSeparator;
+    private final int numThreads;
+    private final int chunkSize;
+
+    public RatingsDatasetToCSV_Streaming() {
+        this(',', Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Crea el lector.
+     *
+     * @param fieldSeparator Carácter que separa las columnas.
+     * @param numThreads Número de hilos que analizan los bloques.
+     * @param chunkSize Tamaño en bytes de cada bloque.
+     */
+    public RatingsDatasetToCSV_Streaming(char fieldSeparator, int numThreads, int chunkSize) {
+        if (fieldSeparator > 127) {
+            throw new IllegalArgumentException("The field separator must be an ASCII character: '" + fieldSeparator + "'");
+        }
+        if (numThreads < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Number of threads and chunk size must be positive (" + numThreads + ", " + chunkSize + ")");
+        }
+        this.fieldSeparator = (byte) fieldSeparator;
+        this.numThreads = numThreads;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Collection<Rating> readRatingsDataset(File ratingsFile) throws CannotLoadRatingsDataset, FileNotFoundException {
+        return readRatingsColumns(ratingsFile).asRatings();
+    }
+
+    @Override
+    public <RatingType extends Rating> void writeDataset(RatingsDataset<RatingType> ratingsDataset, String fileName) throws IOException {
+        new RatingsDatasetToCSV_JavaCSV20().writeDataset(ratingsDataset, fileName);
+    }
+
+    /**
+     * Lee las valoraciones del fichero en columnas primitivas.
+     *
+     * @param ratingsFile Fichero de valoraciones, opcionalmente comprimido con
+     * gzip.
+     * @return Valoraciones del fichero, en el mismo orden.
+     * @throws CannotLoadRatingsDataset Si el fichero no se puede leer o no
+     * tiene las columnas necesarias.
+     * @throws FileNotFoundException Si el fichero no existe.
+     */
+    public RatingsColumns readRatingsColumns(File ratingsFile) throws CannotLoadRatingsDataset, FileNotFoundException {
+        Global.showInfoMessage("Loading ratings dataset from " + ratingsFile.getAbsolutePath() + "\n");
+
+        ExecutorService executor = numThreads == 1 ? null : Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "CSV ratings parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (InputStream input = open(ratingsFile)) {
+            ColumnIndexes columns = readHeaders(input, ratingsFile);
+
+            RatingsColumns ratings = new RatingsColumns(INITIAL_CAPACITY);
+            Progress progress = new Progress();
+            Deque<Future<RatingsColumns>> pending = new ArrayDeque<>();
+
+            byte[] buffer = new byte[chunkSize];
+            int length = 0;
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                int read = input.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    endOfFile = true;
+                } else {
+                    length += read;
+                    if (length < buffer.length) {
+                        continue;
+                    }
+                }
+
+                int chunkEnd = endOfFile ? length : lastLineEnd(buffer, length);
+                if (chunkEnd <= 0) {
+                    if (!endOfFile) {
+                        //Una línea más larga que el bloque: se amplía el buffer.
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    continue;
+                }
+
+                byte[] chunk = buffer;
+                int chunkLength = chunkEnd;
+                buffer = new byte[Math.max(chunkSize, length - chunkEnd)];
+                System.arraycopy(chunk, chunkEnd, buffer, 0, length - chunkEnd);
+                length -= chunkEnd;
+
+                if (executor == null) {
+                    ratings.addAll(parseChunk(chunk, chunkLength, columns));
+                    progress.update(ratings.size());
+                } else {
+                    pending.add(executor.submit(() -> parseChunk(chunk, chunkLength, columns)));
+                    while (pending.size() > 2 * numThreads) {
+                        ratings.addAll(pending.poll().get());
+                        progress.update(ratings.size());
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                ratings.addAll(pending.poll().get());
+                progress.update(ratings.size());
+            }
+            progress.finish(ratings.size());
+            ratings.trimToSize();
+            return ratings;
+        } catch (FileNotFoundException ex) {
+            throw ex;
+        } catch (IOException ex) {
+            throw new CannotLoadRatingsDataset(ex.getMessage() + "[File '" + ratingsFile.getAbsolutePath() + "']", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CannotLoadRatingsDataset(ex);
+        } catch (ExecutionException ex) {
+            throw new CannotLoadRatingsDataset(ex.getCause());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static InputStream open(File ratingsFile) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(new FileInputStream(ratingsFile), 1 << 16);
+        input.mark(2);
+        int magic = input.read() | (input.read() << 8);
+        input.reset();
+        if (magic == GZIP_MAGIC) {
+            return new GZIPInputStream(input, 1 << 16);
+        } else {
+            return input;
+        }
+    }
+
+    /**
+     * Devuelve la posición siguiente al último salto de línea del buffer, o
+     * cero si no hay ninguno.
+     */
+    private static int lastLineEnd(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private ColumnIndexes readHeaders(InputStream input, File ratingsFile) throws IOException {
+        byte[] lineBytes = new byte[256];
+        int length = 0;
+        int b;
+        while ((b = input.read()) >= 0 && b != '\n') {
+            if (length == lineBytes.length) {
+                lineBytes = Arrays.copyOf(lineBytes, length * 2);
+            }
+            lineBytes[length++] = (byte) b;
+        }
+        String headerLine = new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+
+        String[] headers = headerLine.split(Pattern.quote(String.valueOf((char) fieldSeparator)), -1);
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = headers[i].trim().replace("\"", "");
+        }
+
+        try {
+            return new ColumnIndexes(
+                    headerIndex(headers, ID_USER_COLUMN_NAME),
+                    headerIndex(headers, ID_ITEM_COLUMN_NAME),
+                    headerIndex(headers, RATING_COLUMN_NAME));
+        } catch (CannotLoadRatingsDataset ex) {
+            throw new CannotLoadRatingsDataset(ex.getMessage() + "[File '" + ratingsFile.getAbsolutePath() + "']", ex);
+        }
+    }
+
+    private static int headerIndex(String[] headers, String headerThatMustBePresent) {
+        for (int i = 0; i < headers.length; i++) {
+            if (headers[i].equals(headerThatMustBePresent)) {
+                return i;
+            }
+        }
+        throw new CannotLoadRatingsDataset("Header '" + headerThatMustBePresent + "' is not present");
+    }
+
+    /**
+     * Analiza las líneas completas de un bloque.
+     */
+    private RatingsColumns parseChunk(byte[] chunk, int length, ColumnIndexes columns) {
+        RatingsColumns ratings = new RatingsColumns(Math.max(16, length / 16));
+        int lastColumn = Math.max(columns.idUser, Math.max(columns.idItem, columns.rating));
+
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chunk[lineEnd] != '\n') {
+                lineEnd++;
+            }
+
+            if (!isBlankLine(chunk, lineStart, lineEnd)) {
+                try {
+                    parseLine(chunk, lineStart, lineEnd, columns, lastColumn, ratings);
+                } catch (NumberFormatException ex) {
+                    Global.showWarning("Raw record  '" + new String(chunk, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8).trim() + "' ignored: " + ex.getMessage() + "\n");
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return ratings;
+    }
+
+    private void parseLine(byte[] chunk, int lineStart, int lineEnd, ColumnIndexes columns, int lastColumn, RatingsColumns ratings) {
+        int idUser = 0;
+        int idItem = 0;
+        double value = 0;
+        int fieldStart = lineStart;
+        for (int column = 0; column <= lastColumn; column++) {
+            if (fieldStart > lineEnd) {
+                throw new NumberFormatException("Missing columns");
+            }
+            int fieldEnd = fieldStart;
+            while (fieldEnd < lineEnd && chunk[fieldEnd] != fieldSeparator) {
+                fieldEnd++;
+            }
+            if (column == columns.idUser) {
+                idUser = parseInt(chunk, fieldStart, fieldEnd);
+            } else if (column == columns.idItem) {
+                idItem = parseInt(chunk, fieldStart, fieldEnd);
+            } else if (column == columns.rating) {
+                value = parseDouble(chunk, fieldStart, fieldEnd);
+            }
+            fieldStart = fieldEnd + 1;
+        }
+        ratings.add(idUser, idItem, value);
+    }
+
+    private static boolean isBlankLine(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] != ' ' && bytes[i] != '\t' && bytes[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '"';
+    }
+
+    /**
+     * Convierte los bytes a entero, ignorando espacios y comillas alrededor.
+     */
+    static int parseInt(byte[] bytes, int start, int end) {
+        while (start < end && isBlank(bytes[start])) {
+            start++;
+        }
+        while (end > start && isBlank(bytes[end - 1])) {
+            end--;
+        }
+        boolean negative = start < end && bytes[start] == '-';
+        if (negative || start < end && bytes[start] == '+') {
+            start++;
+        }
+        if (start == end) {
+            throw new NumberFormatException("Empty number");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Integer overflow: \"" + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Integer overflow: \"" + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+        }
+        return (int) value;
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * Convierte los bytes a double. Los números decimales con hasta 15 cifras
+     * significativas se convierten directamente, con el mismo resultado que
+     * {@link Double#parseDouble(java.lang.String)}; el resto de formatos se
+     * delegan en este método.
+     */
+    static double parseDouble(byte[] bytes, int start, int end) {
+        while (start < end && isBlank(bytes[start])) {
+            start++;
+        }
+        while (end > start && isBlank(bytes[end - 1])) {
+            end--;
+        }
+        int i = start;
+        boolean negative = i < end && bytes[i] == '-';
+        if (negative || i < end && bytes[i] == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = 0;
+        boolean point = false;
+        boolean simple = i < end;
+        for (; i < end && simple; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (point) {
+                    decimals++;
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                simple = false;
+            }
+        }
+        if (simple && digits > 0 && digits <= 15) {
+            double value = mantissa / POWERS_OF_TEN[decimals];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    private static final class ColumnIndexes {
+
+        private final int idUser;
+        private final int idItem;
+        private final int rating;
+
+        private ColumnIndexes(int idUser, int idItem, int rating) {
+            this.idUser = idUser;
+            this.idItem = idItem;
+            this.rating = rating;
+        }
+    }
+
+    /**
+     * Muestra el número de valoraciones leídas y la velocidad de lectura.
+     */
+    private static final class Progress {
+
+        private final Chronometer chronometer = new Chronometer();
+        private long nextReport = PROGRESS_STEP;
+
+        private void update(long numRatings) {
+            if (numRatings >= nextReport) {
+                Global.showInfoMessage("Loading CSV --> " + numRatings / PROGRESS_STEP + " millions ratings, "
+                        + ratingsPerSecond(numRatings) + " ratings/s " + chronometer.printTotalElapsed() + "\n");
+                nextReport = (numRatings / PROGRESS_STEP + 1) * PROGRESS_STEP;
+            }
+        }
+
+        private void finish(long numRatings) {
+            Global.showInfoMessage("Loaded " + numRatings + " ratings, "
+                    + ratingsPerSecond(numRatings) + " ratings/s " + chronometer.printTotalElapsed() + "\n");
+        }
+
+        private long ratingsPerSecond(long numRatings) {
+            return numRatings * 1000 / Math.max(1, chronometer.getTotalElapsed());
+        }
+    }
+}
@@ -66,6 +66,12 @@ public class CaseStudyXML {
     public static final String CASE_ROOT_ELEMENT_NAME = "Case";
     public static final String AGGREGATE_VALUES_ELEMENT_NAME = "Aggregate_values";
     public static final String EXECUTIONS_RESULTS_ELEMENT_NAME = "Executions";
+    /**
+     * Atributo que distingue las medidas del modelo de recomendación (por
+     * ejemplo, la proporción de vecinos recuperados) de las medidas de
+     * evaluación.
+     */
+    public static final String MODEL_MEASURE_ATTRIBUTE_NAME = "modelMeasure";
 
     private static Element getResultsElement(CaseStudy c) {
 
@@ -82,6 +88,9 @@ public class CaseStudyXML {
                     MeasureResult mr = c.getMeasureResult(em, ex, nSplit);
                     split.addContent((Element) mr.getXMLElement().clone());
                 }
+                for (Map.Entry<String, Double> modelMeasure : c.getModelMeasures(ex, nSplit).entrySet()) {
+                    split.addContent(getModelMeasureElement(modelMeasure.getKey(), modelMeasure.getValue()));
+                }
                 ejecucion.addContent(split);
             }
             ejecuciones.addContent(ejecucion);
@@ -96,9 +105,30 @@ public class CaseStudyXML {
             mediaMedidas.addContent(element);
         }
 
+        Map<String, Double> sums = new TreeMap<>();
+        Map<String, Integer> counts = new TreeMap<>();
+        for (int ex = 0; ex < c.getNumExecutions(); ex++) {
+            for (int nSplit = 0; nSplit < c.getNumberOfSplits(); nSplit++) {
+                for (Map.Entry<String, Double> modelMeasure : c.getModelMeasures(ex, nSplit).entrySet()) {
+                    sums.merge(modelMeasure.getKey(), modelMeasure.getValue(), Double::sum);
+                    counts.merge(modelMeasure.getKey(), 1, Integer::sum);
+                }
+            }
+        }
+        for (String modelMeasureName : sums.keySet()) {
+            mediaMedidas.addContent(getModelMeasureElement(modelMeasureName, sums.get(modelMeasureName) / counts.get(modelMeasureName)));
+        }
+
         return mediaMedidas;
     }
 
+    private static Element getModelMeasureElement(String name, double value) {
+        Element element = new Element(name);
+        element.setAttribute("value", Double.toString(value));
+        element.setAttribute(MODEL_MEASURE_ATTRIBUTE_NAME, Boolean.TRUE.toString());
+        return element;
+    }
+
     public synchronized static void caseStudyToXMLFile(CaseStudy caseStudy, File file) {
         if (!caseStudy.isFinished()) {
             throw new UnsupportedOperationException("No se ha ejecutado el caso de uso todavía");
@@ -367,6 +397,9 @@ public class CaseStudyXML {
         long recommendationTime = -1;
 
         for (Element child : element.getChildren()) {
+            if (child.getAttribute(MODEL_MEASURE_ATTRIBUTE_NAME) != null) {
+                continue;
+            }
             String evaluationMeasureName = child.getName();
 
             EvaluationMeasure evaluationMeasure = EvaluationMeasuresFactory.getInstance().getClassByName(evaluationMeasureName);
@@ -102,6 +102,8 @@ public class Main {
         caseUse.add(delfos.main.managers.recommendation.singleuser.gui.swing.BuildConfigurationFileGUI.getInstance());
         caseUse.add(delfos.main.managers.recommendation.singleuser.gui.swing.RecommendationGUI.getInstance());
 
+        caseUse.add(delfos.main.managers.recommendation.batch.BatchRecommendation.getInstance());
+
         caseUse.add(delfos.main.managers.recommendation.nonpersonalised.NonPersonalisedRecommendation.getInstance());
 
         caseUse.add(delfos.main.managers.recommendation.group.GroupRecommendation.getInstance());
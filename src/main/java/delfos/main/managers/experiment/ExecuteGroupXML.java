@@ -22,6 +22,7 @@ import delfos.UndefinedParameterException;
 import delfos.common.Global;
 import delfos.common.exceptions.dataset.CannotLoadContentDataset;
 import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
+import delfos.dataset.basic.loader.SharedDatasetRegistry;
 import delfos.group.casestudy.fromxmlfiles.GroupXMLexperimentsExecution;
 import delfos.group.io.xml.casestudy.GroupCaseStudyXML;
 import delfos.main.managers.CaseUseMode;
@@ -48,6 +49,13 @@ public class ExecuteGroupXML extends CaseUseMode {
     public static final String NUM_EXEC_PARAMETER = ExecuteXML.NUM_EXEC_PARAMETER;
     public static final String FORCE_EXECUTION = ExecuteXML.FORCE_EXECUTION;
 
+    /**
+     * Executes every experiment subdirectory of the directory in this JVM, so
+     * the experiments that use the same dataset share it through the
+     * {@link SharedDatasetRegistry}.
+     */
+    public static final String BATCH = "--batch";
+
     @Override
     public String getModeParameter() {
         return MODE_PARAMETER;
@@ -115,20 +123,34 @@ public class ExecuteGroupXML extends CaseUseMode {
             long SEED = getSeed(consoleParameters);
             boolean forceReExecution = isForceExecution(consoleParameters);
 
-            consoleParameters.printUnusedParameters(System.err);
+            boolean batch = consoleParameters.isFlagDefined(BATCH);
 
-            if (shouldExecuteTheExperiment(xmlExperimentsDirectory, NUM_EJECUCIONES, forceReExecution)) {
+            consoleParameters.printUnusedParameters(System.err);
 
-                Global.showMessageTimestamped("The experiment is going to be executed (" + xmlExperimentsDirectory.getAbsolutePath() + ")");
-                manageCaseUse(xmlExperimentsDirectory, xmlExperimentsDirectory + File.separator + "dataset" + File.separator, NUM_EJECUCIONES, SEED);
+            if (batch) {
+                File[] experimentDirectories = xmlExperimentsDirectory.listFiles(file -> file.isDirectory() && !file.getName().startsWith("."));
+                Arrays.sort(experimentDirectories);
+                for (File experimentDirectory : experimentDirectories) {
+                    executeIfNeeded(experimentDirectory, NUM_EJECUCIONES, SEED, forceReExecution);
+                }
             } else {
-                Global.showMessageTimestamped("The experiment was already executed. (" + xmlExperimentsDirectory.getPath() + ")");
+                executeIfNeeded(xmlExperimentsDirectory, NUM_EJECUCIONES, SEED, forceReExecution);
             }
         } catch (UndefinedParameterException ex) {
             consoleParameters.printUnusedParameters(System.err);
         }
     }
 
+    private void executeIfNeeded(File xmlExperimentsDirectory, int NUM_EJECUCIONES, long SEED, boolean forceReExecution) {
+        if (shouldExecuteTheExperiment(xmlExperimentsDirectory, NUM_EJECUCIONES, forceReExecution)) {
+
+            Global.showMessageTimestamped("The experiment is going to be executed (" + xmlExperimentsDirectory.getAbsolutePath() + ")");
+            manageCaseUse(xmlExperimentsDirectory, xmlExperimentsDirectory + File.separator + "dataset" + File.separator, NUM_EJECUCIONES, SEED);
+        } else {
+            Global.showMessageTimestamped("The experiment was already executed. (" + xmlExperimentsDirectory.getPath() + ")");
+        }
+    }
+
     private long getSeed(ConsoleParameters consoleParameters) throws NumberFormatException {
         long SEED;
         {
@@ -17,8 +17,10 @@
 package delfos.main.managers.recommendation;
 
 import delfos.ConsoleParameters;
+import delfos.ERROR_CODES;
 import delfos.UndefinedParameterException;
 import delfos.common.Global;
+import delfos.main.managers.recommendation.server.RecommendationServer;
 import java.io.File;
 
 /**
@@ -35,6 +37,33 @@ public class ArgumentsRecommendation {
     public static final String RECOMMEND = "--recommend";
     public static final String RECOMMEND_SHORT = "--r";
 
+    /**
+     * Arranca un servidor de recomendaciones que mantiene el modelo en memoria.
+     */
+    public static final String SERVE = "--serve";
+
+    /**
+     * Puerto de la interfaz local en que escucha el servidor de
+     * recomendaciones.
+     */
+    public static final String SERVER_PORT = "-port";
+
+    /**
+     * Número de hilos con que el servidor calcula las recomendaciones.
+     */
+    public static final String SERVER_THREADS = "-server-threads";
+
+    /**
+     * Número de hilos con que se calculan las recomendaciones por lotes.
+     */
+    public static final String NUM_THREADS = "-threads";
+
+    /**
+     * Fichero de control con el que se reanuda una recomendación por lotes
+     * interrumpida.
+     */
+    public static final String CHECKPOINT_FILE = "-checkpoint";
+
     public static final String RECOMMENDER_SYSTEM_CONFIGURATION_FILE = "-rs-config";
 
     public static final String DEFAULT_RECOMMENDER_SYSTEM_CONFIGURATION_FILE = "rs-config.xml";
@@ -52,4 +81,38 @@ public class ArgumentsRecommendation {
 
         return configurationFile;
     }
+
+    public static int extractServerPort(ConsoleParameters consoleParameters) {
+        if (consoleParameters.isParameterDefined(SERVER_PORT)) {
+            return extractInteger(consoleParameters, SERVER_PORT);
+        } else {
+            return RecommendationServer.DEFAULT_PORT;
+        }
+    }
+
+    public static int extractServerThreads(ConsoleParameters consoleParameters) {
+        return extractThreads(consoleParameters, SERVER_THREADS);
+    }
+
+    public static int extractNumThreads(ConsoleParameters consoleParameters) {
+        return extractThreads(consoleParameters, NUM_THREADS);
+    }
+
+    private static int extractThreads(ConsoleParameters consoleParameters, String parameter) {
+        if (consoleParameters.isParameterDefined(parameter)) {
+            return extractInteger(consoleParameters, parameter);
+        } else {
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    private static int extractInteger(ConsoleParameters consoleParameters, String parameter) {
+        String value = consoleParameters.getValue(parameter);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            ERROR_CODES.COMMAND_LINE_PARAMETERS_ERROR.exit(new IllegalArgumentException("Parameter '" + parameter + "' must be an integer (value=" + value + ")", ex));
+            throw ex;
+        }
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.batch;
+
+import delfos.main.managers.CaseUseModeWithSubManagers;
+import delfos.main.managers.CaseUseSubManager;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Modo de recomendación por lotes, que calcula y escribe las recomendaciones
+ * de todos los usuarios en una única ejecución.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class BatchRecommendation extends CaseUseModeWithSubManagers {
+
+    /**
+     * Parámetro de la linea de comandos para usar el modo de recomendación
+     * por lotes.
+     */
+    public static final String BATCH_MODE = "--batch-recommendation";
+
+    private static final BatchRecommendation instance = new BatchRecommendation();
+
+    public static BatchRecommendation getInstance() {
+        return instance;
+    }
+
+    @Override
+    public String getModeParameter() {
+        return BATCH_MODE;
+    }
+
+    @Override
+    public Collection<CaseUseSubManager> getAllCaseUseSubManagers() {
+        ArrayList<CaseUseSubManager> allCaseUseModeSubManagers = new ArrayList<>();
+
+        allCaseUseModeSubManagers.add(RecommendToAllUsers.getInstance());
+
+        return allCaseUseModeSubManagers;
+    }
+
+}
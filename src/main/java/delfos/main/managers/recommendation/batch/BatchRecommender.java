@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.batch;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.user.User;
+import delfos.main.managers.recommendation.singleuser.Recommend;
+import delfos.rs.recommendation.RecommendationsToUser;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calcula las recomendaciones de todos los usuarios con un único modelo de
+ * recomendación ya cargado. Los usuarios se reparten en particiones que
+ * atienden varios hilos, y las recomendaciones se pasan por una cola acotada
+ * al hilo que llama, que es el único que escribe en el método de salida de la
+ * configuración. Si la salida es más lenta que el cálculo, los hilos esperan
+ * a que haya sitio en la cola.
+ *
+ * <p>
+ * Con un fichero de control ({@link #setCheckpointFile(java.io.File)}) los
+ * usuarios ya escritos se anotan, y una ejecución interrumpida se reanuda
+ * desde donde quedó.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class BatchRecommender {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    public static final int DEFAULT_PARTITION_SIZE = 64;
+
+    public static final long DEFAULT_PROGRESS_INTERVAL_MILLIS = 10000;
+
+    /**
+     * Marca que se añade a la cola cuando todos los hilos han terminado.
+     */
+    private static final RecommendationsToUser END = new RecommendationsToUser(User.ANONYMOUS_USER, Collections.emptyList());
+
+    private final RecommenderSystemConfiguration rsc;
+    private final Object recommendationModel;
+
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int partitionSize = DEFAULT_PARTITION_SIZE;
+    private long progressIntervalMillis = DEFAULT_PROGRESS_INTERVAL_MILLIS;
+    private File checkpointFile = null;
+
+    private final AtomicLong numFailed = new AtomicLong();
+    private long numWritten = 0;
+    private long numSkipped = 0;
+    private long elapsedMillis = 0;
+
+    /**
+     * Crea el recomendador por lotes.
+     *
+     * @param rsc Configuración del sistema de recomendación, de la que se
+     * toman el dataset, los productos candidatos y el método de salida.
+     * @param recommendationModel Modelo de recomendación ya cargado.
+     */
+    public BatchRecommender(RecommenderSystemConfiguration rsc, Object recommendationModel) {
+        this.rsc = rsc;
+        this.recommendationModel = recommendationModel;
+    }
+
+    public void setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive (value=" + numThreads + ")");
+        }
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Establece el número máximo de listas de recomendaciones calculadas que
+     * esperan a ser escritas.
+     *
+     * @param queueCapacity Capacidad de la cola.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive (value=" + queueCapacity + ")");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Establece el número de usuarios de cada partición que toma un hilo.
+     *
+     * @param partitionSize Número de usuarios por partición.
+     */
+    public void setPartitionSize(int partitionSize) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("Partition size must be positive (value=" + partitionSize + ")");
+        }
+        this.partitionSize = partitionSize;
+    }
+
+    /**
+     * Establece cada cuánto se informa del progreso y el rendimiento.
+     *
+     * @param progressIntervalMillis Milisegundos entre mensajes de progreso.
+     */
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    /**
+     * Establece el fichero de control con el que reanudar ejecuciones
+     * interrumpidas.
+     *
+     * @param checkpointFile Fichero de control, o null para no usarlo.
+     */
+    public void setCheckpointFile(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Devuelve el número de usuarios cuyas recomendaciones se escribieron en
+     * la última ejecución.
+     *
+     * @return Número de usuarios escritos.
+     */
+    public long getNumWritten() {
+        return numWritten;
+    }
+
+    /**
+     * Devuelve el número de usuarios que no se atendieron en la última
+     * ejecución porque ya estaban en el fichero de control.
+     *
+     * @return Número de usuarios omitidos.
+     */
+    public long getNumSkipped() {
+        return numSkipped;
+    }
+
+    /**
+     * Devuelve el número de usuarios cuyas recomendaciones fallaron en la
+     * última ejecución. No se anotan en el fichero de control, por lo que se
+     * vuelven a intentar al reanudar.
+     *
+     * @return Número de usuarios fallidos.
+     */
+    public long getNumFailed() {
+        return numFailed.get();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Devuelve el rendimiento de la última ejecución.
+     *
+     * @return Usuarios escritos por segundo.
+     */
+    public double getUsersPerSecond() {
+        return numWritten / Math.max(elapsedMillis / 1000.0, 0.001);
+    }
+
+    /**
+     * Recomienda a todos los usuarios del dataset de usuarios.
+     *
+     * @throws IOException Si no se puede leer o escribir el fichero de
+     * control.
+     */
+    public void recommendToAllUsers() throws IOException {
+        recommendToUsers(rsc.datasetLoader.getUsersDataset().allIDs());
+    }
+
+    /**
+     * Recomienda a los usuarios indicados, que se atienden en orden de
+     * identificador.
+     *
+     * @param idUsers Usuarios a los que recomendar.
+     * @throws IOException Si no se puede leer o escribir el fichero de
+     * control.
+     */
+    public void recommendToUsers(Collection<Integer> idUsers) throws IOException {
+        numWritten = 0;
+        numSkipped = 0;
+        numFailed.set(0);
+        Chronometer chronometer = new Chronometer();
+
+        try (RecommendationCheckpoint checkpoint = checkpointFile == null ? null : new RecommendationCheckpoint(checkpointFile)) {
+            List<Integer> pendingUsers = new ArrayList<>(idUsers.size());
+            for (int idUser : idUsers) {
+                if (checkpoint != null && checkpoint.isDone(idUser)) {
+                    numSkipped++;
+                } else {
+                    pendingUsers.add(idUser);
+                }
+            }
+            Collections.sort(pendingUsers);
+            if (numSkipped > 0) {
+                Global.showInfoMessage("Resuming from checkpoint '" + checkpointFile + "': " + numSkipped + " users already done\n");
+            }
+
+            BlockingQueue<RecommendationsToUser> queue = new ArrayBlockingQueue<>(queueCapacity);
+            ExecutorService workers = Executors.newFixedThreadPool(numThreads);
+            try {
+                startWorkers(workers, pendingUsers, queue);
+                writeAll(queue, checkpoint, pendingUsers.size(), chronometer);
+            } finally {
+                workers.shutdownNow();
+                elapsedMillis = chronometer.getTotalElapsed();
+            }
+        }
+
+        Global.showInfoMessage(String.format(Locale.ENGLISH,
+                "Recommended to %d users in %s (%.1f users/s), %d failed, %d skipped\n",
+                numWritten, chronometer.printTotalElapsed(), getUsersPerSecond(), getNumFailed(), numSkipped));
+    }
+
+    private void startWorkers(ExecutorService workers, List<Integer> pendingUsers, BlockingQueue<RecommendationsToUser> queue) {
+        int numPartitions = (pendingUsers.size() + partitionSize - 1) / partitionSize;
+        AtomicInteger nextPartition = new AtomicInteger();
+        AtomicInteger runningWorkers = new AtomicInteger(numThreads);
+
+        for (int i = 0; i < numThreads; i++) {
+            workers.execute(() -> {
+                try {
+                    int partition;
+                    while ((partition = nextPartition.getAndIncrement()) < numPartitions) {
+                        int from = partition * partitionSize;
+                        int to = Math.min(from + partitionSize, pendingUsers.size());
+                        for (int idUser : pendingUsers.subList(from, to)) {
+                            RecommendationsToUser recommendations = recommend(idUser);
+                            if (recommendations != null) {
+                                queue.put(recommendations);
+                            }
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    //Se ha detenido la escritura.
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (runningWorkers.decrementAndGet() == 0) {
+                        putEnd(queue);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void putEnd(BlockingQueue<RecommendationsToUser> queue) {
+        try {
+            queue.put(END);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RecommendationsToUser recommend(int idUser) {
+        try {
+            User user = rsc.datasetLoader.getUsersDataset().getUser(idUser);
+            Set<Item> candidateItems = rsc.recommendationCandidatesSelector.candidateItems(rsc.datasetLoader, user);
+            return Recommend.recommendToUser(rsc, recommendationModel, user, candidateItems,
+                    rsc.recommdendationsOutputMethod.getNumberOfRecommendations());
+        } catch (RuntimeException ex) {
+            numFailed.incrementAndGet();
+            Global.showWarning("Cannot recommend to user " + idUser + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeAll(BlockingQueue<RecommendationsToUser> queue, RecommendationCheckpoint checkpoint, int numPending, Chronometer chronometer) throws IOException {
+        long lastProgress = System.currentTimeMillis();
+        try {
+            RecommendationsToUser recommendations;
+            while ((recommendations = queue.take()) != END) {
+                rsc.recommdendationsOutputMethod.writeRecommendations(recommendations);
+                numWritten++;
+                if (checkpoint != null) {
+                    checkpoint.markDone(recommendations.getUser().getId());
+                    if (checkpoint.needsFlush()) {
+                        //Solo se anotan usuarios cuyas recomendaciones ya están escritas.
+                        rsc.recommdendationsOutputMethod.flush();
+                        checkpoint.flush();
+                    }
+                }
+
+                if (System.currentTimeMillis() - lastProgress >= progressIntervalMillis) {
+                    lastProgress = System.currentTimeMillis();
+                    double usersPerSecond = numWritten / Math.max(chronometer.getTotalElapsed() / 1000.0, 0.001);
+                    Global.showInfoMessage(String.format(Locale.ENGLISH,
+                            "Recommended to %d of %d users (%.1f users/s, %d waiting to be written)\n",
+                            numWritten, numPending, usersPerSecond, queue.size()));
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch recommendation interrupted", ex);
+        }
+        rsc.recommdendationsOutputMethod.flush();
+        if (checkpoint != null) {
+            checkpoint.flush();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.batch;
+
+import delfos.ConsoleParameters;
+import delfos.ERROR_CODES;
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.configfile.rs.single.RecommenderSystemConfigurationFileParser;
+import delfos.main.managers.CaseUseSubManager;
+import delfos.main.managers.recommendation.ArgumentsRecommendation;
+import static delfos.main.managers.recommendation.ArgumentsRecommendation.RECOMMEND;
+import static delfos.main.managers.recommendation.ArgumentsRecommendation.RECOMMEND_SHORT;
+import static delfos.main.managers.recommendation.batch.BatchRecommendation.BATCH_MODE;
+import delfos.rs.persistence.FailureInPersistence;
+import delfos.rs.persistence.PersistenceMethodStrategy;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Recomienda a todos los usuarios del dataset, cargando el modelo una sola vez.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RecommendToAllUsers extends CaseUseSubManager {
+
+    public static RecommendToAllUsers getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static class Holder {
+
+        private static final RecommendToAllUsers INSTANCE = new RecommendToAllUsers();
+    }
+
+    private RecommendToAllUsers() {
+        super(BatchRecommendation.getInstance());
+    }
+
+    @Override
+    public boolean isRightManager(ConsoleParameters consoleParameters) {
+        return consoleParameters.isFlagDefined(BATCH_MODE)
+                && (consoleParameters.isFlagDefined(RECOMMEND)
+                || consoleParameters.isFlagDefined(RECOMMEND_SHORT));
+    }
+
+    @Override
+    public void manageCaseUse(ConsoleParameters consoleParameters) {
+        String configurationFile = ArgumentsRecommendation.extractConfigurationFile(consoleParameters);
+
+        RecommenderSystemConfiguration rsc
+                = RecommenderSystemConfigurationFileParser.loadConfigFile(configurationFile);
+
+        Object recommendationModel;
+        try {
+            recommendationModel = PersistenceMethodStrategy.loadModel(rsc);
+        } catch (FailureInPersistence ex) {
+            ERROR_CODES.FAILURE_IN_PERSISTENCE.exit(ex);
+            throw new IllegalStateException(ex);
+        }
+
+        BatchRecommender batchRecommender = new BatchRecommender(rsc, recommendationModel);
+        batchRecommender.setNumThreads(ArgumentsRecommendation.extractNumThreads(consoleParameters));
+        if (consoleParameters.isParameterDefined(ArgumentsRecommendation.CHECKPOINT_FILE)) {
+            batchRecommender.setCheckpointFile(new File(consoleParameters.getValue(ArgumentsRecommendation.CHECKPOINT_FILE)));
+        }
+
+        try {
+            batchRecommender.recommendToAllUsers();
+        } catch (IOException ex) {
+            ERROR_CODES.CANNOT_WRITE_FILE.exit(ex);
+        }
+    }
+}
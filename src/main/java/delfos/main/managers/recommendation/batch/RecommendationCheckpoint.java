@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.batch;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fichero de control de una ejecución de recomendación por lotes, en el que se
+ * añade una línea por cada usuario cuyas recomendaciones ya se han escrito.
+ * Si la ejecución se interrumpe, al volver a abrir el fichero se conocen los
+ * usuarios ya atendidos para no repetirlos.
+ *
+ * <p>
+ * Los usuarios anotados solo se escriben en el fichero al llamar a
+ * {@link #flush()}, que se debe hacer después de asegurar que sus
+ * recomendaciones están escritas; al cerrar el fichero se descartan los que
+ * no se hayan volcado. Tras una caída se pueden repetir como mucho
+ * {@link #getFlushInterval()} usuarios: las recomendaciones se escriben al
+ * menos una vez.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RecommendationCheckpoint implements Closeable {
+
+    public static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+    private final File file;
+    private final Set<Integer> done = new HashSet<>();
+    private final FileOutputStream output;
+    private final Writer writer;
+    private final int flushInterval;
+    private final List<Integer> notFlushed = new ArrayList<>();
+
+    public RecommendationCheckpoint(File file) throws IOException {
+        this(file, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Abre el fichero de control, leyendo los usuarios ya atendidos si existe.
+     *
+     * @param file Fichero de control.
+     * @param flushInterval Número de usuarios tras los que se vuelca el
+     * fichero a disco.
+     * @throws IOException Si no se puede leer o abrir el fichero.
+     */
+    public RecommendationCheckpoint(File file, int flushInterval) throws IOException {
+        if (flushInterval <= 0) {
+            throw new IllegalArgumentException("Flush interval must be positive (value=" + flushInterval + ")");
+        }
+        this.file = file;
+        this.flushInterval = flushInterval;
+
+        if (file.exists()) {
+            readCompleteLines(file);
+        } else if (file.getAbsoluteFile().getParentFile() != null) {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        this.output = new FileOutputStream(file, true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lee los usuarios de las líneas terminadas en salto de línea. Si el
+     * fichero no termina en salto de línea, la última línea se escribió a
+     * medias por una caída: se descarta y se trunca el fichero para que la
+     * siguiente anotación no se pegue a ella.
+     */
+    private void readCompleteLines(File file) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        int end = content.length;
+        while (end > 0 && content[end - 1] != '\n') {
+            end--;
+        }
+
+        for (String line : new String(content, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                done.add(Integer.parseInt(line.trim()));
+            } catch (NumberFormatException ex) {
+                throw new IOException("Malformed line '" + line + "' in checkpoint file " + file.getAbsolutePath(), ex);
+            }
+        }
+
+        if (end < content.length) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    public boolean isDone(int idUser) {
+        return done.contains(idUser);
+    }
+
+    public Set<Integer> getDone() {
+        return Collections.unmodifiableSet(done);
+    }
+
+    /**
+     * Anota que las recomendaciones del usuario ya se han escrito. La anotación
+     * no se guarda hasta llamar a {@link #flush()}.
+     *
+     * @param idUser Usuario atendido.
+     */
+    public void markDone(int idUser) {
+        if (done.add(idUser)) {
+            notFlushed.add(idUser);
+        }
+    }
+
+    /**
+     * Indica si ya hay {@link #getFlushInterval()} usuarios anotados sin
+     * guardar.
+     *
+     * @return true si se debe llamar a {@link #flush()}.
+     */
+    public boolean needsFlush() {
+        return notFlushed.size() >= flushInterval;
+    }
+
+    /**
+     * Guarda en el fichero los usuarios anotados y fuerza su escritura en el
+     * disco, de forma que sobrevivan a una caída del sistema.
+     *
+     * @throws IOException Si no se puede escribir el fichero.
+     */
+    public void flush() throws IOException {
+        for (int idUser : notFlushed) {
+            writer.write(Integer.toString(idUser));
+            writer.write('\n');
+        }
+        writer.flush();
+        output.getFD().sync();
+        notFlushed.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
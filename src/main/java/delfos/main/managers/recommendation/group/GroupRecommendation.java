@@ -86,6 +86,7 @@ public class GroupRecommendation extends CaseUseModeWithSubManagers {
 
         allCaseUseModeSubManagers.add(BuildRecommendationModel.getInstance());
         allCaseUseModeSubManagers.add(Recommend.getInstance());
+        allCaseUseModeSubManagers.add(Serve.getInstance());
 
         return allCaseUseModeSubManagers;
     }
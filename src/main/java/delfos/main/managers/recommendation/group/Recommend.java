@@ -97,6 +97,8 @@ public class Recommend extends CaseUseSubManager {
         GroupRecommendations recommendToGroup = recommendToGroup(rsc, targetGroup);
 
         rsc.recommdendationsOutputMethod.writeRecommendations(recommendToGroup);
+
+        rsc.recommdendationsOutputMethod.flush();
     }
 
     public static GroupRecommendations recommendToGroup(
@@ -108,8 +110,6 @@ public class Recommend extends CaseUseSubManager {
         RecommendationCandidatesSelector candidatesSelector = rsc.recommendationCandidatesSelector;
         PersistenceMethod persistenceMethod = rsc.persistenceMethod;
 
-        GroupRecommendations recommendations = null;
-
         Set<Item> candidateItems;
         try {
             candidateItems = candidatesSelector.candidateItems(datasetLoader, targetGroup);
@@ -134,21 +134,47 @@ public class Recommend extends CaseUseSubManager {
             throw new IllegalArgumentException(ex);
         }
 
-        Object groupModel;
         try {
-            groupModel = groupRecommenderSystem.buildGroupModel(datasetLoader, recommendationModel, targetGroup);
-            recommendations = groupRecommenderSystem.recommendOnly(
-                    datasetLoader,
-                    recommendationModel,
-                    groupModel,
-                    targetGroup,
-                    candidateItems);
+            return recommendToGroup(rsc, recommendationModel, targetGroup, candidateItems);
         } catch (UserNotFound ex) {
             ERROR_CODES.USER_NOT_FOUND.exit(ex);
             throw new IllegalArgumentException(ex);
         } catch (ItemNotFound ex) {
             ERROR_CODES.ITEM_NOT_FOUND.exit(ex);
             throw new IllegalArgumentException(ex);
+        }
+    }
+
+    /**
+     * Recomienda al grupo con un modelo de recomendación ya cargado, de forma
+     * que se pueda reutilizar entre peticiones.
+     *
+     * @param rsc Configuración del sistema de recomendación.
+     * @param recommendationModel Modelo de recomendación cargado.
+     * @param targetGroup Grupo al que se recomienda.
+     * @param candidateItems Productos candidatos a recomendar.
+     * @return Recomendaciones al grupo.
+     * @throws UserNotFound Si algún miembro del grupo no existe.
+     * @throws ItemNotFound Si algún producto candidato no existe.
+     */
+    public static GroupRecommendations recommendToGroup(
+            RecommenderSystemConfiguration rsc,
+            Object recommendationModel,
+            GroupOfUsers targetGroup,
+            Set<Item> candidateItems) throws UserNotFound, ItemNotFound {
+
+        GroupRecommenderSystem<Object, Object> groupRecommenderSystem = getGroupRecommenderSystem(rsc);
+        DatasetLoader<? extends Rating> datasetLoader = rsc.datasetLoader;
+
+        GroupRecommendations recommendations;
+        try {
+            Object groupModel = groupRecommenderSystem.buildGroupModel(datasetLoader, recommendationModel, targetGroup);
+            recommendations = groupRecommenderSystem.recommendOnly(
+                    datasetLoader,
+                    recommendationModel,
+                    groupModel,
+                    targetGroup,
+                    candidateItems);
         } catch (NotEnoughtUserInformation ex) {
             Global.showWarning("Recommender system '" + groupRecommenderSystem.getName() + "' reported: Not enought user information (group=" + targetGroup + ").");
             //ERROR_CODES.USER_NOT_ENOUGHT_INFORMATION.exit(ex);
@@ -166,9 +192,10 @@ public class Recommend extends CaseUseSubManager {
         return recommendations;
     }
 
-    public static GroupRecommenderSystem getGroupRecommenderSystem(RecommenderSystemConfiguration rsc) throws RuntimeException {
+    @SuppressWarnings("unchecked")
+    public static GroupRecommenderSystem<Object, Object> getGroupRecommenderSystem(RecommenderSystemConfiguration rsc) throws RuntimeException {
         if (rsc.recommenderSystem instanceof GroupRecommenderSystem) {
-            GroupRecommenderSystem groupRecommenderSystem = (GroupRecommenderSystem) rsc.recommenderSystem;
+            GroupRecommenderSystem<Object, Object> groupRecommenderSystem = (GroupRecommenderSystem<Object, Object>) rsc.recommenderSystem;
             return groupRecommenderSystem;
         } else {
             IllegalStateException ise = new IllegalStateException("Recommender '" + rsc.recommenderSystem.getAlias() + "' (class '" + rsc.recommenderSystem.getClass() + "') is not a group recomender system)");
@@ -50,6 +50,7 @@ public class NonPersonalisedRecommendation extends CaseUseModeWithSubManagers {
 
         allCaseUseModeSubManagers.add(BuildRecommendationModel.getInstance());
         allCaseUseModeSubManagers.add(Recommend.getInstance());
+        allCaseUseModeSubManagers.add(Serve.getInstance());
 
         return allCaseUseModeSubManagers;
     }
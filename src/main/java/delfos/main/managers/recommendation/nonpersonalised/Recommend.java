@@ -86,15 +86,12 @@ public class Recommend extends CaseUseSubManager {
 
         rsc.recommdendationsOutputMethod.writeRecommendations(recommendations);
 
+        rsc.recommdendationsOutputMethod.flush();
+
     }
 
     public static RecommendationsToUser computeRecommendations(RecommenderSystemConfiguration rsc, User user) throws ItemNotFound, CannotLoadContentDataset, RuntimeException, CannotLoadRatingsDataset {
-        if (!(rsc.recommenderSystem instanceof NonPersonalisedRecommender)) {
-            IllegalStateException ise = new IllegalStateException(rsc.recommenderSystem.getAlias() + " is not a non-personalised recommender system (Must implement " + NonPersonalisedRecommender.class);
-            ERROR_CODES.NOT_A_RECOMMENDER_SYSTEM.exit(ise);
-            throw ise;
-        }
-        NonPersonalisedRecommender nonPersonalisedRecommender = (NonPersonalisedRecommender) rsc.recommenderSystem;
+        getNonPersonalisedRecommender(rsc);
         Object recommendationModel;
         try {
             recommendationModel = PersistenceMethodStrategy.loadModel(rsc);
@@ -102,6 +99,21 @@ public class Recommend extends CaseUseSubManager {
             ERROR_CODES.FAILURE_IN_PERSISTENCE.exit(ex);
             throw new IllegalStateException(ex);
         }
+        return computeRecommendations(rsc, recommendationModel, user);
+    }
+
+    /**
+     * Calcula las recomendaciones con un modelo de recomendación ya cargado, de
+     * forma que se pueda reutilizar entre peticiones.
+     *
+     * @param rsc Configuración del sistema de recomendación.
+     * @param recommendationModel Modelo de recomendación cargado.
+     * @param user Usuario del que se excluyen los productos que no son
+     * candidatos, o {@link User#ANONYMOUS_USER}.
+     * @return Recomendaciones no personalizadas.
+     */
+    public static RecommendationsToUser computeRecommendations(RecommenderSystemConfiguration rsc, Object recommendationModel, User user) throws ItemNotFound, CannotLoadContentDataset, RuntimeException, CannotLoadRatingsDataset {
+        NonPersonalisedRecommender<Object> nonPersonalisedRecommender = getNonPersonalisedRecommender(rsc);
         Collection<Integer> candidateItems;
         try {
             candidateItems = rsc.recommendationCandidatesSelector.candidateItems(rsc.datasetLoader, user).stream().map(item -> item.getId()).collect(Collectors.toSet());
@@ -116,4 +128,14 @@ public class Recommend extends CaseUseSubManager {
         Collection<Recommendation> recommendOnly = nonPersonalisedRecommender.recommendOnly(rsc.datasetLoader, recommendationModel, candidateItems);
         return new RecommendationsToUser(User.ANONYMOUS_USER, recommendOnly);
     }
+
+    @SuppressWarnings("unchecked")
+    public static NonPersonalisedRecommender<Object> getNonPersonalisedRecommender(RecommenderSystemConfiguration rsc) {
+        if (!(rsc.recommenderSystem instanceof NonPersonalisedRecommender)) {
+            IllegalStateException ise = new IllegalStateException(rsc.recommenderSystem.getAlias() + " is not a non-personalised recommender system (Must implement " + NonPersonalisedRecommender.class);
+            ERROR_CODES.NOT_A_RECOMMENDER_SYSTEM.exit(ise);
+            throw ise;
+        }
+        return (NonPersonalisedRecommender<Object>) rsc.recommenderSystem;
+    }
 }
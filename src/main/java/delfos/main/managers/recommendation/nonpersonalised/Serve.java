@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.nonpersonalised;
+
+import delfos.ConsoleParameters;
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.configfile.rs.single.RecommenderSystemConfigurationFileParser;
+import delfos.main.managers.CaseUseSubManager;
+import delfos.main.managers.recommendation.ArgumentsRecommendation;
+import delfos.main.managers.recommendation.server.NonPersonalisedRecommendationService;
+import delfos.main.managers.recommendation.server.RecommendationServer;
+
+/**
+ * Arranca un servidor que atiende peticiones de recomendaciones no personalizadas con el modelo de
+ * recomendación cargado en memoria.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class Serve extends CaseUseSubManager {
+
+    public static Serve getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static class Holder {
+
+        private static final Serve INSTANCE = new Serve();
+    }
+
+    private Serve() {
+        super(NonPersonalisedRecommendation.getInstance());
+    }
+
+    @Override
+    public boolean isRightManager(ConsoleParameters consoleParameters) {
+        return consoleParameters.isFlagDefined(NonPersonalisedRecommendation.NON_PERSONALISED_MODE)
+                && consoleParameters.isFlagDefined(ArgumentsRecommendation.SERVE);
+    }
+
+    @Override
+    public void manageCaseUse(ConsoleParameters consoleParameters) {
+        String configurationFile = ArgumentsRecommendation.extractConfigurationFile(consoleParameters);
+
+        RecommenderSystemConfiguration rsc
+                = RecommenderSystemConfigurationFileParser.loadConfigFile(configurationFile);
+
+        RecommendationServer.serve(
+                new NonPersonalisedRecommendationService(rsc),
+                ArgumentsRecommendation.extractServerPort(consoleParameters),
+                ArgumentsRecommendation.extractServerThreads(consoleParameters));
+    }
+}
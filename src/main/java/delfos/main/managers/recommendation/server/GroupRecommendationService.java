@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.server;
+
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.dataset.basic.item.Item;
+import delfos.group.groupsofusers.GroupOfUsers;
+import delfos.group.grs.recommendations.GroupRecommendations;
+import delfos.main.managers.recommendation.group.Recommend;
+import delfos.rs.recommendation.Recommendations;
+import delfos.rs.recommendation.TopNRecommendations;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que recomienda a un grupo formado por los usuarios de la petición.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class GroupRecommendationService implements RecommendationService {
+
+    private final RecommenderSystemConfiguration rsc;
+
+    public GroupRecommendationService(RecommenderSystemConfiguration rsc) {
+        Recommend.getGroupRecommenderSystem(rsc);
+        this.rsc = rsc;
+    }
+
+    @Override
+    public RecommenderSystemConfiguration getRecommenderSystemConfiguration() {
+        return rsc;
+    }
+
+    @Override
+    public Recommendations recommend(Object recommendationModel, List<Integer> idUsers, int numberOfRecommendations) {
+        if (idUsers.isEmpty()) {
+            throw new IllegalArgumentException("Group recommendation needs at least one member");
+        }
+        GroupOfUsers targetGroup = new GroupOfUsers(idUsers.stream()
+                .map(idUser -> rsc.datasetLoader.getUsersDataset().getUser(idUser))
+                .collect(Collectors.toList()));
+        Set<Item> candidateItems = rsc.recommendationCandidatesSelector.candidateItems(rsc.datasetLoader, targetGroup);
+
+        GroupRecommendations recommendations = Recommend.recommendToGroup(rsc, recommendationModel, targetGroup, candidateItems);
+        if (numberOfRecommendations > 0) {
+            return new GroupRecommendations(targetGroup,
+                    TopNRecommendations.select(recommendations.getRecommendations(), numberOfRecommendations),
+                    recommendations.getRecommendationComputationDetails());
+        } else {
+            return recommendations;
+        }
+    }
+}
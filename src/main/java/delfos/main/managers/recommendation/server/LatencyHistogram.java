@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en microsegundos con cubetas de escala logarítmica.
+ * Cada potencia de dos se divide en {@link #SUB_BUCKETS} cubetas, por lo que
+ * los percentiles se obtienen con un error relativo menor del 12,5% sin
+ * guardar las muestras. Se puede actualizar desde varios hilos a la vez.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class LatencyHistogram {
+
+    /**
+     * Número de cubetas en que se divide cada potencia de dos.
+     */
+    public static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(bucketIndex(Long.MAX_VALUE) + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Añade una latencia al histograma.
+     *
+     * @param duration Duración.
+     * @param unit Unidad de la duración.
+     */
+    public void record(long duration, TimeUnit unit) {
+        long micros = unit.toMicros(duration);
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Devuelve la latencia media, en microsegundos.
+     *
+     * @return Latencia media, o cero si no hay muestras.
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Devuelve la latencia máxima, en microsegundos.
+     *
+     * @return Latencia máxima.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Devuelve el percentil indicado de las latencias, en microsegundos. El
+     * valor devuelto es el límite superior de la cubeta en que cae, acotado
+     * por la latencia máxima.
+     *
+     * @param percentile Percentil, entre 0 y 100.
+     * @return Latencia del percentil, o cero si no hay muestras.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0,100] (value=" + percentile + ")");
+        }
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long accumulated = 0;
+        for (int index = 0; index < buckets.length(); index++) {
+            accumulated += buckets.get(index);
+            if (accumulated >= rank) {
+                return Math.min(bucketUpperBound(index), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Devuelve un resumen del histograma en formato JSON.
+     *
+     * @return Objeto JSON con el número de muestras, la media, los percentiles
+     * 50, 90, 99 y 99,9 y el máximo, en microsegundos.
+     */
+    public String toJson() {
+        return "{\"count\":" + getCount()
+                + ",\"meanMicros\":" + Math.round(getMean())
+                + ",\"p50Micros\":" + getPercentile(50)
+                + ",\"p90Micros\":" + getPercentile(90)
+                + ",\"p99Micros\":" + getPercentile(99)
+                + ",\"p999Micros\":" + getPercentile(99.9)
+                + ",\"maxMicros\":" + getMax() + "}";
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
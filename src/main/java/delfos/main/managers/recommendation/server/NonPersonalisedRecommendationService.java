@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.server;
+
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.dataset.basic.user.User;
+import delfos.main.managers.recommendation.nonpersonalised.Recommend;
+import delfos.rs.recommendation.Recommendations;
+import delfos.rs.recommendation.RecommendationsToUser;
+import delfos.rs.recommendation.TopNRecommendations;
+import java.util.List;
+
+/**
+ * Servicio de recomendaciones no personalizadas. Si la petición indica un
+ * usuario, se usa para seleccionar los productos candidatos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class NonPersonalisedRecommendationService implements RecommendationService {
+
+    private final RecommenderSystemConfiguration rsc;
+
+    public NonPersonalisedRecommendationService(RecommenderSystemConfiguration rsc) {
+        Recommend.getNonPersonalisedRecommender(rsc);
+        this.rsc = rsc;
+    }
+
+    @Override
+    public RecommenderSystemConfiguration getRecommenderSystemConfiguration() {
+        return rsc;
+    }
+
+    @Override
+    public Recommendations recommend(Object recommendationModel, List<Integer> idUsers, int numberOfRecommendations) {
+        if (idUsers.size() > 1) {
+            throw new IllegalArgumentException("Non-personalised recommendation accepts at most one user (users=" + idUsers + ")");
+        }
+        User user = idUsers.isEmpty() ? User.ANONYMOUS_USER : new User(idUsers.get(0));
+
+        RecommendationsToUser recommendations = Recommend.computeRecommendations(rsc, recommendationModel, user);
+        if (numberOfRecommendations > 0) {
+            return new RecommendationsToUser(recommendations.getUser(),
+                    TopNRecommendations.select(recommendations.getRecommendations(), numberOfRecommendations),
+                    recommendations.getRecommendationComputationDetails());
+        } else {
+            return recommendations;
+        }
+    }
+}
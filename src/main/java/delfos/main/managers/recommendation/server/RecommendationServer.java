@@ -0,0 +1,543 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.server;
+
+import delfos.ERROR_CODES;
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.rs.output.RecommendationsOutputMethod;
+import delfos.rs.persistence.FailureInPersistence;
+import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.Recommendations;
+import delfos.rs.recommendation.TopNRecommendations;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Servidor de recomendaciones que mantiene el dataset y el modelo de
+ * recomendación en memoria, para no pagar el arranque de la máquina virtual y
+ * la carga del modelo en cada petición. Atiende en la interfaz local un
+ * protocolo de líneas de texto, en el que cada orden recibe una única línea de
+ * respuesta que empieza por <code>OK</code> seguido de un objeto JSON, o por
+ * <code>ERROR</code> seguido del mensaje de error:
+ *
+ * <ul>
+ * <li><code>RECOMMEND &lt;idUser&gt;[,&lt;idUser&gt;...] [n]</code>: recomienda
+ * al usuario o grupo indicado los <code>n</code> mejores productos. Con
+ * <code>-</code> en lugar de los usuarios, la petición no tiene usuario (para
+ * las recomendaciones no personalizadas).</li>
+ * <li><code>RELOAD</code>: vuelve a cargar el modelo. Las peticiones se siguen
+ * atendiendo con el modelo anterior mientras se carga el nuevo.</li>
+ * <li><code>STATS</code>: número de peticiones y lotes e histograma de
+ * latencias.</li>
+ * <li><code>PING</code>, <code>QUIT</code> (cierra la conexión) y
+ * <code>SHUTDOWN</code> (detiene el servidor).</li>
+ * </ul>
+ *
+ * <p>
+ * Las peticiones de todas las conexiones se encolan y se atienden por lotes:
+ * todas las peticiones de un lote usan la misma versión del modelo y las
+ * peticiones repetidas dentro de un lote se calculan una sola vez.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RecommendationServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 7575;
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    public static final String RECOMMEND = "RECOMMEND";
+    public static final String RELOAD = "RELOAD";
+    public static final String STATS = "STATS";
+    public static final String PING = "PING";
+    public static final String QUIT = "QUIT";
+    public static final String SHUTDOWN = "SHUTDOWN";
+
+    /**
+     * Valor que indica que la petición no tiene usuario.
+     */
+    public static final String NO_USERS = "-";
+
+    private final RecommendationService service;
+    private final int maxBatchSize;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final ExecutorService workers;
+    private final Thread acceptor;
+    private final Thread dispatcher;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    private final BlockingQueue<PendingRequest> pendingRequests = new LinkedBlockingQueue<>();
+    private final AtomicReference<ResidentModel> residentModel = new AtomicReference<>();
+    private final Object reloadLock = new Object();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong numRequests = new AtomicLong();
+    private final AtomicLong numErrors = new AtomicLong();
+    private final AtomicLong numBatches = new AtomicLong();
+    private final AtomicLong numComputed = new AtomicLong();
+    private final AtomicLong numReloads = new AtomicLong();
+
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private volatile boolean running = false;
+
+    /**
+     * Crea el servidor, carga el modelo y reserva el puerto en la interfaz
+     * local. El servidor no atiende peticiones hasta que se llama a
+     * {@link #start()}.
+     *
+     * @param service Servicio que calcula las recomendaciones.
+     * @param port Puerto, o cero para usar un puerto libre cualquiera.
+     * @param numThreads Número de hilos que calculan recomendaciones.
+     * @param maxBatchSize Número máximo de peticiones de cada lote.
+     * @throws IOException Si no se puede abrir el puerto.
+     * @throws FailureInPersistence Si no se puede cargar el modelo.
+     */
+    public RecommendationServer(RecommendationService service, int port, int numThreads, int maxBatchSize) throws IOException, FailureInPersistence {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive (value=" + numThreads + ")");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive (value=" + maxBatchSize + ")");
+        }
+        this.service = service;
+        this.maxBatchSize = maxBatchSize;
+
+        Chronometer chronometer = new Chronometer();
+        residentModel.set(new ResidentModel(service.loadModel(), 1));
+        Global.showInfoMessage("Recommendation model loaded in " + chronometer.printTotalElapsed() + "\n");
+
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.connections = Executors.newCachedThreadPool(daemonThreads("recommendation server connection"));
+        this.workers = Executors.newFixedThreadPool(numThreads, daemonThreads("recommendation server worker"));
+        this.acceptor = daemonThreads("recommendation server acceptor").newThread(this::acceptConnections);
+        this.dispatcher = daemonThreads("recommendation server dispatcher").newThread(this::dispatchBatches);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong numThread = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + " " + numThread.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Empieza a atender peticiones.
+     */
+    public void start() {
+        running = true;
+        dispatcher.start();
+        acceptor.start();
+        Global.showInfoMessage("Recommendation server listening on " + serverSocket.getInetAddress().getHostAddress() + ":" + getPort() + "\n");
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getModelVersion() {
+        return residentModel.get().version;
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    public long getNumBatches() {
+        return numBatches.get();
+    }
+
+    /**
+     * Devuelve el número de recomendaciones calculadas, que es menor que el
+     * número de peticiones si se han repetido peticiones en un mismo lote.
+     *
+     * @return Número de recomendaciones calculadas.
+     */
+    public long getNumComputed() {
+        return numComputed.get();
+    }
+
+    /**
+     * Encola una petición de recomendación.
+     *
+     * @param idUsers Usuarios de la petición.
+     * @param numberOfRecommendations Número de recomendaciones, o un valor no
+     * positivo para devolver todas.
+     * @return Recomendaciones, cuando se hayan calculado.
+     */
+    public CompletableFuture<Recommendations> submit(List<Integer> idUsers, int numberOfRecommendations) {
+        PendingRequest request = new PendingRequest(idUsers, numberOfRecommendations);
+        if (!running) {
+            request.future.completeExceptionally(new IllegalStateException("Recommendation server is not running"));
+        } else {
+            numRequests.incrementAndGet();
+            pendingRequests.add(request);
+        }
+        return request.future;
+    }
+
+    /**
+     * Vuelve a cargar el modelo de recomendación. Mientras se carga, las
+     * peticiones se siguen atendiendo con el modelo anterior.
+     *
+     * @return Versión del nuevo modelo.
+     * @throws FailureInPersistence Si no se puede cargar el modelo, en cuyo
+     * caso se sigue usando el anterior.
+     */
+    public long reload() throws FailureInPersistence {
+        synchronized (reloadLock) {
+            Chronometer chronometer = new Chronometer();
+            Object recommendationModel = service.loadModel();
+            long version = residentModel.get().version + 1;
+            residentModel.set(new ResidentModel(recommendationModel, version));
+            numReloads.incrementAndGet();
+            Global.showInfoMessage("Recommendation model reloaded in " + chronometer.printTotalElapsed() + " (version " + version + ")\n");
+            return version;
+        }
+    }
+
+    /**
+     * Devuelve las estadísticas del servidor en formato JSON.
+     *
+     * @return Objeto JSON con las estadísticas.
+     */
+    public String getStatsJson() {
+        long batches = numBatches.get();
+        long requests = numRequests.get();
+        return "{\"modelVersion\":" + getModelVersion()
+                + ",\"requests\":" + requests
+                + ",\"errors\":" + numErrors.get()
+                + ",\"batches\":" + batches
+                + ",\"computed\":" + numComputed.get()
+                + ",\"meanBatchSize\":" + String.format(Locale.ENGLISH, "%.2f", batches == 0 ? 0.0 : (double) requests / batches)
+                + ",\"reloads\":" + numReloads.get()
+                + ",\"latency\":" + latency.toJson() + "}";
+    }
+
+    /**
+     * Espera a que el servidor se detenga.
+     *
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ex) {
+            Global.showWarning("Cannot close recommendation server socket: " + ex.getMessage());
+        }
+        dispatcher.interrupt();
+        for (Socket socket : openSockets) {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                Global.showWarning("Cannot close connection: " + ex.getMessage());
+            }
+        }
+        connections.shutdownNow();
+        workers.shutdownNow();
+
+        List<PendingRequest> notServed = new ArrayList<>();
+        pendingRequests.drainTo(notServed);
+        notServed.forEach(request -> request.future.completeExceptionally(new IllegalStateException("Recommendation server stopped")));
+
+        terminated.countDown();
+        Global.showInfoMessage("Recommendation server stopped: " + getStatsJson() + "\n");
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                openSockets.add(socket);
+                connections.execute(() -> serveConnection(socket));
+            } catch (SocketException ex) {
+                //El socket se ha cerrado al detener el servidor.
+                if (running) {
+                    Global.showWarning("Recommendation server socket failed: " + ex.getMessage());
+                    close();
+                }
+            } catch (IOException ex) {
+                Global.showWarning("Cannot accept connection: " + ex.getMessage());
+            }
+        }
+    }
+
+    private void serveConnection(Socket socket) {
+        try (Socket connection = socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] tokens = line.trim().split("\\s+");
+                String command = tokens[0].toUpperCase(Locale.ENGLISH);
+                if (command.equals(QUIT)) {
+                    break;
+                }
+                out.write(answer(command, tokens));
+                out.write('\n');
+                out.flush();
+
+                if (command.equals(SHUTDOWN)) {
+                    close();
+                    break;
+                }
+            }
+        } catch (IOException ex) {
+            if (running) {
+                Global.showWarning("Connection closed with error: " + ex.getMessage());
+            }
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private String answer(String command, String[] tokens) {
+        try {
+            switch (command) {
+                case RECOMMEND:
+                    return answerRecommend(tokens);
+                case RELOAD:
+                    return "OK {\"modelVersion\":" + reload() + "}";
+                case STATS:
+                    return "OK " + getStatsJson();
+                case PING:
+                case SHUTDOWN:
+                    return "OK {}";
+                default:
+                    return error("Unknown command '" + command + "'");
+            }
+        } catch (FailureInPersistence ex) {
+            return error("Cannot reload recommendation model: " + ex.getMessage());
+        } catch (RuntimeException ex) {
+            return error(ex.getMessage());
+        }
+    }
+
+    private String answerRecommend(String[] tokens) {
+        if (tokens.length < 2 || tokens.length > 3) {
+            return error("Usage: " + RECOMMEND + " <idUser>[,<idUser>...] [n]");
+        }
+        List<Integer> idUsers;
+        int numberOfRecommendations;
+        try {
+            idUsers = tokens[1].equals(NO_USERS)
+                    ? Collections.emptyList()
+                    : Arrays.stream(tokens[1].split(",")).map(Integer::parseInt).collect(Collectors.toList());
+            numberOfRecommendations = tokens.length == 3
+                    ? Integer.parseInt(tokens[2])
+                    : getDefaultNumberOfRecommendations();
+        } catch (NumberFormatException ex) {
+            return error("Malformed number: " + ex.getMessage());
+        }
+
+        try {
+            Recommendations recommendations = submit(idUsers, numberOfRecommendations).get();
+            return "OK " + toJson(idUsers, recommendations, numberOfRecommendations);
+        } catch (ExecutionException ex) {
+            return error(ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return error("Interrupted");
+        }
+    }
+
+    private int getDefaultNumberOfRecommendations() {
+        RecommendationsOutputMethod outputMethod = service.getRecommenderSystemConfiguration().recommdendationsOutputMethod;
+        return outputMethod == null ? 0 : outputMethod.getNumberOfRecommendations();
+    }
+
+    private String error(String message) {
+        numErrors.incrementAndGet();
+        return "ERROR " + String.valueOf(message).replaceAll("\\s+", " ");
+    }
+
+    private void dispatchBatches() {
+        List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(pendingRequests.take());
+            } catch (InterruptedException ex) {
+                break;
+            }
+            pendingRequests.drainTo(batch, maxBatchSize - 1);
+
+            //Todo el lote usa el mismo modelo aunque se recargue mientras tanto.
+            ResidentModel model = residentModel.get();
+            Map<List<Integer>, List<PendingRequest>> sameRequests = new LinkedHashMap<>();
+            for (PendingRequest request : batch) {
+                sameRequests.computeIfAbsent(request.key, key -> new ArrayList<>()).add(request);
+            }
+
+            List<Callable<Void>> tasks = sameRequests.values().stream()
+                    .map(requests -> (Callable<Void>) () -> {
+                        compute(model, requests);
+                        return null;
+                    })
+                    .collect(Collectors.toList());
+            numBatches.incrementAndGet();
+            try {
+                workers.invokeAll(tasks);
+            } catch (InterruptedException ex) {
+                batch.forEach(request -> request.future.completeExceptionally(ex));
+                break;
+            } catch (RuntimeException ex) {
+                batch.forEach(request -> request.future.completeExceptionally(ex));
+            }
+            batch.clear();
+        }
+    }
+
+    private void compute(ResidentModel model, List<PendingRequest> requests) {
+        PendingRequest first = requests.get(0);
+        try {
+            Recommendations recommendations = service.recommend(model.recommendationModel, first.idUsers, first.numberOfRecommendations);
+            numComputed.incrementAndGet();
+            requests.forEach(request -> request.complete(recommendations));
+        } catch (RuntimeException ex) {
+            if (Global.isVerboseAnnoying()) {
+                Global.showError(ex);
+            }
+            requests.forEach(request -> request.fail(ex));
+        }
+    }
+
+    private String toJson(List<Integer> idUsers, Recommendations recommendations, int numberOfRecommendations) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"users\":").append(idUsers.stream().map(Object::toString).collect(Collectors.joining(",", "[", "]")));
+        json.append(",\"recommendations\":[");
+        boolean first = true;
+        for (Recommendation recommendation : TopNRecommendations.select(recommendations.getRecommendations(), numberOfRecommendations)) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            double preference = recommendation.getPreference().doubleValue();
+            json.append("{\"idItem\":").append(recommendation.getItem().getId())
+                    .append(",\"preference\":").append(Double.isFinite(preference) ? Double.toString(preference) : "null")
+                    .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Arranca un servidor y espera a que se detenga con la orden
+     * {@link #SHUTDOWN}.
+     *
+     * @param service Servicio que calcula las recomendaciones.
+     * @param port Puerto en la interfaz local.
+     * @param numThreads Número de hilos que calculan recomendaciones.
+     */
+    public static void serve(RecommendationService service, int port, int numThreads) {
+        try (RecommendationServer server = new RecommendationServer(service, port, numThreads, DEFAULT_MAX_BATCH_SIZE)) {
+            server.start();
+            server.awaitTermination();
+        } catch (FailureInPersistence ex) {
+            ERROR_CODES.FAILURE_IN_PERSISTENCE.exit(ex);
+        } catch (IOException ex) {
+            ERROR_CODES.UNDEFINED_ERROR.exit(ex);
+        } catch (InterruptedException ex) {
+            ERROR_CODES.THREAD_INTERRUMPTED.exit(ex);
+        }
+    }
+
+    private static class ResidentModel {
+
+        private final Object recommendationModel;
+        private final long version;
+
+        private ResidentModel(Object recommendationModel, long version) {
+            this.recommendationModel = recommendationModel;
+            this.version = version;
+        }
+    }
+
+    private class PendingRequest {
+
+        private final List<Integer> idUsers;
+        private final int numberOfRecommendations;
+        private final List<Integer> key;
+        private final long submitted = System.nanoTime();
+        private final CompletableFuture<Recommendations> future = new CompletableFuture<>();
+
+        private PendingRequest(List<Integer> idUsers, int numberOfRecommendations) {
+            this.idUsers = Collections.unmodifiableList(new ArrayList<>(idUsers));
+            this.numberOfRecommendations = numberOfRecommendations;
+            List<Integer> requestKey = new ArrayList<>(idUsers);
+            requestKey.add(numberOfRecommendations);
+            this.key = requestKey;
+        }
+
+        private void complete(Recommendations recommendations) {
+            latency.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            future.complete(recommendations);
+        }
+
+        private void fail(Throwable cause) {
+            latency.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            future.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.server;
+
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.rs.persistence.FailureInPersistence;
+import delfos.rs.persistence.PersistenceMethodStrategy;
+import delfos.rs.recommendation.Recommendations;
+import java.util.List;
+
+/**
+ * Calcula las recomendaciones que atiende un {@link RecommendationServer}. El
+ * servidor carga el modelo una vez y lo pasa en cada petición, de forma que el
+ * servicio no tiene que guardar estado entre peticiones.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public interface RecommendationService {
+
+    /**
+     * Devuelve la configuración del sistema de recomendación que usa el
+     * servicio.
+     *
+     * @return Configuración del sistema de recomendación.
+     */
+    public RecommenderSystemConfiguration getRecommenderSystemConfiguration();
+
+    /**
+     * Carga el modelo de recomendación completo. Se llama al arrancar el
+     * servidor y cada vez que se pide recargar el modelo.
+     *
+     * @return Modelo de recomendación.
+     * @throws FailureInPersistence Si no se puede cargar el modelo.
+     */
+    public default Object loadModel() throws FailureInPersistence {
+        return PersistenceMethodStrategy.loadModel(getRecommenderSystemConfiguration());
+    }
+
+    /**
+     * Recomienda a los usuarios indicados con el modelo ya cargado.
+     *
+     * @param recommendationModel Modelo de recomendación.
+     * @param idUsers Usuarios de la petición.
+     * @param numberOfRecommendations Número de recomendaciones, o un valor no
+     * positivo para devolver todas.
+     * @return Recomendaciones calculadas.
+     */
+    public Recommendations recommend(Object recommendationModel, List<Integer> idUsers, int numberOfRecommendations);
+}
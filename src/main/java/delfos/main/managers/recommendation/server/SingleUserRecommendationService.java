@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.main.managers.recommendation.server;
+
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.user.User;
+import delfos.main.managers.recommendation.singleuser.Recommend;
+import delfos.rs.recommendation.Recommendations;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio que recomienda a un único usuario.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class SingleUserRecommendationService implements RecommendationService {
+
+    private final RecommenderSystemConfiguration rsc;
+
+    public SingleUserRecommendationService(RecommenderSystemConfiguration rsc) {
+        this.rsc = rsc;
+    }
+
+    @Override
+    public RecommenderSystemConfiguration getRecommenderSystemConfiguration() {
+        return rsc;
+    }
+
+    @Override
+    public Recommendations recommend(Object recommendationModel, List<Integer> idUsers, int numberOfRecommendations) {
+        if (idUsers.size() != 1) {
+            throw new IllegalArgumentException("Single user recommendation needs exactly one user (users=" + idUsers + ")");
+        }
+        User user = rsc.datasetLoader.getUsersDataset().getUser(idUsers.get(0));
+        Set<Item> candidateItems = rsc.recommendationCandidatesSelector.candidateItems(rsc.datasetLoader, user);
+
+        return Recommend.recommendToUser(rsc, recommendationModel, user, candidateItems, numberOfRecommendations);
+    }
+}
@@ -101,6 +101,8 @@ public class Recommend extends CaseUseSubManager {
         RecommendationsToUser recommendToUser = recommendToUser(rsc, user);
 
         rsc.recommdendationsOutputMethod.writeRecommendations(recommendToUser);
+
+        rsc.recommdendationsOutputMethod.flush();
     }
 
     public static int extractIdUser(ConsoleParameters consoleParameters) {
@@ -127,6 +129,7 @@ public class Recommend extends CaseUseSubManager {
     public static void recommendToUser(RecommenderSystemConfiguration rsc, int idUser) {
         RecommendationsToUser recommendToUser = recommendToUser(rsc, rsc.datasetLoader.getUsersDataset().getUser(idUser));
         rsc.recommdendationsOutputMethod.writeRecommendations(recommendToUser);
+        rsc.recommdendationsOutputMethod.flush();
     }
 
     public static RecommendationsToUser recommendToUser(RecommenderSystemConfiguration rsc, User user) {
@@ -135,7 +138,6 @@ public class Recommend extends CaseUseSubManager {
         RecommenderSystem<Object> recommender = (RecommenderSystem<Object>) rsc.recommenderSystem;
 
         DatasetLoader<? extends Rating> datasetLoader = rsc.datasetLoader;
-        RecommendationsToUser recommendationsToUser;
 
         Set<Item> candidateItems = rsc.recommendationCandidatesSelector.candidateItems(datasetLoader, user);
 
@@ -158,15 +160,49 @@ public class Recommend extends CaseUseSubManager {
             throw new IllegalArgumentException(ex);
         }
 
-        recommendationsToUser = recommender.recommendToUser(
-                datasetLoader,
-                recommendationModel,
-                user,
-                candidateItems
-        );
+        return recommendToUser(rsc, recommendationModel, user, candidateItems,
+                rsc.recommdendationsOutputMethod.getNumberOfRecommendations());
+
+    }
 
-        return recommendationsToUser;
+    /**
+     * Recomienda al usuario con un modelo de recomendación ya cargado, de forma
+     * que se pueda reutilizar entre peticiones.
+     *
+     * @param rsc Configuración del sistema de recomendación.
+     * @param recommendationModel Modelo de recomendación cargado.
+     * @param user Usuario al que se recomienda.
+     * @param candidateItems Productos candidatos a recomendar.
+     * @param numberOfRecommendations Número de recomendaciones, o un valor no
+     * positivo para devolver todas.
+     * @return Recomendaciones al usuario.
+     */
+    public static RecommendationsToUser recommendToUser(
+            RecommenderSystemConfiguration rsc,
+            Object recommendationModel,
+            User user,
+            Set<Item> candidateItems,
+            int numberOfRecommendations) {
 
+        @SuppressWarnings("unchecked")
+        RecommenderSystem<Object> recommender = (RecommenderSystem<Object>) rsc.recommenderSystem;
+
+        if (numberOfRecommendations > 0) {
+            return recommender.recommendTopN(
+                    rsc.datasetLoader,
+                    recommendationModel,
+                    user,
+                    candidateItems,
+                    numberOfRecommendations
+            );
+        } else {
+            return recommender.recommendToUser(
+                    rsc.datasetLoader,
+                    recommendationModel,
+                    user,
+                    candidateItems
+            );
+        }
     }
 
 }
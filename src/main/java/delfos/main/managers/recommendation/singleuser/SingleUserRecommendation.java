@@ -66,6 +66,7 @@ public class SingleUserRecommendation extends CaseUseModeWithSubManagers {
 
         allCaseUseModeSubManagers.add(BuildRecommendationModel.getInstance());
         allCaseUseModeSubManagers.add(Recommend.getInstance());
+        allCaseUseModeSubManagers.add(Serve.getInstance());
 
         return allCaseUseModeSubManagers;
     }
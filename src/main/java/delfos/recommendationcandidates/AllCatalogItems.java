@@ -23,10 +23,10 @@ import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.user.User;
 import delfos.group.groupsofusers.GroupOfUsers;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
- * Devuelve todos los productos del catálogo.
+ * Devuelve todos los productos del catálogo, como una vista
+ * {@link ItemSubset}.
  *
  * @version 03-jun-2014
  * @author jcastro-inf ( https://github.com/jcastro-inf )
@@ -35,12 +35,12 @@ public class AllCatalogItems extends RecommendationCandidatesSelector {
 
     @Override
     public Set<Item> candidateItems(DatasetLoader<? extends Rating> datasetLoader, User user) throws UserNotFound {
-        return datasetLoader.getContentDataset().stream().collect(Collectors.toSet());
+        return CatalogueItems.of(datasetLoader.getContentDataset()).all();
     }
 
     @Override
     public Set<Item> candidateItems(DatasetLoader<? extends Rating> datasetLoader, GroupOfUsers groupOfUsers) throws UserNotFound {
-        return datasetLoader.getContentDataset().stream().collect(Collectors.toSet());
+        return CatalogueItems.of(datasetLoader.getContentDataset()).all();
     }
 
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.recommendationcandidates;
+
+import delfos.dataset.basic.item.ContentDataset;
+import delfos.dataset.basic.item.Item;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Productos de un catálogo ordenados por id, que permiten representar
+ * cualquier subconjunto del catálogo con un mapa de bits de una posición por
+ * producto ({@link ItemSubset}). Se calcula una vez por catálogo y se guarda en
+ * una caché, para que seleccionar los productos candidatos de cada
+ * recomendación no tenga que recorrer los objetos {@link Item} del catálogo.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class CatalogueItems {
+
+    /**
+     * Número de catálogos que se guardan en la caché.
+     */
+    private static final int CACHE_SIZE = 8;
+
+    private static final LinkedList<CacheEntry> CACHE = new LinkedList<>();
+
+    private final Item[] items;
+    private final int[] ids;
+
+    private CatalogueItems(Collection<Item> catalogue) {
+        this.items = catalogue.toArray(new Item[0]);
+        Arrays.sort(this.items, Item.BY_ID);
+        this.ids = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            ids[i] = items[i].getId();
+        }
+    }
+
+    /**
+     * Devuelve los productos del catálogo indicado. Los catálogos se
+     * identifican por referencia, y se vuelven a calcular si cambia su tamaño.
+     *
+     * @param contentDataset Catálogo.
+     * @return Productos del catálogo.
+     */
+    public static CatalogueItems of(ContentDataset contentDataset) {
+        synchronized (CACHE) {
+            for (Iterator<CacheEntry> it = CACHE.iterator(); it.hasNext();) {
+                CacheEntry entry = it.next();
+                ContentDataset cached = entry.contentDataset.get();
+                if (cached == null) {
+                    it.remove();
+                } else if (cached == contentDataset && entry.catalogueItems.size() == contentDataset.size()) {
+                    it.remove();
+                    CACHE.addFirst(entry);
+                    return entry.catalogueItems;
+                }
+            }
+        }
+
+        CatalogueItems catalogueItems = new CatalogueItems(contentDataset);
+
+        synchronized (CACHE) {
+            CACHE.removeIf(entry -> entry.contentDataset.get() == contentDataset);
+            CACHE.addFirst(new CacheEntry(contentDataset, catalogueItems));
+            while (CACHE.size() > CACHE_SIZE) {
+                CACHE.removeLast();
+            }
+        }
+        return catalogueItems;
+    }
+
+    /**
+     * Número de productos del catálogo.
+     *
+     * @return Número de productos.
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Posición del producto en el catálogo.
+     *
+     * @param idItem Id del producto.
+     * @return Posición del producto, o -1 si no está en el catálogo.
+     */
+    public int indexOf(int idItem) {
+        return Math.max(-1, Arrays.binarySearch(ids, idItem));
+    }
+
+    public Item getItem(int index) {
+        return items[index];
+    }
+
+    public int getIdItem(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Devuelve todos los productos del catálogo.
+     *
+     * @return Vista con todos los productos.
+     */
+    public ItemSubset all() {
+        BitSet selected = new BitSet(items.length);
+        selected.set(0, items.length);
+        return new ItemSubset(this, selected);
+    }
+
+    /**
+     * Devuelve los productos del catálogo excepto los indicados.
+     *
+     * @param excludedItems Ids de los productos que se excluyen. Los que no
+     * están en el catálogo se ignoran.
+     * @return Vista con los productos no excluidos.
+     */
+    public ItemSubset allExcept(Iterable<Integer> excludedItems) {
+        BitSet selected = new BitSet(items.length);
+        selected.set(0, items.length);
+        clear(selected, excludedItems);
+        return new ItemSubset(this, selected);
+    }
+
+    /**
+     * Devuelve los productos del catálogo excepto los de todos los conjuntos
+     * indicados.
+     *
+     * @param excludedItems Conjuntos de ids de productos que se excluyen.
+     * @return Vista con los productos no excluidos.
+     */
+    public ItemSubset allExceptAny(Iterable<? extends Iterable<Integer>> excludedItems) {
+        BitSet selected = new BitSet(items.length);
+        selected.set(0, items.length);
+        for (Iterable<Integer> excluded : excludedItems) {
+            clear(selected, excluded);
+        }
+        return new ItemSubset(this, selected);
+    }
+
+    private void clear(BitSet selected, Iterable<Integer> excludedItems) {
+        for (int idItem : excludedItems) {
+            int index = indexOf(idItem);
+            if (index >= 0) {
+                selected.clear(index);
+            }
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final WeakReference<ContentDataset> contentDataset;
+        private final CatalogueItems catalogueItems;
+
+        private CacheEntry(ContentDataset contentDataset, CatalogueItems catalogueItems) {
+            this.contentDataset = new WeakReference<>(contentDataset);
+            this.catalogueItems = catalogueItems;
+        }
+    }
+}
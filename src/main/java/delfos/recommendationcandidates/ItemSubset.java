@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.recommendationcandidates;
+
+import delfos.dataset.basic.item.Item;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Subconjunto de los productos de un catálogo, representado con un mapa de
+ * bits sobre {@link CatalogueItems}. Es una vista de solo lectura: los objetos
+ * {@link Item} son los del catálogo y no se copian, y se recorren en orden de
+ * id.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class ItemSubset extends AbstractSet<Item> {
+
+    private final CatalogueItems catalogueItems;
+    private final BitSet selected;
+    private final int size;
+
+    ItemSubset(CatalogueItems catalogueItems, BitSet selected) {
+        this.catalogueItems = catalogueItems;
+        this.selected = selected;
+        this.size = selected.cardinality();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Item)) {
+            return false;
+        }
+        Item item = (Item) o;
+        int index = catalogueItems.indexOf(item.getId());
+        return index >= 0 && selected.get(index) && catalogueItems.getItem(index).equals(item);
+    }
+
+    /**
+     * Indica si el producto con el id indicado está en el subconjunto.
+     *
+     * @param idItem Id del producto.
+     * @return true si el producto está en el subconjunto.
+     */
+    public boolean containsId(int idItem) {
+        int index = catalogueItems.indexOf(idItem);
+        return index >= 0 && selected.get(index);
+    }
+
+    /**
+     * Devuelve los ids de los productos del subconjunto, en orden ascendente.
+     *
+     * @return Ids de los productos.
+     */
+    public int[] toIdArray() {
+        int[] ids = new int[size];
+        for (int index = selected.nextSetBit(0), i = 0; index >= 0; index = selected.nextSetBit(index + 1), i++) {
+            ids[i] = catalogueItems.getIdItem(index);
+        }
+        return ids;
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+        return new Iterator<Item>() {
+            private int next = selected.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Item next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                Item item = catalogueItems.getItem(next);
+                next = selected.nextSetBit(next + 1);
+                return item;
+            }
+        };
+    }
+}
@@ -27,6 +27,9 @@ import java.util.stream.Collectors;
 
 /**
  * Devuelve los productos del catálogo no valorados por el usuario indicado.
+ * Los candidatos se calculan como la diferencia entre el catálogo y los
+ * productos valorados sobre el mapa de bits de {@link CatalogueItems}, y se
+ * devuelven como una vista {@link ItemSubset}.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  */
@@ -34,20 +37,15 @@ public class OnlyNewItems extends RecommendationCandidatesSelector {
 
     @Override
     public Set<Item> candidateItems(DatasetLoader<? extends Rating> datasetLoader, User user) throws UserNotFound {
-        return datasetLoader.getContentDataset().stream()
-                .filter(item -> !datasetLoader.getRatingsDataset().getUserRated(user.getId()).contains(item.getId()))
-                .collect(Collectors.toSet());
+        return CatalogueItems.of(datasetLoader.getContentDataset())
+                .allExcept(datasetLoader.getRatingsDataset().getUserRated(user.getId()));
     }
 
     @Override
     public Set<Item> candidateItems(DatasetLoader<? extends Rating> datasetLoader, GroupOfUsers groupOfUsers) throws UserNotFound {
-        return datasetLoader.getContentDataset().stream()
-                .filter(item
-                        -> !groupOfUsers.getMembers().stream()
+        return CatalogueItems.of(datasetLoader.getContentDataset())
+                .allExceptAny(groupOfUsers.getMembers().stream()
                         .map(member -> datasetLoader.getRatingsDataset().getUserRated(member.getId()))
-                        .flatMap(ratings -> ratings.stream())
-                        .collect(Collectors.toSet())
-                        .contains(item.getId()))
-                .collect(Collectors.toSet());
+                        .collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.results.evaluationmeasures;
+
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RelevanceCriteria;
+import delfos.results.MeasureResult;
+import delfos.results.RecommendationResults;
+
+/**
+ * Medida de evaluación que se calcula acumulando un resultado parcial por
+ * usuario. {@link FusedEvaluation} recorre una sola vez las recomendaciones y
+ * valoraciones de test de cada usuario para todas las medidas de este tipo, en
+ * paralelo, y combina los resultados parciales de cada hilo.
+ *
+ * <p>
+ * La misma instancia de la medida se usa a la vez en varias evaluaciones, por
+ * lo que todo el estado de una evaluación debe guardarse en el acumulador.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ * @param <Accumulator> Resultado parcial de la medida.
+ */
+public abstract class AccumulatedEvaluationMeasure<Accumulator> extends EvaluationMeasure {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crea un acumulador vacío.
+     *
+     * @return Acumulador sin usuarios.
+     */
+    public abstract Accumulator newAccumulator();
+
+    /**
+     * Añade al acumulador el resultado de un usuario.
+     *
+     * @param accumulator Acumulador.
+     * @param user Recomendaciones y valoraciones de test del usuario.
+     */
+    public abstract void accumulate(Accumulator accumulator, EvaluatedUser user);
+
+    /**
+     * Añade al primer acumulador los usuarios del segundo, que contiene
+     * usuarios posteriores en el orden del recorrido.
+     *
+     * @param accumulator Acumulador que se modifica.
+     * @param other Acumulador que se añade.
+     */
+    public abstract void merge(Accumulator accumulator, Accumulator other);
+
+    /**
+     * Calcula el valor de la medida a partir de los resultados de todos los
+     * usuarios.
+     *
+     * @param accumulator Acumulador con todos los usuarios.
+     * @return Valor de la medida.
+     */
+    public abstract MeasureResult getAccumulatedResult(Accumulator accumulator);
+
+    /**
+     * Calcula la medida por sí sola, recorriendo los usuarios con
+     * {@link FusedEvaluation}.
+     */
+    @Override
+    public final MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
+        return FusedEvaluation.evaluateOrThrow(this, recommendationResults, testDataset, relevanceCriteria);
+    }
+}
@@ -16,18 +16,11 @@
  */
 package delfos.results.evaluationmeasures;
 
-import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import delfos.ERROR_CODES;
-import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.statisticalfuncions.MeanIterative;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
 import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.SingleUserRecommendations;
 
@@ -38,28 +31,30 @@ import delfos.rs.recommendation.SingleUserRecommendations;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  */
-public class Coverage extends EvaluationMeasure {
+public class Coverage extends AccumulatedEvaluationMeasure<long[]> {
 
     private static final long serialVersionUID = -3387516993124229948L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-        double cobertura;
+    public long[] newAccumulator() {
+        return new long[2];
+    }
 
-        long total = 0;
-        long positivos = 0;
+    @Override
+    public void accumulate(long[] positivosTotal, EvaluatedUser user) {
+        positivosTotal[0] += user.getRecommendations().size();
+        positivosTotal[1] += user.getTestRatings().size();
+    }
 
-        for (int idUser : testDataset.allUsers()) {
-            try {
-                Collection<Recommendation> positivosList = recommendationResults.getRecommendationsForUser(idUser);
-                Collection<Integer> totalList = testDataset.getUserRated(idUser);
-                positivos += positivosList.size();
-                total += totalList.size();
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-        }
-        cobertura = (double) positivos / total;
+    @Override
+    public void merge(long[] positivosTotal, long[] other) {
+        positivosTotal[0] += other[0];
+        positivosTotal[1] += other[1];
+    }
+
+    @Override
+    public MeasureResult getAccumulatedResult(long[] positivosTotal) {
+        double cobertura = (double) positivosTotal[0] / positivosTotal[1];
         return new MeasureResult(this, cobertura);
     }
 
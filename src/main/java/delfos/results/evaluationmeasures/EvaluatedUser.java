@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.results.evaluationmeasures;
+
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RelevanceCriteria;
+import delfos.rs.recommendation.Recommendation;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datos de un usuario que recibe cada {@link AccumulatedEvaluationMeasure}:
+ * sus recomendaciones y sus valoraciones de test, consultadas una sola vez para
+ * todas las medidas.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class EvaluatedUser {
+
+    private final int idUser;
+    private final List<Recommendation> recommendations;
+    private final Map<Integer, ? extends Rating> testRatings;
+    private final RatingsDataset<? extends Rating> testDataset;
+    private final RelevanceCriteria relevanceCriteria;
+
+    public EvaluatedUser(int idUser, List<Recommendation> recommendations, Map<Integer, ? extends Rating> testRatings, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
+        this.idUser = idUser;
+        this.recommendations = recommendations;
+        this.testRatings = testRatings;
+        this.testDataset = testDataset;
+        this.relevanceCriteria = relevanceCriteria;
+    }
+
+    public int getIdUser() {
+        return idUser;
+    }
+
+    /**
+     * Recomendaciones hechas al usuario, en el orden de
+     * {@link delfos.results.RecommendationResults}. Si no se le hizo ninguna,
+     * la lista está vacía.
+     *
+     * @return Recomendaciones del usuario.
+     */
+    public List<Recommendation> getRecommendations() {
+        return recommendations;
+    }
+
+    /**
+     * Valoraciones del usuario en el conjunto de test, indexadas por producto.
+     *
+     * @return Valoraciones de test del usuario.
+     */
+    public Map<Integer, ? extends Rating> getTestRatings() {
+        return testRatings;
+    }
+
+    public RatingsDataset<? extends Rating> getTestDataset() {
+        return testDataset;
+    }
+
+    public RelevanceCriteria getRelevanceCriteria() {
+        return relevanceCriteria;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.results.evaluationmeasures;
+
+import delfos.ERROR_CODES;
+import delfos.common.Global;
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RelevanceCriteria;
+import delfos.results.MeasureResult;
+import delfos.results.RecommendationResults;
+import delfos.rs.recommendation.Recommendation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Calcula varias medidas de evaluación sobre los mismos resultados. Las
+ * medidas que extienden {@link AccumulatedEvaluationMeasure} se calculan en un
+ * único recorrido paralelo de los usuarios de test: las recomendaciones y las
+ * valoraciones de test de cada usuario se consultan una vez y se pasan a todas
+ * ellas. El resto de medidas se calculan con
+ * {@link EvaluationMeasure#getMeasureResult(delfos.results.RecommendationResults, delfos.dataset.basic.rating.RatingsDataset, delfos.dataset.basic.rating.RelevanceCriteria)}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class FusedEvaluation {
+
+    private FusedEvaluation() {
+    }
+
+    /**
+     * Calcula las medidas de evaluación indicadas. Si una medida falla, se
+     * muestra un aviso y no se incluye en el resultado, sin afectar al resto.
+     *
+     * @param evaluationMeasures Medidas de evaluación.
+     * @param recommendationResults Recomendaciones hechas.
+     * @param testDataset Conjunto de test.
+     * @param relevanceCriteria Criterio de relevancia.
+     * @return Resultado de cada medida que se pudo calcular.
+     */
+    public static Map<EvaluationMeasure, MeasureResult> evaluate(
+            Collection<? extends EvaluationMeasure> evaluationMeasures,
+            RecommendationResults recommendationResults,
+            RatingsDataset<? extends Rating> testDataset,
+            RelevanceCriteria relevanceCriteria) {
+
+        Map<EvaluationMeasure, MeasureResult> results = new TreeMap<>();
+        List<AccumulatedEvaluationMeasure<?>> accumulatedMeasures = new ArrayList<>();
+
+        for (EvaluationMeasure evaluationMeasure : evaluationMeasures) {
+            if (evaluationMeasure instanceof AccumulatedEvaluationMeasure) {
+                accumulatedMeasures.add((AccumulatedEvaluationMeasure<?>) evaluationMeasure);
+            } else {
+                try {
+                    results.put(evaluationMeasure, evaluationMeasure.getMeasureResult(recommendationResults, testDataset, relevanceCriteria));
+                } catch (Throwable ex) {
+                    Global.showWarning(ex);
+                }
+            }
+        }
+
+        if (!accumulatedMeasures.isEmpty()) {
+            for (MeasureAccumulator<?> accumulator : accumulate(accumulatedMeasures, recommendationResults, testDataset, relevanceCriteria)) {
+                try {
+                    results.put(accumulator.measure, accumulator.getResult());
+                } catch (Throwable ex) {
+                    Global.showWarning(ex);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Calcula una única medida, propagando sus errores.
+     */
+    static MeasureResult evaluateOrThrow(
+            AccumulatedEvaluationMeasure<?> evaluationMeasure,
+            RecommendationResults recommendationResults,
+            RatingsDataset<? extends Rating> testDataset,
+            RelevanceCriteria relevanceCriteria) {
+        return accumulate(Collections.singletonList(evaluationMeasure), recommendationResults, testDataset, relevanceCriteria)
+                .get(0)
+                .getResult();
+    }
+
+    private static List<MeasureAccumulator<?>> accumulate(
+            List<AccumulatedEvaluationMeasure<?>> evaluationMeasures,
+            RecommendationResults recommendationResults,
+            RatingsDataset<? extends Rating> testDataset,
+            RelevanceCriteria relevanceCriteria) {
+
+        List<Integer> users = new ArrayList<>(testDataset.allUsers());
+
+        return users.parallelStream().collect(
+                () -> newAccumulators(evaluationMeasures),
+                (accumulators, idUser) -> {
+                    EvaluatedUser user = evaluatedUser(idUser, recommendationResults, testDataset, relevanceCriteria);
+                    for (MeasureAccumulator<?> accumulator : accumulators) {
+                        accumulator.accumulate(user);
+                    }
+                },
+                (accumulators, others) -> {
+                    for (int i = 0; i < accumulators.size(); i++) {
+                        merge(accumulators.get(i), others.get(i));
+                    }
+                });
+    }
+
+    private static EvaluatedUser evaluatedUser(int idUser, RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
+        List<Recommendation> recommendations = recommendationResults.getRecommendationsForUser(idUser);
+        if (recommendations == null) {
+            recommendations = Collections.emptyList();
+        }
+        Map<Integer, ? extends Rating> testRatings = null;
+        try {
+            testRatings = testDataset.getUserRatingsRated(idUser);
+        } catch (UserNotFound ex) {
+            ERROR_CODES.USER_NOT_FOUND.exit(ex);
+        }
+        return new EvaluatedUser(idUser, Collections.unmodifiableList(recommendations), testRatings, testDataset, relevanceCriteria);
+    }
+
+    private static List<MeasureAccumulator<?>> newAccumulators(List<AccumulatedEvaluationMeasure<?>> evaluationMeasures) {
+        List<MeasureAccumulator<?>> accumulators = new ArrayList<>(evaluationMeasures.size());
+        for (AccumulatedEvaluationMeasure<?> evaluationMeasure : evaluationMeasures) {
+            accumulators.add(newAccumulator(evaluationMeasure));
+        }
+        return accumulators;
+    }
+
+    private static <Accumulator> MeasureAccumulator<Accumulator> newAccumulator(AccumulatedEvaluationMeasure<Accumulator> evaluationMeasure) {
+        return new MeasureAccumulator<>(evaluationMeasure);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Accumulator> void merge(MeasureAccumulator<Accumulator> accumulator, MeasureAccumulator<?> other) {
+        accumulator.merge((MeasureAccumulator<Accumulator>) other);
+    }
+
+    /**
+     * Acumulador de una medida, que guarda el primer error producido en lugar
+     * de interrumpir el recorrido del resto de medidas.
+     */
+    private static final class MeasureAccumulator<Accumulator> {
+
+        private final AccumulatedEvaluationMeasure<Accumulator> measure;
+        private Accumulator accumulator;
+        private RuntimeException failure = null;
+
+        private MeasureAccumulator(AccumulatedEvaluationMeasure<Accumulator> measure) {
+            this.measure = measure;
+            try {
+                this.accumulator = measure.newAccumulator();
+            } catch (RuntimeException ex) {
+                this.failure = ex;
+            }
+        }
+
+        private void accumulate(EvaluatedUser user) {
+            if (failure == null) {
+                try {
+                    measure.accumulate(accumulator, user);
+                } catch (RuntimeException ex) {
+                    failure = ex;
+                }
+            }
+        }
+
+        private void merge(MeasureAccumulator<Accumulator> other) {
+            if (failure == null && other.failure != null) {
+                failure = other.failure;
+            }
+            if (failure == null) {
+                try {
+                    measure.merge(accumulator, other.accumulator);
+                } catch (RuntimeException ex) {
+                    failure = ex;
+                }
+            }
+        }
+
+        private MeasureResult getResult() {
+            if (failure != null) {
+                throw failure;
+            }
+            return measure.getAccumulatedResult(accumulator);
+        }
+    }
+}
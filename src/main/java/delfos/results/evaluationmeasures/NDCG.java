@@ -16,14 +16,9 @@
  */
 package delfos.results.evaluationmeasures;
 
-import delfos.ERROR_CODES;
-import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.statisticalfuncions.MeanIterative;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
 import delfos.rs.recommendation.Recommendation;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -36,44 +31,47 @@ import java.util.Map;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 18-Noviembre-2013
  */
-public class NDCG extends EvaluationMeasure {
+public class NDCG extends AccumulatedEvaluationMeasure<MeanIterative> {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-
-        List<Double> ndcgPerUser = new ArrayList<>();
-
-        for (int idUser : testDataset.allUsers()) {
-            try {
+    public MeanIterative newAccumulator() {
+        return new MeanIterative();
+    }
 
-                List<Recommendation> recommendations = recommendationResults.getRecommendationsForUser(idUser);
-                if (recommendations.isEmpty()) {
-                    continue;
-                }
+    @Override
+    public void accumulate(MeanIterative ndcgPerUser, EvaluatedUser user) {
+        List<Recommendation> recommendations = user.getRecommendations();
+        if (recommendations.isEmpty()) {
+            return;
+        }
 
-                List<Recommendation> idealRecommendations = new ArrayList<>(recommendations.size());
-                Map<Integer, Rating> userRatings = (Map<Integer, Rating>) testDataset.getUserRatingsRated(idUser);
+        List<Recommendation> idealRecommendations = new ArrayList<>(recommendations.size());
+        Map<Integer, ? extends Rating> userRatings = user.getTestRatings();
 
-                for (Recommendation recommendation : recommendations) {
-                    int idItem = recommendation.getIdItem();
-                    idealRecommendations.add(new Recommendation(idItem, userRatings.get(idItem).getRatingValue()));
-                }
+        for (Recommendation recommendation : recommendations) {
+            int idItem = recommendation.getIdItem();
+            idealRecommendations.add(new Recommendation(idItem, userRatings.get(idItem).getRatingValue()));
+        }
 
-                double idealGain = computeDCG(idealRecommendations, userRatings);
-                double gain = computeDCG(recommendations, userRatings);
-                double score = gain / idealGain;
-                ndcgPerUser.add(score);
+        double idealGain = computeDCG(idealRecommendations, userRatings);
+        double gain = computeDCG(recommendations, userRatings);
+        double score = gain / idealGain;
+        ndcgPerUser.addValue(score);
+    }
 
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-        }
+    @Override
+    public void merge(MeanIterative ndcgPerUser, MeanIterative other) {
+        ndcgPerUser.addMean(other);
+    }
 
-        return new MeasureResult(this, (double) new MeanIterative(ndcgPerUser).getMean());
+    @Override
+    public MeasureResult getAccumulatedResult(MeanIterative ndcgPerUser) {
+        return new MeasureResult(this, (double) ndcgPerUser.getMean());
     }
 
     @Override
@@ -16,11 +16,6 @@
  */
 package delfos.results.evaluationmeasures;
 
-import org.jdom2.Element;
-import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
-import delfos.results.RecommendationResults;
 import delfos.results.MeasureResult;
 
 /**
@@ -31,19 +26,28 @@ import delfos.results.MeasureResult;
  *
  * @see Coverage
  */
-public class NumberOfRecommendations extends EvaluationMeasure {
+public class NumberOfRecommendations extends AccumulatedEvaluationMeasure<long[]> {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-        double numberOfRecommendations = 0;
-        Element element = new Element(this.getName());
-        for (int idUser : testDataset.allUsers()) {
-            numberOfRecommendations += recommendationResults.getRecommendationsForUser(idUser).size();
-        }
-        element.setAttribute("value", Double.toString(numberOfRecommendations));
-        return new MeasureResult(this, numberOfRecommendations);
+    public long[] newAccumulator() {
+        return new long[1];
+    }
+
+    @Override
+    public void accumulate(long[] numberOfRecommendations, EvaluatedUser user) {
+        numberOfRecommendations[0] += user.getRecommendations().size();
+    }
+
+    @Override
+    public void merge(long[] numberOfRecommendations, long[] other) {
+        numberOfRecommendations[0] += other[0];
+    }
+
+    @Override
+    public MeasureResult getAccumulatedResult(long[] numberOfRecommendations) {
+        return new MeasureResult(this, (double) numberOfRecommendations[0]);
     }
 
     @Override
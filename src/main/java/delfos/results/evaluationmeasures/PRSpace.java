@@ -16,23 +16,15 @@
  */
 package delfos.results.evaluationmeasures;
 
-import delfos.ERROR_CODES;
 import delfos.common.Global;
-import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RelevanceCriteria;
-import delfos.io.xml.evaluationmeasures.confusionmatricescurve.ConfusionMatricesCurveXML;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
 import delfos.results.evaluationmeasures.confusionmatrix.ConfusionMatricesCurve;
 import delfos.rs.recommendation.Recommendation;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import org.jdom2.Element;
 
 /**
  * Medida de evaluación que calcula la precisión y recall a lo largo de todos
@@ -41,7 +33,7 @@ import org.jdom2.Element;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  */
-public class PRSpace extends EvaluationMeasure {
+public class PRSpace extends AccumulatedEvaluationMeasure<List<ConfusionMatricesCurve>> {
 
     private static final long serialVersionUID = 1L;
 
@@ -51,55 +43,39 @@ public class PRSpace extends EvaluationMeasure {
     }
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-
-        int maxLength = 0;
-        for (int idUser : testDataset.allUsers()) {
-            Collection<Recommendation> lr = recommendationResults.getRecommendationsForUser(idUser);
+    public List<ConfusionMatricesCurve> newAccumulator() {
+        return new ArrayList<>();
+    }
 
-            if (lr.size() > maxLength) {
-                maxLength = lr.size();
-            }
+    @Override
+    public void accumulate(List<ConfusionMatricesCurve> allUsersCurves, EvaluatedUser user) {
+        List<Boolean> resultados = new ArrayList<>(user.getRecommendations().size());
+        Map<Integer, ? extends Rating> userRatings = user.getTestRatings();
+        RelevanceCriteria relevanceCriteria = user.getRelevanceCriteria();
+
+        for (Recommendation r : user.getRecommendations()) {
+            int idItem = r.getIdItem();
+            resultados.add(relevanceCriteria.isRelevant(userRatings.get(idItem).getRatingValue()));
         }
 
-        Map<Integer, ConfusionMatricesCurve> allUsersCurves = new TreeMap<>();
-
-        for (int idUser : testDataset.allUsers()) {
-
-            List<Boolean> resultados = new ArrayList<>(recommendationResults.usersWithRecommendations().size());
-            Collection<Recommendation> recommendationList = recommendationResults.getRecommendationsForUser(idUser);
-
-            try {
-                Map<Integer, ? extends Rating> userRatings = testDataset.getUserRatingsRated(idUser);
-                for (Recommendation r : recommendationList) {
-
-                    int idItem = r.getIdItem();
-                    resultados.add(relevanceCriteria.isRelevant(userRatings.get(idItem).getRatingValue()));
-                }
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-
-            try {
-                allUsersCurves.put(idUser, new ConfusionMatricesCurve(resultados));
-            } catch (IllegalArgumentException iae) {
-                Global.showWarning("User " + idUser + ": " + iae.getMessage());
-            }
+        try {
+            allUsersCurves.add(new ConfusionMatricesCurve(resultados));
+        } catch (IllegalArgumentException iae) {
+            Global.showWarning("User " + user.getIdUser() + ": " + iae.getMessage());
         }
+    }
 
-        ConfusionMatricesCurve agregada = ConfusionMatricesCurve.mergeCurves(allUsersCurves.values());
+    @Override
+    public void merge(List<ConfusionMatricesCurve> allUsersCurves, List<ConfusionMatricesCurve> other) {
+        allUsersCurves.addAll(other);
+    }
 
-        double areaUnderPR = agregada.getAreaPRSpace();
+    @Override
+    public MeasureResult getAccumulatedResult(List<ConfusionMatricesCurve> allUsersCurves) {
 
-        Element element = new Element(this.getName());
-        element.setAttribute(EvaluationMeasure.VALUE_ATTRIBUTE_NAME, Double.toString(areaUnderPR));
-        element.setContent(ConfusionMatricesCurveXML.getElement(agregada));
+        ConfusionMatricesCurve agregada = ConfusionMatricesCurve.mergeCurves(allUsersCurves);
 
-        Map<String, Double> detailedResult = new TreeMap<>();
-        for (int i = 0; i < agregada.size(); i++) {
-            double precisionAt = agregada.getPrecisionAt(i);
-            detailedResult.put("Precision@" + i, precisionAt);
-        }
+        double areaUnderPR = agregada.getAreaPRSpace();
 
         return new MeasureResult(
                 this,
@@ -16,21 +16,17 @@
  */
 package delfos.results.evaluationmeasures.prediction.list;
 
-import delfos.ERROR_CODES;
-import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.parameters.Parameter;
 import delfos.common.parameters.restriction.DoubleParameter;
 import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.common.statisticalfuncions.MeanIterative;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
 import delfos.rs.recommendation.Recommendation;
 import java.util.List;
 import java.util.Map;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
 
 /**
  * Medida de evaluación para calcular la probabilidad de que un usuario vea un
@@ -41,9 +37,10 @@ import java.util.Map;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 1-julio-2014
  */
-public class HalfLifeUtility extends EvaluationMeasure {
+public class HalfLifeUtility extends AccumulatedEvaluationMeasure<MeanIterative> {
 
     private static final long serialVersionUID = 1L;
 
@@ -83,47 +80,50 @@ public class HalfLifeUtility extends EvaluationMeasure {
     }
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
+    public MeanIterative newAccumulator() {
+        return new MeanIterative();
+    }
 
-        MeanIterative mean = new MeanIterative();
+    @Override
+    public void accumulate(MeanIterative mean, EvaluatedUser user) {
 
         final double alpha = ((Number) getParameterValue(ALPHA)).doubleValue();
         final double neutralRating = ((Number) getParameterValue(NEUTRAL_RATING)).doubleValue();
 
-        for (int idUser : testDataset.allUsers()) {
-
-            List<Recommendation> recommendationList = recommendationResults.getRecommendationsForUser(idUser);
+        List<Recommendation> recommendationList = user.getRecommendations();
 
-            if (!recommendationList.isEmpty()) {
-                double sum = 0;
+        if (!recommendationList.isEmpty()) {
+            double sum = 0;
 
-                try {
-                    Map<Integer, ? extends Rating> userRatings = testDataset.getUserRatingsRated(idUser);
+            Map<Integer, ? extends Rating> userRatings = user.getTestRatings();
 
-                    int j = 1;
+            int j = 1;
 
-                    for (Recommendation recommendation : recommendationList) {
+            for (Recommendation recommendation : recommendationList) {
 
-                        double prediction = recommendation.getPreference().doubleValue();
-                        double rating = userRatings.get(recommendation.getIdItem()).getRatingValue().doubleValue();
+                double rating = userRatings.get(recommendation.getIdItem()).getRatingValue().doubleValue();
 
-                        double numerator = rating - neutralRating;
-                        double denominator = Math.pow(2, (j - 1) / (alpha - 1));
+                double numerator = rating - neutralRating;
+                double denominator = Math.pow(2, (j - 1) / (alpha - 1));
 
-                        double thisLoopSum = Math.max(0, numerator) / denominator;
+                double thisLoopSum = Math.max(0, numerator) / denominator;
 
-                        sum += thisLoopSum;
+                sum += thisLoopSum;
 
-                        j++;
-                    }
-
-                    mean.addValue(sum);
-                } catch (UserNotFound ex) {
-                    ERROR_CODES.USER_NOT_FOUND.exit(ex);
-                }
+                j++;
             }
+
+            mean.addValue(sum);
         }
+    }
 
+    @Override
+    public void merge(MeanIterative mean, MeanIterative other) {
+        mean.addMean(other);
+    }
+
+    @Override
+    public MeasureResult getAccumulatedResult(MeanIterative mean) {
         return new MeasureResult(this, (double) mean.getMean());
     }
 }
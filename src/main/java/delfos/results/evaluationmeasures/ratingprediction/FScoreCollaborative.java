@@ -16,19 +16,11 @@
  */
 package delfos.results.evaluationmeasures.ratingprediction;
 
-import java.util.Map;
-import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
-import delfos.ERROR_CODES;
-import delfos.rs.recommendation.Recommendation;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
-import delfos.results.RecommendationResults;
 import delfos.results.MeasureResult;
-import delfos.common.exceptions.dataset.users.UserNotFound;
-import delfos.common.Global;
 import delfos.common.parameters.Parameter;
 import delfos.common.parameters.restriction.DoubleParameter;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
 
 /**
  * Clase que implementa el algoritmo de cálculo de la F-Medida en predicción en
@@ -38,9 +30,10 @@ import delfos.common.parameters.restriction.DoubleParameter;
  * predicciones que el criterio de relevancia clasifica como positivas.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 1.0 (19 de Octubre 2011)
  */
-public class FScoreCollaborative extends EvaluationMeasure {
+public class FScoreCollaborative extends AccumulatedEvaluationMeasure<RelevanceCounts> {
 
     private static final long serialVersionUID = 1L;
     /**
@@ -59,54 +52,26 @@ public class FScoreCollaborative extends EvaluationMeasure {
     }
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-        double precision, recall, fMeasure;
-        double beta_ = (Double) getParameterValue(beta);
-        int relevantesRecomendadas = 0;
-        int relevantesNoRecomendadas = 0;
-        int noRelevantesRecomendadas = 0;
-        int noRelevantesNoRecomendadas = 0;
+    public RelevanceCounts newAccumulator() {
+        return new RelevanceCounts();
+    }
 
-        for (int idUser : testDataset.allUsers()) {
-            try {
-                Map<Integer, ? extends Rating> userRatingsRated = testDataset.getUserRatingsRated(idUser);
-                for (Recommendation r : recommendationResults.getRecommendationsForUser(idUser)) {
-                    int idItem = r.getIdItem();
-                    Rating rating = userRatingsRated.get(idItem);
-                    if (rating == null) {
-                        Global.showWarning("Error in " + FScoreCollaborative.class.getName() + "\n");
-                        continue;
-                    }
-                    if (relevanceCriteria.isRelevant(rating.getRatingValue())) {
-                        if (relevanceCriteria.isRelevant(r.getPreference())) {
-                            relevantesRecomendadas++;
-                        } else {
-                            relevantesNoRecomendadas++;
-                        }
-                    } else {
-                        if (relevanceCriteria.isRelevant(r.getPreference())) {
-                            noRelevantesRecomendadas++;
-                        } else {
-                            noRelevantesNoRecomendadas++;
-                        }
-                    }
-                }
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-        }
+    @Override
+    public void accumulate(RelevanceCounts counts, EvaluatedUser user) {
+        counts.addRecommendations(user);
+    }
 
-        if (((double) relevantesRecomendadas + (double) noRelevantesRecomendadas) == 0) {
-            precision = 0;
-        } else {
-            precision = (double) relevantesRecomendadas / ((double) relevantesRecomendadas + (double) noRelevantesRecomendadas);
-        }
+    @Override
+    public void merge(RelevanceCounts counts, RelevanceCounts other) {
+        counts.add(other);
+    }
 
-        if (((double) relevantesRecomendadas + (double) relevantesNoRecomendadas) == 0) {
-            recall = 0;
-        } else {
-            recall = (double) relevantesRecomendadas / ((double) relevantesRecomendadas + (double) relevantesNoRecomendadas);
-        }
+    @Override
+    public MeasureResult getAccumulatedResult(RelevanceCounts counts) {
+        double precision = counts.getPrecision();
+        double recall = counts.getRecall();
+        double beta_ = (Double) getParameterValue(beta);
+        double fMeasure;
 
         if ((beta_ * beta_ * precision + recall) == 0) {
             fMeasure = 0;
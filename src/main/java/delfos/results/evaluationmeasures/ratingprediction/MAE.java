@@ -16,21 +16,16 @@
  */
 package delfos.results.evaluationmeasures.ratingprediction;
 
-import delfos.ERROR_CODES;
 import delfos.common.Global;
-import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.statisticalfuncions.MeanIterative;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.dataset.basic.user.User;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
 import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.SingleUserRecommendations;
-import java.util.List;
 import java.util.Map;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
 
 /**
  * Calcula el error absoluto medio de una ejecución con un algoritmo de
@@ -38,34 +33,38 @@ import java.util.Map;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 1.2 (21-Jan-2013)
  * @version 1.1 (9-Jan-2013)
  * @version 1.0 (Unknow date)
  */
-public class MAE extends EvaluationMeasure {
+public class MAE extends AccumulatedEvaluationMeasure<MeanIterative> {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
+    public MeanIterative newAccumulator() {
+        return new MeanIterative();
+    }
 
-        MeanIterative mean = new MeanIterative();
+    @Override
+    public void accumulate(MeanIterative mean, EvaluatedUser user) {
+        MeanIterative userMean = getUserResult(
+                new SingleUserRecommendations(new User(user.getIdUser()), user.getRecommendations()),
+                user.getTestRatings());
 
-        for (int idUser : recommendationResults.usersWithRecommendations()) {
-            User user = new User(idUser);
-            List<Recommendation> recommendationList = recommendationResults.getRecommendationsForUser(idUser);
-            try {
-                Map<Integer, ? extends Rating> userRated = testDataset.getUserRatingsRated(idUser);
-                MeanIterative userMean = getUserResult(new SingleUserRecommendations(user, recommendationList), userRated);
+        if (!userMean.isEmpty()) {
+            mean.addMean(userMean);
+        }
+    }
 
-                if (!userMean.isEmpty()) {
-                    mean.addMean(userMean);
-                }
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
+    @Override
+    public void merge(MeanIterative mean, MeanIterative other) {
+        mean.addMean(other);
+    }
 
-        }
+    @Override
+    public MeasureResult getAccumulatedResult(MeanIterative mean) {
         if (mean.getNumValues() == 0) {
             Global.showWarning("Cannot compute 'MAE' since the RS did not predicted any recommendation!!");
         }
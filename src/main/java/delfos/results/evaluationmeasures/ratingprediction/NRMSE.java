@@ -19,64 +19,62 @@ package delfos.results.evaluationmeasures.ratingprediction;
 import delfos.common.Global;
 import delfos.common.statisticalfuncions.MeanIterative;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.dataset.basic.rating.domain.DecimalDomain;
 import delfos.dataset.basic.rating.domain.Domain;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
 import delfos.rs.recommendation.Recommendation;
-import java.util.List;
-import java.util.Map;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
 
 /**
  * Implementa NRMSE.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 19-febrero-2014
  */
-public class NRMSE extends EvaluationMeasure {
+public class NRMSE extends AccumulatedEvaluationMeasure<MeanIterative> {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-
-        MeanIterative mean = new MeanIterative();
-
-        Domain originalDomain = testDataset.getRatingsDomain();
-
-        for (int idUser : testDataset.allUsers()) {
-            List<Recommendation> recommendations = recommendationResults.getRecommendationsForUser(idUser);
-
-            if (recommendations == null) {
-                continue;
-            }
+    public MeanIterative newAccumulator() {
+        return new MeanIterative();
+    }
 
-            Map<Integer, ? extends Rating> userRated = testDataset.getUserRatingsRated(idUser);
+    @Override
+    public void accumulate(MeanIterative mean, EvaluatedUser user) {
+        Domain originalDomain = user.getTestDataset().getRatingsDomain();
 
-            for (Recommendation recommendation : recommendations) {
-                Number trueRating = userRated.get(recommendation.getIdItem()).getRatingValue();
-                Number predictedRating = recommendation.getPreference();
+        for (Recommendation recommendation : user.getRecommendations()) {
+            Rating rating = user.getTestRatings().get(recommendation.getIdItem());
+            Number trueRating = rating == null ? null : rating.getRatingValue();
+            Number predictedRating = recommendation.getPreference();
 
-                if (trueRating != null
-                        && !Double.isNaN(trueRating.doubleValue())
-                        && !Double.isInfinite(trueRating.doubleValue())
-                        && predictedRating != null
-                        && !Double.isNaN(predictedRating.doubleValue())
-                        && !Double.isInfinite(predictedRating.doubleValue())) {
+            if (trueRating != null
+                    && !Double.isNaN(trueRating.doubleValue())
+                    && !Double.isInfinite(trueRating.doubleValue())
+                    && predictedRating != null
+                    && !Double.isNaN(predictedRating.doubleValue())
+                    && !Double.isInfinite(predictedRating.doubleValue())) {
 
-                    double trueRatingNormalised = originalDomain.convertToDecimalDomain(trueRating, DecimalDomain.ZERO_TO_ONE).doubleValue();
-                    double predictedNormalised = originalDomain.convertToDecimalDomain(predictedRating, DecimalDomain.ZERO_TO_ONE).doubleValue();
+                double trueRatingNormalised = originalDomain.convertToDecimalDomain(trueRating, DecimalDomain.ZERO_TO_ONE).doubleValue();
+                double predictedNormalised = originalDomain.convertToDecimalDomain(predictedRating, DecimalDomain.ZERO_TO_ONE).doubleValue();
 
-                    mean.addValue(Math.pow(trueRatingNormalised - predictedNormalised, 2));
-                }
+                mean.addValue(Math.pow(trueRatingNormalised - predictedNormalised, 2));
             }
-
         }
+    }
+
+    @Override
+    public void merge(MeanIterative mean, MeanIterative other) {
+        mean.addMean(other);
+    }
+
+    @Override
+    public MeasureResult getAccumulatedResult(MeanIterative mean) {
         if (mean.getNumValues() == 0) {
-            Global.showWarning("Cannot compute 'MAE' since the RS did not predicted any recommendation!!");
+            Global.showWarning("Cannot compute 'NRMSE' since the RS did not predicted any recommendation!!");
         }
 
         return new MeasureResult(this, (double) Math.sqrt(mean.getMean()));
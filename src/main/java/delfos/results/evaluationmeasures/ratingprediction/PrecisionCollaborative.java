@@ -16,16 +16,9 @@
  */
 package delfos.results.evaluationmeasures.ratingprediction;
 
-import java.util.Map;
-import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
-import delfos.ERROR_CODES;
-import delfos.rs.recommendation.Recommendation;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
-import delfos.results.RecommendationResults;
 import delfos.results.MeasureResult;
-import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
 
 /**
  * Clase que implementa el algoritmo de cálculo de la precisión en predicción en
@@ -36,49 +29,31 @@ import delfos.common.exceptions.dataset.users.UserNotFound;
  * positivas.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 1.0 (19 de Octubre 2011)
  */
-public class PrecisionCollaborative extends EvaluationMeasure {
+public class PrecisionCollaborative extends AccumulatedEvaluationMeasure<RelevanceCounts> {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-        double precision;
-        int relevantesRecomendadas = 0;
-        int relevantesNoRecomendadas = 0;
-        int noRelevantesRecomendadas = 0;
-        int noRelevantesNoRecomendadas = 0;
+    public RelevanceCounts newAccumulator() {
+        return new RelevanceCounts();
+    }
 
-        for (int idUser : testDataset.allUsers()) {
-            try {
-                Map<Integer, ? extends Rating> userRatingsRated = testDataset.getUserRatingsRated(idUser);
-                for (Recommendation r : recommendationResults.getRecommendationsForUser(idUser)) {
-                    int idItem = r.getIdItem();
-                    if (relevanceCriteria.isRelevant(userRatingsRated.get(idItem).getRatingValue())) {
-                        if (relevanceCriteria.isRelevant(r.getPreference())) {
-                            relevantesRecomendadas++;
-                        } else {
-                            relevantesNoRecomendadas++;
-                        }
-                    } else if (relevanceCriteria.isRelevant(r.getPreference())) {
-                        noRelevantesRecomendadas++;
-                    } else {
-                        noRelevantesNoRecomendadas++;
-                    }
-                }
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-        }
+    @Override
+    public void accumulate(RelevanceCounts counts, EvaluatedUser user) {
+        counts.addRecommendations(user);
+    }
 
-        if ((relevantesRecomendadas + noRelevantesRecomendadas) == 0) {
-            precision = 0;
-        } else {
-            precision = (double) relevantesRecomendadas / ((double) relevantesRecomendadas + (double) noRelevantesRecomendadas);
-        }
+    @Override
+    public void merge(RelevanceCounts counts, RelevanceCounts other) {
+        counts.add(other);
+    }
 
-        return new MeasureResult(this, precision);
+    @Override
+    public MeasureResult getAccumulatedResult(RelevanceCounts counts) {
+        return new MeasureResult(this, counts.getPrecision());
     }
 
     @Override
@@ -16,19 +16,13 @@
  */
 package delfos.results.evaluationmeasures.ratingprediction;
 
-import delfos.ERROR_CODES;
 import delfos.common.Global;
-import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.statisticalfuncions.MeanIterative;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
 import delfos.rs.recommendation.Recommendation;
-import java.util.Collection;
-import java.util.Map;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
 
 /**
  * Compute the root of squared mean absolute error of a collaborative filtering
@@ -36,44 +30,47 @@ import java.util.Map;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 1.1 21-Jan-2013
  * @version 1.0 UnkowDate
  */
-public class RMSE extends EvaluationMeasure {
+public class RMSE extends AccumulatedEvaluationMeasure<MeanIterative> {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
+    public MeanIterative newAccumulator() {
+        return new MeanIterative();
+    }
 
-        MeanIterative mean = new MeanIterative();
+    @Override
+    public void accumulate(MeanIterative mean, EvaluatedUser user) {
 
-        for (int idUser : testDataset.allUsers()) {
-            Collection<Recommendation> recommendationList = recommendationResults.getRecommendationsForUser(idUser);
-            if (recommendationList != null) {
-                try {
-                    Map<Integer, ? extends Rating> userRated = testDataset.getUserRatingsRated(idUser);
-                    for (Recommendation lista : recommendationList) {
-                        Number trueRating = userRated.get(lista.getIdItem()).getRatingValue();
-                        Number calculatedRating = lista.getPreference();
+        for (Recommendation recommendation : user.getRecommendations()) {
+            Rating rating = user.getTestRatings().get(recommendation.getIdItem());
+            Number trueRating = rating == null ? null : rating.getRatingValue();
+            Number predictedRating = recommendation.getPreference();
 
-                        if (trueRating != null
-                                && !Double.isNaN(trueRating.doubleValue())
-                                && !Double.isInfinite(trueRating.doubleValue())
-                                && calculatedRating != null
-                                && !Double.isNaN(calculatedRating.doubleValue())
-                                && !Double.isInfinite(calculatedRating.doubleValue())) {
-                            mean.addValue(Math.pow(Math.abs(trueRating.doubleValue() - calculatedRating.doubleValue()), 2));
-                        }
-                    }
-                } catch (UserNotFound ex) {
-                    ERROR_CODES.USER_NOT_FOUND.exit(ex);
-                }
+            if (trueRating != null
+                    && !Double.isNaN(trueRating.doubleValue())
+                    && !Double.isInfinite(trueRating.doubleValue())
+                    && predictedRating != null
+                    && !Double.isNaN(predictedRating.doubleValue())
+                    && !Double.isInfinite(predictedRating.doubleValue())) {
+                mean.addValue(Math.pow(Math.abs(trueRating.doubleValue() - predictedRating.doubleValue()), 2));
             }
-
         }
+    }
+
+    @Override
+    public void merge(MeanIterative mean, MeanIterative other) {
+        mean.addMean(other);
+    }
+
+    @Override
+    public MeasureResult getAccumulatedResult(MeanIterative mean) {
         if (mean.getNumValues() == 0) {
-            Global.showWarning("Cannot compute 'MAE' since the RS did not predicted any recommendation!!");
+            Global.showWarning("Cannot compute 'RMSE' since the RS did not predicted any recommendation!!");
         }
 
         return new MeasureResult(this, (double) Math.sqrt(mean.getMean()));
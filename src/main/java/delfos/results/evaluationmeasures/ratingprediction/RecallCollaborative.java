@@ -16,17 +16,9 @@
  */
 package delfos.results.evaluationmeasures.ratingprediction;
 
-import java.util.Map;
-import java.util.TreeMap;
-import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
-import delfos.dataset.basic.rating.RelevanceCriteria;
-import delfos.ERROR_CODES;
-import delfos.rs.recommendation.Recommendation;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
-import delfos.results.RecommendationResults;
 import delfos.results.MeasureResult;
-import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
 
 /**
  * Clase que implementa el algoritmo de cálculo del recall en sistemas de
@@ -36,59 +28,31 @@ import delfos.common.exceptions.dataset.users.UserNotFound;
  * relevancia clasifica como positivas.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 1.0 (19 de Octubre 2011)
  */
-public class RecallCollaborative extends EvaluationMeasure {
+public class RecallCollaborative extends AccumulatedEvaluationMeasure<RelevanceCounts> {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-        double recall;
-        int relevantesRecomendadas = 0;
-        int relevantesNoRecomendadas = 0;
-        int noRelevantesRecomendadas = 0;
-        int noRelevantesNoRecomendadas = 0;
+    public RelevanceCounts newAccumulator() {
+        return new RelevanceCounts();
+    }
 
-        for (int idUser : testDataset.allUsers()) {
-            try {
-                Map<Integer, ? extends Rating> userRatingsRated = testDataset.getUserRatingsRated(idUser);
-                TreeMap<Integer, Recommendation> l = new TreeMap<Integer, Recommendation>();
-                for (Recommendation r : recommendationResults.getRecommendationsForUser(idUser)) {
-                    l.put(r.getIdItem(), r);
-                }
+    @Override
+    public void accumulate(RelevanceCounts counts, EvaluatedUser user) {
+        counts.addRecommendations(user);
+    }
 
-                for (int idItem : testDataset.getUserRated(idUser)) {
-                    if (l.containsKey(idItem)) {
-                        double originalRating = userRatingsRated.get(idItem).getRatingValue().doubleValue();
-                        double predictedRating = l.get(idItem).getPreference().doubleValue();
-                        if (relevanceCriteria.isRelevant(originalRating)) {
-                            if (relevanceCriteria.isRelevant(predictedRating)) {
-                                relevantesRecomendadas++;
-                            } else {
-                                relevantesNoRecomendadas++;
-                            }
-                        } else {
-                            if (relevanceCriteria.isRelevant(predictedRating)) {
-                                noRelevantesRecomendadas++;
-                            } else {
-                                noRelevantesNoRecomendadas++;
-                            }
-                        }
-                    } else {
-                        //Fallo de cobertura
-                    }
-                }
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-        }
-        if (relevantesRecomendadas + relevantesNoRecomendadas == 0) {
-            recall = 0;
-        } else {
-            recall = (double) relevantesRecomendadas / ((double) relevantesRecomendadas + (double) relevantesNoRecomendadas);
-        }
-        return new MeasureResult(this, recall);
+    @Override
+    public void merge(RelevanceCounts counts, RelevanceCounts other) {
+        counts.add(other);
+    }
+
+    @Override
+    public MeasureResult getAccumulatedResult(RelevanceCounts counts) {
+        return new MeasureResult(this, counts.getRecall());
     }
 
     @Override
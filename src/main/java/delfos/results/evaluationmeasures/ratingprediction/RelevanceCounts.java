@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.results.evaluationmeasures.ratingprediction;
+
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RelevanceCriteria;
+import delfos.results.evaluationmeasures.EvaluatedUser;
+import delfos.rs.recommendation.Recommendation;
+
+/**
+ * Cuenta las predicciones según la relevancia de la valoración real y de la
+ * predicha. Es el acumulador de {@link PrecisionCollaborative},
+ * {@link RecallCollaborative} y {@link FScoreCollaborative}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class RelevanceCounts {
+
+    private long relevantesRecomendadas = 0;
+    private long relevantesNoRecomendadas = 0;
+    private long noRelevantesRecomendadas = 0;
+    private long noRelevantesNoRecomendadas = 0;
+
+    /**
+     * Cuenta las recomendaciones del usuario que tienen valoración en test. Una
+     * recomendación se considera recomendada si su preferencia es relevante.
+     *
+     * @param user Usuario evaluado.
+     */
+    public void addRecommendations(EvaluatedUser user) {
+        RelevanceCriteria relevanceCriteria = user.getRelevanceCriteria();
+        for (Recommendation recommendation : user.getRecommendations()) {
+            Rating rating = user.getTestRatings().get(recommendation.getItem().getId());
+            if (rating == null) {
+                continue;
+            }
+            boolean recommended = relevanceCriteria.isRelevant(recommendation.getPreference());
+            if (relevanceCriteria.isRelevant(rating.getRatingValue())) {
+                if (recommended) {
+                    relevantesRecomendadas++;
+                } else {
+                    relevantesNoRecomendadas++;
+                }
+            } else if (recommended) {
+                noRelevantesRecomendadas++;
+            } else {
+                noRelevantesNoRecomendadas++;
+            }
+        }
+    }
+
+    public void add(RelevanceCounts other) {
+        relevantesRecomendadas += other.relevantesRecomendadas;
+        relevantesNoRecomendadas += other.relevantesNoRecomendadas;
+        noRelevantesRecomendadas += other.noRelevantesRecomendadas;
+        noRelevantesNoRecomendadas += other.noRelevantesNoRecomendadas;
+    }
+
+    /**
+     * @return Precisión, o cero si no se ha recomendado ningún producto.
+     */
+    public double getPrecision() {
+        if (relevantesRecomendadas + noRelevantesRecomendadas == 0) {
+            return 0;
+        }
+        return (double) relevantesRecomendadas / ((double) relevantesRecomendadas + (double) noRelevantesRecomendadas);
+    }
+
+    /**
+     * @return Recall, o cero si no hay productos relevantes.
+     */
+    public double getRecall() {
+        if (relevantesRecomendadas + relevantesNoRecomendadas == 0) {
+            return 0;
+        }
+        return (double) relevantesRecomendadas / ((double) relevantesRecomendadas + (double) relevantesNoRecomendadas);
+    }
+
+    public long getNumPredictions() {
+        return relevantesRecomendadas + relevantesNoRecomendadas + noRelevantesRecomendadas + noRelevantesNoRecomendadas;
+    }
+}
@@ -16,26 +16,19 @@
  */
 package delfos.results.evaluationmeasures.roccurve;
 
-import delfos.ERROR_CODES;
-import delfos.common.Chronometer;
 import delfos.common.Global;
-import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.dataset.basic.rating.Rating;
-import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.rating.RelevanceCriteria;
-import delfos.io.xml.evaluationmeasures.confusionmatricescurve.ConfusionMatricesCurveXML;
 import delfos.results.MeasureResult;
-import delfos.results.RecommendationResults;
-import delfos.results.evaluationmeasures.EvaluationMeasure;
 import delfos.results.evaluationmeasures.confusionmatrix.ConfusionMatricesCurve;
 import delfos.results.evaluationmeasures.confusionmatrix.ConfusionMatrix;
 import delfos.rs.recommendation.Recommendation;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import org.jdom2.Element;
+import delfos.results.evaluationmeasures.AccumulatedEvaluationMeasure;
+import delfos.results.evaluationmeasures.EvaluatedUser;
+import java.util.Arrays;
 
 /**
  * Medida de evaluación para calcular el area bajo roc, tomando el tamaño de la
@@ -45,10 +38,11 @@ import org.jdom2.Element;
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
+ * @version 18-oct-2026 Calculada con {@link AccumulatedEvaluationMeasure}.
  * @version 1.0 Unknown date
  * @version 1.1 20-Mar-2013
  */
-public class AreaUnderROC extends EvaluationMeasure {
+public class AreaUnderROC extends AccumulatedEvaluationMeasure<AreaUnderROC.RelevanceByPosition> {
 
     private static final long serialVersionUID = 1L;
 
@@ -64,99 +58,55 @@ public class AreaUnderROC extends EvaluationMeasure {
     }
 
     @Override
-    public MeasureResult getMeasureResult(RecommendationResults recommendationResults, RatingsDataset<? extends Rating> testDataset, RelevanceCriteria relevanceCriteria) {
-        List<ConfusionMatrix> matrices = new LinkedList<>();
-        int maxLength = 0;
-
-        for (Integer idUser : recommendationResults.usersWithRecommendations()) {
-            Collection<Recommendation> recommendations
-                    = recommendationResults.getRecommendationsForUser(idUser);
+    public RelevanceByPosition newAccumulator() {
+        return new RelevanceByPosition();
+    }
 
-            if (recommendations.size() > maxLength) {
-                maxLength = recommendations.size();
-            }
+    @Override
+    public void accumulate(RelevanceByPosition relevanceByPosition, EvaluatedUser user) {
+        Map<Integer, ? extends Rating> userRatings = user.getTestRatings();
+        RelevanceCriteria relevanceCriteria = user.getRelevanceCriteria();
+
+        int position = 0;
+        for (Recommendation recommendation : user.getRecommendations()) {
+            boolean relevant = relevanceCriteria.isRelevant(userRatings.get(recommendation.getIdItem()).getRatingValue());
+            relevanceByPosition.add(position, relevant);
+            position++;
         }
+    }
+
+    @Override
+    public void merge(RelevanceByPosition relevanceByPosition, RelevanceByPosition other) {
+        relevanceByPosition.add(other);
+    }
+
+    @Override
+    public MeasureResult getAccumulatedResult(RelevanceByPosition relevanceByPosition) {
+        int maxLength = relevanceByPosition.maxLength;
 
         if (maxLength == 0) {
             return new MeasureResult(this, 0);
         }
 
-        List<List<Boolean>> resultados = new ArrayList<>(recommendationResults.usersWithRecommendations().size());
-        for (int idUser : testDataset.allUsers()) {
-            Collection<Recommendation> recommendationList = recommendationResults.getRecommendationsForUser(idUser);
-            List<Boolean> listaTransformada = new ArrayList<>(recommendationList.size());
-
-            try {
-                Map<Integer, ? extends Rating> userRatings = testDataset.getUserRatingsRated(idUser);
-                recommendationList.stream().map((r) -> r.getIdItem()).map((idItem) -> {
-                    return idItem;
-                }).forEach((idItem) -> {
-                    listaTransformada.add(relevanceCriteria.isRelevant(userRatings.get(idItem).getRatingValue()));
-                });
-                resultados.add(listaTransformada);
-            } catch (UserNotFound ex) {
-                ERROR_CODES.USER_NOT_FOUND.exit(ex);
-            }
-        }
-
-        Collection<Integer> allUsers = testDataset.allUsers();
-        if (allUsers.isEmpty()) {
-            throw new IllegalArgumentException("Cannot work without users.");
-        }
+        List<ConfusionMatrix> matrices = new ArrayList<>(maxLength);
 
+        //Inicialmente supone que todos son no recomendados
         int truePositive = 0;
-        int falseNegative = 0;
+        int falseNegative = (int) relevanceByPosition.positives;
         int falsePositive = 0;
-        int trueNegative = 0;
-        int count = 0;
-
-        //Inicialmente supone que todos son no recomendados
-        if (Global.isVerboseAnnoying()) {
-            Global.showInfoMessage("ROC with length " + 0 + " of " + maxLength + ".");
-        }
-        for (List<Boolean> recom : resultados) {
-            for (Boolean recom1 : recom) {
-                if (recom1) {
-                    falseNegative++;
-                } else {
-                    trueNegative++;
-                }
-            }
-            count++;
-            if (allUsers.size() > 11 && (count % (allUsers.size() / 10.0) == 0)) {
-                if (Global.isVerboseAnnoying()) {
-                    Global.showInfoMessage(" " + count * 100 / allUsers.size() + "% of users analysed.\n");
-                }
-            }
-        }
+        int trueNegative = (int) relevanceByPosition.negatives;
 
         //calculada la matriz de confusión para tamaño 0, se añade a la curva.
         matrices.add(new ConfusionMatrix(falsePositive, falseNegative, truePositive, trueNegative));
 
-        Chronometer c = new Chronometer();
-        c.reset();
         for (int kActual = 1; kActual < maxLength; kActual++) {
-            if (Global.isVerboseAnnoying()) {
-                Global.showInfoMessage("ROC with length " + kActual + " of " + maxLength + ".");
-            }
+            truePositive += relevanceByPosition.positivesAt[kActual];
+            falseNegative -= relevanceByPosition.positivesAt[kActual];
+            falsePositive += relevanceByPosition.negativesAt[kActual];
+            trueNegative -= relevanceByPosition.negativesAt[kActual];
 
-//            count = 0;
-            for (List<Boolean> recom : resultados) {
-                if (kActual < recom.size()) {
-                    if (recom.get(kActual)) {
-                        truePositive++;
-                        falseNegative--;
-                    } else {
-                        falsePositive++;
-                        trueNegative--;
-                    }
-                }
-            }
             //calculada la matriz de confusión para longitud kActual
             matrices.add(new ConfusionMatrix(falsePositive, falseNegative, truePositive, trueNegative));
-            if (Global.isVerboseAnnoying()) {
-                Global.showInfoMessage(" in " + c.printPartialElapsed() + "\n");
-            }
         }
 
         ConfusionMatricesCurve curve = new ConfusionMatricesCurve(matrices.toArray(new ConfusionMatrix[1]));
@@ -168,12 +118,51 @@ public class AreaUnderROC extends EvaluationMeasure {
 
         double areaUnderROC = curve.getAreaPRSpace();
 
-        Element element = new Element(this.getName());
-        element.setAttribute(EvaluationMeasure.VALUE_ATTRIBUTE_NAME, Double.toString(areaUnderROC));
-        element.setContent(ConfusionMatricesCurveXML.getElement(curve));
-
         return new MeasureResult(
                 this,
                 areaUnderROC);
     }
+
+    /**
+     * Número de recomendaciones relevantes y no relevantes en cada posición de
+     * las listas de recomendación.
+     */
+    public static final class RelevanceByPosition {
+
+        private int[] positivesAt = new int[16];
+        private int[] negativesAt = new int[16];
+        private long positives = 0;
+        private long negatives = 0;
+        private int maxLength = 0;
+
+        private void ensureLength(int length) {
+            if (length > positivesAt.length) {
+                int newLength = Math.max(length, positivesAt.length * 2);
+                positivesAt = Arrays.copyOf(positivesAt, newLength);
+                negativesAt = Arrays.copyOf(negativesAt, newLength);
+            }
+            maxLength = Math.max(maxLength, length);
+        }
+
+        private void add(int position, boolean relevant) {
+            ensureLength(position + 1);
+            if (relevant) {
+                positivesAt[position]++;
+                positives++;
+            } else {
+                negativesAt[position]++;
+                negatives++;
+            }
+        }
+
+        private void add(RelevanceByPosition other) {
+            ensureLength(other.maxLength);
+            for (int position = 0; position < other.maxLength; position++) {
+                positivesAt[position] += other.positivesAt[position];
+                negativesAt[position] += other.negativesAt[position];
+            }
+            positives += other.positives;
+            negatives += other.negatives;
+        }
+    }
 }
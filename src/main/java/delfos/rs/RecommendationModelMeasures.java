@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs;
+
+import java.util.Map;
+
+/**
+ * Modelo de recomendación que mide alguna propiedad de sí mismo al
+ * construirse, como la calidad de una aproximación. Los casos de estudio
+ * guardan estas medidas junto a las medidas de evaluación de cada partición.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public interface RecommendationModelMeasures {
+
+    /**
+     * Devuelve las medidas del modelo que se han calculado.
+     *
+     * @return Valor de cada medida, por nombre. No contiene las medidas que no
+     * se han calculado.
+     */
+    public Map<String, Double> getModelMeasures();
+}
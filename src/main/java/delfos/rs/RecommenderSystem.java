@@ -28,6 +28,7 @@ import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.user.User;
 import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.RecommendationsToUser;
+import delfos.rs.recommendation.TopNRecommendations;
 import java.util.Collection;
 import java.util.Set;
 
@@ -94,4 +95,30 @@ public interface RecommenderSystem<RecommendationModel>
      */
     public RecommendationsToUser recommendToUser(
             DatasetLoader<? extends Rating> dataset, RecommendationModel model, User user, Set<Item> candidateItems);
+
+    /**
+     * Recomienda al usuario los <i>n</i> productos con mayor preferencia de
+     * entre los candidatos. Por defecto predice todos los candidatos y
+     * selecciona los mejores con un montículo de tamaño <i>n</i>, sin ordenar
+     * toda la lista; los sistemas que pueden descartar productos sin calcular
+     * su predicción lo sobrescriben.
+     *
+     * @param dataset Establece el dataset que se usará en la recomendación.
+     * @param model Modelo de recomendación que se usará en la recomendación.
+     * @param user usuario al que van dirigidas las recomendaciones
+     * @param candidateItems Lista de productos que pueden ser recomendados al
+     * usuario.
+     * @param n Número de recomendaciones. Si es cero o negativo, se devuelven
+     * todas.
+     * @return Objeto con las <i>n</i> mejores recomendaciones, ordenadas de
+     * mayor a menor preferencia según {@link TopNRecommendations#BEST_FIRST}.
+     */
+    public default RecommendationsToUser recommendTopN(
+            DatasetLoader<? extends Rating> dataset, RecommendationModel model, User user, Set<Item> candidateItems, int n) {
+        RecommendationsToUser recommendations = recommendToUser(dataset, model, user, candidateItems);
+        return new RecommendationsToUser(
+                user,
+                TopNRecommendations.select(recommendations.getRecommendations(), n),
+                recommendations.getRecommendationComputationDetails());
+    }
 }
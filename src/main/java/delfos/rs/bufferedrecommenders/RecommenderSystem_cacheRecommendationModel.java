@@ -30,6 +30,7 @@ import delfos.common.parameters.restriction.DirectoryParameter;
 import delfos.common.parameters.restriction.RecommenderSystemParameterRestriction;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsFingerprint;
 import delfos.rs.RecommendationModelBuildingProgressListener;
 import delfos.rs.RecommenderSystem;
 import delfos.rs.RecommenderSystemAdapter;
@@ -89,9 +90,9 @@ public class RecommenderSystem_cacheRecommendationModel<RecommendationModel> ext
     public RecommendationModel buildRecommendationModel(DatasetLoader<? extends Rating> datasetLoader) throws CannotLoadRatingsDataset, CannotLoadContentDataset, CannotLoadUsersDataset {
 
         final RecommenderSystem<Object> recommenderSystem = getRecommenderSystem();
-        final int datasetHashCode = datasetLoader.getRatingsDataset().hashCode();
+        final RatingsFingerprint datasetFingerprint = datasetLoader.getRatingsDataset().getFingerprint();
         final int recommenderSystemHashCode = recommenderSystem.hashCode();
-        String recommendationModelKey = "dl=" + datasetHashCode + "_rs=" + recommenderSystemHashCode;
+        String recommendationModelKey = "dl=" + datasetFingerprint + "_rs=" + recommenderSystemHashCode;
 
         recommendationModelKey = recommendationModelKey + "";
 
@@ -130,10 +131,10 @@ public class RecommenderSystem_cacheRecommendationModel<RecommendationModel> ext
 
     public RecommendationModel actuallyBuildRecommendationModel(DatasetLoader<? extends Rating> datasetLoader, final RecommenderSystem<Object> recommenderSystem) throws CannotLoadRatingsDataset, RuntimeException {
         RecommendationModel model;
-        int ratingsDatasetHashCode = datasetLoader.getRatingsDataset().hashCode();
+        RatingsFingerprint ratingsDatasetFingerprint = datasetLoader.getRatingsDataset().getFingerprint();
         String datasetLoaderAlias = datasetLoader.getAlias();
         String rsNameIdentifier = "_rsHash=" + recommenderSystem.hashCode();
-        String datasetLoaderString = "_datasetLoader=" + datasetLoaderAlias + "_DLHash=" + ratingsDatasetHashCode;
+        String datasetLoaderString = "_datasetLoader=" + datasetLoaderAlias + "_DLHash=" + ratingsDatasetFingerprint;
         FilePersistence filePersistenceWithHashSuffix = new FilePersistence(
                 recommenderSystem.getName(),
                 extension,
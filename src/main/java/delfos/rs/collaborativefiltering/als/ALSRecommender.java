@@ -16,12 +16,19 @@
  */
 package delfos.rs.collaborativefiltering.als;
 
+import delfos.common.Global;
 import delfos.common.exceptions.dataset.CannotLoadContentDataset;
 import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
 import delfos.common.exceptions.dataset.CannotLoadUsersDataset;
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.BooleanParameter;
+import delfos.common.parameters.restriction.DoubleParameter;
+import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.dataset.basic.item.Item;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.basic.user.User;
 import delfos.experiment.SeedHolder;
 import delfos.rs.collaborativefiltering.CollaborativeRecommender;
@@ -29,204 +36,268 @@ import delfos.rs.collaborativefiltering.factorization.MatrixFactorizationModel;
 import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.RecommendationsToUser;
 import delfos.utils.algorithm.progress.ProgressChangedController;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import org.apache.commons.math4.optim.InitialGuess;
-import org.apache.commons.math4.optim.MaxEval;
-import org.apache.commons.math4.optim.MaxIter;
-import org.apache.commons.math4.optim.PointValuePair;
-import org.apache.commons.math4.optim.nonlinear.scalar.GoalType;
-import org.apache.commons.math4.optim.nonlinear.scalar.ObjectiveFunction;
-import org.apache.commons.math4.optim.nonlinear.scalar.noderiv.MultiDirectionalSimplex;
-import org.apache.commons.math4.optim.nonlinear.scalar.noderiv.SimplexOptimizer;
 
 /**
+ * Factorización de matrices mediante mínimos cuadrados alternos (ALS). En cada
+ * iteración se fijan las características de los productos y se calcula en
+ * forma cerrada la de cada usuario, resolviendo el sistema regularizado
+ * (Y<sup>T</sup>Y + λI)x = Y<sup>T</sup>r con la descomposición de Cholesky, y
+ * a continuación se hace lo mismo con los productos. Los sistemas de cada
+ * usuario y producto se resuelven en paralelo.
+ *
+ * <p>
+ * Con {@link #IMPLICIT_FEEDBACK} se utiliza la variante para realimentación
+ * implícita (Hu, Koren y Volinsky, 2008): cada valoración es una preferencia de
+ * 1 con confianza 1 + α·valoración, y los productos no valorados son
+ * preferencias de 0 con confianza 1.
  *
  * @author jcastro
+ *
+ * @version 18-oct-2026 Cálculo en forma cerrada en lugar de optimización
+ * simplex.
  */
 public class ALSRecommender extends CollaborativeRecommender<MatrixFactorizationModel>
         implements SeedHolder {
 
+    /**
+     * Número de características de usuarios y productos.
+     */
+    public static final Parameter DIMENSION = new Parameter(
+            "Dimension",
+            new IntegerParameter(1, 9999, 5));
+
+    /**
+     * Número de iteraciones, cada una resuelve primero los usuarios y después
+     * los productos.
+     */
+    public static final Parameter NUM_ITERATIONS = new Parameter(
+            "Iterations",
+            new IntegerParameter(1, 9999, 10));
+
+    /**
+     * Peso de la regularización de las características.
+     */
+    public static final Parameter LAMBDA = new Parameter(
+            "Lambda",
+            new DoubleParameter(0.00001, 10000, 0.1));
+
+    /**
+     * Indica si las valoraciones se tratan como realimentación implícita.
+     */
+    public static final Parameter IMPLICIT_FEEDBACK = new Parameter(
+            "Implicit_feedback",
+            new BooleanParameter(Boolean.FALSE));
+
+    /**
+     * Incremento de la confianza por unidad de valoración en la variante de
+     * realimentación implícita.
+     */
+    public static final Parameter ALPHA = new Parameter(
+            "Alpha",
+            new DoubleParameter(0, 10000, 40));
+
     public ALSRecommender() {
         super();
         addParameter(SeedHolder.SEED);
+        addParameter(DIMENSION);
+        addParameter(NUM_ITERATIONS);
+        addParameter(LAMBDA);
+        addParameter(IMPLICIT_FEEDBACK);
+        addParameter(ALPHA);
     }
 
     @Override
     public MatrixFactorizationModel buildRecommendationModel(DatasetLoader<? extends Rating> datasetLoader) throws CannotLoadRatingsDataset, CannotLoadContentDataset, CannotLoadUsersDataset {
 
-        int numIter = 1;
-        int dimension = 5;
-        long seed = getSeedValue();
-
-        final double lambda = 0.1;
-
-        Bias bias = new Bias(datasetLoader);
-
-        Map<User, List<Double>> randomUserVectors = datasetLoader.getUsersDataset().parallelStream().collect(Collectors.toMap(user -> user, user -> {
-            Random random = new Random(seed + user.getId());
-            List<Double> vector = random.doubles(-10, 10).limit(dimension).boxed().collect(Collectors.toList());
-            return vector;
-        }));
-
-        Map<Item, List<Double>> randomItemVectors = datasetLoader.getContentDataset().parallelStream().collect(Collectors.toMap(item -> item, item -> {
-            Random random = new Random(seed + item.getId());
-            List<Double> vector = random.doubles(-10, 10).limit(dimension).boxed().collect(Collectors.toList());
-            return vector;
-        }));
+        final int numIter = getNumIterations();
+        final int dimension = getDimension();
+        final long seed = getSeedValue();
+        final double lambda = getLambda();
+        final boolean implicit = isImplicitFeedback();
+        final double alpha = getAlpha();
+
+        final Bias bias = implicit ? null : new Bias(datasetLoader);
+
+        final List<User> users = datasetLoader.getUsersDataset().stream().sorted().collect(Collectors.toList());
+        final List<Item> items = datasetLoader.getContentDataset().stream().sorted().collect(Collectors.toList());
+        final int[] userIds = users.stream().mapToInt(User::getId).toArray();
+        final int[] itemIds = items.stream().mapToInt(Item::getId).toArray();
+
+        final RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+        final Set<Integer> ratedUsers = ratingsDataset.allUsers();
+        final Set<Integer> ratedItems = ratingsDataset.allRatedItems();
+
+        final EntityRatings ratingsByUser = new EntityRatings(userIds.length);
+        for (int userIndex = 0; userIndex < userIds.length; userIndex++) {
+            RatingsVector userRatings = ratedUsers.contains(userIds[userIndex])
+                    ? ratingsDataset.getUserRatingsVector(userIds[userIndex])
+                    : RatingsVector.EMPTY;
+            ratingsByUser.set(userIndex, userRatings, itemIds,
+                    bias == null ? 0 : bias.getGeneralBias() + bias.getUserBias(users.get(userIndex)),
+                    idItem -> bias == null ? 0 : bias.getItemBias(new Item(idItem)));
+        }
+        final EntityRatings ratingsByItem = new EntityRatings(itemIds.length);
+        for (int itemIndex = 0; itemIndex < itemIds.length; itemIndex++) {
+            RatingsVector itemRatings = ratedItems.contains(itemIds[itemIndex])
+                    ? ratingsDataset.getItemRatingsVector(itemIds[itemIndex])
+                    : RatingsVector.EMPTY;
+            ratingsByItem.set(itemIndex, itemRatings, userIds,
+                    bias == null ? 0 : bias.getGeneralBias() + bias.getItemBias(items.get(itemIndex)),
+                    idUser -> bias == null ? 0 : bias.getUserBias(new User(idUser)));
+        }
 
-        MatrixFactorizationModel model = new MatrixFactorizationModel(randomUserVectors, randomItemVectors, bias);
+        final double[] userFactors = randomFactors(userIds, dimension, seed);
+        final double[] itemFactors = randomFactors(itemIds, dimension, seed);
 
         for (int iterationIndex = 0; iterationIndex < numIter; iterationIndex++) {
 
-            final int iteration = iterationIndex;
-            final MatrixFactorizationModel initialModel = model;
-
-            double error = getModelError(bias, datasetLoader, initialModel);
-
-            System.out.println("Error in iteration " + iterationIndex + " is " + error);
-
             ProgressChangedController userProgress = new ProgressChangedController(
-                    getAlias() + " for dataset " + datasetLoader.getAlias() + " userOptimization iteration " + iteration,
-                    datasetLoader.getUsersDataset().size(),
+                    getAlias() + " for dataset " + datasetLoader.getAlias() + " userOptimization iteration " + iterationIndex,
+                    userIds.length,
                     this::fireBuildingProgressChangedEvent
             );
-
-            Map<User, List<Double>> trainedUserVectors = datasetLoader.getUsersDataset().parallelStream().collect(Collectors.toMap(user -> user,
-                    (User user) -> {
-                        Map<Integer, ? extends Rating> userRatings = datasetLoader.getRatingsDataset().getUserRatingsRated(user.getId());
-
-                        ObjectiveFunction objectiveFunction = new ObjectiveFunction((double[] pu) -> {
-                            List<Double> userVector = Arrays.stream(pu).boxed().collect(Collectors.toList());
-                            double predictionError = userRatings.values().parallelStream()
-                                    .map(bias.getBiasApplier())
-                                    .map(rating -> {
-                                        List<Double> itemVector = initialModel.getItemFeatures(rating.getItem());
-                                        double prediction = IntStream.range(0, userVector.size())
-                                                .mapToDouble(index -> userVector.get(index) * itemVector.get(index))
-                                                .sum();
-
-                                        double value = rating.getRatingValue().doubleValue();
-
-                                        double errorThisRating = prediction - value;
-
-                                        return errorThisRating;
-                                    })
-                                    .map(value -> Math.pow(value, 2))
-                                    .mapToDouble(value -> value)
-                                    .sum();
-
-                            double penalty = Arrays.stream(pu)
-                                    .map(value -> Math.pow(value, 2))
-                                    .sum();
-                            double objectiveFunctionValue = predictionError + lambda * penalty;
-                            return objectiveFunctionValue;
-                        });
-
-                        SimplexOptimizer simplexOptimizer = new SimplexOptimizer(0, 0);
-
-                        double[] initialGuess = new Random(seed + user.getId()).doubles(-10, 10).limit(dimension).toArray();
-
-                        List<Double> initialGuessList = Arrays.stream(initialGuess).boxed().collect(Collectors.toList());
-
-                        double initialGuessPenalty = objectiveFunction.getObjectiveFunction().value(initialGuess);
-
-                        try {
-                            PointValuePair optimize = simplexOptimizer.optimize(new MultiDirectionalSimplex(dimension),
-                                    new InitialGuess(initialGuess),
-                                    objectiveFunction,
-                                    GoalType.MINIMIZE,
-                                    MAX_EVAL,
-                                    MAX_ITER
-                            );
-                            double optimizedPenalty = optimize.getValue();
-                            userProgress.setTaskFinished();
-
-                            List<Double> optimizedUserVector = Arrays.stream(optimize.getPoint()).boxed().collect(Collectors.toList());
-                            return optimizedUserVector;
-                        } catch (Exception ex) {
-                            System.out.println("Vector cannot be optimized for user " + user + " (numRatings=" + userRatings.size() + ")");
-                            return initialModel.getUserFeatures(user);
-                        }
-                    }));
+            solveAll(userFactors, ratingsByUser, itemFactors, dimension, lambda, implicit, alpha, userProgress);
 
             ProgressChangedController itemProgress = new ProgressChangedController(
-                    getAlias() + " for dataset " + datasetLoader.getAlias() + " item optimization iteration " + iteration,
-                    datasetLoader.getContentDataset().size(),
+                    getAlias() + " for dataset " + datasetLoader.getAlias() + " item optimization iteration " + iterationIndex,
+                    itemIds.length,
                     this::fireBuildingProgressChangedEvent
             );
+            solveAll(itemFactors, ratingsByItem, userFactors, dimension, lambda, implicit, alpha, itemProgress);
 
-            Map<Item, List<Double>> trainedItemVectors = datasetLoader.getContentDataset().parallelStream().collect(Collectors.toMap(item -> item,
-                    item -> {
-                        Map<Integer, ? extends Rating> itemRatings = datasetLoader.getRatingsDataset().getItemRatingsRated(item.getId());
-
-                        ObjectiveFunction objectiveFunction = new ObjectiveFunction((double[] pu) -> {
-                            List<Double> itemVector = Arrays.stream(pu).boxed().collect(Collectors.toList());
-                            double predictionError = itemRatings.values().parallelStream()
-                                    .map(bias.getBiasApplier())
-                                    .map(rating -> {
-                                        List<Double> userVector = initialModel.getUserFeatures(rating.getUser());
-                                        double prediction = IntStream.range(0, userVector.size())
-                                                .mapToDouble(index -> userVector.get(index) * itemVector.get(index))
-                                                .sum();
-
-                                        double value = rating.getRatingValue().doubleValue();
-
-                                        double errorThisRating = prediction - value;
-
-                                        return errorThisRating;
-                                    })
-                                    .map(value -> Math.pow(value, 2))
-                                    .mapToDouble(value -> value)
-                                    .sum();
-
-                            double penalty = Arrays.stream(pu)
-                                    .map(value -> Math.pow(value, 2))
-                                    .sum();
-                            double objectiveFunctionValue = predictionError + lambda * penalty;
-                            return objectiveFunctionValue;
-                        });
+            Global.showInfoMessage("Error in iteration " + iterationIndex + " is " + getModelError(ratingsByUser, userFactors, itemFactors, dimension, implicit) + "\n");
+        }
 
-                        SimplexOptimizer simplexOptimizer = new SimplexOptimizer(0, 0);
+        return new MatrixFactorizationModel(
+                userVectors(users, userFactors, dimension),
+                itemVectors(items, itemFactors, dimension),
+                bias);
+    }
 
-                        double[] initialGuess = new Random(seed + item.getId()).doubles(-10, 10).limit(dimension).toArray();
+    /**
+     * Valoraciones de cada usuario (o producto), con el índice del producto (o
+     * usuario) valorado y el valor sin sesgos.
+     */
+    private static final class EntityRatings {
 
-                        List<Double> initialGuessList = Arrays.stream(initialGuess).boxed().collect(Collectors.toList());
+        private final int[][] indexes;
+        private final double[][] values;
 
-                        double initialGuessPenalty = objectiveFunction.getObjectiveFunction().value(initialGuess);
+        EntityRatings(int numEntities) {
+            indexes = new int[numEntities][];
+            values = new double[numEntities][];
+        }
 
-                        try {
-                            PointValuePair optimize = simplexOptimizer.optimize(new MultiDirectionalSimplex(dimension),
-                                    new InitialGuess(initialGuess),
-                                    objectiveFunction,
-                                    GoalType.MINIMIZE,
-                                    MAX_EVAL,
-                                    MAX_ITER);
-                            double optimizedPenalty = optimize.getValue();
-                            itemProgress.setTaskFinished();
+        void set(int entityIndex, RatingsVector ratings, int[] sortedOtherIds, double entityBias, IntToDoubleFunction otherBias) {
+            final int[] ids = ratings.getIds();
+            final double[] ratingValues = ratings.getValues();
+
+            int[] entityIndexes = new int[ids.length];
+            double[] entityValues = new double[ids.length];
+            int size = 0;
+            for (int i = 0; i < ids.length; i++) {
+                int otherIndex = Arrays.binarySearch(sortedOtherIds, ids[i]);
+                if (otherIndex >= 0) {
+                    entityIndexes[size] = otherIndex;
+                    entityValues[size] = ratingValues[i] - entityBias - otherBias.applyAsDouble(ids[i]);
+                    size++;
+                }
+            }
+            indexes[entityIndex] = Arrays.copyOf(entityIndexes, size);
+            values[entityIndex] = Arrays.copyOf(entityValues, size);
+        }
+    }
 
-                            List<Double> optimizedVector = Arrays.stream(optimize.getPoint()).boxed().collect(Collectors.toList());
+    private static double[] randomFactors(int[] ids, int dimension, long seed) {
+        double[] factors = new double[ids.length * dimension];
+        for (int index = 0; index < ids.length; index++) {
+            Random random = new Random(seed + ids[index]);
+            for (int f = 0; f < dimension; f++) {
+                factors[index * dimension + f] = 0.1 * random.nextGaussian();
+            }
+        }
+        return factors;
+    }
 
-                            return optimizedVector;
-                        } catch (Exception ex) {
-                            System.out.println("Vector cannot be optimized " + item + " cannot be optimized (numRatings=" + itemRatings.size() + ")");
-                            return initialModel.getItemFeatures(item);
-                        }
-                    }));
+    /**
+     * Resuelve en paralelo el vector de características de cada entidad con
+     * las características de las otras entidades fijas.
+     */
+    private static void solveAll(
+            double[] factors, EntityRatings ratings, double[] fixedFactors,
+            int dimension, double lambda, boolean implicit, double alpha,
+            ProgressChangedController progress) {
+
+        final double[] fixedGramian = implicit ? LeastSquares.gramian(fixedFactors, dimension) : null;
+
+        IntStream.range(0, ratings.indexes.length).parallel().forEach(entityIndex -> {
+            final int[] indexes = ratings.indexes[entityIndex];
+            final double[] values = ratings.values[entityIndex];
+
+            final double[] a = implicit ? fixedGramian.clone() : new double[dimension * dimension];
+            final double[] b = new double[dimension];
+            for (int f = 0; f < dimension; f++) {
+                a[f * dimension + f] += lambda;
+            }
+
+            for (int k = 0; k < indexes.length; k++) {
+                final int offset = indexes[k] * dimension;
+                final double weight;
+                final double target;
+                if (implicit) {
+                    final double confidence = 1 + alpha * values[k];
+                    weight = confidence - 1;
+                    target = confidence;
+                } else {
+                    weight = 1;
+                    target = values[k];
+                }
+                LeastSquares.addOuterProduct(a, fixedFactors, offset, weight, dimension);
+                for (int f = 0; f < dimension; f++) {
+                    b[f] += target * fixedFactors[offset + f];
+                }
+            }
+
+            if (LeastSquares.solve(a, b, dimension)) {
+                System.arraycopy(b, 0, factors, entityIndex * dimension, dimension);
+            }
+            progress.setTaskFinished();
+        });
+    }
 
-            model = new MatrixFactorizationModel(trainedUserVectors, trainedItemVectors, bias);
+    private static Map<User, List<Double>> userVectors(List<User> users, double[] factors, int dimension) {
+        Map<User, List<Double>> vectors = new TreeMap<>();
+        for (int index = 0; index < users.size(); index++) {
+            vectors.put(users.get(index), vector(factors, index, dimension));
+        }
+        return vectors;
+    }
 
+    private static Map<Item, List<Double>> itemVectors(List<Item> items, double[] factors, int dimension) {
+        Map<Item, List<Double>> vectors = new TreeMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            vectors.put(items.get(index), vector(factors, index, dimension));
         }
-        return model;
+        return vectors;
+    }
 
+    private static List<Double> vector(double[] factors, int index, int dimension) {
+        List<Double> vector = new ArrayList<>(dimension);
+        for (int f = 0; f < dimension; f++) {
+            vector.add(factors[index * dimension + f]);
+        }
+        return vector;
     }
-    private final MaxIter MAX_ITER = new MaxIter(1000000);
-    private final MaxEval MAX_EVAL = new MaxEval(1000000);
 
     @Override
     public void setSeedValue(long seedValue) {
@@ -238,20 +309,46 @@ public class ALSRecommender extends CollaborativeRecommender<MatrixFactorization
         return (Long) getParameterValue(SEED);
     }
 
-    private double getModelError(Bias bias, DatasetLoader<? extends Rating> datasetLoader, MatrixFactorizationModel initialModel) {
-        return datasetLoader.getUsersDataset().parallelStream().flatMap(user -> {
-            return datasetLoader.getRatingsDataset().getUserRatingsRated(user.getId())
-                    .values()
-                    .parallelStream()
-                    .map(bias.getBiasApplier())
-                    .map(rating -> {
-                        Item item = rating.getItem();
-                        double ratingValue = rating.getRatingValue().doubleValue();
-                        double predictedValue = initialModel.predict(user, item);
-                        return Math.abs(ratingValue - predictedValue);
-                    });
-        }).mapToDouble(value -> value).average().orElse(Double.NaN);
+    public int getDimension() {
+        return (Integer) getParameterValue(DIMENSION);
+    }
+
+    public int getNumIterations() {
+        return (Integer) getParameterValue(NUM_ITERATIONS);
+    }
+
+    public double getLambda() {
+        return ((Number) getParameterValue(LAMBDA)).doubleValue();
+    }
 
+    public boolean isImplicitFeedback() {
+        return (Boolean) getParameterValue(IMPLICIT_FEEDBACK);
+    }
+
+    public double getAlpha() {
+        return ((Number) getParameterValue(ALPHA)).doubleValue();
+    }
+
+    /**
+     * Error absoluto medio sobre las valoraciones de entrenamiento sin sesgos,
+     * o sobre la preferencia (1) en la variante implícita.
+     */
+    private static double getModelError(EntityRatings ratingsByUser, double[] userFactors, double[] itemFactors, int dimension, boolean implicit) {
+        double sumOfErrors = 0;
+        long numRatings = 0;
+        for (int userIndex = 0; userIndex < ratingsByUser.indexes.length; userIndex++) {
+            final int[] indexes = ratingsByUser.indexes[userIndex];
+            final double[] values = ratingsByUser.values[userIndex];
+            for (int k = 0; k < indexes.length; k++) {
+                double prediction = 0;
+                for (int f = 0; f < dimension; f++) {
+                    prediction += userFactors[userIndex * dimension + f] * itemFactors[indexes[k] * dimension + f];
+                }
+                sumOfErrors += Math.abs((implicit ? 1 : values[k]) - prediction);
+                numRatings++;
+            }
+        }
+        return numRatings == 0 ? Double.NaN : sumOfErrors / numRatings;
     }
 
     @Override
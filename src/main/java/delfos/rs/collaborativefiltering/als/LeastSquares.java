@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.als;
+
+/**
+ * Operaciones de mínimos cuadrados regularizados sobre matrices densas pequeñas
+ * almacenadas fila a fila en vectores de {@code double}, para resolver el
+ * vector de características de cada usuario o producto en
+ * {@link ALSRecommender}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class LeastSquares {
+
+    private LeastSquares() {
+    }
+
+    /**
+     * Calcula la matriz de Gram (F<sup>T</sup>F) de una matriz de
+     * características.
+     *
+     * @param factors Matriz de características, fila a fila.
+     * @param dimension Número de columnas de la matriz.
+     * @return Matriz de Gram, de tamaño dimension x dimension.
+     */
+    static double[] gramian(double[] factors, int dimension) {
+        final double[] gramian = new double[dimension * dimension];
+        final int numRows = factors.length / dimension;
+        for (int row = 0; row < numRows; row++) {
+            addOuterProduct(gramian, factors, row * dimension, 1, dimension);
+        }
+        return gramian;
+    }
+
+    /**
+     * Suma a la matriz el producto exterior del vector por sí mismo,
+     * multiplicado por el peso indicado. Sólo se actualiza el triángulo
+     * inferior, que es el que utiliza {@link #solve(double[], double[], int)}.
+     *
+     * @param matrix Matriz de tamaño dimension x dimension.
+     * @param vectors Array en el que está el vector.
+     * @param offset Posición del vector dentro del array.
+     * @param weight Peso del producto exterior.
+     * @param dimension Dimensión del vector.
+     */
+    static void addOuterProduct(double[] matrix, double[] vectors, int offset, double weight, int dimension) {
+        for (int i = 0; i < dimension; i++) {
+            final double vi = weight * vectors[offset + i];
+            final int rowOffset = i * dimension;
+            for (int j = 0; j <= i; j++) {
+                matrix[rowOffset + j] += vi * vectors[offset + j];
+            }
+        }
+    }
+
+    /**
+     * Resuelve el sistema A·x = b con la descomposición de Cholesky de A, que
+     * debe ser simétrica y definida positiva. Sólo se lee el triángulo inferior
+     * de A.
+     *
+     * @param a Matriz del sistema, fila a fila. Se sobrescribe con el factor de
+     * Cholesky.
+     * @param b Término independiente. Se sobrescribe con la solución.
+     * @param dimension Dimensión del sistema.
+     * @return Falso si la matriz no es definida positiva, en cuyo caso el
+     * contenido de los arrays no es válido.
+     */
+    static boolean solve(double[] a, double[] b, int dimension) {
+        for (int j = 0; j < dimension; j++) {
+            final int rowJ = j * dimension;
+            double diagonal = a[rowJ + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[rowJ + k] * a[rowJ + k];
+            }
+            if (!(diagonal > 0)) {
+                return false;
+            }
+            diagonal = Math.sqrt(diagonal);
+            a[rowJ + j] = diagonal;
+
+            for (int i = j + 1; i < dimension; i++) {
+                final int rowI = i * dimension;
+                double value = a[rowI + j];
+                for (int k = 0; k < j; k++) {
+                    value -= a[rowI + k] * a[rowJ + k];
+                }
+                a[rowI + j] = value / diagonal;
+            }
+        }
+
+        //L·y = b
+        for (int i = 0; i < dimension; i++) {
+            final int rowI = i * dimension;
+            double value = b[i];
+            for (int k = 0; k < i; k++) {
+                value -= a[rowI + k] * b[k];
+            }
+            b[i] = value / a[rowI + i];
+        }
+        //L^T·x = y
+        for (int i = dimension - 1; i >= 0; i--) {
+            double value = b[i];
+            for (int k = i + 1; k < dimension; k++) {
+                value -= a[k * dimension + i] * b[k];
+            }
+            b[i] = value / a[i * dimension + i];
+        }
+        return true;
+    }
+}
@@ -19,13 +19,12 @@ package delfos.rs.collaborativefiltering.knn;
 import delfos.dataset.basic.item.Item;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.basic.user.User;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.util.List;
 
 /**
  * Entidad que encapsula un rating en común. rating1 y rating2 son valoraciones
@@ -66,74 +65,70 @@ public class CommonRating {
      */
     public static Collection<CommonRating> intersection(DatasetLoader<? extends Rating> datasetLoader, User user1, User user2) {
 
-        final Map<Integer, ? extends Rating> itemsRatedUser1 = datasetLoader.getRatingsDataset()
-                .getUserRatingsRated(user1.getId());
+        final RatingsVector itemsRatedUser1 = datasetLoader.getRatingsDataset()
+                .getUserRatingsVector(user1.getId());
 
-        final Map<Integer, ? extends Rating> itemsRatedUser2 = datasetLoader.getRatingsDataset()
-                .getUserRatingsRated(user2.getId());
+        final RatingsVector itemsRatedUser2 = datasetLoader.getRatingsDataset()
+                .getUserRatingsVector(user2.getId());
 
-        Set<Integer> intersection = new TreeSet<>();
-        intersection.addAll(itemsRatedUser1.keySet());
-        intersection.retainAll(itemsRatedUser2.keySet());
-
-        Set<Item> itemsIntersection = intersection.parallelStream()
-                .map(idItem -> datasetLoader.getContentDataset().get(idItem))
-                .collect(Collectors.toSet());
-
-        Collection<CommonRating> commonRatings = itemsIntersection.parallelStream().map(item -> {
-
-            double ratingUser1 = itemsRatedUser1
-                    .get(item.getId())
-                    .getRatingValue().doubleValue();
-
-            double ratingUser2 = itemsRatedUser2
-                    .get(item.getId())
-                    .getRatingValue().doubleValue();
-
-            return new CommonRating(
-                    RecommendationEntity.ITEM,
-                    item.getId(),
-                    RecommendationEntity.USER,
-                    user1.getId(),
-                    user2.getId(),
-                    ratingUser1, ratingUser2);
-        }).collect(Collectors.toList());
-
-        return commonRatings;
+        return intersection(
+                itemsRatedUser1, itemsRatedUser2,
+                RecommendationEntity.ITEM,
+                RecommendationEntity.USER, user1.getId(), user2.getId());
     }
 
     public static Collection<CommonRating> intersection(DatasetLoader<? extends Rating> datasetLoader, Item item1, Item item2) {
-        final Map<Integer, ? extends Rating> ratingsOverItem1 = datasetLoader.getRatingsDataset()
-                .getItemRatingsRated(item1.getId());
-
-        final Map<Integer, ? extends Rating> ratingsOverItem2 = datasetLoader.getRatingsDataset()
-                .getItemRatingsRated(item2.getId());
+        final RatingsVector ratingsOverItem1 = datasetLoader.getRatingsDataset()
+                .getItemRatingsVector(item1.getId());
 
-        Set<User> intersection
-                = ratingsOverItem1.keySet().parallelStream()
-                .map(idUser -> datasetLoader.getUsersDataset().get(idUser))
-                .filter(user -> ratingsOverItem2.containsKey(user.getId()))
-                .collect(Collectors.toSet());
+        final RatingsVector ratingsOverItem2 = datasetLoader.getRatingsDataset()
+                .getItemRatingsVector(item2.getId());
 
-        Collection<CommonRating> commonRatings = intersection.parallelStream().map(user -> {
-
-            double ratingUser1 = ratingsOverItem1
-                    .get(user.getId())
-                    .getRatingValue().doubleValue();
-
-            double ratingUser2 = ratingsOverItem2
-                    .get(user.getId())
-                    .getRatingValue().doubleValue();
-
-            return new CommonRating(
-                    RecommendationEntity.USER,
-                    user.getId(),
-                    RecommendationEntity.ITEM,
-                    item1.getId(),
-                    item2.getId(),
-                    ratingUser1, ratingUser2);
-        }).collect(Collectors.toList());
+        return intersection(
+                ratingsOverItem1, ratingsOverItem2,
+                RecommendationEntity.USER,
+                RecommendationEntity.ITEM, item1.getId(), item2.getId());
+    }
 
+    /**
+     * Recorre a la vez los dos vectores, que están ordenados por id, y genera
+     * una valoración común por cada id que aparece en ambos.
+     *
+     * @param vector1 Valoraciones de la entidad 1.
+     * @param vector2 Valoraciones de la entidad 2.
+     * @param commonEntity Tipo de la entidad a la que se refieren los ids de
+     * los vectores.
+     * @param ratingEntity Tipo de las entidades que se comparan.
+     * @param idR1 Id de la entidad 1.
+     * @param idR2 Id de la entidad 2.
+     * @return Valoraciones comunes, ordenadas por id de la entidad común.
+     */
+    public static List<CommonRating> intersection(
+            RatingsVector vector1, RatingsVector vector2,
+            RecommendationEntity commonEntity,
+            RecommendationEntity ratingEntity, int idR1, int idR2) {
+
+        final int[] ids1 = vector1.getIds();
+        final int[] ids2 = vector2.getIds();
+        final double[] values1 = vector1.getValues();
+        final double[] values2 = vector2.getValues();
+
+        List<CommonRating> commonRatings = new ArrayList<>(Math.min(ids1.length, ids2.length));
+        int i = 0, j = 0;
+        while (i < ids1.length && j < ids2.length) {
+            if (ids1[i] < ids2[j]) {
+                i++;
+            } else if (ids1[i] > ids2[j]) {
+                j++;
+            } else {
+                commonRatings.add(new CommonRating(
+                        commonEntity, ids1[i],
+                        ratingEntity, idR1, idR2,
+                        values1[i], values2[j]));
+                i++;
+                j++;
+            }
+        }
         return commonRatings;
     }
 
@@ -22,6 +22,8 @@ import delfos.common.parameters.restriction.DoubleParameter;
 import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.common.parameters.restriction.ParameterOwnerRestriction;
 import delfos.rs.collaborativefiltering.CollaborativeRecommender;
+import delfos.rs.collaborativefiltering.knn.candidates.AllNeighborCandidates;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesGenerator;
 import delfos.rs.collaborativefiltering.knn.memorybased.KnnMemoryBasedCFRS;
 import delfos.rs.collaborativefiltering.predictiontechniques.PredictionTechnique;
 import delfos.rs.collaborativefiltering.predictiontechniques.WeightedSum;
@@ -105,6 +107,16 @@ public abstract class KnnCollaborativeRecommender<RecommendationModel>
      */
     public static final Parameter RELEVANCE_FACTOR_VALUE = new Parameter("Relevance_factor_value", new IntegerParameter(1, 9999, 20));
 
+    /**
+     * Parámetro para indicar la técnica que selecciona los vecinos candidatos
+     * antes de calcular la similitud exacta. Por defecto todos los perfiles son
+     * candidatos ({@link AllNeighborCandidates}), con lo que se obtienen los
+     * vecinos exactos.
+     */
+    public static final Parameter NEIGHBOR_CANDIDATES = new Parameter(
+            "Neighbor_candidates",
+            new ParameterOwnerRestriction(NeighborCandidatesGenerator.class, new AllNeighborCandidates()));
+
     public final CollaborativeSimilarityMeasure getSimilarityMeasure() {
         return (CollaborativeSimilarityMeasure) getParameterValue(SIMILARITY_MEASURE);
     }
@@ -161,4 +173,8 @@ public abstract class KnnCollaborativeRecommender<RecommendationModel>
     public int getNeighborhoodSize() {
         return (Integer) getParameterValue(NEIGHBORHOOD_SIZE);
     }
+
+    public NeighborCandidatesGenerator getNeighborCandidatesGenerator() {
+        return (NeighborCandidatesGenerator) getParameterValue(NEIGHBOR_CANDIDATES);
+    }
 }
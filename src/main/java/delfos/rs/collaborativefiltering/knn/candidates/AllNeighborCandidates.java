@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import delfos.dataset.basic.rating.RatingsVector;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Considera candidatos a todos los perfiles. Los sistemas de recomendación
+ * calculan la similitud con todos los perfiles, como si no se seleccionaran
+ * candidatos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class AllNeighborCandidates extends NeighborCandidatesGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    public AllNeighborCandidates() {
+        super();
+    }
+
+    @Override
+    public boolean isExhaustive() {
+        return true;
+    }
+
+    @Override
+    public NeighborCandidatesIndex buildIndex(Map<Integer, RatingsVector> profiles) {
+        final Set<Integer> ids = Collections.unmodifiableSet(new TreeSet<>(profiles.keySet()));
+
+        return (NeighborCandidatesIndex) id -> {
+            if (!ids.contains(id)) {
+                return Collections.emptySet();
+            }
+            Set<Integer> candidates = new TreeSet<>(ids);
+            candidates.remove(id);
+            return candidates;
+        };
+    }
+}
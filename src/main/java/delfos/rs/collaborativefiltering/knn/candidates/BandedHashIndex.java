@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Índice de candidatos basado en bandas de hashing sensible a la localidad
+ * (LSH). Cada perfil tiene una clave por banda y son candidatos los perfiles
+ * que coinciden en la clave de al menos una banda.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class BandedHashIndex implements NeighborCandidatesIndex {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Claves de cada perfil, una por banda.
+     */
+    private final Map<Integer, long[]> keysById;
+
+    /**
+     * Perfiles de cada cubo, ordenados por id, para cada banda.
+     */
+    private final List<Map<Long, int[]>> bucketsByBand;
+
+    /**
+     * Construye el índice a partir de las claves de cada perfil.
+     *
+     * @param keysById Claves de cada perfil. Todos deben tener el mismo número
+     * de bandas.
+     * @param numBands Número de bandas.
+     */
+    BandedHashIndex(Map<Integer, long[]> keysById, int numBands) {
+        this.keysById = new HashMap<>(keysById);
+
+        List<Map<Long, List<Integer>>> membersByBand = new ArrayList<>(numBands);
+        for (int band = 0; band < numBands; band++) {
+            membersByBand.add(new HashMap<>());
+        }
+        new TreeMap<>(keysById).forEach((id, keys) -> {
+            if (keys.length != numBands) {
+                throw new IllegalArgumentException("Profile " + id + " has " + keys.length + " keys instead of " + numBands);
+            }
+            for (int band = 0; band < numBands; band++) {
+                membersByBand.get(band).computeIfAbsent(keys[band], key -> new ArrayList<>()).add(id);
+            }
+        });
+
+        this.bucketsByBand = new ArrayList<>(numBands);
+        for (Map<Long, List<Integer>> members : membersByBand) {
+            Map<Long, int[]> buckets = new HashMap<>();
+            members.forEach((key, ids) -> {
+                if (ids.size() > 1) {
+                    buckets.put(key, ids.stream().mapToInt(id -> id).toArray());
+                }
+            });
+            bucketsByBand.add(buckets);
+        }
+    }
+
+    @Override
+    public Set<Integer> getCandidates(int id) {
+        long[] keys = keysById.get(id);
+        if (keys == null) {
+            return Collections.emptySet();
+        }
+
+        Set<Integer> candidates = new TreeSet<>();
+        for (int band = 0; band < keys.length; band++) {
+            int[] bucket = bucketsByBand.get(band).get(keys[band]);
+            if (bucket != null) {
+                for (int candidate : bucket) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        candidates.remove(id);
+        return candidates;
+    }
+
+    /**
+     * Mezcla los bits de un valor de 64 bits (finalizador de SplitMix64), para
+     * obtener funciones hash independientes a partir de una semilla.
+     *
+     * @param value Valor a mezclar.
+     * @return Valor mezclado.
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.IntegerParameter;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.experiment.SeedHolder;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Selecciona los candidatos mediante MinHash con bandas, que aproxima la
+ * similitud de Jaccard de los conjuntos de ids valorados. La probabilidad de
+ * que dos perfiles con Jaccard s sean candidatos es 1 - (1 - s^r)^b, siendo b
+ * el número de bandas y r el número de filas de cada banda: más bandas
+ * aumentan la proporción de vecinos recuperados y más filas reducen el número
+ * de candidatos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class MinHashNeighborCandidates extends NeighborCandidatesGenerator implements SeedHolder {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Número de bandas de la firma.
+     */
+    public static final Parameter NUM_BANDS = new Parameter(
+            "Num_bands",
+            new IntegerParameter(1, 1000, 20));
+
+    /**
+     * Número de funciones hash de cada banda.
+     */
+    public static final Parameter ROWS_PER_BAND = new Parameter(
+            "Rows_per_band",
+            new IntegerParameter(1, 64, 3));
+
+    public MinHashNeighborCandidates() {
+        super();
+        addParameter(NUM_BANDS);
+        addParameter(ROWS_PER_BAND);
+        addParameter(SEED);
+        addParameter(RECALL_SAMPLE_SIZE);
+    }
+
+    public MinHashNeighborCandidates(int numBands, int rowsPerBand) {
+        this();
+        setParameterValue(NUM_BANDS, numBands);
+        setParameterValue(ROWS_PER_BAND, rowsPerBand);
+    }
+
+    @Override
+    public NeighborCandidatesIndex buildIndex(Map<Integer, RatingsVector> profiles) {
+        final int numBands = (Integer) getParameterValue(NUM_BANDS);
+        final int rowsPerBand = (Integer) getParameterValue(ROWS_PER_BAND);
+        final long seed = getSeedValue();
+
+        Map<Integer, long[]> keysById = new TreeMap<>();
+        profiles.forEach((id, profile) -> {
+            if (!profile.isEmpty()) {
+                keysById.put(id, bandKeys(profile.getIds(), numBands, rowsPerBand, seed));
+            }
+        });
+
+        return new BandedHashIndex(keysById, numBands);
+    }
+
+    private static long[] bandKeys(int[] ids, int numBands, int rowsPerBand, long seed) {
+        long[] keys = new long[numBands];
+        for (int band = 0; band < numBands; band++) {
+            long key = band;
+            for (int row = 0; row < rowsPerBand; row++) {
+                long hashSeed = BandedHashIndex.mix(seed + band * (long) rowsPerBand + row);
+
+                long minimum = Long.MAX_VALUE;
+                for (int id : ids) {
+                    minimum = Math.min(minimum, BandedHashIndex.mix(hashSeed ^ id));
+                }
+                key = BandedHashIndex.mix(key ^ minimum);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    @Override
+    public void setSeedValue(long seedValue) {
+        setParameterValue(SEED, seedValue);
+    }
+
+    @Override
+    public long getSeedValue() {
+        return (Long) getParameterValue(SEED);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.ParameterOwnerAdapter;
+import delfos.common.parameters.ParameterOwnerType;
+import delfos.common.parameters.restriction.IntegerParameter;
+import delfos.dataset.basic.rating.RatingsVector;
+import java.util.Map;
+
+/**
+ * Técnica para seleccionar los vecinos candidatos de cada perfil antes de
+ * calcular su similitud exacta. Los sistemas de recomendación basados en
+ * vecinos cercanos sólo calculan la similitud con los candidatos, lo que evita
+ * comparar todos los pares de perfiles a cambio de perder algunos vecinos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public abstract class NeighborCandidatesGenerator extends ParameterOwnerAdapter {
+
+    static final long serialVersionUID = 1l;
+
+    /**
+     * Número de perfiles para los que se calculan también los vecinos exactos,
+     * para informar de la proporción de vecinos que se recuperan con los
+     * candidatos. Si es cero, no se calcula.
+     */
+    public static final Parameter RECALL_SAMPLE_SIZE = new Parameter(
+            "Recall_sample_size",
+            new IntegerParameter(0, 100000, 0));
+
+    public NeighborCandidatesGenerator() {
+        super();
+    }
+
+    /**
+     * Construye el índice de candidatos para los perfiles indicados.
+     *
+     * @param profiles Perfiles de valoraciones, por id de usuario o producto.
+     * @return Índice de candidatos de los perfiles.
+     */
+    public abstract NeighborCandidatesIndex buildIndex(Map<Integer, RatingsVector> profiles);
+
+    /**
+     * Indica si todos los perfiles son candidatos. En ese caso no es necesario
+     * construir el índice.
+     *
+     * @return true si todos los perfiles son candidatos.
+     */
+    public boolean isExhaustive() {
+        return false;
+    }
+
+    /**
+     * Devuelve el número de perfiles en los que se mide la proporción de
+     * vecinos recuperados.
+     *
+     * @return Número de perfiles, o cero si no se mide.
+     */
+    public int getRecallSampleSize() {
+        if (!haveParameter(RECALL_SAMPLE_SIZE)) {
+            return 0;
+        }
+        return (Integer) getParameterValue(RECALL_SAMPLE_SIZE);
+    }
+
+    @Override
+    public ParameterOwnerType getParameterOwnerType() {
+        return ParameterOwnerType.NEIGHBOR_CANDIDATES_GENERATOR;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Índice que devuelve los vecinos candidatos de cada perfil, construido por un
+ * {@link NeighborCandidatesGenerator}. Se almacena en los modelos de
+ * recomendación, por lo que debe ser serializable.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public interface NeighborCandidatesIndex extends Serializable {
+
+    /**
+     * Devuelve los vecinos candidatos del perfil indicado. La relación es
+     * simétrica: si b es candidato de a, a es candidato de b.
+     *
+     * @param id Id del perfil.
+     * @return Ids de los candidatos, sin incluir el propio perfil. Si el perfil
+     * no está en el índice, devuelve un conjunto vacío.
+     */
+    public Set<Integer> getCandidates(int id);
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import delfos.common.Global;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Métodos para medir la proporción de los k vecinos exactos que se recuperan al
+ * calcular la similitud sólo con los candidatos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class NeighborRecall {
+
+    /**
+     * Nombre con el que se guarda la proporción de vecinos recuperados entre
+     * las medidas del modelo.
+     */
+    public static final String MODEL_MEASURE_NAME = "NeighborRecall";
+
+    private NeighborRecall() {
+    }
+
+    /**
+     * Calcula la proporción de los k mejores vecinos exactos que están entre
+     * los k mejores vecinos aproximados. Sólo se tienen en cuenta los vecinos
+     * con similitud positiva, que son los que se usan al predecir.
+     *
+     * @param exact Vecinos exactos.
+     * @param approximate Vecinos calculados con los candidatos.
+     * @param k Número de vecinos.
+     * @return Proporción de vecinos recuperados, o NaN si no hay vecinos
+     * exactos.
+     */
+    public static double recall(List<Neighbor> exact, List<Neighbor> approximate, int k) {
+        Set<Integer> exactTopK = topK(exact, k);
+        if (exactTopK.isEmpty()) {
+            return Double.NaN;
+        }
+        Set<Integer> approximateTopK = topK(approximate, k);
+
+        long recovered = exactTopK.stream().filter(approximateTopK::contains).count();
+        return ((double) recovered) / exactTopK.size();
+    }
+
+    /**
+     * Devuelve las medidas del modelo con la proporción de vecinos recuperados
+     * indicada.
+     *
+     * @param neighborRecall Proporción de vecinos recuperados, o NaN si no se
+     * ha medido.
+     * @return Medidas del modelo, vacías si no se ha medido.
+     */
+    public static Map<String, Double> toModelMeasures(double neighborRecall) {
+        if (Double.isNaN(neighborRecall)) {
+            return Collections.emptyMap();
+        }
+        return Collections.singletonMap(MODEL_MEASURE_NAME, neighborRecall);
+    }
+
+    /**
+     * Mide la proporción media de vecinos recuperados en una muestra de
+     * perfiles y la muestra como mensaje informativo.
+     *
+     * @param taskName Nombre que se muestra en el mensaje.
+     * @param ids Perfiles entre los que se elige la muestra.
+     * @param sampleSize Tamaño de la muestra.
+     * @param seed Semilla para elegir la muestra.
+     * @param exactNeighbors Calcula los vecinos exactos de un perfil.
+     * @param approximateNeighbors Calcula los vecinos aproximados de un perfil.
+     * @param k Número de vecinos.
+     * @return Proporción media de vecinos recuperados, o NaN si no se ha podido
+     * medir.
+     */
+    public static double measure(
+            String taskName,
+            Set<Integer> ids, int sampleSize, long seed,
+            IntFunction<List<Neighbor>> exactNeighbors,
+            IntFunction<List<Neighbor>> approximateNeighbors,
+            int k) {
+
+        List<Integer> sample = new ArrayList<>(ids);
+        Collections.shuffle(sample, new Random(seed));
+        sample = sample.subList(0, Math.min(sampleSize, sample.size()));
+
+        double recall = sample.parallelStream()
+                .mapToDouble(id -> recall(exactNeighbors.apply(id), approximateNeighbors.apply(id), k))
+                .filter(value -> !Double.isNaN(value))
+                .average()
+                .orElse(Double.NaN);
+
+        Global.showInfoMessage(taskName + ": neighbor recall@" + k + " = " + recall + " (" + sample.size() + " profiles)\n");
+        return recall;
+    }
+
+    private static Set<Integer> topK(List<Neighbor> neighbors, int k) {
+        return neighbors.stream()
+                .filter(neighbor -> Double.isFinite(neighbor.getSimilarity()) && neighbor.getSimilarity() > 0)
+                .sorted(Neighbor.BY_SIMILARITY_DESC)
+                .limit(k)
+                .map(Neighbor::getIdNeighbor)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.IntegerParameter;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.experiment.SeedHolder;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Selecciona los candidatos mediante hiperplanos aleatorios con bandas
+ * (SimHash), que aproxima el coseno de los perfiles centrados en su media, es
+ * decir, la correlación de Pearson. Cada bit de la firma indica a qué lado de
+ * un hiperplano aleatorio queda el perfil. Más bandas aumentan la proporción de
+ * vecinos recuperados y más bits por banda reducen el número de candidatos.
+ *
+ * <p>
+ * Los hiperplanos no se almacenan: la componente de cada id se obtiene con una
+ * función hash de la semilla, por lo que el coste es lineal en el número de
+ * valoraciones.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class RandomHyperplaneNeighborCandidates extends NeighborCandidatesGenerator implements SeedHolder {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Número de bandas de la firma.
+     */
+    public static final Parameter NUM_BANDS = new Parameter(
+            "Num_bands",
+            new IntegerParameter(1, 1000, 10));
+
+    /**
+     * Número de hiperplanos de cada banda.
+     */
+    public static final Parameter BITS_PER_BAND = new Parameter(
+            "Bits_per_band",
+            new IntegerParameter(1, 64, 6));
+
+    public RandomHyperplaneNeighborCandidates() {
+        super();
+        addParameter(NUM_BANDS);
+        addParameter(BITS_PER_BAND);
+        addParameter(SEED);
+        addParameter(RECALL_SAMPLE_SIZE);
+    }
+
+    public RandomHyperplaneNeighborCandidates(int numBands, int bitsPerBand) {
+        this();
+        setParameterValue(NUM_BANDS, numBands);
+        setParameterValue(BITS_PER_BAND, bitsPerBand);
+    }
+
+    @Override
+    public NeighborCandidatesIndex buildIndex(Map<Integer, RatingsVector> profiles) {
+        final int numBands = (Integer) getParameterValue(NUM_BANDS);
+        final int bitsPerBand = (Integer) getParameterValue(BITS_PER_BAND);
+        final long seed = getSeedValue();
+
+        Map<Integer, long[]> keysById = new TreeMap<>();
+        profiles.forEach((id, profile) -> {
+            if (!profile.isEmpty()) {
+                keysById.put(id, bandKeys(profile, numBands, bitsPerBand, seed));
+            }
+        });
+
+        return new BandedHashIndex(keysById, numBands);
+    }
+
+    private static long[] bandKeys(RatingsVector profile, int numBands, int bitsPerBand, long seed) {
+        final int[] ids = profile.getIds();
+        final double[] values = profile.getValues();
+        final double mean = profile.mean();
+
+        long[] keys = new long[numBands];
+        for (int band = 0; band < numBands; band++) {
+            long key = 0;
+            for (int bit = 0; bit < bitsPerBand; bit++) {
+                long planeSeed = BandedHashIndex.mix(seed + band * (long) bitsPerBand + bit);
+
+                double dotProduct = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    double component = (BandedHashIndex.mix(planeSeed ^ ids[i]) & 1) == 0 ? 1 : -1;
+                    dotProduct += component * (values[i] - mean);
+                }
+                if (dotProduct >= 0) {
+                    key |= 1L << bit;
+                }
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    @Override
+    public void setSeedValue(long seedValue) {
+        setParameterValue(SEED, seedValue);
+    }
+
+    @Override
+    public long getSeedValue() {
+        return (Long) getParameterValue(SEED);
+    }
+}
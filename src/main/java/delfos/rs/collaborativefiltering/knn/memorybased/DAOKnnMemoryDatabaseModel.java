@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.memorybased;
+
+import delfos.common.Global;
+import delfos.databaseconnections.DatabaseConection;
+import delfos.dataset.basic.user.User;
+import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
+import delfos.rs.persistence.DatabasePersistence;
+import delfos.rs.persistence.FailureInPersistence;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Clase encargada de almacenar los vecinos precalculados por el sistema
+ * {@link KnnMemoryBasedCFRS}.
+ *
+ * <p>
+ * Los usuarios cuya vecindad se ha calculado se guardan en una tabla aparte de
+ * la de vecinos, de forma que los usuarios sin vecinos también se reconocen al
+ * cargar el modelo y no se vuelven a calcular sus vecinos en cada petición.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class DAOKnnMemoryDatabaseModel {
+
+    /**
+     * Número máximo de usuarios que se piden en cada consulta al cargar los
+     * vecinos de un conjunto de usuarios.
+     */
+    private static final int USERS_PER_QUERY = 1000;
+
+    private final String neighborhoodsTableName = "user_neighborhoods";
+    private final String computedUsersTableName = "user_neighborhoods_users";
+
+    /**
+     * Devuelve el nombre final de la tabla que se usa para almacenar/recuperar
+     * el modelo en la base de datos.
+     *
+     * @return
+     */
+    private String getNeighborhoodsTable(DatabaseConection databaseConection) {
+        return databaseConection.getPrefix() + neighborhoodsTableName;
+    }
+
+    private String getTemporalNeighborhoodsTable(DatabaseConection databaseConection) {
+        return getNeighborhoodsTable(databaseConection) + "_temp";
+    }
+
+    /**
+     * Devuelve el nombre final de la tabla con los usuarios cuya vecindad se ha
+     * calculado.
+     *
+     * @return
+     */
+    private String getComputedUsersTable(DatabaseConection databaseConection) {
+        return databaseConection.getPrefix() + computedUsersTableName;
+    }
+
+    private String getTemporalComputedUsersTable(DatabaseConection databaseConection) {
+        return getComputedUsersTable(databaseConection) + "_temp";
+    }
+
+    public DAOKnnMemoryDatabaseModel() {
+    }
+
+    private void createStructures(DatabaseConection databaseConection) throws FailureInPersistence {
+        try (
+                Statement st = databaseConection.doConnection().createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + getTemporalNeighborhoodsTable(databaseConection) + ";");
+            st.execute("DROP TABLE IF EXISTS " + getTemporalComputedUsersTable(databaseConection) + ";");
+
+            st.execute("CREATE TABLE  " + getTemporalNeighborhoodsTable(databaseConection) + " ("
+                    + "idUser int(10) unsigned NOT NULL,"
+                    + "idNeighbor int(10) unsigned NOT NULL,"
+                    + "similarity double NOT NULL,"
+                    + "PRIMARY KEY (idUser,idNeighbor)"
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=latin1;");
+
+            st.execute("CREATE TABLE  " + getTemporalComputedUsersTable(databaseConection) + " ("
+                    + "idUser int(10) unsigned NOT NULL,"
+                    + "PRIMARY KEY (idUser)"
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=latin1;");
+        } catch (SQLException ex) {
+            throw new FailureInPersistence(ex);
+        }
+    }
+
+    private void makePermanent(DatabaseConection databaseConection) throws FailureInPersistence {
+        try (
+                Statement st = databaseConection.doConnection().createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + getNeighborhoodsTable(databaseConection) + ";");
+            st.execute("ALTER TABLE " + getTemporalNeighborhoodsTable(databaseConection) + " RENAME TO " + getNeighborhoodsTable(databaseConection) + ";");
+            st.execute("DROP TABLE IF EXISTS " + getComputedUsersTable(databaseConection) + ";");
+            st.execute("ALTER TABLE " + getTemporalComputedUsersTable(databaseConection) + " RENAME TO " + getComputedUsersTable(databaseConection) + ";");
+        } catch (SQLException ex) {
+            throw new FailureInPersistence(ex);
+        }
+    }
+
+    public void saveModel(DatabasePersistence databasePersistence, KnnMemoryModel model) throws FailureInPersistence {
+        DatabaseConection databaseConection;
+        try {
+            databaseConection = databasePersistence.getConection();
+        } catch (Throwable ex) {
+            throw new FailureInPersistence(ex);
+        }
+
+        createStructures(databaseConection);
+
+        String consulta = "";
+        try (
+                Statement st = databaseConection.doConnection().createStatement()) {
+
+            for (int idUser : model.getUsersWithNeighborhood()) {
+                consulta = "Insert into " + getTemporalComputedUsersTable(databaseConection) + " (idUser) Values (" + idUser + ");";
+                st.executeUpdate(consulta);
+
+                List<Neighbor> neighbors = model.getNeighbors(idUser);
+                if (neighbors.isEmpty()) {
+                    continue;
+                }
+
+                StringBuilder c = new StringBuilder();
+                c.append("Insert into ").append(getTemporalNeighborhoodsTable(databaseConection)).append(" (idUser,idNeighbor,similarity) ");
+                c.append("Values ");
+
+                for (Neighbor neighbor : neighbors) {
+                    c.append("(").append(idUser).append(",");
+                    c.append(neighbor.getIdNeighbor()).append(",").append(neighbor.getSimilarity()).append("),");
+                }
+                c.setCharAt(c.length() - 1, ';');
+
+                consulta = c.toString();
+                st.executeUpdate(consulta);
+            }
+        } catch (SQLException ex) {
+            Global.showWarning(consulta);
+            throw new FailureInPersistence(ex);
+        }
+
+        makePermanent(databaseConection);
+    }
+
+    /**
+     * Carga los vecinos precalculados de los usuarios indicados.
+     *
+     * @param databasePersistence Base de datos en la que está el modelo.
+     * @param users Usuarios cuyos vecinos se cargan, o null para cargar todos.
+     * Los vecinos del resto de usuarios se calculan al recomendarles.
+     * @return Modelo con los vecinos cargados.
+     * @throws FailureInPersistence
+     */
+    public KnnMemoryModel loadModel(DatabasePersistence databasePersistence, Collection<Integer> users) throws FailureInPersistence {
+        Map<Integer, List<Neighbor>> neighborsByUser = new TreeMap<>();
+
+        try {
+            DatabaseConection databaseConection = databasePersistence.getConection();
+            Connection connection = databaseConection.doConnection();
+            String computedUsersQuery = "select idUser from " + getComputedUsersTable(databaseConection);
+            String neighborsQuery = "select idUser,idNeighbor,similarity from " + getNeighborhoodsTable(databaseConection);
+
+            if (users == null) {
+                try (PreparedStatement computedUsers = connection.prepareStatement(computedUsersQuery);
+                        PreparedStatement neighbors = connection.prepareStatement(neighborsQuery)) {
+                    readNeighborhoods(computedUsers, neighbors, neighborsByUser);
+                }
+            } else {
+                List<Integer> usersToLoad = new ArrayList<>(new TreeSet<>(users));
+                for (int from = 0; from < usersToLoad.size(); from += USERS_PER_QUERY) {
+                    List<Integer> chunk = usersToLoad.subList(from, Math.min(from + USERS_PER_QUERY, usersToLoad.size()));
+                    String whereClause = " where idUser in (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                    try (PreparedStatement computedUsers = connection.prepareStatement(computedUsersQuery + whereClause);
+                            PreparedStatement neighbors = connection.prepareStatement(neighborsQuery + whereClause)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            computedUsers.setInt(i + 1, chunk.get(i));
+                            neighbors.setInt(i + 1, chunk.get(i));
+                        }
+                        readNeighborhoods(computedUsers, neighbors, neighborsByUser);
+                    }
+                }
+            }
+        } catch (SQLException | ClassNotFoundException ex) {
+            throw new FailureInPersistence(ex);
+        }
+
+        return new KnnMemoryModel(neighborsByUser);
+    }
+
+    private static void readNeighborhoods(PreparedStatement computedUsers, PreparedStatement neighbors, Map<Integer, List<Neighbor>> neighborsByUser) throws SQLException {
+        try (ResultSet rst = computedUsers.executeQuery()) {
+            while (rst.next()) {
+                neighborsByUser.put(rst.getInt("idUser"), new ArrayList<>());
+            }
+        }
+
+        try (ResultSet rst = neighbors.executeQuery()) {
+            while (rst.next()) {
+                int idUser = rst.getInt("idUser");
+                int idNeighbor = rst.getInt("idNeighbor");
+                double similarity = rst.getDouble("similarity");
+
+                if (!neighborsByUser.containsKey(idUser)) {
+                    neighborsByUser.put(idUser, new ArrayList<>());
+                }
+                neighborsByUser.get(idUser).add(new Neighbor(RecommendationEntity.USER, new User(idNeighbor), similarity));
+            }
+        }
+    }
+}
@@ -24,14 +24,22 @@ import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.exceptions.ratings.NotEnoughtUserInformation;
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.BooleanParameter;
+import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.dataset.basic.item.Item;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.basic.user.User;
+import delfos.experiment.SeedHolder;
 import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
 import delfos.rs.collaborativefiltering.knn.MatchRating;
 import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesGenerator;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesIndex;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborRecall;
 import delfos.rs.collaborativefiltering.predictiontechniques.PredictionTechnique;
 import delfos.rs.collaborativefiltering.profile.Neighbor;
 import delfos.rs.persistence.DatabasePersistence;
@@ -45,6 +53,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -60,11 +69,31 @@ import java.util.stream.Collectors;
  *
  * @version 1.0 Unknown date
  * @version 1.1 27-02-2013
+ * @version 1.2 18-oct-2026 Vecinos de cada usuario precalculados opcionalmente en el modelo.
  */
 public class KnnMemoryBasedCFRS extends KnnCollaborativeRecommender<KnnMemoryModel> {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Parámetro que indica si los vecinos de todos los usuarios se calculan al
+     * construir el modelo. En ese caso, al recomendar sólo se consultan los
+     * vecinos almacenados en el modelo. Por defecto los vecinos se calculan al
+     * recomendar.
+     */
+    public static final Parameter PRECOMPUTED_NEIGHBORHOOD = new Parameter(
+            "Precomputed_neighborhood",
+            new BooleanParameter(false));
+
+    /**
+     * Parámetro para almacenar el número de vecinos que se almacenan para cada
+     * usuario si los vecinos se precalculan. Si no se modifica, su valor por
+     * defecto es 100.
+     */
+    public static final Parameter NEIGHBORHOOD_SIZE_STORE = new Parameter(
+            "Neighborhood_size_store",
+            new IntegerParameter(1, 9999, 100));
+
     /**
      * Constructor que añade los parámetros al sistema de recomendación y asigna la medida del coseno y la suma
      * ponderada como medida de similitud y técnica de predicción respectivamente.
@@ -80,19 +109,75 @@ public class KnnMemoryBasedCFRS extends KnnCollaborativeRecommender<KnnMemoryMod
         addParameter(DEFAULT_RATING_VALUE);
         addParameter(RELEVANCE_FACTOR);
         addParameter(RELEVANCE_FACTOR_VALUE);
+        addParameter(PRECOMPUTED_NEIGHBORHOOD);
+        addParameter(NEIGHBORHOOD_SIZE_STORE);
+        addParameter(NEIGHBOR_CANDIDATES);
+
+        addParammeterListener(() -> {
+            if (isNeighborhoodPrecomputed() && getNeighborhoodSizeStore() < getNeighborhoodSize()) {
+                throw new IllegalArgumentException("The neighborhood size store must be greater than the neighborhood size.");
+            }
+        });
     }
 
     @Override
     public KnnMemoryModel buildRecommendationModel(DatasetLoader<? extends Rating> datasetLoader) {
-        //No se necesitan perfiles porque se examina la base de datos directamente
-        return new KnnMemoryModel();
+        final NeighborCandidatesGenerator neighborCandidatesGenerator = getNeighborCandidatesGenerator();
+
+        if (!isNeighborhoodPrecomputed() && neighborCandidatesGenerator.isExhaustive()) {
+            //No se necesitan perfiles porque se examina la base de datos directamente
+            return new KnnMemoryModel();
+        }
+
+        final String taskName = getAlias() + " for dataset " + datasetLoader.getAlias();
+        final RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+
+        final NeighborCandidatesIndex neighborCandidates;
+        if (neighborCandidatesGenerator.isExhaustive()) {
+            neighborCandidates = null;
+        } else {
+            Map<Integer, RatingsVector> userProfiles = new TreeMap<>();
+            for (int idUser : ratingsDataset.allUsers()) {
+                userProfiles.put(idUser, ratingsDataset.getUserRatingsVector(idUser));
+            }
+            neighborCandidates = neighborCandidatesGenerator.buildIndex(userProfiles);
+        }
+
+        final Map<Integer, List<Neighbor>> neighborsByUser;
+        if (isNeighborhoodPrecomputed()) {
+            neighborsByUser = new KnnMemoryNeighborhoodIndexBuilder(
+                    datasetLoader, this, getNeighborhoodSizeStore(), neighborCandidates)
+                    .build(taskName, this::fireBuildingProgressChangedEvent);
+        } else {
+            neighborsByUser = null;
+        }
+
+        double neighborRecall = Double.NaN;
+        if (neighborCandidates != null && neighborCandidatesGenerator.getRecallSampleSize() > 0) {
+            neighborRecall = NeighborRecall.measure(
+                    taskName,
+                    ratingsDataset.allUsers(),
+                    neighborCandidatesGenerator.getRecallSampleSize(),
+                    neighborCandidatesGenerator instanceof SeedHolder ? ((SeedHolder) neighborCandidatesGenerator).getSeedValue() : 0,
+                    idUser -> getNeighbors(datasetLoader, datasetLoader.getUsersDataset().get(idUser), this),
+                    idUser -> neighborsByUser != null
+                            ? neighborsByUser.get(idUser)
+                            : getNeighbors(datasetLoader, datasetLoader.getUsersDataset().get(idUser), this, neighborCandidates.getCandidates(idUser)),
+                    getNeighborhoodSize());
+        }
+
+        return new KnnMemoryModel(neighborsByUser, neighborCandidates, neighborRecall);
     }
 
     @Override
     public RecommendationsToUser recommendToUser(DatasetLoader<? extends Rating> datasetLoader, KnnMemoryModel model, User user, Set<Item> candidateItems) throws UserNotFound {
         try {
-            List<Neighbor> neighbors;
-            neighbors = getNeighbors(datasetLoader, user, this);
+            List<Neighbor> neighbors = model.getNeighbors(user.getId());
+            if (neighbors == null && model.getNeighborCandidates() != null) {
+                neighbors = getNeighbors(datasetLoader, user, this, model.getNeighborCandidates().getCandidates(user.getId()));
+            } else if (neighbors == null) {
+                neighbors = getNeighbors(datasetLoader, user, this);
+            }
             Collection<Recommendation> ret = recommendWithNeighbors(datasetLoader.getRatingsDataset(), user.getId(), neighbors, candidateItems);
             return new RecommendationsToUserWithNeighbors(user, ret, neighbors);
         } catch (CannotLoadRatingsDataset ex) {
@@ -112,9 +197,25 @@ public class KnnMemoryBasedCFRS extends KnnCollaborativeRecommender<KnnMemoryMod
      * @throws UserNotFound Si el usuario indicado no existe en el conjunto de datos
      */
     public static <RatingType extends Rating> List<Neighbor> getNeighbors(DatasetLoader<RatingType> datasetLoader, User user, KnnCollaborativeRecommender rs) throws UserNotFound {
+        return getNeighbors(datasetLoader, user, rs, null);
+    }
+
+    /**
+     * Calcula los vecinos del usuario indicado entre los candidatos indicados.
+     *
+     * @param <RatingType>
+     * @param datasetLoader Dataset de valoraciones.
+     * @param user usuario para el que se calculan sus vecinos
+     * @param rs
+     * @param candidateNeighbors Ids de los usuarios candidatos, o null para considerar todos los usuarios.
+     * @return Devuelve una lista ordenada por similitud de los vecinos más cercanos al usuario indicado
+     * @throws UserNotFound Si el usuario indicado no existe en el conjunto de datos
+     */
+    public static <RatingType extends Rating> List<Neighbor> getNeighbors(DatasetLoader<RatingType> datasetLoader, User user, KnnCollaborativeRecommender<?> rs, Set<Integer> candidateNeighbors) throws UserNotFound {
 
         List<Neighbor> allNeighbors = datasetLoader.getUsersDataset().parallelStream()
                 .filter(user2 -> !user.equals(user2))
+                .filter(user2 -> candidateNeighbors == null || candidateNeighbors.contains(user2.getId()))
                 .map((userNeighbor) -> new KnnMemoryNeighborTask(datasetLoader, user, userNeighbor, rs))
                 .map(new KnnMemoryNeighborCalculator())
                 .map(neighbor -> {
@@ -202,12 +303,29 @@ public class KnnMemoryBasedCFRS extends KnnCollaborativeRecommender<KnnMemoryMod
 
     @Override
     public KnnMemoryModel loadRecommendationModel(DatabasePersistence databasePersistence, Collection<Integer> users, Collection<Integer> items, DatasetLoader<? extends Rating> datasetLoader) throws FailureInPersistence {
-        return new KnnMemoryModel();
+        if (!isNeighborhoodPrecomputed()) {
+            return new KnnMemoryModel();
+        }
+        DAOKnnMemoryDatabaseModel dao = new DAOKnnMemoryDatabaseModel();
+        return dao.loadModel(databasePersistence, users);
     }
 
     @Override
     public void saveRecommendationModel(DatabasePersistence databasePersistence, KnnMemoryModel model) throws FailureInPersistence {
-        //No hay modelo que guardar.
+        if (!model.isNeighborhoodPrecomputed()) {
+            //No hay modelo que guardar.
+            return;
+        }
+        DAOKnnMemoryDatabaseModel dao = new DAOKnnMemoryDatabaseModel();
+        dao.saveModel(databasePersistence, model);
+    }
+
+    public final boolean isNeighborhoodPrecomputed() {
+        return (Boolean) getParameterValue(PRECOMPUTED_NEIGHBORHOOD);
+    }
+
+    public final int getNeighborhoodSizeStore() {
+        return (Integer) getParameterValue(NEIGHBORHOOD_SIZE_STORE);
     }
 
     private static void printNeighborhood(int idUser, List<Neighbor> ret) {
@@ -16,19 +16,154 @@
  */
 package delfos.rs.collaborativefiltering.knn.memorybased;
 
+import delfos.rs.RecommendationModelMeasures;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesIndex;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborRecall;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Clase que utiliza el sistema de recomendación {@link KnnMemoryBasedCFRS} para
- * especificar su modelo de recomendación. 
+ * especificar su modelo de recomendación. Si el sistema precalcula los vecinos
+ * ({@link KnnMemoryBasedCFRS#PRECOMPUTED_NEIGHBORHOOD}), el modelo almacena los
+ * k vecinos más cercanos de cada usuario. En otro caso, los vecinos se calculan
+ * al recomendar. Si se seleccionan candidatos
+ * ({@link KnnMemoryBasedCFRS#NEIGHBOR_CANDIDATES}), el modelo almacena también
+ * el índice de candidatos.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  * @version 1.0 26-Mayo-2013
+ * @version 2.0 18-oct-2026 Almacena los vecinos precalculados de cada usuario.
  */
-public class KnnMemoryModel implements Serializable{
-    
+public class KnnMemoryModel implements Serializable, RecommendationModelMeasures {
+
     private static final long serialVersionUID = 42L;
 
+    /**
+     * Vecinos de cada usuario, ordenados por similitud descendente. Es null si
+     * no se han precalculado.
+     */
+    private final Map<Integer, List<Neighbor>> neighborsByUser;
+
+    /**
+     * Índice de vecinos candidatos de cada usuario. Es null si todos los
+     * usuarios son candidatos.
+     */
+    private final NeighborCandidatesIndex neighborCandidates;
+
+    /**
+     * Proporción de vecinos exactos recuperados con los candidatos, o NaN si
+     * no se ha medido.
+     */
+    private final double neighborRecall;
+
+    /**
+     * Crea un modelo sin vecinos precalculados.
+     */
     public KnnMemoryModel() {
+        this.neighborsByUser = null;
+        this.neighborCandidates = null;
+        this.neighborRecall = Double.NaN;
+    }
+
+    /**
+     * Crea un modelo con los vecinos precalculados indicados.
+     *
+     * @param neighborsByUser Vecinos de cada usuario.
+     */
+    public KnnMemoryModel(Map<Integer, List<Neighbor>> neighborsByUser) {
+        this(neighborsByUser, null, Double.NaN);
+    }
+
+    /**
+     * Crea un modelo con los vecinos precalculados y el índice de candidatos
+     * indicados.
+     *
+     * @param neighborsByUser Vecinos de cada usuario, o null si no se
+     * precalculan.
+     * @param neighborCandidates Índice de candidatos, o null si todos los
+     * usuarios son candidatos.
+     * @param neighborRecall Proporción de vecinos exactos recuperados con los
+     * candidatos, o NaN si no se ha medido.
+     */
+    public KnnMemoryModel(Map<Integer, List<Neighbor>> neighborsByUser, NeighborCandidatesIndex neighborCandidates, double neighborRecall) {
+        if (neighborsByUser == null) {
+            this.neighborsByUser = null;
+        } else {
+            this.neighborsByUser = new TreeMap<>();
+            neighborsByUser.entrySet().stream().forEach(entry -> {
+                List<Neighbor> neighbors = new ArrayList<>(entry.getValue());
+                neighbors.sort(Neighbor.BY_SIMILARITY_DESC);
+                this.neighborsByUser.put(entry.getKey(), Collections.unmodifiableList(neighbors));
+            });
+        }
+        this.neighborCandidates = neighborCandidates;
+        this.neighborRecall = neighborRecall;
+    }
+
+    /**
+     * Indica si el modelo contiene los vecinos precalculados.
+     *
+     * @return true si los vecinos están precalculados.
+     */
+    public boolean isNeighborhoodPrecomputed() {
+        return neighborsByUser != null;
+    }
+
+    /**
+     * Devuelve los vecinos precalculados del usuario indicado.
+     *
+     * @param idUser Usuario del que se buscan los vecinos.
+     * @return Vecinos del usuario, ordenados por similitud descendente, o null
+     * si no se han precalculado.
+     */
+    public List<Neighbor> getNeighbors(int idUser) {
+        if (neighborsByUser == null) {
+            return null;
+        }
+        return neighborsByUser.get(idUser);
+    }
+
+    /**
+     * Devuelve los usuarios que tienen vecinos precalculados.
+     *
+     * @return Usuarios con vecinos precalculados.
+     */
+    public Set<Integer> getUsersWithNeighborhood() {
+        if (neighborsByUser == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(neighborsByUser.keySet());
+    }
+
+    /**
+     * Devuelve el índice de vecinos candidatos.
+     *
+     * @return Índice de candidatos, o null si todos los usuarios son
+     * candidatos.
+     */
+    public NeighborCandidatesIndex getNeighborCandidates() {
+        return neighborCandidates;
+    }
+
+    /**
+     * Devuelve la proporción de vecinos exactos que se recuperan con los
+     * candidatos, medida al construir el modelo.
+     *
+     * @return Proporción de vecinos recuperados, o NaN si no se ha medido.
+     */
+    public double getNeighborRecall() {
+        return neighborRecall;
+    }
+
+    @Override
+    public Map<String, Double> getModelMeasures() {
+        return NeighborRecall.toModelMeasures(neighborRecall);
     }
 }
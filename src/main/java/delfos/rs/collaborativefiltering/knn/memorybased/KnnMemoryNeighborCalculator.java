@@ -20,19 +20,20 @@ import delfos.common.exceptions.CouldNotComputeSimilarity;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
 import delfos.dataset.basic.user.User;
 import delfos.rs.collaborativefiltering.knn.CommonRating;
 import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
 import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
 import delfos.rs.collaborativefiltering.profile.Neighbor;
 import delfos.similaritymeasures.CollaborativeSimilarityMeasure;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
 
 public final class KnnMemoryNeighborCalculator implements Function<KnnMemoryNeighborTask, Neighbor> {
 
@@ -61,45 +62,26 @@ public final class KnnMemoryNeighborCalculator implements Function<KnnMemoryNeig
         boolean relevanceFactor_ = (Boolean) rs.getParameterValue(KnnCollaborativeRecommender.RELEVANCE_FACTOR);
         int relevanceFactorValue_ = (Integer) rs.getParameterValue(KnnCollaborativeRecommender.RELEVANCE_FACTOR_VALUE);
 
-        Map<Integer, ? extends Rating> activeUserRated = datasetLoader.getRatingsDataset()
-                .getUserRatingsRated(user.getId());
-        Map<Integer, ? extends Rating> neighborRatings = datasetLoader.getRatingsDataset()
-                .getUserRatingsRated(neighbor.getId());
+        RatingsVector activeUserRated = datasetLoader.getRatingsDataset()
+                .getUserRatingsVector(user.getId());
+        RatingsVector neighborRatings = datasetLoader.getRatingsDataset()
+                .getUserRatingsVector(neighbor.getId());
 
-        Set<Integer> intersectionSet = new TreeSet<>(activeUserRated.keySet());
-        intersectionSet.retainAll(neighborRatings.keySet());
-
-        Collection<CommonRating> common;
-
-        if (!defaultRating_) {
-            common = CommonRating.intersection(datasetLoader, user, neighbor);
-        } else {
-            common = getCommonRatingUnion(datasetLoader, rs, user, activeUserRated, neighbor, neighborRatings);
-        }
-
-        if (inverseFrequency_) {
-            int numAllUsers = datasetLoader.getRatingsDataset().allUsers().size();
-            for (CommonRating c : common) {
-                try {
-                    double numUserRatedThisItem = datasetLoader.getRatingsDataset().sizeOfItemRatings(c.getIdCommon());
-                    double inverseFrequencyValue = numAllUsers / numUserRatedThisItem;
-                    inverseFrequencyValue = (double) Math.log(inverseFrequencyValue);
-                    c.setWeight(inverseFrequencyValue);
-                } catch (ItemNotFound ex) {
-                    throw new IllegalArgumentException("Cant find product '" + c.getIdCommon());
-                }
-            }
-        }
+        final int intersectionSize = activeUserRated.intersectionSize(neighborRatings);
 
         double sim;
         try {
-            sim = similarityMeasure_.similarity(common, datasetLoader.getRatingsDataset());
+            if (!defaultRating_ && similarityMeasure_ instanceof SparseSimilarityKernel) {
+                sim = sparseSimilarity((SparseSimilarityKernel) similarityMeasure_, datasetLoader, activeUserRated, neighborRatings, inverseFrequency_);
+            } else {
+                sim = commonRatingsSimilarity(similarityMeasure_, datasetLoader, rs, user, activeUserRated, neighbor, neighborRatings, defaultRating_, inverseFrequency_);
+            }
 
             if (sim > 0) {
                 if (relevanceFactor_) {
 
-                    if (intersectionSet.size() < relevanceFactorValue_) {
-                        sim = sim * ((double) intersectionSet.size() / relevanceFactorValue_);
+                    if (intersectionSize < relevanceFactorValue_) {
+                        sim = sim * ((double) intersectionSize / relevanceFactorValue_);
                     }
                 }
                 sim = (double) Math.pow(sim, caseAmp);
@@ -110,34 +92,95 @@ public final class KnnMemoryNeighborCalculator implements Function<KnnMemoryNeig
         return new Neighbor(RecommendationEntity.USER, neighbor, sim);
     }
 
-    private Collection<CommonRating> getCommonRatingUnion(DatasetLoader<? extends Rating> datasetLoader, KnnCollaborativeRecommender rs, User user, Map<Integer, ? extends Rating> activeUserRated, User neighbor, Map<Integer, ? extends Rating> neighborRatings) {
+    /**
+     * Calcula la similitud con una sola mezcla de los vectores de valoraciones,
+     * sin crear la lista de valoraciones en común.
+     */
+    private double sparseSimilarity(
+            SparseSimilarityKernel similarityMeasure,
+            DatasetLoader<? extends Rating> datasetLoader,
+            RatingsVector activeUserRated, RatingsVector neighborRatings,
+            boolean inverseFrequency) {
+
+        IntToDoubleFunction weights = null;
+        if (inverseFrequency) {
+            final RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+            final int numAllUsers = ratingsDataset.allUsers().size();
+            weights = idItem -> inverseFrequency(ratingsDataset, numAllUsers, idItem);
+        }
+        return similarityMeasure.similarity(activeUserRated, neighborRatings, weights);
+    }
 
-        byte defaultRatingValue = ((Integer) rs.getParameterValue(KnnCollaborativeRecommender.DEFAULT_RATING_VALUE)).byteValue();
+    private double commonRatingsSimilarity(
+            CollaborativeSimilarityMeasure similarityMeasure,
+            DatasetLoader<? extends Rating> datasetLoader,
+            KnnCollaborativeRecommender<?> rs,
+            User user, RatingsVector activeUserRated,
+            User neighbor, RatingsVector neighborRatings,
+            boolean defaultRating, boolean inverseFrequency) {
 
-        Set<Integer> union = new TreeSet<>(activeUserRated.keySet());
+        Collection<CommonRating> common;
 
-        union.addAll(neighborRatings.keySet());
-        if (union.isEmpty()) {
-            return Collections.EMPTY_LIST;
+        if (!defaultRating) {
+            common = CommonRating.intersection(
+                    activeUserRated, neighborRatings,
+                    RecommendationEntity.ITEM,
+                    RecommendationEntity.USER, user.getId(), neighbor.getId());
+        } else {
+            common = getCommonRatingUnion(rs, user, activeUserRated, neighbor, neighborRatings);
         }
 
-        Collection<CommonRating> common = new ArrayList<>();
-        for (int idItem : union) {
-            Rating r1 = activeUserRated.get(idItem);
-            Rating r2 = neighborRatings.get(idItem);
-
-            double d1;
-            if (r1 == null) {
-                d1 = defaultRatingValue;
-            } else {
-                d1 = r1.getRatingValue().doubleValue();
+        if (inverseFrequency) {
+            RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+            int numAllUsers = ratingsDataset.allUsers().size();
+            for (CommonRating c : common) {
+                c.setWeight(inverseFrequency(ratingsDataset, numAllUsers, c.getIdCommon()));
             }
+        }
+
+        return similarityMeasure.similarity(common, datasetLoader.getRatingsDataset());
+    }
+
+    private static double inverseFrequency(RatingsDataset<? extends Rating> ratingsDataset, int numAllUsers, int idItem) {
+        try {
+            double numUserRatedThisItem = ratingsDataset.sizeOfItemRatings(idItem);
+            double inverseFrequencyValue = numAllUsers / numUserRatedThisItem;
+            return Math.log(inverseFrequencyValue);
+        } catch (ItemNotFound ex) {
+            throw new IllegalArgumentException("Cant find product '" + idItem);
+        }
+    }
+
+    private Collection<CommonRating> getCommonRatingUnion(KnnCollaborativeRecommender<?> rs, User user, RatingsVector activeUserRated, User neighbor, RatingsVector neighborRatings) {
+
+        byte defaultRatingValue = ((Integer) rs.getParameterValue(KnnCollaborativeRecommender.DEFAULT_RATING_VALUE)).byteValue();
 
-            double d2;
-            if (r2 == null) {
+        if (activeUserRated.isEmpty() && neighborRatings.isEmpty()) {
+            return Collections.EMPTY_LIST;
+        }
+
+        final int[] ids1 = activeUserRated.getIds();
+        final int[] ids2 = neighborRatings.getIds();
+        final double[] values1 = activeUserRated.getValues();
+        final double[] values2 = neighborRatings.getValues();
+
+        Collection<CommonRating> common = new ArrayList<>(ids1.length + ids2.length);
+        int i = 0, j = 0;
+        while (i < ids1.length || j < ids2.length) {
+            int idItem;
+            double d1, d2;
+            if (j == ids2.length || (i < ids1.length && ids1[i] < ids2[j])) {
+                idItem = ids1[i];
+                d1 = values1[i++];
                 d2 = defaultRatingValue;
+            } else if (i == ids1.length || ids1[i] > ids2[j]) {
+                idItem = ids2[j];
+                d1 = defaultRatingValue;
+                d2 = values2[j++];
             } else {
-                d2 = r2.getRatingValue().doubleValue();
+                idItem = ids1[i];
+                d1 = values1[i++];
+                d2 = values2[j++];
             }
             common.add(new CommonRating(
                     RecommendationEntity.ITEM,
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.memorybased;
+
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.user.User;
+import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
+import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesIndex;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
+import delfos.utils.algorithm.progress.ProgressChangedController;
+import delfos.utils.algorithm.progress.ProgressChangedListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Calcula, para todos los usuarios, sus k vecinos más cercanos. Los usuarios se
+ * dividen en bloques y se calcula en paralelo la similitud de cada par de
+ * bloques. Si la medida de similitud es simétrica, cada par de usuarios se
+ * calcula una sola vez y se ofrece a los dos usuarios.
+ *
+ * <p>
+ * Si se indica un índice de candidatos, sólo se calcula la similitud de cada
+ * usuario con sus candidatos, en paralelo por usuario.
+ *
+ * <p>
+ * Sólo se almacenan los vecinos con similitud positiva, ya que el resto se
+ * descartan al predecir (ver
+ * {@link KnnMemoryBasedCFRS#recommendWithNeighbors(delfos.dataset.basic.rating.RatingsDataset, java.lang.Integer, java.util.List, java.util.Collection)}).
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class KnnMemoryNeighborhoodIndexBuilder {
+
+    /**
+     * Número de usuarios de cada bloque.
+     */
+    static final int BLOCK_SIZE = 128;
+
+    private final DatasetLoader<? extends Rating> datasetLoader;
+    private final KnnCollaborativeRecommender<?> rs;
+    private final int neighborhoodSizeStore;
+    private final NeighborCandidatesIndex neighborCandidates;
+
+    KnnMemoryNeighborhoodIndexBuilder(DatasetLoader<? extends Rating> datasetLoader, KnnCollaborativeRecommender<?> rs, int neighborhoodSizeStore) {
+        this(datasetLoader, rs, neighborhoodSizeStore, null);
+    }
+
+    /**
+     * @param neighborCandidates Índice de candidatos, o null para calcular la
+     * similitud de todos los pares de usuarios.
+     */
+    KnnMemoryNeighborhoodIndexBuilder(DatasetLoader<? extends Rating> datasetLoader, KnnCollaborativeRecommender<?> rs, int neighborhoodSizeStore, NeighborCandidatesIndex neighborCandidates) {
+        this.datasetLoader = datasetLoader;
+        this.rs = rs;
+        this.neighborhoodSizeStore = neighborhoodSizeStore;
+        this.neighborCandidates = neighborCandidates;
+    }
+
+    /**
+     * Calcula los vecinos de todos los usuarios del dataset.
+     *
+     * @param taskName Nombre de la tarea, para notificar el progreso.
+     * @param listener Objeto al que se notifica el progreso.
+     * @return Vecinos de cada usuario, ordenados por similitud descendente.
+     */
+    Map<Integer, List<Neighbor>> build(String taskName, ProgressChangedListener listener) {
+        final List<User> users = new ArrayList<>(datasetLoader.getUsersDataset());
+        users.sort((user1, user2) -> Integer.compare(user1.getId(), user2.getId()));
+
+        final boolean symmetric = rs.getSimilarityMeasure() instanceof SparseSimilarityKernel;
+
+        final List<PriorityQueue<Neighbor>> heaps = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            heaps.add(new PriorityQueue<>(Neighbor.BY_SIMILARITY_DESC.reversed()));
+        }
+
+        if (neighborCandidates == null) {
+            final int numBlocks = (users.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            List<int[]> blockPairs = new ArrayList<>();
+            for (int block1 = 0; block1 < numBlocks; block1++) {
+                for (int block2 = block1; block2 < numBlocks; block2++) {
+                    blockPairs.add(new int[]{block1, block2});
+                }
+            }
+
+            ProgressChangedController progress = blockPairs.isEmpty()
+                    ? null
+                    : new ProgressChangedController(taskName, blockPairs.size(), listener);
+
+            blockPairs.parallelStream().forEach(blockPair -> {
+                computeBlockPair(users, heaps, blockPair[0], blockPair[1], symmetric);
+                progress.setTaskFinished();
+            });
+        } else {
+            final int[] idUsers = users.stream().mapToInt(User::getId).toArray();
+
+            ProgressChangedController progress = users.isEmpty()
+                    ? null
+                    : new ProgressChangedController(taskName, users.size(), listener);
+
+            IntStream.range(0, users.size()).parallel().forEach(i -> {
+                computeCandidates(users, idUsers, heaps, i, symmetric);
+                progress.setTaskFinished();
+            });
+        }
+
+        Map<Integer, List<Neighbor>> neighborsByUser = new TreeMap<>();
+        IntStream.range(0, users.size()).forEach(i -> {
+            List<Neighbor> neighbors = new ArrayList<>(heaps.get(i));
+            neighbors.sort(Neighbor.BY_SIMILARITY_DESC);
+            neighborsByUser.put(users.get(i).getId(), Collections.unmodifiableList(neighbors));
+        });
+        return neighborsByUser;
+    }
+
+    private void computeBlockPair(List<User> users, List<PriorityQueue<Neighbor>> heaps, int block1, int block2, boolean symmetric) {
+        final KnnMemoryNeighborCalculator calculator = new KnnMemoryNeighborCalculator();
+
+        final int from1 = block1 * BLOCK_SIZE, to1 = Math.min(users.size(), from1 + BLOCK_SIZE);
+        final int from2 = block2 * BLOCK_SIZE, to2 = Math.min(users.size(), from2 + BLOCK_SIZE);
+
+        for (int i = from1; i < to1; i++) {
+            User user = users.get(i);
+            for (int j = (block1 == block2 ? i + 1 : from2); j < to2; j++) {
+                User neighbor = users.get(j);
+
+                double similarity = calculator.apply(new KnnMemoryNeighborTask(datasetLoader, user, neighbor, rs)).getSimilarity();
+                offer(heaps.get(i), neighbor, similarity);
+
+                if (!symmetric) {
+                    similarity = calculator.apply(new KnnMemoryNeighborTask(datasetLoader, neighbor, user, rs)).getSimilarity();
+                }
+                offer(heaps.get(j), user, similarity);
+            }
+        }
+    }
+
+    /**
+     * Calcula la similitud del usuario con sus candidatos de id mayor. Como la
+     * relación de candidatos es simétrica, así se calcula cada par una vez.
+     */
+    private void computeCandidates(List<User> users, int[] idUsers, List<PriorityQueue<Neighbor>> heaps, int i, boolean symmetric) {
+        final KnnMemoryNeighborCalculator calculator = new KnnMemoryNeighborCalculator();
+        User user = users.get(i);
+
+        for (int idCandidate : neighborCandidates.getCandidates(user.getId())) {
+            int j = Arrays.binarySearch(idUsers, idCandidate);
+            if (j <= i) {
+                continue;
+            }
+            User neighbor = users.get(j);
+
+            double similarity = calculator.apply(new KnnMemoryNeighborTask(datasetLoader, user, neighbor, rs)).getSimilarity();
+            offer(heaps.get(i), neighbor, similarity);
+
+            if (!symmetric) {
+                similarity = calculator.apply(new KnnMemoryNeighborTask(datasetLoader, neighbor, user, rs)).getSimilarity();
+            }
+            offer(heaps.get(j), user, similarity);
+        }
+    }
+
+    /**
+     * Añade el vecino al montículo si está entre los mejores. La cabeza del
+     * montículo es el peor vecino según {@link Neighbor#BY_SIMILARITY_DESC},
+     * para seleccionar los mismos vecinos que al ordenar la lista completa.
+     */
+    private void offer(PriorityQueue<Neighbor> heap, User neighborUser, double similarity) {
+        if (!Double.isFinite(similarity) || similarity <= 0) {
+            return;
+        }
+        Neighbor neighbor = new Neighbor(RecommendationEntity.USER, neighborUser, similarity);
+
+        synchronized (heap) {
+            if (heap.size() < neighborhoodSizeStore) {
+                heap.add(neighbor);
+            } else if (Neighbor.BY_SIMILARITY_DESC.compare(neighbor, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(neighbor);
+            }
+        }
+    }
+}
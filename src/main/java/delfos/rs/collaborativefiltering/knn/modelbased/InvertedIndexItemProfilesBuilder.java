@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.knn.modelbased;
+
+import delfos.common.exceptions.CouldNotComputeSimilarity;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
+import delfos.similaritymeasures.kernels.CoRatingStatistics;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
+import delfos.utils.algorithm.progress.ProgressChangedController;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Construye los perfiles de {@link KnnModelBasedCFRS} recorriendo un índice
+ * invertido de las valoraciones. Para cada producto se recorren sus usuarios y,
+ * de cada uno, los productos que ha valorado, acumulando los estadísticos de
+ * las valoraciones en común (sumas, cuadrados, productos y número) sólo para
+ * los pares de productos valorados por algún usuario. El coste es proporcional
+ * a la suma de los cuadrados del número de valoraciones de cada usuario, en
+ * lugar de al cuadrado del número de productos.
+ *
+ * <p>
+ * Cada hebra acumula en sus propios vectores primitivos, indexados por
+ * producto, la fila del producto que está procesando, por lo que no hay
+ * sincronización entre hebras. La similitud se obtiene de los estadísticos con
+ * un {@link SparseSimilarityKernel}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class InvertedIndexItemProfilesBuilder {
+
+    /**
+     * Productos, ordenados por id.
+     */
+    private final Item[] items;
+    /**
+     * Ids de los productos, ordenados.
+     */
+    private final int[] idItems;
+    /**
+     * Para cada producto, índice de los usuarios que lo han valorado.
+     */
+    private final int[][] usersByItem;
+    /**
+     * Para cada producto, valoraciones de los usuarios que lo han valorado.
+     */
+    private final double[][] valuesByItem;
+    /**
+     * Para cada usuario, índice de los productos que ha valorado.
+     */
+    private final int[][] itemsByUser;
+    /**
+     * Para cada usuario, valoraciones de los productos que ha valorado.
+     */
+    private final double[][] valuesByUser;
+
+    private final ThreadLocal<RowAccumulator> accumulators;
+
+    InvertedIndexItemProfilesBuilder(DatasetLoader<? extends Rating> datasetLoader) {
+        RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+
+        this.items = datasetLoader.getContentDataset().stream()
+                .sorted(Item.BY_ID)
+                .toArray(Item[]::new);
+        this.idItems = Arrays.stream(items)
+                .mapToInt(Item::getId)
+                .toArray();
+        final int[] idUsers = ratingsDataset.allUsers().stream()
+                .mapToInt(idUser -> idUser)
+                .sorted()
+                .toArray();
+
+        this.usersByItem = new int[idItems.length][];
+        this.valuesByItem = new double[idItems.length][];
+        for (int item = 0; item < idItems.length; item++) {
+            RatingsVector itemRatings = ratingsDataset.isRatedItem(idItems[item])
+                    ? ratingsDataset.getItemRatingsVector(idItems[item])
+                    : RatingsVector.EMPTY;
+            usersByItem[item] = toIndexes(itemRatings.getIds(), idUsers);
+            valuesByItem[item] = itemRatings.getValues();
+        }
+
+        this.itemsByUser = new int[idUsers.length][];
+        this.valuesByUser = new double[idUsers.length][];
+        for (int user = 0; user < idUsers.length; user++) {
+            RatingsVector userRatings = ratingsDataset.getUserRatingsVector(idUsers[user]);
+
+            int[] items = toIndexes(userRatings.getIds(), idItems);
+            double[] values = userRatings.getValues().clone();
+
+            int numItemsInContent = 0;
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] >= 0) {
+                    items[numItemsInContent] = items[i];
+                    values[numItemsInContent] = values[i];
+                    numItemsInContent++;
+                }
+            }
+            itemsByUser[user] = Arrays.copyOf(items, numItemsInContent);
+            valuesByUser[user] = Arrays.copyOf(values, numItemsInContent);
+        }
+
+        this.accumulators = ThreadLocal.withInitial(() -> new RowAccumulator(idItems.length));
+    }
+
+    /**
+     * Traduce los ids a su posición en el vector ordenado de ids indicado, o -1
+     * si no está.
+     */
+    private static int[] toIndexes(int[] ids, int[] sortedIds) {
+        int[] indexes = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            indexes[i] = Math.max(-1, Arrays.binarySearch(sortedIds, ids[i]));
+        }
+        return indexes;
+    }
+
+    /**
+     * Calcula los perfiles de todos los productos.
+     *
+     * @param kernel Medida de similitud.
+     * @param relevanceFactorValue Valor del factor de relevancia, o null si no
+     * se aplica.
+     * @param neighborhoodSizeStore Número de vecinos que se almacenan para cada
+     * producto.
+     * @param progress Controlador del progreso, se notifica cada producto.
+     * @return Perfiles de los productos, por id de producto.
+     */
+    Map<Integer, KnnModelItemProfile> build(
+            SparseSimilarityKernel kernel,
+            Integer relevanceFactorValue,
+            int neighborhoodSizeStore,
+            ProgressChangedController progress) {
+
+        List<KnnModelItemProfile> profiles = IntStream.range(0, idItems.length).parallel()
+                .mapToObj(item -> {
+                    List<Neighbor> neighbors = neighbors(item, kernel, relevanceFactorValue);
+                    neighbors.sort(Neighbor.BY_SIMILARITY_DESC);
+                    if (neighbors.size() > neighborhoodSizeStore) {
+                        neighbors = neighbors.subList(0, neighborhoodSizeStore);
+                    }
+                    progress.setTaskFinished();
+                    return new KnnModelItemProfile(idItems[item], neighbors);
+                })
+                .collect(Collectors.toList());
+
+        Map<Integer, KnnModelItemProfile> profilesByItem = new TreeMap<>();
+        profiles.forEach(profile -> profilesByItem.put(profile.getIdItem(), profile));
+        return profilesByItem;
+    }
+
+    /**
+     * Calcula la similitud del producto con todos los productos con los que
+     * tiene algún usuario en común.
+     */
+    private List<Neighbor> neighbors(int item, SparseSimilarityKernel kernel, Integer relevanceFactorValue) {
+        final RowAccumulator accumulator = accumulators.get();
+        final int[] users = usersByItem[item];
+        final double[] values = valuesByItem[item];
+
+        for (int k = 0; k < users.length; k++) {
+            if (users[k] < 0) {
+                continue;
+            }
+            final double x = values[k];
+            final int[] items = itemsByUser[users[k]];
+            final double[] itemValues = valuesByUser[users[k]];
+            for (int l = 0; l < items.length; l++) {
+                if (items[l] != item) {
+                    accumulator.add(items[l], x, itemValues[l]);
+                }
+            }
+        }
+
+        final CoRatingStatistics statistics = new CoRatingStatistics();
+        final int itemSize = users.length;
+        List<Neighbor> neighbors = new ArrayList<>(accumulator.numTouched);
+
+        for (int t = 0; t < accumulator.numTouched; t++) {
+            final int neighbor = accumulator.touched[t];
+            final int commonSize = accumulator.count[neighbor];
+
+            statistics.set(commonSize, itemSize + usersByItem[neighbor].length - commonSize,
+                    accumulator.sum1[neighbor], accumulator.sum2[neighbor],
+                    accumulator.sum11[neighbor], accumulator.sum22[neighbor],
+                    accumulator.sum12[neighbor]);
+
+            double similarity;
+            try {
+                similarity = kernel.similarity(statistics);
+            } catch (CouldNotComputeSimilarity ex) {
+                similarity = Double.NaN;
+            }
+            if (relevanceFactorValue != null) {
+                similarity = similarity * statistics.relevanceFactor(relevanceFactorValue);
+            }
+            neighbors.add(new Neighbor(RecommendationEntity.ITEM, items[neighbor], similarity));
+        }
+
+        accumulator.clear();
+        return neighbors;
+    }
+
+    /**
+     * Acumuladores primitivos de la fila de un producto, indexados por el
+     * producto con el que se comparte cada valoración. Sólo se limpian las
+     * posiciones usadas.
+     */
+    private static final class RowAccumulator {
+
+        private final int[] count;
+        private final double[] sum1;
+        private final double[] sum2;
+        private final double[] sum11;
+        private final double[] sum22;
+        private final double[] sum12;
+        private final int[] touched;
+        private int numTouched = 0;
+
+        RowAccumulator(int numItems) {
+            count = new int[numItems];
+            sum1 = new double[numItems];
+            sum2 = new double[numItems];
+            sum11 = new double[numItems];
+            sum22 = new double[numItems];
+            sum12 = new double[numItems];
+            touched = new int[numItems];
+        }
+
+        void add(int neighbor, double x, double y) {
+            if (count[neighbor] == 0) {
+                touched[numTouched++] = neighbor;
+            }
+            count[neighbor]++;
+            sum1[neighbor] += x;
+            sum2[neighbor] += y;
+            sum11[neighbor] += x * x;
+            sum22[neighbor] += y * y;
+            sum12[neighbor] += x * y;
+        }
+
+        void clear() {
+            for (int t = 0; t < numTouched; t++) {
+                final int neighbor = touched[t];
+                count[neighbor] = 0;
+                sum1[neighbor] = 0;
+                sum2[neighbor] = 0;
+                sum11[neighbor] = 0;
+                sum22[neighbor] = 0;
+                sum12[neighbor] = 0;
+            }
+            numTouched = 0;
+        }
+    }
+}
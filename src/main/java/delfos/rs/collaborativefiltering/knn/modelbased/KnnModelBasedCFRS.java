@@ -22,28 +22,42 @@ import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
 import delfos.common.exceptions.dataset.items.ItemNotFound;
 import delfos.common.exceptions.dataset.users.UserNotFound;
 import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.BooleanParameter;
 import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.dataset.basic.item.Item;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.basic.user.User;
+import delfos.experiment.SeedHolder;
 import delfos.rs.collaborativefiltering.CollaborativeRecommender;
 import delfos.rs.collaborativefiltering.knn.CommonRating;
 import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
 import delfos.rs.collaborativefiltering.knn.MatchRating;
 import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesGenerator;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesIndex;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborRecall;
 import delfos.rs.collaborativefiltering.predictiontechniques.PredictionTechnique;
 import delfos.rs.collaborativefiltering.profile.Neighbor;
 import delfos.rs.persistence.DatabasePersistence;
 import delfos.rs.persistence.FailureInPersistence;
 import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.RecommendationsToUser;
+import delfos.rs.recommendation.TopNRecommendations;
 import delfos.similaritymeasures.CollaborativeSimilarityMeasure;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
 import delfos.utils.algorithm.progress.ProgressChangedController;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -73,6 +87,18 @@ public class KnnModelBasedCFRS
             "Neighborhood_size_store",
             new IntegerParameter(1, 9999, 1000));
 
+    /**
+     * Parámetro para indicar si el modelo se construye acumulando los
+     * estadísticos de las valoraciones en común a partir de un índice invertido
+     * de las valoraciones de cada usuario, en lugar de comparar cada par de
+     * productos. Sólo se aplica si la medida de similitud implementa
+     * {@link SparseSimilarityKernel} y no se seleccionan vecinos candidatos.
+     * Si no se modifica, su valor por defecto es false.
+     */
+    public static final Parameter INVERTED_INDEX_BUILD = new Parameter(
+            "Inverted_index_build",
+            new BooleanParameter(false));
+
     /**
      * Constructor por defecto que llama al constructor por defecto de la clase
      * padre directa {@link CollaborativeRecommender}. También asigna la suma
@@ -86,6 +112,8 @@ public class KnnModelBasedCFRS
         addParameter(RELEVANCE_FACTOR);
         addParameter(RELEVANCE_FACTOR_VALUE);
         addParameter(NEIGHBORHOOD_SIZE_STORE);
+        addParameter(NEIGHBOR_CANDIDATES);
+        addParameter(INVERTED_INDEX_BUILD);
 
         addParammeterListener(() -> {
             int neighborhoodSize = getNeighborhoodSize();
@@ -108,12 +136,35 @@ public class KnnModelBasedCFRS
                 this::fireBuildingProgressChangedEvent
         );
 
+        final NeighborCandidatesGenerator neighborCandidatesGenerator = getNeighborCandidatesGenerator();
+
+        if (isInvertedIndexBuild()
+                && neighborCandidatesGenerator.isExhaustive()
+                && similarityMeasure instanceof SparseSimilarityKernel) {
+            Map<Integer, KnnModelItemProfile> itemModels_byItem = new InvertedIndexItemProfilesBuilder(datasetLoader)
+                    .build((SparseSimilarityKernel) similarityMeasure, relevanceFactorValue, getNeighborhoodSizeStore(), iknnModelProgress);
+            return new KnnModelBasedCFRSModel(itemModels_byItem, Double.NaN);
+        }
+
+        final NeighborCandidatesIndex neighborCandidates;
+        if (neighborCandidatesGenerator.isExhaustive()) {
+            neighborCandidates = null;
+        } else {
+            RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+            Map<Integer, RatingsVector> itemProfiles = new TreeMap<>();
+            for (int idItem : ratingsDataset.allRatedItems()) {
+                itemProfiles.put(idItem, ratingsDataset.getItemRatingsVector(idItem));
+            }
+            neighborCandidates = neighborCandidatesGenerator.buildIndex(itemProfiles);
+        }
+
         List<KnnModelItemProfile> allItemModels = datasetLoader.getContentDataset().parallelStream().map(item -> {
             List<Neighbor> thisItemNeighbors = getNeighbors(
                     datasetLoader,
                     item,
                     similarityMeasure,
-                    relevanceFactorValue
+                    relevanceFactorValue,
+                    neighborCandidates == null ? null : neighborCandidates.getCandidates(item.getId())
             );
 
             thisItemNeighbors.sort(Neighbor.BY_SIMILARITY_DESC);
@@ -129,7 +180,19 @@ public class KnnModelBasedCFRS
 
         Map<Integer, KnnModelItemProfile> itemModels_byItem = allItemModels.parallelStream().collect(Collectors.toMap(itemModel -> itemModel.getIdItem(), itemModel -> itemModel));
 
-        return new KnnModelBasedCFRSModel(itemModels_byItem);
+        double neighborRecall = Double.NaN;
+        if (neighborCandidates != null && neighborCandidatesGenerator.getRecallSampleSize() > 0) {
+            neighborRecall = NeighborRecall.measure(
+                    getAlias() + " for dataset " + datasetLoader.getAlias(),
+                    itemModels_byItem.keySet(),
+                    neighborCandidatesGenerator.getRecallSampleSize(),
+                    neighborCandidatesGenerator instanceof SeedHolder ? ((SeedHolder) neighborCandidatesGenerator).getSeedValue() : 0,
+                    idItem -> getNeighbors(datasetLoader, datasetLoader.getContentDataset().get(idItem), similarityMeasure, relevanceFactorValue),
+                    idItem -> itemModels_byItem.get(idItem).getAllNeighbors(),
+                    getNeighborhoodSize());
+        }
+
+        return new KnnModelBasedCFRSModel(itemModels_byItem, neighborRecall);
     }
 
     @Override
@@ -145,40 +208,98 @@ public class KnnModelBasedCFRS
         Map<Integer, ? extends Rating> targetUserRatings = datasetLoader.getRatingsDataset().getUserRatingsRated(idUser);
 
         for (int idItem : candidateItems) {
-            List<MatchRating> matchRatings = new LinkedList<>();
             KnnModelItemProfile profile = model.getItemProfile(idItem);
 
             if (profile == null) {
                 continue;
             }
 
-            List<Neighbor> selectedNeighbors = profile.getAllNeighbors().stream()
-                    .filter(neighbor -> neighbor.getSimilarity() > 0)
-                    .filter(neighbor -> Double.isFinite(neighbor.getSimilarity()))
-                    .filter(neighbor -> !Double.isNaN(neighbor.getSimilarity())).collect(Collectors.toList());
+            double predictedRating = predictRating(datasetLoader, prediction, neighborhoodSize, idUser, targetUserRatings, profile);
+            recommendationList.add(new Recommendation(idItem, predictedRating));
 
-            selectedNeighbors = selectedNeighbors
-                    .subList(0, Math.min(selectedNeighbors.size(), neighborhoodSize));
+        }
+        return recommendationList;
+    }
 
-            for (Neighbor itemNeighbor : selectedNeighbors) {
-                double similarity = itemNeighbor.getSimilarity();
-                Rating rating = targetUserRatings.get(itemNeighbor.getIdNeighbor());
-                if (rating != null) {
-                    matchRatings.add(new MatchRating(RecommendationEntity.USER, idUser, itemNeighbor.getIdNeighbor(), rating.getRatingValue(), similarity));
+    /**
+     * Recomienda los <i>n</i> mejores productos sin predecir todos los
+     * candidatos: solo se predicen los productos que tienen entre sus vecinos
+     * algún producto valorado por el usuario, que se obtienen del índice
+     * inverso de vecinos del modelo. El resto no tienen valoraciones con las
+     * que predecir, por lo que su predicción sería {@link Double#NaN} y solo se
+     * añaden si no hay <i>n</i> productos con predicción.
+     */
+    @Override
+    public RecommendationsToUser recommendTopN(
+            DatasetLoader<? extends Rating> datasetLoader, KnnModelBasedCFRSModel model, User user, Set<Item> candidateItems, int n) {
+        if (n <= 0) {
+            return super.recommendTopN(datasetLoader, model, user, candidateItems, n);
+        }
+
+        PredictionTechnique prediction = (PredictionTechnique) getParameterValue(KnnModelBasedCFRS.PREDICTION_TECHNIQUE);
+        int neighborhoodSize = (Integer) getParameterValue(NEIGHBORHOOD_SIZE);
+
+        Map<Integer, ? extends Rating> targetUserRatings;
+        try {
+            targetUserRatings = datasetLoader.getRatingsDataset().getUserRatingsRated(user.getId());
+        } catch (UserNotFound ex) {
+            throw new IllegalArgumentException(ex);
+        }
+
+        Map<Integer, int[]> itemsByNeighbor = model.getItemsByNeighbor(neighborhoodSize);
+        Set<Integer> reachedItems = new TreeSet<>();
+        for (int idRatedItem : targetUserRatings.keySet()) {
+            int[] items = itemsByNeighbor.get(idRatedItem);
+            if (items != null) {
+                for (int idItem : items) {
+                    reachedItems.add(idItem);
                 }
             }
+        }
 
-            Double predictedRating;
-            try {
-                predictedRating = prediction.predictRating(idUser, idItem, matchRatings, datasetLoader.getRatingsDataset());
-            } catch (CouldNotPredictRating ex) {
-                predictedRating = Double.NaN;
+        TopNRecommendations topN = new TopNRecommendations(n);
+        List<Item> notReachedItems = new ArrayList<>();
+        for (Item item : candidateItems) {
+            KnnModelItemProfile profile = model.getItemProfile(item.getId());
+            if (profile == null) {
+                continue;
+            }
+            if (reachedItems.contains(item.getId())) {
+                double predictedRating = predictRating(datasetLoader, prediction, neighborhoodSize, user.getId(), targetUserRatings, profile);
+                topN.add(new Recommendation(item, predictedRating));
+            } else {
+                notReachedItems.add(item);
             }
+        }
 
-            recommendationList.add(new Recommendation(idItem, predictedRating));
+        for (Item item : notReachedItems) {
+            topN.add(new Recommendation(item, Double.NaN));
+        }
+        return new RecommendationsToUser(user, topN.toList());
+    }
+
+    private double predictRating(
+            DatasetLoader<? extends Rating> datasetLoader,
+            PredictionTechnique prediction,
+            int neighborhoodSize,
+            int idUser,
+            Map<Integer, ? extends Rating> targetUserRatings,
+            KnnModelItemProfile profile) {
+
+        List<MatchRating> matchRatings = new LinkedList<>();
+        for (Neighbor itemNeighbor : KnnModelBasedCFRSModel.selectNeighbors(profile, neighborhoodSize)) {
+            double similarity = itemNeighbor.getSimilarity();
+            Rating rating = targetUserRatings.get(itemNeighbor.getIdNeighbor());
+            if (rating != null) {
+                matchRatings.add(new MatchRating(RecommendationEntity.USER, idUser, itemNeighbor.getIdNeighbor(), rating.getRatingValue(), similarity));
+            }
+        }
 
+        try {
+            return prediction.predictRating(idUser, profile.getIdItem(), matchRatings, datasetLoader.getRatingsDataset());
+        } catch (CouldNotPredictRating ex) {
+            return Double.NaN;
         }
-        return recommendationList;
     }
 
     /**
@@ -206,11 +327,35 @@ public class KnnModelBasedCFRS
             CollaborativeSimilarityMeasure similarityMeasure,
             Integer relevanceFactorValue
     ) {
+        return getNeighbors(datasetLoader, item1, similarityMeasure, relevanceFactorValue, null);
+    }
+
+    /**
+     * Computes the list of neighbors for the given item among the given
+     * candidates, sorted by similarity DESC.
+     *
+     * @param datasetLoader Data set used.
+     * @param item1 Target item, for which the neighbors are computed.
+     * @param similarityMeasure
+     * @param relevanceFactorValue
+     * @param candidateNeighbors Ids of the candidate items, or null to consider
+     * all the items in the dataset.
+     * @return A list wit a Neighbor object for each candidate item, sorted by
+     * similarity desc.
+     */
+    public static List<Neighbor> getNeighbors(
+            DatasetLoader<? extends Rating> datasetLoader,
+            Item item1,
+            CollaborativeSimilarityMeasure similarityMeasure,
+            Integer relevanceFactorValue,
+            Set<Integer> candidateNeighbors
+    ) {
 
         List<Neighbor> neighbors = datasetLoader.getContentDataset().parallelStream()
                 .filter(item2 -> {
                     return !item1.equals(item2);
                 })
+                .filter(item2 -> candidateNeighbors == null || candidateNeighbors.contains(item2.getId()))
                 .map(item2 -> {
                     Collection<CommonRating> commonRatings = CommonRating.intersection(datasetLoader, item1, item2);
 
@@ -245,4 +390,8 @@ public class KnnModelBasedCFRS
     public final int getNeighborhoodSizeStore() {
         return (Integer) getParameterValue(NEIGHBORHOOD_SIZE_STORE);
     }
+
+    public final boolean isInvertedIndexBuild() {
+        return (Boolean) getParameterValue(INVERTED_INDEX_BUILD);
+    }
 }
@@ -16,9 +16,15 @@
  */
 package delfos.rs.collaborativefiltering.knn.modelbased;
 
+import delfos.rs.RecommendationModelMeasures;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborRecall;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Modelo de recomendación que utiliza el sistema {@link KnnModelBasedCFRS}.
@@ -29,7 +35,7 @@ import java.util.Map;
  *
  * @version 1.0 28-Mayo-2013
  */
-public class KnnModelBasedCFRSModel implements Serializable, Iterable<KnnModelItemProfile> {
+public class KnnModelBasedCFRSModel implements Serializable, Iterable<KnnModelItemProfile>, RecommendationModelMeasures {
 
     private static final long serialVersionUID = 100L;
 
@@ -38,12 +44,24 @@ public class KnnModelBasedCFRSModel implements Serializable, Iterable<KnnModelIt
      */
     private final Map<Integer, KnnModelItemProfile> itemsProfiles;
 
+    /**
+     * Proporción de vecinos exactos recuperados con los candidatos, o NaN si
+     * no se ha medido.
+     */
+    private final double neighborRecall;
+
+    /**
+     * Índice inverso de los vecinos, que se calcula la primera vez que se usa.
+     */
+    private transient volatile ItemsByNeighbor itemsByNeighbor = null;
+
     /**
      * Se implementa el constructor por defecto para que el objeto sea
      * serializable.
      */
     protected KnnModelBasedCFRSModel() {
         itemsProfiles = null;
+        neighborRecall = Double.NaN;
     }
 
     /**
@@ -52,7 +70,20 @@ public class KnnModelBasedCFRSModel implements Serializable, Iterable<KnnModelIt
      * @param itemsProfiles Perfiles del modelo de recomendación.
      */
     public KnnModelBasedCFRSModel(Map<Integer, KnnModelItemProfile> itemsProfiles) {
+        this(itemsProfiles, Double.NaN);
+    }
+
+    /**
+     * Crea el modelo de recomendación con los perfiles indicados, calculados
+     * con los vecinos candidatos.
+     *
+     * @param itemsProfiles Perfiles del modelo de recomendación.
+     * @param neighborRecall Proporción de vecinos exactos recuperados con los
+     * candidatos, o NaN si no se ha medido.
+     */
+    public KnnModelBasedCFRSModel(Map<Integer, KnnModelItemProfile> itemsProfiles, double neighborRecall) {
         this.itemsProfiles = itemsProfiles;
+        this.neighborRecall = neighborRecall;
     }
 
     /**
@@ -80,4 +111,77 @@ public class KnnModelBasedCFRSModel implements Serializable, Iterable<KnnModelIt
     public int getNumProfiles() {
         return itemsProfiles.size();
     }
+
+    /**
+     * Devuelve la proporción de vecinos exactos que se recuperan con los
+     * candidatos, medida al construir el modelo.
+     *
+     * @return Proporción de vecinos recuperados, o NaN si no se ha medido.
+     */
+    public double getNeighborRecall() {
+        return neighborRecall;
+    }
+
+    @Override
+    public Map<String, Double> getModelMeasures() {
+        return NeighborRecall.toModelMeasures(neighborRecall);
+    }
+
+    /**
+     * Selecciona los vecinos del perfil que se usan en la predicción: los
+     * <i>neighborhoodSize</i> primeros con similitud positiva y finita.
+     *
+     * @param profile Perfil del producto.
+     * @param neighborhoodSize Número de vecinos que se usan en la predicción.
+     * @return Vecinos seleccionados.
+     */
+    public static List<Neighbor> selectNeighbors(KnnModelItemProfile profile, int neighborhoodSize) {
+        List<Neighbor> selectedNeighbors = new ArrayList<>(Math.min(neighborhoodSize, 64));
+        for (Neighbor neighbor : profile.getAllNeighbors()) {
+            if (selectedNeighbors.size() == neighborhoodSize) {
+                break;
+            }
+            if (neighbor.getSimilarity() > 0 && Double.isFinite(neighbor.getSimilarity())) {
+                selectedNeighbors.add(neighbor);
+            }
+        }
+        return selectedNeighbors;
+    }
+
+    /**
+     * Devuelve, para cada producto, los productos que lo tienen entre los
+     * vecinos que se usan en la predicción. Son los únicos productos para los
+     * que una valoración del primero aporta a la predicción.
+     *
+     * @param neighborhoodSize Número de vecinos que se usan en la predicción.
+     * @return Productos que tienen a cada producto como vecino.
+     */
+    public Map<Integer, int[]> getItemsByNeighbor(int neighborhoodSize) {
+        ItemsByNeighbor index = itemsByNeighbor;
+        if (index == null || index.neighborhoodSize != neighborhoodSize) {
+            index = new ItemsByNeighbor(neighborhoodSize, itemsProfiles);
+            itemsByNeighbor = index;
+        }
+        return index.itemsByNeighbor;
+    }
+
+    private static final class ItemsByNeighbor {
+
+        private final int neighborhoodSize;
+        private final Map<Integer, int[]> itemsByNeighbor;
+
+        private ItemsByNeighbor(int neighborhoodSize, Map<Integer, KnnModelItemProfile> itemsProfiles) {
+            this.neighborhoodSize = neighborhoodSize;
+
+            Map<Integer, List<Integer>> lists = new TreeMap<>();
+            for (KnnModelItemProfile profile : itemsProfiles.values()) {
+                for (Neighbor neighbor : selectNeighbors(profile, neighborhoodSize)) {
+                    lists.computeIfAbsent(neighbor.getIdNeighbor(), idNeighbor -> new ArrayList<>()).add(profile.getIdItem());
+                }
+            }
+
+            this.itemsByNeighbor = new TreeMap<>();
+            lists.forEach((idNeighbor, items) -> itemsByNeighbor.put(idNeighbor, items.stream().mapToInt(idItem -> idItem).toArray()));
+        }
+    }
 }
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.svd;
+
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.user.User;
+import delfos.rs.collaborativefiltering.als.Bias;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Modelo compacto de factorización de matrices: las características de
+ * usuarios y productos se almacenan en dos matrices densas de
+ * {@code double}, fila a fila, y los ids en vectores ordenados que dan la fila
+ * de cada usuario o producto.
+ *
+ * <p>
+ * Es el formato con el que trabaja {@link FunkSVDEngine}, y se puede convertir
+ * desde y hacia {@link TryThisAtHomeSVDModel} con
+ * {@link TryThisAtHomeSVDModel#TryThisAtHomeSVDModel(delfos.rs.collaborativefiltering.svd.DenseFactorsModel)}
+ * y {@link TryThisAtHomeSVDModel#toDenseFactorsModel()}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class DenseFactorsModel implements Serializable {
+
+    private static final long serialVersionUID = 108L;
+
+    private final int numFeatures;
+    private final int[] userIds;
+    private final int[] itemIds;
+    /**
+     * Características de los usuarios, la del usuario en la fila u y la
+     * característica f en la posición {@code u * numFeatures + f}.
+     */
+    private final double[] userFactors;
+    /**
+     * Características de los productos, con la misma disposición que
+     * {@link #userFactors}.
+     */
+    private final double[] itemFactors;
+    private final Bias bias;
+
+    /**
+     * Número de características de cada bloque en
+     * {@link #dotProductIfAbove(int, double[], int, double)}.
+     */
+    public static final int DOT_PRODUCT_BLOCK_SIZE = 8;
+
+    /**
+     * Normas de las características de cada producto desde el inicio de cada
+     * bloque hasta el final, la del producto en la fila i y el bloque b en la
+     * posición {@code i * (numBlocks + 1) + b}. Se calculan la primera vez que
+     * se usan.
+     */
+    private transient volatile double[] itemSuffixNorms = null;
+
+    /**
+     * Crea un modelo con todas las características a cero.
+     *
+     * @param userIds Ids de los usuarios, ordenados de forma ascendente y sin
+     * repetidos.
+     * @param itemIds Ids de los productos, ordenados de forma ascendente y sin
+     * repetidos.
+     * @param numFeatures Número de características.
+     */
+    public DenseFactorsModel(int[] userIds, int[] itemIds, int numFeatures) {
+        this(userIds, itemIds, numFeatures,
+                new double[userIds.length * numFeatures],
+                new double[itemIds.length * numFeatures],
+                null);
+    }
+
+    /**
+     * Crea un modelo con las características indicadas.
+     *
+     * @param userIds Ids de los usuarios, ordenados de forma ascendente y sin
+     * repetidos.
+     * @param itemIds Ids de los productos, ordenados de forma ascendente y sin
+     * repetidos.
+     * @param numFeatures Número de características.
+     * @param userFactors Características de los usuarios, fila a fila.
+     * @param itemFactors Características de los productos, fila a fila.
+     * @param bias Sesgos que se restauran en la predicción, o null si no se
+     * aplican.
+     */
+    public DenseFactorsModel(int[] userIds, int[] itemIds, int numFeatures, double[] userFactors, double[] itemFactors, Bias bias) {
+        if (numFeatures <= 0) {
+            throw new IllegalArgumentException("The number of features must be positive (" + numFeatures + ").");
+        }
+        if (!isStrictlyAscending(userIds)) {
+            throw new IllegalArgumentException("The user ids must be sorted and without duplicates.");
+        }
+        if (!isStrictlyAscending(itemIds)) {
+            throw new IllegalArgumentException("The item ids must be sorted and without duplicates.");
+        }
+        if (userFactors.length != userIds.length * numFeatures) {
+            throw new IllegalArgumentException("The user feature matrix does not match the number of users and features.");
+        }
+        if (itemFactors.length != itemIds.length * numFeatures) {
+            throw new IllegalArgumentException("The item feature matrix does not match the number of items and features.");
+        }
+
+        this.numFeatures = numFeatures;
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.userFactors = userFactors;
+        this.itemFactors = itemFactors;
+        this.bias = bias;
+    }
+
+    private static boolean isStrictlyAscending(int[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i - 1] >= ids[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    public int getNumUsers() {
+        return userIds.length;
+    }
+
+    public int getNumItems() {
+        return itemIds.length;
+    }
+
+    /**
+     * Ids de los usuarios, en el orden de las filas.
+     *
+     * @return Array interno, que no debe ser modificado.
+     */
+    public int[] getUserIds() {
+        return userIds;
+    }
+
+    /**
+     * Ids de los productos, en el orden de las filas.
+     *
+     * @return Array interno, que no debe ser modificado.
+     */
+    public int[] getItemIds() {
+        return itemIds;
+    }
+
+    /**
+     * Matriz de características de los usuarios, fila a fila.
+     *
+     * @return Array interno, que se modifica durante el entrenamiento.
+     */
+    public double[] getUserFactors() {
+        return userFactors;
+    }
+
+    /**
+     * Matriz de características de los productos, fila a fila.
+     *
+     * @return Array interno, que se modifica durante el entrenamiento.
+     */
+    public double[] getItemFactors() {
+        return itemFactors;
+    }
+
+    public Bias getBias() {
+        return bias;
+    }
+
+    /**
+     * Fila del usuario en la matriz de características.
+     *
+     * @param idUser Id del usuario.
+     * @return Fila del usuario, o -1 si no está en el modelo.
+     */
+    public int userIndex(int idUser) {
+        return Math.max(-1, Arrays.binarySearch(userIds, idUser));
+    }
+
+    /**
+     * Fila del producto en la matriz de características.
+     *
+     * @param idItem Id del producto.
+     * @return Fila del producto, o -1 si no está en el modelo.
+     */
+    public int itemIndex(int idItem) {
+        return Math.max(-1, Arrays.binarySearch(itemIds, idItem));
+    }
+
+    /**
+     * Producto escalar de las características de un usuario y un producto.
+     *
+     * @param userIndex Fila del usuario.
+     * @param itemIndex Fila del producto.
+     * @return Producto escalar.
+     */
+    public double dotProduct(int userIndex, int itemIndex) {
+        final int userOffset = userIndex * numFeatures;
+        final int itemOffset = itemIndex * numFeatures;
+        double dotProduct = 0;
+        for (int f = 0; f < numFeatures; f++) {
+            dotProduct += userFactors[userOffset + f] * itemFactors[itemOffset + f];
+        }
+        return dotProduct;
+    }
+
+    /**
+     * Predice la valoración del usuario sobre el producto, restaurando los
+     * sesgos si el modelo los tiene.
+     *
+     * @param idUser Id del usuario.
+     * @param idItem Id del producto.
+     * @return Valoración predicha, o {@link Double#NaN} si el usuario o el
+     * producto no están en el modelo.
+     */
+    public double predict(int idUser, int idItem) {
+        final int userIndex = userIndex(idUser);
+        final int itemIndex = itemIndex(idItem);
+        if (userIndex < 0 || itemIndex < 0) {
+            return Double.NaN;
+        }
+        double prediction = dotProduct(userIndex, itemIndex);
+        return bias == null ? prediction : bias.restoreBias(new User(idUser), new Item(idItem), prediction);
+    }
+
+    private int numBlocks() {
+        return (numFeatures + DOT_PRODUCT_BLOCK_SIZE - 1) / DOT_PRODUCT_BLOCK_SIZE;
+    }
+
+    private static void suffixNorms(double[] factors, int offset, int numFeatures, double[] norms, int normsOffset) {
+        int numBlocks = (numFeatures + DOT_PRODUCT_BLOCK_SIZE - 1) / DOT_PRODUCT_BLOCK_SIZE;
+        double sumOfSquares = 0;
+        norms[normsOffset + numBlocks] = 0;
+        for (int b = numBlocks - 1; b >= 0; b--) {
+            int end = Math.min(numFeatures, (b + 1) * DOT_PRODUCT_BLOCK_SIZE);
+            for (int f = b * DOT_PRODUCT_BLOCK_SIZE; f < end; f++) {
+                sumOfSquares += factors[offset + f] * factors[offset + f];
+            }
+            norms[normsOffset + b] = Math.sqrt(sumOfSquares);
+        }
+    }
+
+    private double[] getItemSuffixNorms() {
+        double[] norms = itemSuffixNorms;
+        if (norms == null) {
+            final int stride = numBlocks() + 1;
+            norms = new double[itemIds.length * stride];
+            for (int itemIndex = 0; itemIndex < itemIds.length; itemIndex++) {
+                suffixNorms(itemFactors, itemIndex * numFeatures, numFeatures, norms, itemIndex * stride);
+            }
+            itemSuffixNorms = norms;
+        }
+        return norms;
+    }
+
+    /**
+     * Normas de las características del usuario desde el inicio de cada bloque
+     * hasta el final, para
+     * {@link #dotProductIfAbove(int, double[], int, double)}.
+     *
+     * @param userIndex Fila del usuario.
+     * @return Normas de las características del usuario.
+     */
+    public double[] userSuffixNorms(int userIndex) {
+        double[] norms = new double[numBlocks() + 1];
+        suffixNorms(userFactors, userIndex * numFeatures, numFeatures, norms, 0);
+        return norms;
+    }
+
+    /**
+     * Producto escalar de las características de un usuario y un producto,
+     * calculado por bloques de {@link #DOT_PRODUCT_BLOCK_SIZE}
+     * características. Tras cada bloque acota lo que pueden aportar las
+     * características restantes con la desigualdad de Cauchy-Schwarz, y deja
+     * de calcular si el producto no puede alcanzar el umbral. Las
+     * características se suman en el mismo orden que en
+     * {@link #dotProduct(int, int)}, por lo que el resultado es idéntico.
+     *
+     * @param userIndex Fila del usuario.
+     * @param userSuffixNorms Normas del usuario, de
+     * {@link #userSuffixNorms(int)}.
+     * @param itemIndex Fila del producto.
+     * @param threshold Umbral que debe alcanzar el producto escalar.
+     * @return Producto escalar, o {@link Double#NEGATIVE_INFINITY} si es
+     * seguro que es menor que el umbral.
+     */
+    public double dotProductIfAbove(int userIndex, double[] userSuffixNorms, int itemIndex, double threshold) {
+        final double[] norms = getItemSuffixNorms();
+        final int stride = userSuffixNorms.length;
+        final int userOffset = userIndex * numFeatures;
+        final int itemOffset = itemIndex * numFeatures;
+        //Margen para que los errores de redondeo de la cota no descarten productos que igualan el umbral.
+        final double slack = 1e-9 * (1 + Math.abs(threshold));
+
+        double dotProduct = 0;
+        for (int start = 0, b = 1; start < numFeatures; start += DOT_PRODUCT_BLOCK_SIZE, b++) {
+            final int end = Math.min(numFeatures, start + DOT_PRODUCT_BLOCK_SIZE);
+            for (int f = start; f < end; f++) {
+                dotProduct += userFactors[userOffset + f] * itemFactors[itemOffset + f];
+            }
+            if (dotProduct + userSuffixNorms[b] * norms[itemIndex * stride + b] < threshold - slack) {
+                return Double.NEGATIVE_INFINITY;
+            }
+        }
+        return dotProduct;
+    }
+}
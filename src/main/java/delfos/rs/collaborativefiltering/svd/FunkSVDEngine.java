@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.collaborativefiltering.svd;
+
+import delfos.common.exceptions.dataset.users.UserNotFound;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Motor de entrenamiento de la factorización de {@link TryThisAtHomeSVD}, que
+ * aprende las características una a una mediante descenso de gradiente
+ * (http://sifter.org/~simon/journal/20061211.html).
+ *
+ * <p>
+ * Las valoraciones se indexan una única vez en tres vectores paralelos (fila
+ * del usuario, fila del producto y valor), en orden de usuario y, dentro de
+ * cada usuario, de producto, salvo que se barajen con {@link #shuffle(long)}.
+ * Mientras se entrena una característica, las demás
+ * no cambian, por lo que para cada valoración se guarda la predicción sin la
+ * característica que se está entrenando. Así cada paso del descenso de
+ * gradiente sólo hace un producto, en lugar de recalcular el producto escalar
+ * completo.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class FunkSVDEngine {
+
+    /**
+     * Valor a partir del cual no se actualiza una característica, para evitar
+     * que diverja.
+     */
+    private static final double MAX_FEATURE_VALUE = 10E20;
+
+    private final DenseFactorsModel model;
+    private final int numFeatures;
+    private final double[] userFactors;
+    private final double[] itemFactors;
+
+    private final int[] ratingUsers;
+    private final int[] ratingItems;
+    private final double[] ratingValues;
+    /**
+     * Predicción de cada valoración sin la característica que se está
+     * entrenando, o con todas si no se está entrenando ninguna.
+     */
+    private final double[] cachedPredictions;
+
+    private int currentFeature = -1;
+
+    /**
+     * Indexa las valoraciones del dataset de los usuarios y productos del
+     * modelo.
+     *
+     * @param model Modelo con las características inicializadas, que se
+     * modifica durante el entrenamiento.
+     * @param ratingsDataset Valoraciones de entrenamiento.
+     * @param normalise Si la predicción se corrige con la valoración media del
+     * usuario y del producto, igual que en
+     * {@link TryThisAtHomeSVD#NORMALIZE_WITH_USER_MEAN}.
+     */
+    public FunkSVDEngine(DenseFactorsModel model, RatingsDataset<? extends Rating> ratingsDataset, boolean normalise) {
+        this.model = model;
+        this.numFeatures = model.getNumFeatures();
+        this.userFactors = model.getUserFactors();
+        this.itemFactors = model.getItemFactors();
+
+        final int[] userIds = model.getUserIds();
+        final RatingsVector[] userRatings = new RatingsVector[userIds.length];
+        int numRatings = 0;
+        for (int userIndex = 0; userIndex < userIds.length; userIndex++) {
+            try {
+                userRatings[userIndex] = ratingsDataset.getUserRatingsVector(userIds[userIndex]);
+            } catch (UserNotFound ex) {
+                userRatings[userIndex] = RatingsVector.EMPTY;
+            }
+            numRatings += userRatings[userIndex].size();
+        }
+
+        final double meanRating = normalise ? ratingsDataset.getMeanRating() : 0;
+        final double[] itemOffsets = new double[model.getNumItems()];
+        if (normalise) {
+            final int[] itemIds = model.getItemIds();
+            for (int itemIndex = 0; itemIndex < itemIds.length; itemIndex++) {
+                itemOffsets[itemIndex] = meanRating - ratingsDataset.getMeanRatingItem(itemIds[itemIndex]);
+            }
+        }
+
+        int[] users = new int[numRatings];
+        int[] items = new int[numRatings];
+        double[] values = new double[numRatings];
+        double[] predictions = new double[numRatings];
+
+        int r = 0;
+        for (int userIndex = 0; userIndex < userIds.length; userIndex++) {
+            final int[] idItems = userRatings[userIndex].getIds();
+            final double[] ratingValuesOfUser = userRatings[userIndex].getValues();
+            final double userOffset = normalise
+                    ? meanRating + meanRating - ratingsDataset.getMeanRatingUser(userIds[userIndex])
+                    : 0;
+
+            for (int i = 0; i < idItems.length; i++) {
+                final int itemIndex = model.itemIndex(idItems[i]);
+                if (itemIndex < 0) {
+                    continue;
+                }
+                users[r] = userIndex;
+                items[r] = itemIndex;
+                values[r] = ratingValuesOfUser[i];
+                predictions[r] = model.dotProduct(userIndex, itemIndex) + userOffset + itemOffsets[itemIndex];
+                r++;
+            }
+        }
+
+        if (r < numRatings) {
+            users = Arrays.copyOf(users, r);
+            items = Arrays.copyOf(items, r);
+            values = Arrays.copyOf(values, r);
+            predictions = Arrays.copyOf(predictions, r);
+        }
+
+        this.ratingUsers = users;
+        this.ratingItems = items;
+        this.ratingValues = values;
+        this.cachedPredictions = predictions;
+    }
+
+    public DenseFactorsModel getModel() {
+        return model;
+    }
+
+    public int getNumRatings() {
+        return ratingValues.length;
+    }
+
+    /**
+     * Comienza el entrenamiento de una característica, quitándola de las
+     * predicciones guardadas. Si se estaba entrenando otra, se termina antes.
+     *
+     * @param feature Característica que se entrena.
+     */
+    public void startFeature(int feature) {
+        if (feature < 0 || feature >= numFeatures) {
+            throw new IllegalArgumentException("Feature " + feature + " out of range [0," + numFeatures + ").");
+        }
+        if (currentFeature >= 0) {
+            finishFeature();
+        }
+        for (int r = 0; r < cachedPredictions.length; r++) {
+            cachedPredictions[r] -= userFactors[ratingUsers[r] * numFeatures + feature]
+                    * itemFactors[ratingItems[r] * numFeatures + feature];
+        }
+        currentFeature = feature;
+    }
+
+    /**
+     * Recorre todas las valoraciones una vez, actualizando la característica
+     * que se está entrenando.
+     *
+     * @param learningRate Velocidad de aprendizaje.
+     * @param k Penalización de los valores grandes de las características.
+     * @return Error absoluto medio de las predicciones antes de cada
+     * actualización.
+     */
+    public double iterate(double learningRate, double k) {
+        checkFeatureStarted();
+        final double sumOfAbsoluteErrors = iterate(currentFeature, 0, ratingValues.length, learningRate, k);
+
+        return ratingValues.length == 0 ? 0 : sumOfAbsoluteErrors / ratingValues.length;
+    }
+
+    /**
+     * Recorre todas las valoraciones una vez repartidas en bloques contiguos
+     * entre las hebras del ejecutor, que actualizan las características sin
+     * sincronización (Hogwild!). Como cada valoración sólo la procesa una
+     * hebra, las predicciones guardadas no se comparten; las características
+     * de un usuario o producto sí, y las actualizaciones concurrentes se
+     * pueden perder, lo que apenas afecta a la convergencia en matrices
+     * dispersas. Con una hebra el resultado es el mismo que
+     * {@link #iterate(double, double)}.
+     *
+     * @param learningRate Velocidad de aprendizaje.
+     * @param k Penalización de los valores grandes de las características.
+     * @param executor Ejecutor con el que se lanzan los bloques.
+     * @param numPartitions Número de bloques en que se dividen las
+     * valoraciones, normalmente el número de hebras del ejecutor.
+     * @return Error absoluto medio de las predicciones antes de cada
+     * actualización.
+     */
+    public double iterate(double learningRate, double k, ExecutorService executor, int numPartitions) {
+        checkFeatureStarted();
+        if (numPartitions <= 1) {
+            return iterate(learningRate, k);
+        }
+        final int feature = currentFeature;
+        final int numRatings = ratingValues.length;
+
+        List<Future<Double>> partitions = new ArrayList<>(numPartitions);
+        for (int partition = 0; partition < numPartitions; partition++) {
+            final int from = (int) ((long) numRatings * partition / numPartitions);
+            final int to = (int) ((long) numRatings * (partition + 1) / numPartitions);
+            partitions.add(executor.submit(() -> iterate(feature, from, to, learningRate, k)));
+        }
+
+        double sumOfAbsoluteErrors = 0;
+        for (Future<Double> partition : partitions) {
+            try {
+                sumOfAbsoluteErrors += partition.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        return numRatings == 0 ? 0 : sumOfAbsoluteErrors / numRatings;
+    }
+
+    private void checkFeatureStarted() {
+        if (currentFeature < 0) {
+            throw new IllegalStateException("No feature is being trained, call startFeature first.");
+        }
+    }
+
+    /**
+     * Actualiza la característica con las valoraciones en [from, to).
+     *
+     * @return Suma de los errores absolutos.
+     */
+    private double iterate(int feature, int from, int to, double learningRate, double k) {
+        double sumOfAbsoluteErrors = 0;
+
+        for (int r = from; r < to; r++) {
+            final int userPosition = ratingUsers[r] * numFeatures + feature;
+            final int itemPosition = ratingItems[r] * numFeatures + feature;
+            final double userValue = userFactors[userPosition];
+            final double itemValue = itemFactors[itemPosition];
+
+            final double error = ratingValues[r] - (cachedPredictions[r] + userValue * itemValue);
+            sumOfAbsoluteErrors += Math.abs(error);
+
+            final double newUserValue = userValue + learningRate * (error * itemValue - k * userValue);
+            final double newItemValue = itemValue + learningRate * (error * userValue - k * itemValue);
+
+            if (Double.isInfinite(newUserValue) || Double.isInfinite(newItemValue)) {
+                throw new IllegalStateException("Los valores nuevos son erroneos");
+            }
+            //compruebo que los valores convergen a un valor bajo
+            if (!(newUserValue > MAX_FEATURE_VALUE || newUserValue < -MAX_FEATURE_VALUE)) {
+                userFactors[userPosition] = newUserValue;
+            }
+            if (!(newItemValue > MAX_FEATURE_VALUE || newItemValue < -MAX_FEATURE_VALUE)) {
+                itemFactors[itemPosition] = newItemValue;
+            }
+        }
+
+        return sumOfAbsoluteErrors;
+    }
+
+    /**
+     * Baraja el orden en que se recorren las valoraciones. Con la misma
+     * semilla el orden es siempre el mismo.
+     *
+     * @param seed Semilla del generador de números aleatorios.
+     */
+    public void shuffle(long seed) {
+        Random random = new Random(seed);
+        for (int r = ratingValues.length - 1; r > 0; r--) {
+            final int other = random.nextInt(r + 1);
+            swap(ratingUsers, r, other);
+            swap(ratingItems, r, other);
+            swap(ratingValues, r, other);
+            swap(cachedPredictions, r, other);
+        }
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int aux = array[i];
+        array[i] = array[j];
+        array[j] = aux;
+    }
+
+    private static void swap(double[] array, int i, int j) {
+        double aux = array[i];
+        array[i] = array[j];
+        array[j] = aux;
+    }
+
+    /**
+     * Termina el entrenamiento de la característica actual, volviendo a
+     * sumarla a las predicciones guardadas.
+     */
+    public void finishFeature() {
+        if (currentFeature < 0) {
+            return;
+        }
+        final int feature = currentFeature;
+        for (int r = 0; r < cachedPredictions.length; r++) {
+            cachedPredictions[r] += userFactors[ratingUsers[r] * numFeatures + feature]
+                    * itemFactors[ratingItems[r] * numFeatures + feature];
+        }
+        currentFeature = -1;
+    }
+}
@@ -34,17 +34,24 @@ import delfos.dataset.basic.item.Item;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.user.User;
 import delfos.experiment.SeedHolder;
 import delfos.rs.collaborativefiltering.CollaborativeRecommender;
 import delfos.rs.persistence.DatabasePersistence;
 import delfos.rs.persistence.FailureInPersistence;
 import delfos.rs.persistence.database.DAOTryThisAtHomeDatabaseModel;
 import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.RecommendationsToUser;
+import delfos.rs.recommendation.TopNRecommendations;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -59,6 +66,7 @@ import java.util.stream.Collectors;
  * @version 1.0 Unknown date
  * @version 1.1 (Unknown date) Añadido parámetro para controlar la inicialización inteligente.
  * @version 1.2 (28 de Febrero de 2013)
+ * @version 1.3 (18-oct-2026) Entrenamiento con {@link FunkSVDEngine}.
  */
 public class TryThisAtHomeSVD
         extends CollaborativeRecommender<TryThisAtHomeSVDModel>
@@ -97,6 +105,17 @@ public class TryThisAtHomeSVD
      * Parámetro para penalizar valores grandes de las características.
      */
     public static final Parameter K = new Parameter("K", new DoubleParameter(0.0001f, 1f, 0.02f), "Parámetro para penalizar valores grandes de las características.");
+    /**
+     * Parámetro para indicar si las iteraciones se reparten entre varias hebras que actualizan las características sin
+     * sincronización (Hogwild!). Las valoraciones se barajan con la semilla del sistema y se usan tantas hebras como
+     * indique {@link #PARALLEL_TRAINING_THREADS}; con una sola hebra el resultado es reproducible.
+     */
+    public static final Parameter PARALLEL_TRAINING = new Parameter("Parallel_training", new BooleanParameter(Boolean.FALSE));
+    /**
+     * Número de hebras del entrenamiento en paralelo. Con el valor 0 se usan tantas hebras como procesadores tenga la
+     * máquina.
+     */
+    public static final Parameter PARALLEL_TRAINING_THREADS = new Parameter("Parallel_training_threads", new IntegerParameter(0, 1024, 0));
 
     /**
      * Constructor por defecto, que añade los parámetros del sistema de recomendación.
@@ -111,6 +130,8 @@ public class TryThisAtHomeSVD
         addParameter(NORMALIZE_WITH_USER_MEAN);
         addParameter(SMART_INITIALISATION);
         addParameter(PREDICT_IN_RATING_RANGE);
+        addParameter(PARALLEL_TRAINING);
+        addParameter(PARALLEL_TRAINING_THREADS);
     }
 
     /**
@@ -165,66 +186,37 @@ public class TryThisAtHomeSVD
         final double maxInitialisation = (double) Math.sqrt(ratingsDataset.getRatingsDomain().max().doubleValue() / numFeatures);
         final double minInitialisation = (double) Math.sqrt(ratingsDataset.getRatingsDomain().min().doubleValue() / numFeatures);
 
-        final TreeMap<Integer, Integer> itemsIndex = new TreeMap<>();
-        final TreeMap<Integer, Integer> usersIndex = new TreeMap<>();
-        int index = 0;
-        for (int idItem : ratingsDataset.allRatedItems()) {
-            itemsIndex.put(idItem, index);
-            index++;
-        }
+        final int[] userIds = ratingsDataset.allUsers().stream().mapToInt(idUser -> idUser).sorted().toArray();
+        final int[] itemIds = ratingsDataset.allRatedItems().stream().mapToInt(idItem -> idItem).sorted().toArray();
 
-        index = 0;
-        for (int idUser : ratingsDataset.allUsers()) {
-            usersIndex.put(idUser, index);
-            index++;
-        }
-
-        final int users = usersIndex.size();
-        final int items = itemsIndex.size();
-
-        List<List<Double>> usersFeatures = new ArrayList<>(users);
-        List<List<Double>> itemsFeatures = new ArrayList<>(items);
-
-        for (int i = 0; i < users; i++) {
-            usersFeatures.add(new ArrayList<>(numFeatures));
-            for (int j = 0; j < numFeatures; j++) {
-                usersFeatures.get(i).add(null);
-            }
-        }
-        for (int i = 0; i < items; i++) {
-            itemsFeatures.add(new ArrayList<>(numFeatures));
-            for (int j = 0; j < numFeatures; j++) {
-                itemsFeatures.get(i).add(null);
-            }
-        }
+        final DenseFactorsModel factors = new DenseFactorsModel(userIds, itemIds, numFeatures);
+        final double[] usersFeatures = factors.getUserFactors();
+        final double[] itemsFeatures = factors.getItemFactors();
 
         if ((Boolean) getParameterValue(SMART_INITIALISATION)) {
             Random random = new Random(getSeedValue());
-            for (int i = 0; i < users; i++) {
-                for (int j = 0; j < numFeatures; j++) {
-                    long seed = random.nextLong();
-                    double initValue = getInitialisation(maxInitialisation, minInitialisation, seed);
-                    usersFeatures.get(i).set(j, initValue);
-                }
+            for (int i = 0; i < usersFeatures.length; i++) {
+                long seed = random.nextLong();
+                usersFeatures[i] = getInitialisation(maxInitialisation, minInitialisation, seed);
             }
-            for (int i = 0; i < items; i++) {
-                for (int j = 0; j < numFeatures; j++) {
-                    long seed = random.nextLong();
-                    double initValue = getInitialisation(maxInitialisation, minInitialisation, seed);
-                    itemsFeatures.get(i).set(j, initValue);
-                }
+            for (int i = 0; i < itemsFeatures.length; i++) {
+                long seed = random.nextLong();
+                itemsFeatures[i] = getInitialisation(maxInitialisation, minInitialisation, seed);
             }
         } else {
-            for (int i = 0; i < users; i++) {
-                for (int j = 0; j < numFeatures; j++) {
-                    usersFeatures.get(i).set(j, 0.01);
-                }
-            }
-            for (int i = 0; i < items; i++) {
-                for (int j = 0; j < numFeatures; j++) {
-                    itemsFeatures.get(i).set(j, 0.01);
-                }
-            }
+            Arrays.fill(usersFeatures, 0.01);
+            Arrays.fill(itemsFeatures, 0.01);
+        }
+
+        final FunkSVDEngine engine = new FunkSVDEngine(factors, ratingsDataset, normalise);
+
+        final int numThreads = isParallelTraining() ? getParallelTrainingThreads() : 1;
+        final ExecutorService executor;
+        if (isParallelTraining()) {
+            engine.shuffle(getSeedValue());
+            executor = Executors.newFixedThreadPool(numThreads);
+        } else {
+            executor = null;
         }
 
         MeanIterative tiempoCiclo = new MeanIterative(20);
@@ -232,73 +224,42 @@ public class TryThisAtHomeSVD
 
         Global.showInfoMessage("Feature\tIteration\tMAE\tThe error has improved" + "\n");
 
-        /**
-         * Modelo que se entrena a continuación.
-         */
-        TryThisAtHomeSVDModel model = new TryThisAtHomeSVDModel(usersFeatures, usersIndex, itemsFeatures, itemsIndex);
-
         double maeAnterior = 0;
-        for (int indexFeature = 0; indexFeature < numFeatures; indexFeature++) {
-
-            Chronometer c = new Chronometer();
-            for (int iteration = 0; iteration < numIterationsPerFeature; iteration++) {
-
-                c.reset();
-                MeanIterative meanAbsoluteError = new MeanIterative();
-                for (Rating rating : ratingsDataset) {
-                    int idUser = rating.getIdUser();
-                    int idItem = rating.getIdItem();
-                    Integer indexUser = usersIndex.get(rating.getIdUser());
-                    Integer indexItem = itemsIndex.get(rating.getIdItem());
-
-                    double predicted;
-                    double ratingValue = rating.getRatingValue().doubleValue();
-                    double error = 0;
-                    try {
-                        predicted = privatePredictRating(datasetLoader, model, idUser, idItem);
-                        error = (ratingValue - predicted);
-                    } catch (NotEnoughtUserInformation | NotEnoughtItemInformation | UserNotFound | ItemNotFound ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                    meanAbsoluteError.addValue(Math.abs(error));
-
-                    double getUser = usersFeatures.get(indexUser).get(indexFeature);
-                    double getItem = itemsFeatures.get(indexItem).get(indexFeature);
-
-                    double updateUserValue = (error * getItem - Kvalue * getUser);
-                    double updateItemValue = (error * getUser - Kvalue * getItem);
-
-                    double newUserValue = getUser + lrate * updateUserValue;
-                    double newItemValue = getItem + lrate * updateItemValue;
-                    if (Double.isInfinite(newUserValue) || Double.isInfinite(newItemValue)) {
-                        throw new IllegalStateException("Los valores nuevos son erroneos");
-                    } else {
-                        //compruebo que los valores convergen a un valor bajo
-                        if (!(newUserValue > 10E20 || newUserValue < -10E20)) {
-                            usersFeatures.get(indexUser).set(indexFeature, newUserValue);
-                        }
-
-                        //compruebo que los valores convergen a un valor bajo
-                        if (!(newItemValue > 10E20 || newItemValue < -10E20)) {
-                            itemsFeatures.get(indexItem).set(indexFeature, newItemValue);
-                        }
-                    }
-                }
+        try {
+            for (int indexFeature = 0; indexFeature < numFeatures; indexFeature++) {
 
-                long diff = c.getPartialElapsed();
+                engine.startFeature(indexFeature);
+                Chronometer c = new Chronometer();
+                for (int iteration = 0; iteration < numIterationsPerFeature; iteration++) {
 
-                tiempoCiclo.addValue(diff);
+                    c.reset();
+                    double meanAbsoluteError = executor == null
+                            ? engine.iterate(lrate, Kvalue)
+                            : engine.iterate(lrate, Kvalue, executor, numThreads);
 
-                Global.showInfoMessage(indexFeature + "\t" + iteration + "\t" + String.format("%.8f", meanAbsoluteError.getMean()) + "\t" + String.format("%.8f", (maeAnterior - meanAbsoluteError.getMean())) + "\t time: " + DateCollapse.collapse(diff) + "\n");
-                maeAnterior = meanAbsoluteError.getMean();
-                int totalIteraciones = numFeatures * numIterationsPerFeature;
-                int iterActual = indexFeature * numIterationsPerFeature + iteration + 1;
+                    long diff = c.getPartialElapsed();
+                    long ratingsPerSecond = engine.getNumRatings() * 1000L / Math.max(1, diff);
 
-                long tiempoRestante = (long) (tiempoCiclo.getMean() * (totalIteraciones - iterActual));
-                fireBuildingProgressChangedEvent("Training features values", ((indexFeature * numIterationsPerFeature + (iteration + 1)) * 90 / (numFeatures * numIterationsPerFeature)) + 10, tiempoRestante);
+                    tiempoCiclo.addValue(diff);
+
+                    Global.showInfoMessage(indexFeature + "\t" + iteration + "\t" + String.format("%.8f", meanAbsoluteError) + "\t" + String.format("%.8f", (maeAnterior - meanAbsoluteError)) + "\t time: " + DateCollapse.collapse(diff) + "\n");
+                    maeAnterior = meanAbsoluteError;
+                    int totalIteraciones = numFeatures * numIterationsPerFeature;
+                    int iterActual = indexFeature * numIterationsPerFeature + iteration + 1;
+
+                    long tiempoRestante = (long) (tiempoCiclo.getMean() * (totalIteraciones - iterActual));
+                    fireBuildingProgressChangedEvent("Training features values (" + ratingsPerSecond + " ratings/s, " + numThreads + " threads)", ((indexFeature * numIterationsPerFeature + (iteration + 1)) * 90 / (numFeatures * numIterationsPerFeature)) + 10, tiempoRestante);
+                }
+                engine.finishFeature();
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
             }
         }
 
+        TryThisAtHomeSVDModel model = new TryThisAtHomeSVDModel(factors);
+
         if (Global.isVerboseAnnoying()) {
 
             Global.showInfoMessage("=======================================\n");
@@ -413,6 +374,83 @@ public class TryThisAtHomeSVD
         return ret;
     }
 
+    /**
+     * Recomienda los <i>n</i> mejores productos calculando los productos
+     * escalares por bloques de características, y descartando cada producto
+     * en cuanto una cota de su predicción queda por debajo de la peor de las
+     * <i>n</i> recomendaciones seleccionadas hasta el momento (ver
+     * {@link DenseFactorsModel#dotProductIfAbove(int, double[], int, double)}).
+     * Las predicciones de los productos seleccionados son las mismas que las de
+     * {@link #recommendToUser(delfos.dataset.basic.loader.types.DatasetLoader, delfos.rs.collaborativefiltering.svd.TryThisAtHomeSVDModel, java.lang.Integer, java.util.Set)}.
+     */
+    @Override
+    public RecommendationsToUser recommendTopN(
+            DatasetLoader<? extends Rating> datasetLoader, TryThisAtHomeSVDModel model, User user, Set<Item> candidateItems, int n) {
+        if (model == null) {
+            throw new IllegalArgumentException("SVD recommendation model is null.");
+        }
+
+        DenseFactorsModel factors = model.getDenseFactorsModel();
+        if (n <= 0 || factors.getNumFeatures() != getNumFeatures()) {
+            return super.recommendTopN(datasetLoader, model, user, candidateItems, n);
+        }
+
+        final int idUser = user.getId();
+        final int userIndex = factors.userIndex(idUser);
+        if (userIndex < 0) {
+            Global.showWarning("SVD recommendation model does not contains the user (" + idUser + "): Returning empty list.");
+            return new RecommendationsToUser(user, Collections.emptyList());
+        }
+
+        final boolean toRatingRange = (Boolean) getParameterValue(PREDICT_IN_RATING_RANGE);
+        final double minRating = datasetLoader.getRatingsDataset().getRatingsDomain().min().doubleValue();
+        final boolean normalised = isNormalised();
+        final RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+        final double meanRating = normalised ? ratingsDataset.getMeanRating() : 0;
+        final double meanRatingUser = normalised ? meanRating - ratingsDataset.getMeanRatingUser(idUser) : 0;
+
+        final double[] userSuffixNorms = factors.userSuffixNorms(userIndex);
+        TopNRecommendations topN = new TopNRecommendations(n);
+
+        for (Item item : candidateItems) {
+            final int idItem = item.getId();
+            final int itemIndex = factors.itemIndex(idItem);
+            if (itemIndex < 0) {
+                model.warningItemNotInModel(
+                        idItem,
+                        "SVD recommendation model does not contains the item (" + idItem + ").",
+                        new NotEnoughtItemInformation("SVD recommendation model does not contains the item."));
+                topN.add(new Recommendation(item, Double.NaN));
+                continue;
+            }
+
+            final double meanRatingItem = normalised ? meanRating - ratingsDataset.getMeanRatingItem(idItem) : 0;
+            final double offset = normalised ? meanRating + meanRatingUser + meanRatingItem : 0;
+
+            double threshold = topN.getThreshold();
+            if (toRatingRange && threshold <= minRating) {
+                //Las predicciones se truncan al mínimo, por lo que una cota inferior a él no permite descartar.
+                threshold = Double.NEGATIVE_INFINITY;
+            }
+
+            double dotProduct = factors.dotProductIfAbove(userIndex, userSuffixNorms, itemIndex, threshold - offset);
+            if (dotProduct == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+
+            Number prediction = dotProduct;
+            if (normalised) {
+                prediction = dotProduct + meanRating + meanRatingUser + meanRatingItem;
+            }
+            if (toRatingRange) {
+                prediction = toRatingRange(datasetLoader, prediction);
+            }
+            topN.add(new Recommendation(item, prediction));
+        }
+
+        return new RecommendationsToUser(user, topN.toList());
+    }
+
     @Override
     public final void setSeedValue(long seedValue) {
         setParameterValue(SEED, seedValue);
@@ -435,6 +473,15 @@ public class TryThisAtHomeSVD
         return ((Number) getParameterValue(LEARNING_RATE)).doubleValue();
     }
 
+    protected final boolean isParallelTraining() {
+        return (Boolean) getParameterValue(PARALLEL_TRAINING);
+    }
+
+    protected final int getParallelTrainingThreads() {
+        int numThreads = (Integer) getParameterValue(PARALLEL_TRAINING_THREADS);
+        return numThreads == 0 ? Runtime.getRuntime().availableProcessors() : numThreads;
+    }
+
     protected final int getNumIterPerFeature() {
         return (Integer) getParameterValue(NUM_ITER_PER_FEATURE);
     }
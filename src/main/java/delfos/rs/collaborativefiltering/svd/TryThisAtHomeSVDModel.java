@@ -38,6 +38,7 @@ import java.util.stream.IntStream;
  *
  * @version 1.0 Unknow date.
  * @version 1.1 08-Julio-2013 Completada la documentación de clase.
+ * @version 1.2 18-oct-2026 Conversión desde y hacia {@link DenseFactorsModel}.
  */
 public class TryThisAtHomeSVDModel implements Serializable {
 
@@ -63,6 +64,10 @@ public class TryThisAtHomeSVDModel implements Serializable {
      */
     private Map<Integer, Integer> _usersIndex;
     private Bias bias;
+    /**
+     * Formato compacto del modelo, que se calcula la primera vez que se usa.
+     */
+    private transient volatile DenseFactorsModel denseFactorsModel = null;
 
     /**
      * Crea el modelo a partir de las matrices de características para los usuarios y productos.
@@ -145,6 +150,91 @@ public class TryThisAtHomeSVDModel implements Serializable {
 
     }
 
+    /**
+     * Crea el modelo a partir de su formato compacto.
+     *
+     * @param denseFactorsModel Modelo compacto.
+     */
+    public TryThisAtHomeSVDModel(DenseFactorsModel denseFactorsModel) {
+        this._usersIndex = rowsIndex(denseFactorsModel.getUserIds());
+        this._userFeatures = rows(denseFactorsModel.getUserFactors(), denseFactorsModel.getNumUsers(), denseFactorsModel.getNumFeatures());
+
+        this._itemsIndex = rowsIndex(denseFactorsModel.getItemIds());
+        this._itemFeatures = rows(denseFactorsModel.getItemFactors(), denseFactorsModel.getNumItems(), denseFactorsModel.getNumFeatures());
+
+        this.bias = denseFactorsModel.getBias();
+    }
+
+    private static TreeMap<Integer, Integer> rowsIndex(int[] ids) {
+        TreeMap<Integer, Integer> index = new TreeMap<>();
+        for (int row = 0; row < ids.length; row++) {
+            index.put(ids[row], row);
+        }
+        return index;
+    }
+
+    private static List<List<Double>> rows(double[] matrix, int numRows, int numFeatures) {
+        List<List<Double>> rows = new ArrayList<>(numRows);
+        for (int row = 0; row < numRows; row++) {
+            List<Double> features = new ArrayList<>(numFeatures);
+            for (int f = 0; f < numFeatures; f++) {
+                features.add(matrix[row * numFeatures + f]);
+            }
+            rows.add(features);
+        }
+        return rows;
+    }
+
+    /**
+     * Convierte el modelo a su formato compacto, con los usuarios y productos
+     * ordenados por id.
+     *
+     * @return Modelo compacto.
+     */
+    public DenseFactorsModel toDenseFactorsModel() {
+        int numFeatures = !_userFeatures.isEmpty()
+                ? _userFeatures.get(0).size()
+                : _itemFeatures.get(0).size();
+
+        int[] userIds = _usersIndex.keySet().stream().mapToInt(id -> id).sorted().toArray();
+        int[] itemIds = _itemsIndex.keySet().stream().mapToInt(id -> id).sorted().toArray();
+
+        return new DenseFactorsModel(
+                userIds, itemIds, numFeatures,
+                matrix(userIds, _usersIndex, _userFeatures, numFeatures),
+                matrix(itemIds, _itemsIndex, _itemFeatures, numFeatures),
+                bias);
+    }
+
+    /**
+     * Devuelve el modelo en su formato compacto, que se calcula una sola vez.
+     * No se debe modificar.
+     *
+     * @return Modelo compacto.
+     */
+    public DenseFactorsModel getDenseFactorsModel() {
+        DenseFactorsModel dense = denseFactorsModel;
+        if (dense == null) {
+            dense = toDenseFactorsModel();
+            denseFactorsModel = dense;
+        }
+        return dense;
+    }
+
+    private static double[] matrix(int[] ids, Map<Integer, Integer> index, List<List<Double>> features, int numFeatures) {
+        double[] matrix = new double[ids.length * numFeatures];
+        for (int row = 0; row < ids.length; row++) {
+            List<Double> rowFeatures = features.get(index.get(ids[row]));
+            if (rowFeatures.size() != numFeatures) {
+                throw new IllegalArgumentException("The model have different number of features for id " + ids[row] + ".");
+            }
+            for (int f = 0; f < numFeatures; f++) {
+                matrix[row * numFeatures + f] = rowFeatures.get(f);
+            }
+        }
+        return matrix;
+    }
+
     /**
      * Índice que indica en qué fila de la matriz de características de los usuarios están las características de un
      * usuario.
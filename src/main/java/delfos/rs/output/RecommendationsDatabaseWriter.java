@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.output;
+
+import delfos.databaseconnections.ConnectionPool;
+import delfos.rs.recommendation.Recommendation;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Escribe las recomendaciones de {@link RecommendationsOutputDatabase} por
+ * lotes de usuarios. Las recomendaciones de cada lote se escriben en una
+ * transacción, borrando las anteriores de los usuarios con un lote JDBC de
+ * sentencias <code>DELETE</code> e insertándolas con sentencias
+ * <code>INSERT</code> de varias filas, también en lotes JDBC. La tabla se crea
+ * una sola vez, antes del primer lote.
+ *
+ * <p>
+ * Si es asíncrono, las recomendaciones se pasan por una cola acotada a un hilo
+ * que escribe en la base de datos, de forma que el cálculo y la escritura se
+ * solapan. Los errores del hilo se lanzan en la siguiente llamada.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+final class RecommendationsDatabaseWriter {
+
+    /**
+     * Número máximo de filas de cada sentencia <code>INSERT</code>.
+     */
+    static final int ROWS_PER_INSERT = 100;
+
+    private final ConnectionPool connectionPool;
+    private final String tableName;
+    private final String idTargetField;
+    private final String idItemField;
+    private final String preferenceField;
+    private final String recommenderField;
+    private final String recommenderValue;
+    private final int batchSize;
+
+    private final String deleteSql;
+    private final List<PendingTarget> pending = new ArrayList<>();
+    private boolean tableCreated = false;
+
+    private final BlockingQueue<Object> queue;
+    private final Thread writerThread;
+    private volatile SQLException failure = null;
+
+    RecommendationsDatabaseWriter(
+            ConnectionPool connectionPool,
+            String tableName,
+            String idTargetField,
+            String idItemField,
+            String preferenceField,
+            String recommenderField,
+            String recommenderValue,
+            int batchSize,
+            boolean asynchronous) {
+        this.connectionPool = connectionPool;
+        this.tableName = tableName;
+        this.idTargetField = idTargetField;
+        this.idItemField = idItemField;
+        this.preferenceField = preferenceField;
+        this.recommenderField = recommenderField;
+        this.recommenderValue = recommenderValue;
+        this.batchSize = batchSize;
+
+        this.deleteSql = "DELETE FROM " + tableName + " WHERE " + idTargetField + " = ? AND " + recommenderField + " = ?";
+
+        if (asynchronous) {
+            queue = new ArrayBlockingQueue<>(2 * batchSize);
+            writerThread = new Thread(this::writeQueued, "recommendations database writer " + tableName);
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } else {
+            queue = null;
+            writerThread = null;
+        }
+    }
+
+    String getCreateTableSql() {
+        return "CREATE TABLE IF NOT EXISTS " + tableName + " (\n"
+                + idTargetField + " varchar(45) NOT NULL,\n"
+                + idItemField + " int(11) NOT NULL,\n"
+                + preferenceField + " double NOT NULL,\n"
+                + recommenderField + " varchar(45) NOT NULL,\n"
+                + "  id int(11) NOT NULL AUTO_INCREMENT,\n"
+                + "  PRIMARY KEY (id),\n"
+                + "  KEY " + tableName + "_target (" + idTargetField + ", " + recommenderField + ")\n"
+                + ") ENGINE=InnoDB DEFAULT CHARSET=utf8 AUTO_INCREMENT=1;";
+    }
+
+    String getInsertSql(int numRows) {
+        StringBuilder insert = new StringBuilder();
+        insert.append("INSERT INTO ").append(tableName)
+                .append(" (").append(idTargetField).append(", ").append(idItemField)
+                .append(", ").append(preferenceField).append(", ").append(recommenderField)
+                .append(") VALUES ");
+        for (int row = 0; row < numRows; row++) {
+            insert.append(row == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        return insert.toString();
+    }
+
+    /**
+     * Añade las recomendaciones de un usuario o grupo, que sustituyen a las
+     * que tuviera. Se escriben cuando se completa el lote o al llamar a
+     * {@link #flush()}.
+     *
+     * @param targetIdentifier Identificador del usuario o grupo.
+     * @param recommendations Recomendaciones a escribir.
+     * @throws SQLException Si falla la escritura de este lote o, si es
+     * asíncrono, de uno anterior.
+     */
+    void write(String targetIdentifier, List<Recommendation> recommendations) throws SQLException {
+        PendingTarget target = new PendingTarget(targetIdentifier, recommendations);
+        if (queue == null) {
+            add(target);
+        } else {
+            throwFailure();
+            try {
+                queue.put(target);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting to write recommendations", ex);
+            }
+        }
+    }
+
+    /**
+     * Escribe las recomendaciones pendientes y, si es asíncrono, espera a que
+     * el hilo de escritura las haya escrito.
+     *
+     * @throws SQLException Si falla la escritura.
+     */
+    void flush() throws SQLException {
+        if (queue == null) {
+            writePending();
+        } else {
+            CountDownLatch flushed = new CountDownLatch(1);
+            try {
+                queue.put(flushed);
+                flushed.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting to write recommendations", ex);
+            }
+            throwFailure();
+        }
+    }
+
+    private void throwFailure() throws SQLException {
+        SQLException ex = failure;
+        if (ex != null) {
+            failure = null;
+            throw ex;
+        }
+    }
+
+    private void add(PendingTarget target) throws SQLException {
+        pending.add(target);
+        if (pending.size() >= batchSize) {
+            writePending();
+        }
+    }
+
+    private void writeQueued() {
+        while (true) {
+            Object next;
+            try {
+                next = queue.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            try {
+                if (next instanceof PendingTarget) {
+                    add((PendingTarget) next);
+                } else {
+                    writePending();
+                }
+            } catch (SQLException ex) {
+                failure = ex;
+            } finally {
+                if (next instanceof CountDownLatch) {
+                    ((CountDownLatch) next).countDown();
+                }
+            }
+        }
+    }
+
+    private void writePending() throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PendingTarget> batch = new ArrayList<>(pending);
+        pending.clear();
+
+        try (ConnectionPool.Lease lease = connectionPool.borrow()) {
+            Connection connection = lease.getConnection();
+            try {
+                if (!tableCreated) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute(getCreateTableSql());
+                    }
+                    tableCreated = true;
+                }
+
+                connection.setAutoCommit(false);
+                writeBatch(lease, batch);
+                connection.commit();
+                connection.setAutoCommit(true);
+            } catch (SQLException ex) {
+                lease.markBroken();
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackFailure) {
+                    ex.addSuppressed(rollbackFailure);
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private void writeBatch(ConnectionPool.Lease lease, List<PendingTarget> batch) throws SQLException {
+        PreparedStatement delete = lease.prepareStatement(deleteSql);
+        for (PendingTarget target : batch) {
+            delete.setString(1, target.targetIdentifier);
+            delete.setString(2, recommenderValue);
+            delete.addBatch();
+        }
+        delete.executeBatch();
+
+        List<Row> rows = new ArrayList<>();
+        for (PendingTarget target : batch) {
+            for (Recommendation recommendation : target.recommendations) {
+                rows.add(new Row(target.targetIdentifier, recommendation));
+            }
+        }
+
+        int numFullInserts = rows.size() / ROWS_PER_INSERT;
+        if (numFullInserts > 0) {
+            PreparedStatement insert = lease.prepareStatement(getInsertSql(ROWS_PER_INSERT));
+            for (int i = 0; i < numFullInserts; i++) {
+                setRows(insert, rows.subList(i * ROWS_PER_INSERT, (i + 1) * ROWS_PER_INSERT));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        List<Row> remaining = rows.subList(numFullInserts * ROWS_PER_INSERT, rows.size());
+        if (!remaining.isEmpty()) {
+            PreparedStatement insert = lease.prepareStatement(getInsertSql(remaining.size()));
+            setRows(insert, remaining);
+            insert.executeUpdate();
+        }
+    }
+
+    private void setRows(PreparedStatement insert, List<Row> rows) throws SQLException {
+        int index = 1;
+        for (Row row : rows) {
+            insert.setString(index++, row.targetIdentifier);
+            insert.setInt(index++, row.recommendation.getItem().getId());
+            insert.setDouble(index++, row.recommendation.getPreference().doubleValue());
+            insert.setString(index++, recommenderValue);
+        }
+    }
+
+    private static class PendingTarget {
+
+        private final String targetIdentifier;
+        private final List<Recommendation> recommendations;
+
+        private PendingTarget(String targetIdentifier, List<Recommendation> recommendations) {
+            this.targetIdentifier = targetIdentifier;
+            this.recommendations = Collections.unmodifiableList(new ArrayList<>(recommendations));
+        }
+    }
+
+    private static class Row {
+
+        private final String targetIdentifier;
+        private final Recommendation recommendation;
+
+        private Row(String targetIdentifier, Recommendation recommendation) {
+            this.targetIdentifier = targetIdentifier;
+            this.recommendation = recommendation;
+        }
+    }
+}
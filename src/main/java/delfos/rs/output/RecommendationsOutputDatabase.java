@@ -19,22 +19,23 @@ package delfos.rs.output;
 import delfos.ERROR_CODES;
 import delfos.common.Global;
 import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.BooleanParameter;
 import delfos.common.parameters.restriction.IntegerParameter;
 import delfos.common.parameters.restriction.PasswordParameter;
 import delfos.common.parameters.restriction.StringParameter;
+import delfos.databaseconnections.ConnectionPool;
 import delfos.databaseconnections.DatabaseConection;
 import delfos.databaseconnections.MySQLConnection;
 import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.Recommendations;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * Escribe las recomendaciones en una tabla de base de datos MySQL.
+ * Escribe las recomendaciones en una tabla de base de datos MySQL. Las
+ * recomendaciones de cada usuario sustituyen a las que tuviera, y se escriben
+ * por lotes de {@link #BATCH_SIZE} usuarios en una transacción.
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  *
@@ -89,6 +90,20 @@ public class RecommendationsOutputDatabase extends RecommendationsOutputMethod {
      * Valor que se introduce como nombre de sistema de recomendación.
      */
     public static final Parameter TABLE_FIELD_RECOMMENDER_VALUE = new Parameter("Table_RecommenderValue", new StringParameter("recommender"));
+    /**
+     * Número de usuarios cuyas recomendaciones se escriben en cada transacción.
+     * Con más de uno, las recomendaciones se retienen hasta completar el lote o
+     * hasta que se llama a {@link #flush()}.
+     */
+    public static final Parameter BATCH_SIZE = new Parameter("Batch_Size", new IntegerParameter(1, 100000, 1));
+    /**
+     * Escribe las recomendaciones en un hilo aparte, para solapar su cálculo
+     * con la escritura en la base de datos.
+     */
+    public static final Parameter ASYNCHRONOUS = new Parameter("Asynchronous", new BooleanParameter(Boolean.FALSE));
+
+    private transient ConnectionPool connectionPool = null;
+    private transient RecommendationsDatabaseWriter writer = null;
 
     /**
      * Constructor por defecto, que añade los parámetros de este método de salida de recomendaciones.
@@ -107,6 +122,8 @@ public class RecommendationsOutputDatabase extends RecommendationsOutputMethod {
         addParameter(TABLE_FIELD_PREFERENCE);
         addParameter(TABLE_FIELD_RECOMMENDER);
         addParameter(TABLE_FIELD_RECOMMENDER_VALUE);
+        addParameter(BATCH_SIZE);
+        addParameter(ASYNCHRONOUS);
     }
 
     /**
@@ -145,61 +162,88 @@ public class RecommendationsOutputDatabase extends RecommendationsOutputMethod {
         setParameterValue(TABLE_FIELD_RECOMMENDER_VALUE, recommenderName);
     }
 
+    /**
+     * Crea la salida de recomendaciones que escribe con las conexiones del conjunto indicado.
+     *
+     * @param connectionPool Conjunto de conexiones con que se escriben las recomendaciones.
+     * @param tableName Nombre de la tabla de recomendaciones.
+     * @param field_idUser Nombre del campo del identificador de usuario.
+     * @param field_idItem Nombre del campo del identificador de producto.
+     * @param field_preference Nombre del campo del valor de preferencia.
+     * @param field_recommender Nombre del campo que almacena el nombre del sistema de recomendación.
+     * @param recommenderName Nombre del sistema de recomendación.
+     */
+    public RecommendationsOutputDatabase(ConnectionPool connectionPool,
+            String tableName,
+            String field_idUser,
+            String field_idItem,
+            String field_preference,
+            String field_recommender,
+            String recommenderName) {
+
+        this();
+        this.connectionPool = connectionPool;
+
+        setParameterValue(TABLE_NAME, tableName);
+        setParameterValue(TABLE_FIELD_TARGET_ID, field_idUser);
+        setParameterValue(TABLE_FIELD_ITEM_ID, field_idItem);
+        setParameterValue(TABLE_FIELD_PREFERENCE, field_preference);
+        setParameterValue(TABLE_FIELD_RECOMMENDER, field_recommender);
+        setParameterValue(TABLE_FIELD_RECOMMENDER_VALUE, recommenderName);
+    }
+
     @Override
     public void writeRecommendations(Recommendations recommendationsToUser) {
-        try {
-            createTableIfNotExists();
-        } catch (ClassNotFoundException ex) {
-            ERROR_CODES.DEPENDENCY_NOT_FOUND.exit(ex);
-        } catch (SQLException ex) {
-            ERROR_CODES.CANNOT_WRITE_RECOMMENDATIONS.exit(ex);
-        }
+        List<Recommendation> topNrecommendations = getTopRecommendations(recommendationsToUser);
 
-        final String targetIDString = recommendationsToUser.getTargetIdentifier();
+        topNrecommendations = topNrecommendations.stream().filter(Recommendation.NON_COVERAGE_FAILURES).collect(Collectors.toList());
 
-        //CleanUserRecomendations.
-        String deleteStatementString = "delete from " + getTableName() + "\n"
-                + " where \n"
-                + getIdTargetField() + "='" + targetIDString + "'\n"
-                + "and " + getRecommenderField() + " = '" + getRecommenderFieldValue() + "';";
+        if (topNrecommendations.isEmpty()) {
+            Global.showWarning("No recommendations for '" + recommendationsToUser.getTargetIdentifier() + "', Returning empty list.");
+        }
 
-        //Primero borro de la tabla si el usuario tenía recomendaciones.
-        try (Statement deleteStatement = getConection().doConnection().createStatement()) {
-            deleteStatement.executeUpdate(deleteStatementString);
-            deleteStatement.close();
+        try {
+            getWriter().write(recommendationsToUser.getTargetIdentifier(), topNrecommendations);
         } catch (ClassNotFoundException ex) {
             ERROR_CODES.DEPENDENCY_NOT_FOUND.exit(ex);
         } catch (SQLException ex) {
             ERROR_CODES.CANNOT_WRITE_RECOMMENDATIONS.exit(ex);
         }
+    }
 
-        List<Recommendation> topNrecommendations = new ArrayList<>(recommendationsToUser.getRecommendations());
-
-        if (getNumberOfRecommendations() > 0) {
-            Collections.sort(topNrecommendations);
-            topNrecommendations = topNrecommendations.subList(0, Math.min(topNrecommendations.size(), getNumberOfRecommendations()));
+    @Override
+    public void flush() {
+        if (writer == null) {
+            return;
         }
-
-        topNrecommendations = topNrecommendations.stream().filter(Recommendation.NON_COVERAGE_FAILURES).collect(Collectors.toList());
-
-        if (topNrecommendations.isEmpty()) {
-            Global.showWarning("No recommendations for '" + recommendationsToUser.getTargetIdentifier() + "', Returning empty list.");
+        try {
+            writer.flush();
+        } catch (SQLException ex) {
+            ERROR_CODES.CANNOT_WRITE_RECOMMENDATIONS.exit(ex);
         }
+    }
 
-        //Escribo las recomendaciones.
-        try (Statement statement = getConection().doConnection().createStatement()) {
-
-            for (Recommendation recommendation : topNrecommendations) {
-                String insert = "INSERT INTO " + getTableName() + "(" + getIdTargetField() + "," + getIdItemField() + "," + getPreferenceField() + "," + getRecommenderField() + ") VALUES \n"
-                        + "('" + targetIDString + "'," + recommendation.getIdItem() + "," + recommendation.getPreference().doubleValue() + ",'" + getRecommenderFieldValue() + "');";
-                statement.executeUpdate(insert);
+    /**
+     * Devuelve el escritor de recomendaciones, que se crea con los parámetros
+     * que tenga el método de salida la primera vez que se escribe.
+     */
+    private synchronized RecommendationsDatabaseWriter getWriter() throws SQLException, ClassNotFoundException {
+        if (writer == null) {
+            if (connectionPool == null) {
+                connectionPool = ConnectionPool.of(getConection());
             }
-            statement.close();
-        } catch (ClassNotFoundException ex) {
-            ERROR_CODES.DEPENDENCY_NOT_FOUND.exit(ex);
-        } catch (SQLException ex) {
-            ERROR_CODES.CANNOT_WRITE_RECOMMENDATIONS.exit(ex);
+            writer = new RecommendationsDatabaseWriter(
+                    connectionPool,
+                    getTableName(),
+                    getIdTargetField(),
+                    getIdItemField(),
+                    getPreferenceField(),
+                    getRecommenderField(),
+                    getRecommenderFieldValue(),
+                    getBatchSize(),
+                    isAsynchronous());
         }
+        return writer;
     }
 
     public DatabaseConection getConection() throws SQLException, ClassNotFoundException {
@@ -242,24 +286,6 @@ public class RecommendationsOutputDatabase extends RecommendationsOutputMethod {
         return (Integer) getParameterValue(CONNECTION_PORT);
     }
 
-    private void createTableIfNotExists() throws ClassNotFoundException, SQLException {
-        StringBuilder create = new StringBuilder();
-
-        create.append("CREATE TABLE IF NOT EXISTS ").append(getTableName()).append(" (\n");
-        create.append(getIdTargetField()).append(" varchar(45) NOT NULL,\n");
-        create.append(getIdItemField()).append(" int(11) NOT NULL,\n");
-        create.append(getPreferenceField()).append(" double NOT NULL,\n");
-        create.append(getRecommenderField()).append(" varchar(45) NOT NULL,\n");
-        create.append("  id int(11) NOT NULL AUTO_INCREMENT,\n");
-        create.append("  PRIMARY KEY (id)\n");
-        create.append(") ENGINE=MyISAM  DEFAULT CHARSET=utf8 AUTO_INCREMENT=1;");
-
-        try (
-                Statement statement = getConection().doConnection().createStatement()) {
-            statement.execute(create.toString());
-        }
-    }
-
     public String getTableName() {
         return (String) getParameterValue(TABLE_NAME);
     }
@@ -283,4 +309,12 @@ public class RecommendationsOutputDatabase extends RecommendationsOutputMethod {
     public String getRecommenderFieldValue() {
         return (String) getParameterValue(TABLE_FIELD_RECOMMENDER_VALUE);
     }
+
+    public int getBatchSize() {
+        return (Integer) getParameterValue(BATCH_SIZE);
+    }
+
+    public boolean isAsynchronous() {
+        return (Boolean) getParameterValue(ASYNCHRONOUS);
+    }
 }
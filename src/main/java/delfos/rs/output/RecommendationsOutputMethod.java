@@ -20,7 +20,10 @@ import delfos.common.parameters.Parameter;
 import delfos.common.parameters.ParameterOwnerAdapter;
 import delfos.common.parameters.ParameterOwnerType;
 import delfos.common.parameters.restriction.IntegerParameter;
+import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.Recommendations;
+import delfos.rs.recommendation.TopNRecommendations;
+import java.util.List;
 
 /**
  * Interfaz que sirve para definir la semántica de un método de salida de las
@@ -45,6 +48,14 @@ public abstract class RecommendationsOutputMethod extends ParameterOwnerAdapter
      */
     public abstract void writeRecommendations(Recommendations recommendations);
 
+    /**
+     * Escribe las recomendaciones que el método de salida tenga pendientes. Los
+     * métodos que escriben por lotes las retienen hasta completar el lote, por
+     * lo que se debe llamar al terminar de escribir recomendaciones.
+     */
+    public void flush() {
+    }
+
     public RecommendationsOutputMethod() {
         super();
         addParameter(NUMBER_OF_RECOMMENDATIONS);
@@ -55,6 +66,18 @@ public abstract class RecommendationsOutputMethod extends ParameterOwnerAdapter
         return numberOfRecommendations;
     }
 
+    /**
+     * Devuelve las recomendaciones que se deben escribir: si se ha indicado
+     * {@link #NUMBER_OF_RECOMMENDATIONS}, las de mayor preferencia,
+     * seleccionadas sin ordenar toda la lista.
+     *
+     * @param recommendations Recomendaciones.
+     * @return Recomendaciones a escribir, ordenadas por preferencia.
+     */
+    protected List<Recommendation> getTopRecommendations(Recommendations recommendations) {
+        return TopNRecommendations.select(recommendations.getRecommendations(), getNumberOfRecommendations());
+    }
+
     @Override
     public ParameterOwnerType getParameterOwnerType() {
         return ParameterOwnerType.RECOMMENDATIONS_OUTPUT_METHOD;
@@ -23,10 +23,7 @@ import delfos.rs.output.sort.SortBy;
 import delfos.rs.recommendation.Recommendation;
 import delfos.rs.recommendation.Recommendations;
 import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Escribe las recomendaciones en la salida estándar.
@@ -66,26 +63,9 @@ public class RecommendationsOutputStandardRaw extends RecommendationsOutputMetho
     public void writeRecommendations(Recommendations recommendations) {
         String idTarget = recommendations.getTargetIdentifier();
 
-        List<Recommendation> recommendationsSorted = new ArrayList<>(recommendations.getRecommendations());
-
         SortBy sortBy = (SortBy) getParameterValue(SORT_BY);
 
-        switch (sortBy) {
-            case SORT_BY_PREFERENCE:
-                Collections.sort(recommendationsSorted, Recommendation.BY_PREFERENCE_DESC);
-                break;
-            case SORT_BY_ID_ITEM:
-                Collections.sort(recommendationsSorted, Recommendation.BY_ID);
-                break;
-            case SORT_BY_NO_SORT:
-                break;
-            default:
-                throw new IllegalStateException("Not implemented yet: " + sortBy);
-        }
-
-        List<Recommendation> topRecommendations = getNumberOfRecommendations() == 0
-                ? recommendationsSorted
-                : recommendationsSorted.stream().limit(getNumberOfRecommendations()).collect(Collectors.toList());
+        List<Recommendation> topRecommendations = sortBy.sortAndLimit(recommendations.getRecommendations(), getNumberOfRecommendations());
 
         Global.showln("Target '" + idTarget + "' recommendations:");
         for (Recommendation r : topRecommendations) {
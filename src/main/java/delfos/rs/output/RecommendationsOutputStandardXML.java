@@ -23,7 +23,6 @@ import delfos.rs.recommendation.Recommendations;
 import delfos.rs.recommendation.RecommendationsFactory;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import org.jdom2.Document;
 import org.jdom2.Element;
@@ -51,12 +50,9 @@ public class RecommendationsOutputStandardXML extends RecommendationsOutputMetho
 
     @Override
     public void writeRecommendations(Recommendations recommendations) {
-        List<Recommendation> topNrecommendations = new ArrayList<>(recommendations.getRecommendations());
-
-        if (getNumberOfRecommendations() > 0) {
-            Collections.sort(topNrecommendations);
-            topNrecommendations = topNrecommendations.subList(0, Math.min(topNrecommendations.size(), getNumberOfRecommendations()));
-        }
+        List<Recommendation> topNrecommendations = getNumberOfRecommendations() > 0
+                ? getTopRecommendations(recommendations)
+                : new ArrayList<>(recommendations.getRecommendations());
 
         Recommendations recommendationsWithNewRanking = RecommendationsFactory.copyRecommendationsWithNewRanking(recommendations, topNrecommendations);
 
@@ -16,13 +16,44 @@
  */
 package delfos.rs.output.sort;
 
+import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.TopNRecommendations;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
 /**
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  */
 public enum SortBy {
 
-    SORT_BY_NO_SORT,
-    SORT_BY_ID_ITEM,
-    SORT_BY_PREFERENCE
+    SORT_BY_NO_SORT(null),
+    SORT_BY_ID_ITEM(Recommendation.BY_ID),
+    SORT_BY_PREFERENCE(TopNRecommendations.BEST_FIRST);
+
+    private final Comparator<Recommendation> order;
+
+    private SortBy(Comparator<Recommendation> order) {
+        this.order = order;
+    }
+
+    /**
+     * Ordena las recomendaciones y se queda con las primeras. Si hay límite,
+     * las selecciona con {@link TopNRecommendations}, sin ordenar toda la
+     * lista.
+     *
+     * @param recommendations Recomendaciones.
+     * @param limit Número de recomendaciones que se devuelven. Si es cero o
+     * negativo, se devuelven todas.
+     * @return Recomendaciones ordenadas.
+     */
+    public List<Recommendation> sortAndLimit(Collection<Recommendation> recommendations, int limit) {
+        if (order != null) {
+            return TopNRecommendations.select(recommendations, limit, order);
+        }
+        List<Recommendation> unsorted = new ArrayList<>(recommendations);
+        return limit > 0 && limit < unsorted.size() ? new ArrayList<>(unsorted.subList(0, limit)) : unsorted;
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.rs.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selecciona las n mejores recomendaciones de las que se le añaden, sin
+ * ordenar todas ellas. Guarda las n mejores en un montículo cuya cima es la
+ * peor de ellas, por lo que añadir una recomendación tiene coste
+ * O(log(n)) y las que no mejoran a la peor se descartan en O(1).
+ *
+ * <p>
+ * Por defecto el orden es {@link #BEST_FIRST}: el de
+ * {@link Recommendation#BY_PREFERENCE_DESC}, con las predicciones
+ * {@link Double#NaN} al final y los empates resueltos por id de producto
+ * ascendente.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class TopNRecommendations {
+
+    /**
+     * Orden de las recomendaciones, de mejor a peor.
+     */
+    public static final Comparator<Recommendation> BEST_FIRST
+            = Recommendation.BY_PREFERENCE_DESC.thenComparing(Recommendation.BY_ID);
+
+    private final int n;
+    private final Comparator<Recommendation> order;
+    private final PriorityQueue<Recommendation> worstFirst;
+
+    /**
+     * Crea el selector, con el orden {@link #BEST_FIRST}.
+     *
+     * @param n Número de recomendaciones que se seleccionan.
+     */
+    public TopNRecommendations(int n) {
+        this(n, BEST_FIRST);
+    }
+
+    /**
+     * Crea el selector con el orden indicado.
+     *
+     * @param n Número de recomendaciones que se seleccionan.
+     * @param order Orden de las recomendaciones, de mejor a peor.
+     */
+    public TopNRecommendations(int n, Comparator<Recommendation> order) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The number of recommendations must be positive: " + n);
+        }
+        this.n = n;
+        this.order = order;
+        this.worstFirst = new PriorityQueue<>(Math.min(n, 1024) + 1, order.reversed());
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Añade una recomendación, que se guarda si está entre las n mejores
+     * añadidas hasta el momento.
+     *
+     * @param recommendation Recomendación.
+     * @return true si se ha guardado la recomendación.
+     */
+    public boolean add(Recommendation recommendation) {
+        if (worstFirst.size() < n) {
+            worstFirst.add(recommendation);
+            return true;
+        } else if (order.compare(recommendation, worstFirst.peek()) < 0) {
+            worstFirst.poll();
+            worstFirst.add(recommendation);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public void addAll(Collection<Recommendation> recommendations) {
+        recommendations.forEach(this::add);
+    }
+
+    public boolean isFull() {
+        return worstFirst.size() == n;
+    }
+
+    /**
+     * Valor mínimo que debe superar una predicción para entrar en la
+     * selección. Permite descartar productos sin calcular su predicción exacta
+     * si se conoce una cota superior de ella. Solo tiene sentido con el orden
+     * {@link #BEST_FIRST}.
+     *
+     * @return Predicción de la peor recomendación seleccionada, o
+     * {@link Double#NEGATIVE_INFINITY} si aún no hay n recomendaciones o la
+     * peor es {@link Double#NaN}.
+     */
+    public double getThreshold() {
+        if (!isFull()) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double worst = worstFirst.peek().getPreference().doubleValue();
+        return Double.isNaN(worst) ? Double.NEGATIVE_INFINITY : worst;
+    }
+
+    /**
+     * Devuelve las recomendaciones seleccionadas.
+     *
+     * @return Recomendaciones seleccionadas, de mejor a peor.
+     */
+    public List<Recommendation> toList() {
+        List<Recommendation> topN = new ArrayList<>(worstFirst);
+        Collections.sort(topN, order);
+        return topN;
+    }
+
+    /**
+     * Selecciona las n mejores recomendaciones.
+     *
+     * @param recommendations Recomendaciones.
+     * @param n Número de recomendaciones que se seleccionan. Si es cero o
+     * negativo, se devuelven todas.
+     * @return Las n mejores recomendaciones, de mejor a peor.
+     */
+    public static List<Recommendation> select(Collection<Recommendation> recommendations, int n) {
+        return select(recommendations, n, BEST_FIRST);
+    }
+
+    /**
+     * Selecciona las n primeras recomendaciones en el orden indicado.
+     *
+     * @param recommendations Recomendaciones.
+     * @param n Número de recomendaciones que se seleccionan. Si es cero o
+     * negativo, se devuelven todas.
+     * @param order Orden de las recomendaciones.
+     * @return Las n primeras recomendaciones, ordenadas.
+     */
+    public static List<Recommendation> select(Collection<Recommendation> recommendations, int n, Comparator<Recommendation> order) {
+        if (n <= 0) {
+            List<Recommendation> sorted = new ArrayList<>(recommendations);
+            Collections.sort(sorted, order);
+            return sorted;
+        }
+        TopNRecommendations topN = new TopNRecommendations(n, order);
+        topN.addAll(recommendations);
+        return topN.toList();
+    }
+}
@@ -18,18 +18,19 @@ package delfos.similaritymeasures;
 
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.user.User;
-import delfos.rs.collaborativefiltering.knn.CommonRating;
+import delfos.similaritymeasures.kernels.CoRatingStatistics;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
 import delfos.similaritymeasures.useruser.UserUserSimilarity;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Clase que implementa la medida del coseno para realizar una medida de similitud de dos vectores
  *
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  */
-public class CosineCoefficient extends WeightedSimilarityMeasureAdapter implements UserUserSimilarity {
+public class CosineCoefficient extends WeightedSimilarityMeasureAdapter implements UserUserSimilarity, SparseSimilarityKernel {
 
     private static final long serialVersionUID = 1L;
 
@@ -80,13 +81,27 @@ public class CosineCoefficient extends WeightedSimilarityMeasureAdapter implemen
 
     @Override
     public double similarity(DatasetLoader<? extends Rating> datasetLoader, User user1, User user2) {
+        RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
 
-        List<CommonRating> intersection = CommonRating.intersection(datasetLoader, user1, user2).stream().collect(Collectors.toList());
+        return similarity(
+                ratingsDataset.getUserRatingsVector(user1.getId()),
+                ratingsDataset.getUserRatingsVector(user2.getId()),
+                null);
+    }
 
-        List<Double> l1 = intersection.stream().map(commonRating -> commonRating.getRating1()).collect(Collectors.toList());
-        List<Double> l2 = intersection.stream().map(commonRating -> commonRating.getRating2()).collect(Collectors.toList());
+    @Override
+    public double similarity(CoRatingStatistics statistics) {
+        if (statistics.getSumOfWeights() == 0) {
+            return Double.NaN;
+        }
 
-        return similarity(l1, l2);
+        double denominator1 = statistics.getSumOfSquares1();
+        double denominator2 = statistics.getSumOfSquares2();
 
+        if (denominator1 == 0 || denominator2 == 0) {
+            return 0;
+        } else {
+            return statistics.getSumOfProducts() / (Math.sqrt(denominator1) * Math.sqrt(denominator2));
+        }
     }
 }
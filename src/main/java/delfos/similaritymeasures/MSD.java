@@ -19,16 +19,17 @@ package delfos.similaritymeasures;
 import delfos.common.exceptions.CouldNotComputeSimilarity;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.user.User;
-import delfos.rs.collaborativefiltering.knn.CommonRating;
+import delfos.similaritymeasures.kernels.CoRatingStatistics;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
 import delfos.similaritymeasures.useruser.UserUserSimilarity;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author jcastro-inf ( https://github.com/jcastro-inf )
  */
-public class MSD extends WeightedSimilarityMeasureAdapter implements UserUserSimilarity {
+public class MSD extends WeightedSimilarityMeasureAdapter implements UserUserSimilarity, SparseSimilarityKernel {
 
     private static final long serialVersionUID = 1L;
 
@@ -88,13 +89,26 @@ public class MSD extends WeightedSimilarityMeasureAdapter implements UserUserSim
 
     @Override
     public double similarity(DatasetLoader<? extends Rating> datasetLoader, User user1, User user2) {
+        RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
 
-        List<CommonRating> intersection = CommonRating.intersection(datasetLoader, user1, user2).stream().collect(Collectors.toList());
+        return similarity(
+                ratingsDataset.getUserRatingsVector(user1.getId()),
+                ratingsDataset.getUserRatingsVector(user2.getId()),
+                null);
+    }
 
-        List<Double> l1 = intersection.stream().map(commonRating -> commonRating.getRating1()).collect(Collectors.toList());
-        List<Double> l2 = intersection.stream().map(commonRating -> commonRating.getRating2()).collect(Collectors.toList());
+    @Override
+    public double similarity(CoRatingStatistics statistics) {
+        if (statistics.getSumOfWeights() == 0) {
+            return Double.NaN;
+        }
 
-        return similarity(l1, l2);
+        double msd = statistics.getSumOfSquaredDifferences() / statistics.getSumOfWeights();
 
+        if (msd > L) {
+            return 0;
+        } else {
+            return (L - msd) / L;
+        }
     }
 }
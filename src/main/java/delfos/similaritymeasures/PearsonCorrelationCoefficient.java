@@ -18,12 +18,13 @@ package delfos.similaritymeasures;
 
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.user.User;
-import delfos.rs.collaborativefiltering.knn.CommonRating;
+import delfos.similaritymeasures.kernels.CoRatingStatistics;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
 import delfos.similaritymeasures.useruser.UserUserSimilarity;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.stream.Collectors;
 
 /**
  * Medida de similitud que utiliza el coeficiente de correlación de pearson para
@@ -37,7 +38,13 @@ import java.util.stream.Collectors;
  * @version 1.0 Unknown date
  * @version 1.1 20-Mar-2013
  */
-public class PearsonCorrelationCoefficient extends WeightedSimilarityMeasureAdapter implements UserUserSimilarity {
+public class PearsonCorrelationCoefficient extends WeightedSimilarityMeasureAdapter implements UserUserSimilarity, SparseSimilarityKernel {
+
+    /**
+     * Error relativo por debajo del que una varianza calculada en una pasada se
+     * considera nula.
+     */
+    private static final double ROUNDING_ERROR = 1e-10;
 
     @Override
     public double similarity(List<Double> v1, List<Double> v2) {
@@ -201,13 +208,45 @@ public class PearsonCorrelationCoefficient extends WeightedSimilarityMeasureAdap
 
     @Override
     public double similarity(DatasetLoader<? extends Rating> datasetLoader, User user1, User user2) {
+        RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+
+        return similarity(
+                ratingsDataset.getUserRatingsVector(user1.getId()),
+                ratingsDataset.getUserRatingsVector(user2.getId()),
+                null);
+    }
+
+    /**
+     * Calcula el PCC (ponderado si los estadísticos lo están) en una pasada, a
+     * partir de las sumas de valores, cuadrados y productos. Las varianzas que
+     * son nulas salvo por error de redondeo se consideran nulas, para devolver
+     * NaN igual que {@link #pearsonCorrelationCoefficient(java.util.List, java.util.List)}.
+     *
+     * @param statistics Estadísticos de las valoraciones en común.
+     * @return PCC de las valoraciones en común, entre -1 y 1, o NaN si no se
+     * puede calcular.
+     */
+    @Override
+    public double similarity(CoRatingStatistics statistics) {
+        final double sumOfWeights = statistics.getSumOfWeights();
+        if (statistics.getCommonSize() == 0 || sumOfWeights == 0) {
+            return Double.NaN;
+        }
 
-        List<CommonRating> intersection = CommonRating.intersection(datasetLoader, user1, user2).stream().collect(Collectors.toList());
+        final double mean1 = statistics.getSum1() / sumOfWeights;
+        final double mean2 = statistics.getSum2() / sumOfWeights;
+        final double meanOfSquares1 = statistics.getSumOfSquares1() / sumOfWeights;
+        final double meanOfSquares2 = statistics.getSumOfSquares2() / sumOfWeights;
 
-        List<Double> l1 = intersection.stream().map(commonRating -> commonRating.getRating1()).collect(Collectors.toList());
-        List<Double> l2 = intersection.stream().map(commonRating -> commonRating.getRating2()).collect(Collectors.toList());
+        final double covariance = statistics.getSumOfProducts() / sumOfWeights - mean1 * mean2;
+        final double variance1 = meanOfSquares1 - mean1 * mean1;
+        final double variance2 = meanOfSquares2 - mean2 * mean2;
 
-        return similarity(l1, l2);
+        if (variance1 <= ROUNDING_ERROR * meanOfSquares1 || variance2 <= ROUNDING_ERROR * meanOfSquares2) {
+            return Double.NaN;
+        }
 
+        double pcc = covariance / Math.sqrt(variance1 * variance2);
+        return Math.max(-1, Math.min(1, pcc));
     }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.similaritymeasures.kernels;
+
+import delfos.dataset.basic.rating.RatingsVector;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Estadísticos suficientes de las valoraciones en común de dos perfiles, que se
+ * calculan en una sola pasada mezclando los dos {@link RatingsVector}
+ * ordenados, sin crear objetos intermedios. A partir de ellos se obtienen las
+ * medidas de similitud que implementan {@link SparseSimilarityKernel}.
+ *
+ * <p>
+ * Todas las sumas están ponderadas. Si no se indican pesos, cada valoración en
+ * común tiene peso uno.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public final class CoRatingStatistics {
+
+    private int commonSize;
+    private int unionSize;
+    private double sumOfWeights;
+    private double sum1;
+    private double sum2;
+    private double sum11;
+    private double sum22;
+    private double sum12;
+    private double sumOfSquaredDifferences;
+
+    /**
+     * Crea los estadísticos vacíos, para rellenarlos con
+     * {@link #compute(delfos.dataset.basic.rating.RatingsVector, delfos.dataset.basic.rating.RatingsVector, java.util.function.IntToDoubleFunction)}.
+     * Se puede reutilizar el mismo objeto para varios pares de perfiles.
+     */
+    public CoRatingStatistics() {
+    }
+
+    /**
+     * Calcula los estadísticos de dos perfiles.
+     *
+     * @param v1 Perfil 1.
+     * @param v2 Perfil 2.
+     * @return Estadísticos de las valoraciones en común, sin ponderar.
+     */
+    public static CoRatingStatistics of(RatingsVector v1, RatingsVector v2) {
+        return new CoRatingStatistics().compute(v1, v2, null);
+    }
+
+    /**
+     * Calcula los estadísticos de dos perfiles, sustituyendo los valores que
+     * tuviera este objeto.
+     *
+     * @param v1 Perfil 1.
+     * @param v2 Perfil 2.
+     * @param weights Peso de cada id en común, o null para no ponderar.
+     * @return Este mismo objeto.
+     */
+    public CoRatingStatistics compute(RatingsVector v1, RatingsVector v2, IntToDoubleFunction weights) {
+        final int[] ids1 = v1.getIds();
+        final int[] ids2 = v2.getIds();
+        final double[] values1 = v1.getValues();
+        final double[] values2 = v2.getValues();
+
+        int n = 0;
+        double w = 0, s1 = 0, s2 = 0, s11 = 0, s22 = 0, s12 = 0, sd = 0;
+
+        int i = 0, j = 0;
+        while (i < ids1.length && j < ids2.length) {
+            final int id1 = ids1[i];
+            final int id2 = ids2[j];
+            if (id1 < id2) {
+                i++;
+            } else if (id1 > id2) {
+                j++;
+            } else {
+                final double x = values1[i];
+                final double y = values2[j];
+                final double weight = weights == null ? 1 : weights.applyAsDouble(id1);
+                final double difference = x - y;
+                n++;
+                w += weight;
+                s1 += weight * x;
+                s2 += weight * y;
+                s11 += weight * x * x;
+                s22 += weight * y * y;
+                s12 += weight * x * y;
+                sd += weight * difference * difference;
+                i++;
+                j++;
+            }
+        }
+
+        this.commonSize = n;
+        this.unionSize = ids1.length + ids2.length - n;
+        this.sumOfWeights = w;
+        this.sum1 = s1;
+        this.sum2 = s2;
+        this.sum11 = s11;
+        this.sum22 = s22;
+        this.sum12 = s12;
+        this.sumOfSquaredDifferences = sd;
+        return this;
+    }
+
+    /**
+     * Asigna los estadísticos sin ponderar acumulados fuera de esta clase, por
+     * ejemplo recorriendo un índice invertido de valoraciones.
+     *
+     * @param commonSize Número de ids valorados en ambos perfiles.
+     * @param unionSize Número de ids valorados en alguno de los perfiles.
+     * @param sum1 Suma de los valores del perfil 1 en común.
+     * @param sum2 Suma de los valores del perfil 2 en común.
+     * @param sumOfSquares1 Suma de los cuadrados del perfil 1 en común.
+     * @param sumOfSquares2 Suma de los cuadrados del perfil 2 en común.
+     * @param sumOfProducts Suma de los productos de los valores en común.
+     * @return Este mismo objeto.
+     */
+    public CoRatingStatistics set(int commonSize, int unionSize,
+            double sum1, double sum2,
+            double sumOfSquares1, double sumOfSquares2,
+            double sumOfProducts) {
+        this.commonSize = commonSize;
+        this.unionSize = unionSize;
+        this.sumOfWeights = commonSize;
+        this.sum1 = sum1;
+        this.sum2 = sum2;
+        this.sum11 = sumOfSquares1;
+        this.sum22 = sumOfSquares2;
+        this.sum12 = sumOfProducts;
+        this.sumOfSquaredDifferences = Math.max(0, sumOfSquares1 + sumOfSquares2 - 2 * sumOfProducts);
+        return this;
+    }
+
+    /**
+     * Número de ids valorados en ambos perfiles.
+     */
+    public int getCommonSize() {
+        return commonSize;
+    }
+
+    /**
+     * Número de ids valorados en alguno de los perfiles.
+     */
+    public int getUnionSize() {
+        return unionSize;
+    }
+
+    public double getSumOfWeights() {
+        return sumOfWeights;
+    }
+
+    /**
+     * Suma ponderada de los valores del perfil 1 en las valoraciones en común.
+     */
+    public double getSum1() {
+        return sum1;
+    }
+
+    /**
+     * Suma ponderada de los valores del perfil 2 en las valoraciones en común.
+     */
+    public double getSum2() {
+        return sum2;
+    }
+
+    public double getSumOfSquares1() {
+        return sum11;
+    }
+
+    public double getSumOfSquares2() {
+        return sum22;
+    }
+
+    public double getSumOfProducts() {
+        return sum12;
+    }
+
+    public double getSumOfSquaredDifferences() {
+        return sumOfSquaredDifferences;
+    }
+
+    /**
+     * Factor de relevancia de la similitud: penaliza los perfiles con menos de
+     * {@code relevanceFactorValue} valoraciones en común.
+     *
+     * @param relevanceFactorValue Número de valoraciones en común a partir del
+     * que la similitud no se penaliza.
+     * @return Valor en [0,1] por el que multiplicar la similitud.
+     */
+    public double relevanceFactor(int relevanceFactorValue) {
+        if (commonSize >= relevanceFactorValue) {
+            return 1;
+        } else {
+            return ((double) commonSize) / relevanceFactorValue;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016 jcastro
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package delfos.similaritymeasures.kernels;
+
+import delfos.common.exceptions.CouldNotComputeSimilarity;
+import delfos.dataset.basic.rating.RatingsVector;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Interfaz que implementan las medidas de similitud colaborativas que pueden
+ * calcularse a partir de los {@link CoRatingStatistics} de dos perfiles. Los
+ * sistemas de recomendación que detectan esta interfaz evitan crear la lista de
+ * {@link delfos.rs.collaborativefiltering.knn.CommonRating} y calculan la
+ * similitud con una sola mezcla de los vectores de valoraciones.
+ *
+ * <p>
+ * El resultado debe coincidir con el de
+ * {@link delfos.similaritymeasures.CollaborativeSimilarityMeasure#similarity(java.util.Collection, delfos.dataset.basic.rating.RatingsDataset)}
+ * sobre las mismas valoraciones en común y con los mismos pesos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public interface SparseSimilarityKernel {
+
+    /**
+     * Calcula la similitud a partir de los estadísticos de las valoraciones en
+     * común.
+     *
+     * @param statistics Estadísticos de los dos perfiles.
+     * @return Similitud de los perfiles.
+     * @throws CouldNotComputeSimilarity Si no se puede calcular la similitud.
+     */
+    public double similarity(CoRatingStatistics statistics) throws CouldNotComputeSimilarity;
+
+    /**
+     * Calcula la similitud de dos perfiles.
+     *
+     * @param v1 Perfil 1.
+     * @param v2 Perfil 2.
+     * @param weights Peso de cada id en común, o null para no ponderar.
+     * @return Similitud de los perfiles.
+     * @throws CouldNotComputeSimilarity Si no se puede calcular la similitud.
+     */
+    public default double similarity(RatingsVector v1, RatingsVector v2, IntToDoubleFunction weights) throws CouldNotComputeSimilarity {
+        return similarity(new CoRatingStatistics().compute(v1, v2, weights));
+    }
+}
@@ -28,6 +28,8 @@ import delfos.rs.collaborativefiltering.knn.CommonRating;
 import delfos.rs.collaborativefiltering.knn.memorybased.KnnMemoryBasedCFRS;
 import delfos.similaritymeasures.CollaborativeSimilarityMeasure;
 import delfos.similaritymeasures.SimilarityMeasureAdapter;
+import delfos.similaritymeasures.kernels.CoRatingStatistics;
+import delfos.similaritymeasures.kernels.SparseSimilarityKernel;
 import java.util.Collection;
 import java.util.Set;
 import java.util.TreeSet;
@@ -37,7 +39,7 @@ import java.util.stream.Collectors;
  *
  * @author jcastro
  */
-public class Jaccard extends SimilarityMeasureAdapter implements CollaborativeSimilarityMeasure {
+public class Jaccard extends SimilarityMeasureAdapter implements CollaborativeSimilarityMeasure, SparseSimilarityKernel {
 
     public double similarity(DatasetLoader<? extends Rating> datasetLoader, User user1, User user2) throws UserNotFound, CannotLoadRatingsDataset {
 
@@ -89,6 +91,21 @@ public class Jaccard extends SimilarityMeasureAdapter implements CollaborativeSi
         return ret;
     }
 
+    /**
+     * Jaccard de los productos valorados, sin tener en cuenta los pesos.
+     *
+     * @param statistics Estadísticos de los perfiles completos de los usuarios.
+     * @return Jaccard de los productos valorados, o cero si no tienen productos
+     * en común.
+     */
+    @Override
+    public double similarity(CoRatingStatistics statistics) {
+        if (statistics.getCommonSize() == 0) {
+            return 0;
+        }
+        return ((double) statistics.getCommonSize()) / statistics.getUnionSize();
+    }
+
     @Override
     public boolean RSallowed(Class<? extends RecommenderSystemAdapter> rs) {
         return KnnMemoryBasedCFRS.class.isAssignableFrom(rs);
@@ -0,0 +1,413 @@
+package delfos;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Base de datos en memoria que atiende conexiones JDBC, para probar las
+ * clases que usan JDBC sin un servidor. Solo entiende las consultas
+ * <code>SELECT COUNT(*) FROM t</code>, <code>SELECT DISTINCT c FROM t</code> y
+ * <code>SELECT c1, c2 FROM t [WHERE c = ?]</code>, y las sentencias
+ * <code>CREATE TABLE IF NOT EXISTS</code>,
+ * <code>INSERT INTO t (c1, c2) VALUES (?, ?)[, (?, ?)...]</code> y
+ * <code>DELETE FROM t WHERE c1 = ? [AND c2 = ?...]</code>. Cuenta las
+ * sentencias que se preparan y las que se envían a la base de datos. Las
+ * transacciones solo se cuentan: los cambios se aplican al ejecutarlos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ *
+ * @version 18-oct-2026
+ */
+public class JdbcDatabaseMock {
+
+    private static final Pattern SELECT_COUNT = Pattern.compile("SELECT COUNT\\(\\*\\) FROM (\\w+)");
+    private static final Pattern SELECT_DISTINCT = Pattern.compile("SELECT DISTINCT (\\w+) FROM (\\w+)");
+    private static final Pattern SELECT = Pattern.compile("SELECT ([\\w, ]+) FROM (\\w+)(?: WHERE (\\w+) = \\?)?");
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE IF NOT EXISTS (\\w+) \\((.*)\\).*", Pattern.DOTALL);
+    private static final Pattern INSERT = Pattern.compile("INSERT INTO (\\w+) ?\\(([\\w, ]+)\\) VALUES (.*)", Pattern.DOTALL);
+    private static final Pattern DELETE = Pattern.compile("DELETE FROM (\\w+) WHERE (.*)", Pattern.DOTALL);
+    private static final Pattern CONDITION = Pattern.compile("(\\w+) = \\?");
+
+    private final Map<String, Table> tables = new TreeMap<>();
+
+    private final AtomicInteger numConnections = new AtomicInteger();
+    private final AtomicInteger numPreparedStatements = new AtomicInteger();
+    private final AtomicInteger numQueries = new AtomicInteger();
+    private final AtomicInteger numUpdates = new AtomicInteger();
+    private final AtomicInteger numCommits = new AtomicInteger();
+    private final AtomicInteger numTablesCreated = new AtomicInteger();
+    private volatile int lastFetchSize = 0;
+
+    /**
+     * Crea una tabla con las columnas indicadas.
+     *
+     * @param tableName Nombre de la tabla.
+     * @param columns Nombres de las columnas.
+     */
+    public synchronized void createTable(String tableName, String... columns) {
+        tables.put(tableName, new Table(Arrays.asList(columns)));
+    }
+
+    /**
+     * Añade una fila a una tabla.
+     *
+     * @param tableName Nombre de la tabla.
+     * @param values Valores de la fila, en el orden de las columnas.
+     */
+    public synchronized void insert(String tableName, Object... values) {
+        getTable(tableName).rows.add(values.clone());
+    }
+
+    public synchronized List<Object[]> getRows(String tableName) {
+        return new ArrayList<>(getTable(tableName).rows);
+    }
+
+    public int getNumConnections() {
+        return numConnections.get();
+    }
+
+    public int getNumPreparedStatements() {
+        return numPreparedStatements.get();
+    }
+
+    public int getNumQueries() {
+        return numQueries.get();
+    }
+
+    public int getLastFetchSize() {
+        return lastFetchSize;
+    }
+
+    /**
+     * Número de envíos de sentencias de modificación a la base de datos. Un
+     * lote de sentencias cuenta como un único envío.
+     *
+     * @return Número de envíos.
+     */
+    public int getNumUpdates() {
+        return numUpdates.get();
+    }
+
+    public int getNumCommits() {
+        return numCommits.get();
+    }
+
+    public int getNumTablesCreated() {
+        return numTablesCreated.get();
+    }
+
+    /**
+     * Abre una conexión nueva con la base de datos.
+     *
+     * @return Conexión.
+     */
+    public Connection newConnection() {
+        numConnections.incrementAndGet();
+        return proxy(Connection.class, new ConnectionHandler());
+    }
+
+    private synchronized Table getTable(String tableName) {
+        Table table = tables.get(tableName);
+        if (table == null) {
+            throw new IllegalArgumentException("Table '" + tableName + "' does not exist");
+        }
+        return table;
+    }
+
+    private synchronized List<Object[]> executeQuery(String sql, Map<Integer, Object> parameters) throws SQLException {
+        numQueries.incrementAndGet();
+
+        Matcher matcher = SELECT_COUNT.matcher(sql);
+        if (matcher.matches()) {
+            return Collections.singletonList(new Object[]{getTable(matcher.group(1)).rows.size()});
+        }
+
+        matcher = SELECT_DISTINCT.matcher(sql);
+        if (matcher.matches()) {
+            Table table = getTable(matcher.group(2));
+            int column = table.indexOf(matcher.group(1));
+            Set<Object> distinct = new LinkedHashSet<>();
+            table.rows.forEach(row -> distinct.add(row[column]));
+            List<Object[]> result = new ArrayList<>();
+            distinct.forEach(value -> result.add(new Object[]{value}));
+            return result;
+        }
+
+        matcher = SELECT.matcher(sql);
+        if (matcher.matches()) {
+            Table table = getTable(matcher.group(2));
+            int[] columns = Arrays.stream(matcher.group(1).split(","))
+                    .mapToInt(column -> table.indexOf(column.trim()))
+                    .toArray();
+            int whereColumn = matcher.group(3) == null ? -1 : table.indexOf(matcher.group(3));
+
+            List<Object[]> result = new ArrayList<>();
+            for (Object[] row : table.rows) {
+                if (whereColumn >= 0 && !row[whereColumn].equals(parameters.get(1))) {
+                    continue;
+                }
+                Object[] selected = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    selected[i] = row[columns[i]];
+                }
+                result.add(selected);
+            }
+            return result;
+        }
+        throw new SQLException("Unsupported query: " + sql);
+    }
+
+    private synchronized int executeUpdate(String sql, Map<Integer, Object> parameters) throws SQLException {
+        sql = sql.trim();
+        Matcher matcher = CREATE_TABLE.matcher(sql);
+        if (matcher.matches()) {
+            numTablesCreated.incrementAndGet();
+            if (!tables.containsKey(matcher.group(1))) {
+                List<String> columns = new ArrayList<>();
+                for (String definition : splitOutsideParentheses(matcher.group(2))) {
+                    String name = definition.trim().split("\\s+")[0];
+                    if (!Arrays.asList("PRIMARY", "KEY", "INDEX", "UNIQUE").contains(name.toUpperCase())) {
+                        columns.add(name);
+                    }
+                }
+                tables.put(matcher.group(1), new Table(columns));
+            }
+            return 0;
+        }
+
+        matcher = INSERT.matcher(sql);
+        if (matcher.matches()) {
+            Table table = getTable(matcher.group(1));
+            int[] columns = Arrays.stream(matcher.group(2).split(","))
+                    .mapToInt(column -> table.indexOf(column.trim()))
+                    .toArray();
+            int numRows = splitOutsideParentheses(matcher.group(3)).size();
+            for (int row = 0; row < numRows; row++) {
+                Object[] values = new Object[table.columns.size()];
+                for (int i = 0; i < columns.length; i++) {
+                    values[columns[i]] = parameters.get(row * columns.length + i + 1);
+                }
+                table.rows.add(values);
+            }
+            return numRows;
+        }
+
+        matcher = DELETE.matcher(sql);
+        if (matcher.matches()) {
+            Table table = getTable(matcher.group(1));
+            List<Integer> columns = new ArrayList<>();
+            Matcher condition = CONDITION.matcher(matcher.group(2));
+            while (condition.find()) {
+                columns.add(table.indexOf(condition.group(1)));
+            }
+            int sizeBefore = table.rows.size();
+            table.rows.removeIf(row -> {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (!String.valueOf(row[columns.get(i)]).equals(String.valueOf(parameters.get(i + 1)))) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            return sizeBefore - table.rows.size();
+        }
+        throw new SQLException("Unsupported statement: " + sql);
+    }
+
+    private static List<String> splitOutsideParentheses(String text) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(text.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(text.substring(start));
+        return parts;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcDatabaseMock.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0.0;
+        } else {
+            return null;
+        }
+    }
+
+    private static final class Table {
+
+        private final List<String> columns;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private Table(List<String> columns) {
+            this.columns = columns;
+        }
+
+        private int indexOf(String column) {
+            int index = columns.indexOf(column);
+            if (index < 0) {
+                throw new IllegalArgumentException("Column '" + column + "' does not exist");
+            }
+            return index;
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private boolean closed = false;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    if (closed) {
+                        throw new SQLException("Connection closed");
+                    }
+                    numPreparedStatements.incrementAndGet();
+                    return proxy(PreparedStatement.class, new StatementHandler((String) args[0]));
+                case "createStatement":
+                    if (closed) {
+                        throw new SQLException("Connection closed");
+                    }
+                    return proxy(Statement.class, new StatementHandler(null));
+                case "commit":
+                    numCommits.incrementAndGet();
+                    return null;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private final List<Map<Integer, Object>> batch = new ArrayList<>();
+
+        private StatementHandler(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "setInt":
+                case "setDouble":
+                case "setString":
+                case "setObject":
+                    parameters.put((Integer) args[0], args[1]);
+                    return null;
+                case "addBatch":
+                    batch.add(new TreeMap<>(parameters));
+                    return null;
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "executeBatch":
+                    numUpdates.incrementAndGet();
+                    int[] counts = new int[batch.size()];
+                    for (int i = 0; i < batch.size(); i++) {
+                        counts[i] = JdbcDatabaseMock.this.executeUpdate(sql, batch.get(i));
+                    }
+                    batch.clear();
+                    return counts;
+                case "executeUpdate":
+                case "execute":
+                    numUpdates.incrementAndGet();
+                    int count = JdbcDatabaseMock.this.executeUpdate(args == null ? sql : (String) args[0], parameters);
+                    return method.getName().equals("execute") ? (Object) false : (Object) count;
+                case "clearParameters":
+                    parameters.clear();
+                    return null;
+                case "setFetchSize":
+                    lastFetchSize = (Integer) args[0];
+                    return null;
+                case "executeQuery":
+                    return proxy(ResultSet.class, new ResultSetHandler(JdbcDatabaseMock.this.executeQuery(sql, parameters)));
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+
+        private final List<Object[]> rows;
+        private int current = -1;
+
+        private ResultSetHandler(List<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    current++;
+                    return current < rows.size();
+                case "getInt":
+                    return ((Number) rows.get(current)[(Integer) args[0] - 1]).intValue();
+                case "getLong":
+                    return ((Number) rows.get(current)[(Integer) args[0] - 1]).longValue();
+                case "getDouble":
+                    return ((Number) rows.get(current)[(Integer) args[0] - 1]).doubleValue();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package delfos.dataset.basic.loader;
+
+import delfos.common.FileUtilities;
+import delfos.common.filefilters.FileFilterByExtension;
+import delfos.common.parameters.Parameter;
+import delfos.common.parameters.restriction.FileParameter;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.item.ContentDataset;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.loader.types.DatasetLoaderAbstract;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.user.UsersDataset;
+import delfos.dataset.loaders.csv.CSVfileDatasetLoader;
+import delfos.dataset.loaders.given.DatasetLoaderGivenRatingsDataset;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.experiment.validation.validationtechnique.CrossFoldValidation_Ratings;
+import delfos.group.casestudy.defaultcase.GroupCaseStudy;
+import delfos.group.experiment.validation.groupformation.FixedGroupSize_OnlyNGroups;
+import delfos.group.experiment.validation.predictionvalidation.NoPredictionProtocol;
+import delfos.group.grs.RandomGroupRecommender;
+import delfos.group.io.xml.casestudy.GroupCaseStudyXML;
+import delfos.io.csv.dataset.DatasetToCSV;
+import delfos.rs.persistence.MockDatasetLoader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que los experimentos comparten los datasets cargados
+ * desde los mismos ficheros.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class SharedDatasetRegistryTest extends DelfosTest {
+
+    private static final AtomicInteger NUM_LOADS = new AtomicInteger(0);
+
+    /**
+     * Cargador que lee valoraciones <code>idUser,idItem,rating</code> de un
+     * fichero y cuenta las veces que lo lee. Como los cargadores de ficheros,
+     * guarda los datasets una vez leídos.
+     */
+    public static class RatingsFileDatasetLoader extends DatasetLoaderAbstract<Rating> {
+
+        public static final Parameter RATINGS_FILE = new Parameter("Ratings_file", new FileParameter(new File("ratings.csv"), new FileFilterByExtension("csv")));
+
+        private RatingsDataset<Rating> ratingsDataset = null;
+        private UsersDataset usersDataset = null;
+        private ContentDataset contentDataset = null;
+
+        public RatingsFileDatasetLoader() {
+            addParameter(RATINGS_FILE);
+        }
+
+        public RatingsFileDatasetLoader(File ratingsFile) {
+            this();
+            setParameterValue(RATINGS_FILE, ratingsFile);
+        }
+
+        @Override
+        public synchronized RatingsDataset<Rating> getRatingsDataset() {
+            if (ratingsDataset == null) {
+                NUM_LOADS.incrementAndGet();
+                List<Rating> ratings = new ArrayList<>();
+                try {
+                    for (String line : Files.readAllLines(((File) getParameterValue(RATINGS_FILE)).toPath())) {
+                        String[] fields = line.split(",");
+                        ratings.add(new Rating(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Double.parseDouble(fields[2])));
+                    }
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                ratingsDataset = new BothIndexRatingsDataset<>(ratings);
+            }
+            return ratingsDataset;
+        }
+
+        @Override
+        public synchronized UsersDataset getUsersDataset() {
+            if (usersDataset == null) {
+                usersDataset = super.getUsersDataset();
+            }
+            return usersDataset;
+        }
+
+        @Override
+        public synchronized ContentDataset getContentDataset() {
+            if (contentDataset == null) {
+                contentDataset = super.getContentDataset();
+            }
+            return contentDataset;
+        }
+    }
+
+    private File ratingsFile;
+
+    public SharedDatasetRegistryTest() {
+    }
+
+    @Before
+    public void saveRatingsFile() throws IOException {
+        File directory = getTemporalDirectoryForTest();
+        FileUtilities.cleanDirectory(directory);
+        directory.mkdirs();
+
+        ratingsFile = new File(directory, "ratings.csv");
+        writeRatings(20);
+    }
+
+    private void writeRatings(int numUsers) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int idUser = 1; idUser <= numUsers; idUser++) {
+            for (int idItem = 1; idItem <= 10; idItem++) {
+                lines.add(idUser + "," + idItem + "," + (1 + (idUser + idItem) % 5));
+            }
+        }
+        Files.write(ratingsFile.toPath(), lines);
+    }
+
+    private RatingsFileDatasetLoader newDatasetLoader(String alias) {
+        RatingsFileDatasetLoader datasetLoader = new RatingsFileDatasetLoader(ratingsFile);
+        datasetLoader.setAlias(alias);
+        return datasetLoader;
+    }
+
+    @Test
+    public void testSameFilesShareTheLoadedDataset() {
+        SharedDatasetRegistry registry = new SharedDatasetRegistry();
+        int numLoads = NUM_LOADS.get();
+
+        DatasetLoader<Rating> first = registry.acquire(newDatasetLoader("first"));
+        DatasetLoader<Rating> second = registry.acquire(newDatasetLoader("second"));
+
+        Assert.assertSame(first.getRatingsDataset(), second.getRatingsDataset());
+        Assert.assertEquals(1, registry.size());
+        Assert.assertEquals(numLoads + 1, NUM_LOADS.get());
+
+        registry.release(first);
+        registry.release(second);
+    }
+
+    @Test
+    public void testLoadersThatDifferOnlyInAliasKeepTheirAlias() {
+        SharedDatasetRegistry registry = new SharedDatasetRegistry();
+        RatingsFileDatasetLoader firstLoader = newDatasetLoader("first");
+        RatingsFileDatasetLoader secondLoader = newDatasetLoader("second");
+
+        DatasetLoader<Rating> first = registry.acquire(firstLoader);
+        DatasetLoader<Rating> second = registry.acquire(secondLoader);
+
+        Assert.assertEquals(RatingsFileDatasetLoader.class, first.getClass());
+        Assert.assertEquals(RatingsFileDatasetLoader.class, second.getClass());
+        Assert.assertEquals("first", first.getAlias());
+        Assert.assertEquals("second", second.getAlias());
+        Assert.assertEquals(ratingsFile.getAbsoluteFile(), ((File) first.getParameterValue(RatingsFileDatasetLoader.RATINGS_FILE)).getAbsoluteFile());
+        Assert.assertEquals(ratingsFile.getAbsoluteFile(), ((File) second.getParameterValue(RatingsFileDatasetLoader.RATINGS_FILE)).getAbsoluteFile());
+        Assert.assertSame(first.getRatingsDataset(), second.getRatingsDataset());
+        Assert.assertSame(first.getUsersDataset(), second.getUsersDataset());
+        Assert.assertSame(first.getContentDataset(), second.getContentDataset());
+        Assert.assertEquals(1, registry.size());
+
+        registry.release(first);
+        registry.release(first);
+        registry.setHeapBudget(0);
+        Assert.assertEquals("Evicted while in use", 1, registry.size());
+        registry.release(second);
+        Assert.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testAcquiredLoaderIsSavedInGroupCaseStudyXML() throws Exception {
+        File directory = getTemporalDirectoryForTest();
+        File ratingsCSV = new File(directory, "shared_ratings.csv");
+        File contentCSV = new File(directory, "shared_content.csv");
+        File usersCSV = new File(directory, "shared_users.csv");
+
+        MockDatasetLoader mockDatasetLoader = new MockDatasetLoader();
+        DatasetToCSV datasetToCSV = new DatasetToCSV(ratingsCSV, contentCSV, usersCSV);
+        datasetToCSV.saveRatingsDataset(mockDatasetLoader.getRatingsDataset());
+        datasetToCSV.saveContentDataset(mockDatasetLoader.getContentDataset());
+        datasetToCSV.saveUsersDataset(mockDatasetLoader.getUsersDataset());
+
+        CSVfileDatasetLoader requested = new CSVfileDatasetLoader(ratingsCSV.getPath(), contentCSV.getPath(), usersCSV.getPath());
+        requested.setAlias("shared_csv");
+
+        SharedDatasetRegistry registry = new SharedDatasetRegistry();
+        DatasetLoader<Rating> datasetLoader = registry.acquire(requested);
+        Assert.assertEquals(CSVfileDatasetLoader.class, datasetLoader.getClass());
+
+        GroupCaseStudy groupCaseStudy = new GroupCaseStudy();
+        groupCaseStudy.setDatasetLoader(datasetLoader)
+                .setGroupRecommenderSystem(new RandomGroupRecommender())
+                .setGroupFormationTechnique(new FixedGroupSize_OnlyNGroups(2, 2))
+                .setValidationTechnique(new CrossFoldValidation_Ratings())
+                .setGroupPredictionProtocol(new NoPredictionProtocol());
+        groupCaseStudy.setAlias("shared_csv_case_study");
+
+        File caseStudyXML = new File(directory, "shared_csv_case_study.xml");
+        GroupCaseStudyXML.caseStudyToXMLFile_onlyDescription(groupCaseStudy, caseStudyXML);
+        DatasetLoader<? extends Rating> loaded = GroupCaseStudyXML.loadGroupCaseDescription(caseStudyXML).getDatasetLoader();
+
+        Assert.assertEquals(CSVfileDatasetLoader.class, loaded.getClass());
+        Assert.assertEquals("shared_csv", loaded.getAlias());
+        Assert.assertEquals(registry.getKey(requested), registry.getKey(loaded));
+
+        registry.release(datasetLoader);
+    }
+
+    @Test
+    public void testChangedFileIsLoadedAgain() throws IOException {
+        SharedDatasetRegistry registry = new SharedDatasetRegistry();
+
+        DatasetLoader<Rating> first = registry.acquire(newDatasetLoader("first"));
+        registry.release(first);
+
+        writeRatings(10);
+        DatasetLoader<Rating> second = registry.acquire(newDatasetLoader("second"));
+
+        Assert.assertNotSame(first.getRatingsDataset(), second.getRatingsDataset());
+        Assert.assertEquals(200, first.getRatingsDataset().getNumRatings());
+        Assert.assertEquals(100, second.getRatingsDataset().getNumRatings());
+        registry.release(second);
+    }
+
+    @Test
+    public void testDatasetsNotReadFromFilesAreNotShared() {
+        SharedDatasetRegistry registry = new SharedDatasetRegistry();
+        MockDatasetLoader mockDatasetLoader = new MockDatasetLoader();
+        RatingsDataset<Rating> ratingsDataset = mockDatasetLoader.getRatingsDataset();
+
+        DatasetLoaderGivenRatingsDataset<Rating> datasetLoader = new DatasetLoaderGivenRatingsDataset<>(mockDatasetLoader, ratingsDataset);
+
+        Assert.assertFalse(registry.isShareable(datasetLoader));
+        Assert.assertSame(datasetLoader, registry.acquire(datasetLoader));
+        Assert.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testUnusedDatasetsAreEvictedOverBudget() {
+        SharedDatasetRegistry registry = new SharedDatasetRegistry();
+        registry.setHeapBudget(0);
+
+        DatasetLoader<Rating> first = registry.acquire(newDatasetLoader("first"));
+        Assert.assertEquals(1, registry.size());
+        Assert.assertEquals(200 * SharedDatasetRegistry.ESTIMATED_BYTES_PER_RATING, registry.getEstimatedHeapUsage());
+
+        DatasetLoader<Rating> second = registry.acquire(newDatasetLoader("second"));
+        registry.release(first);
+        Assert.assertEquals("Evicted while in use", 1, registry.size());
+
+        registry.release(second);
+        Assert.assertEquals(0, registry.size());
+
+        registry.setHeapBudget(Long.MAX_VALUE);
+        DatasetLoader<Rating> third = registry.acquire(newDatasetLoader("third"));
+        registry.release(third);
+        Assert.assertNotSame(first.getRatingsDataset(), third.getRatingsDataset());
+        Assert.assertEquals(1, registry.size());
+    }
+}
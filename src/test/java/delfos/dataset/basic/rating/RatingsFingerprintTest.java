@@ -0,0 +1,119 @@
+package delfos.dataset.basic.rating;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.storage.memory.CompactMemoryRatingsDataset;
+import delfos.dataset.storage.validationdatasets.TestRatingsDataset_Memory;
+import delfos.dataset.storage.validationdatasets.TrainingRatingsDataset_Memory;
+import delfos.dataset.storage.validationdatasets.ValidationDatasets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test de la huella de los datasets de valoraciones.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class RatingsFingerprintTest extends DelfosTest {
+
+    public RatingsFingerprintTest() {
+    }
+
+    @Test
+    public void testIndependentOfOrderAndStorage() {
+        List<Rating> ratings = RandomRatings.randomRatings(30, 40, 0.3, 0);
+        RatingsFingerprint expected = new BothIndexRatingsDataset<>(ratings).getFingerprint();
+
+        List<Rating> shuffled = new ArrayList<>(ratings);
+        Collections.shuffle(shuffled, new Random(1));
+
+        Assert.assertEquals(expected, new BothIndexRatingsDataset<>(shuffled).getFingerprint());
+        Assert.assertEquals(expected, new CompactMemoryRatingsDataset(shuffled).getFingerprint());
+        Assert.assertEquals(expected, RatingsFingerprint.compute(new BothIndexRatingsDataset<>(shuffled)));
+        Assert.assertEquals(ratings.size(), expected.getNumRatings());
+        Assert.assertEquals(32, expected.toString().length());
+    }
+
+    @Test
+    public void testChangesWithContent() {
+        List<Rating> ratings = RandomRatings.randomRatings(30, 40, 0.3, 0);
+        RatingsFingerprint original = new BothIndexRatingsDataset<>(ratings).getFingerprint();
+
+        List<Rating> changedValue = new ArrayList<>(ratings);
+        Rating first = changedValue.get(0);
+        double newValue = first.getRatingValue().doubleValue() == 5 ? 4 : 5;
+        changedValue.set(0, new Rating(first.getIdUser(), first.getIdItem(), newValue));
+        Assert.assertNotEquals(original, new BothIndexRatingsDataset<>(changedValue).getFingerprint());
+
+        List<Rating> swappedEntities = new ArrayList<>(ratings);
+        swappedEntities.set(0, new Rating(first.getIdItem(), first.getIdUser(), first.getRatingValue()));
+        Assert.assertNotEquals(original, new BothIndexRatingsDataset<>(swappedEntities).getFingerprint());
+
+        RatingsFingerprint withoutFirst = new BothIndexRatingsDataset<>(ratings.subList(1, ratings.size())).getFingerprint();
+        Assert.assertEquals(withoutFirst, original.minus(RatingsFingerprint.of(first)));
+        Assert.assertEquals(original, withoutFirst.plus(first.getIdUser(), first.getIdItem(), first.getRatingValue().doubleValue()));
+    }
+
+    @Test
+    public void testValidationDatasetsDeriveFromOriginal() throws Exception {
+        List<Rating> ratings = RandomRatings.randomRatings(40, 60, 0.3, 2);
+        BothIndexRatingsDataset<Rating> originalDataset = new BothIndexRatingsDataset<>(ratings);
+        Map<Integer, Set<Integer>> testSet = RandomRatings.randomTestSet(ratings, 0.2, 3);
+
+        List<Rating> trainingRatings = new ArrayList<>();
+        List<Rating> testRatings = new ArrayList<>();
+        for (Rating rating : ratings) {
+            boolean inTest = testSet.containsKey(rating.getIdUser()) && testSet.get(rating.getIdUser()).contains(rating.getIdItem());
+            (inTest ? testRatings : trainingRatings).add(rating);
+        }
+        RatingsFingerprint expectedTraining = new BothIndexRatingsDataset<>(trainingRatings).getFingerprint();
+        RatingsFingerprint expectedTest = new BothIndexRatingsDataset<>(testRatings).getFingerprint();
+
+        for (ValidationDatasets.Backend backend : ValidationDatasets.Backend.values()) {
+            RatingsDataset<Rating> training = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet, backend);
+            RatingsDataset<Rating> test = ValidationDatasets.getInstance().createTestDataset(originalDataset, testSet, backend);
+
+            Assert.assertEquals(backend.name(), expectedTraining, training.getFingerprint());
+            Assert.assertEquals(backend.name(), expectedTest, test.getFingerprint());
+            Assert.assertEquals(backend.name(), expectedTraining, RatingsFingerprint.compute(training));
+            Assert.assertEquals(backend.name(), originalDataset.getFingerprint(), training.getFingerprint().plus(test.getFingerprint()));
+        }
+
+        Assert.assertEquals(expectedTraining, new TrainingRatingsDataset_Memory<>(originalDataset, testSet).getFingerprint());
+        Assert.assertEquals(expectedTest, new TestRatingsDataset_Memory<>(originalDataset, testSet).getFingerprint());
+    }
+
+    /**
+     * Compara el tiempo de la huella de un conjunto de entrenamiento con el del
+     * recorrido completo de sus valoraciones.
+     */
+    //@Test
+    public void testTimeComparedToFullScan() throws Exception {
+        List<Rating> ratings = RandomRatings.randomRatings(2000, 1500, 0.05, 4);
+        BothIndexRatingsDataset<Rating> originalDataset = new BothIndexRatingsDataset<>(ratings);
+        Map<Integer, Set<Integer>> testSet = RandomRatings.randomTestSet(ratings, 0.2, 5);
+        RatingsDataset<Rating> training = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet);
+
+        Chronometer chronometer = new Chronometer();
+        RatingsFingerprint derived = training.getFingerprint();
+        long derivedTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        RatingsFingerprint scanned = RatingsFingerprint.compute(training);
+        long scanTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Fingerprint of training set: derived " + derivedTime + " ms, full scan " + scanTime + " ms\n");
+
+        Assert.assertEquals(scanned, derived);
+    }
+}
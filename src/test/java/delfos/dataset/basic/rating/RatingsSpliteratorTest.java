@@ -0,0 +1,120 @@
+package delfos.dataset.basic.rating;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.storage.memory.CompactMemoryRatingsDataset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test del recorrido de las valoraciones de los datasets en memoria con
+ * {@link RatingsSpliterator}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class RatingsSpliteratorTest extends DelfosTest {
+
+    public RatingsSpliteratorTest() {
+    }
+
+    private static List<RatingsDataset<? extends Rating>> datasets(List<Rating> ratings) {
+        return Arrays.asList(
+                new BothIndexRatingsDataset<>(ratings),
+                new CompactMemoryRatingsDataset(ratings));
+    }
+
+    @Test
+    public void testSameRatingsThanIterator() {
+        List<Rating> ratings = RandomRatings.randomRatings(50, 80, 0.2, 0);
+
+        for (RatingsDataset<? extends Rating> ratingsDataset : datasets(ratings)) {
+            List<Rating> iterated = new ArrayList<>();
+            for (Rating rating : ratingsDataset) {
+                iterated.add(rating);
+            }
+
+            Assert.assertEquals(ratings.size(), iterated.size());
+            Assert.assertEquals(iterated, ratingsDataset.stream().collect(Collectors.toList()));
+            Assert.assertEquals(iterated, ratingsDataset.parallelStream().collect(Collectors.toList()));
+            Assert.assertEquals(ratings.size(), ratingsDataset.parallelStream().count());
+        }
+    }
+
+    @Test
+    public void testSplitsAreSizedAndDisjoint() {
+        List<Rating> ratings = RandomRatings.randomRatings(100, 50, 0.2, 1);
+        BothIndexRatingsDataset<Rating> ratingsDataset = new BothIndexRatingsDataset<>(ratings);
+
+        Spliterator<Rating> suffix = ratingsDataset.spliterator();
+        Assert.assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assert.assertEquals(ratings.size(), suffix.getExactSizeIfKnown());
+
+        Spliterator<Rating> prefix = suffix.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(ratings.size(), prefix.estimateSize() + suffix.estimateSize());
+        Assert.assertTrue(Math.abs(prefix.estimateSize() - suffix.estimateSize()) < ratings.size() / 10);
+
+        List<Rating> prefixRatings = new ArrayList<>();
+        prefix.forEachRemaining(prefixRatings::add);
+        List<Rating> suffixRatings = new ArrayList<>();
+        while (suffix.tryAdvance(suffixRatings::add)) {
+            Assert.assertEquals(ratings.size() - prefixRatings.size() - suffixRatings.size(), suffix.estimateSize());
+        }
+
+        Assert.assertEquals(prefixRatings.size(), ratingsDataset.getNumRatings() - suffixRatings.size());
+        int lastUserOfPrefix = prefixRatings.get(prefixRatings.size() - 1).getIdUser();
+        Assert.assertTrue(suffixRatings.stream().allMatch(rating -> rating.getIdUser() > lastUserOfPrefix));
+        Assert.assertEquals(0, prefix.estimateSize());
+        Assert.assertEquals(0, suffix.estimateSize());
+    }
+
+    @Test
+    public void testEmptyDataset() {
+        BothIndexRatingsDataset<Rating> ratingsDataset = new BothIndexRatingsDataset<>();
+
+        Assert.assertFalse(ratingsDataset.iterator().hasNext());
+        Assert.assertEquals(0, ratingsDataset.parallelStream().count());
+        Assert.assertNull(ratingsDataset.spliterator().trySplit());
+    }
+
+    /**
+     * Compara el tiempo de un recorrido completo del dataset con el iterador y
+     * con los streams secuencial y paralelo.
+     */
+    //@Test
+    public void testTimeOfFullScan() {
+        List<Rating> ratings = RandomRatings.randomRatings(3000, 2000, 0.05, 2);
+
+        for (RatingsDataset<? extends Rating> ratingsDataset : datasets(ratings)) {
+            Chronometer chronometer = new Chronometer();
+            double iteratorSum = 0;
+            for (Rating rating : ratingsDataset) {
+                iteratorSum += rating.getRatingValue().doubleValue();
+            }
+            long iteratorTime = chronometer.getTotalElapsed();
+
+            chronometer.reset();
+            double streamSum = ratingsDataset.stream().mapToDouble(rating -> rating.getRatingValue().doubleValue()).sum();
+            long streamTime = chronometer.getTotalElapsed();
+
+            chronometer.reset();
+            double parallelSum = ratingsDataset.parallelStream().mapToDouble(rating -> rating.getRatingValue().doubleValue()).sum();
+            long parallelTime = chronometer.getTotalElapsed();
+
+            Global.showInfoMessage(ratingsDataset.getClass().getSimpleName() + " (" + ratings.size() + " ratings): "
+                    + "iterator " + iteratorTime + " ms, stream " + streamTime + " ms, parallel stream " + parallelTime + " ms\n");
+
+            Assert.assertEquals(iteratorSum, streamSum, 0.0);
+            Assert.assertEquals(iteratorSum, parallelSum, 0.0);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package delfos.dataset.generated.random;
+
+import delfos.dataset.basic.item.ContentDatasetDefault;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.basic.user.UsersDatasetAdapter;
+import delfos.dataset.loaders.given.DatasetLoaderGivenRatingsContent;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Valoraciones aleatorias reproducibles para los test. A diferencia de
+ * {@link RandomDatasetLoader}, los usuarios y productos son exactamente los
+ * identificadores desde 1 hasta numUsers y numItems, las valoraciones son
+ * enteras en [1,5] y cada par (usuario, producto) se valora con probabilidad
+ * loadFactor, de forma que el resultado sólo depende de la semilla.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class RandomRatings {
+
+    private RandomRatings() {
+    }
+
+    /**
+     * Genera valoraciones enteras en [1,5].
+     *
+     * @param numUsers Número de usuarios.
+     * @param numItems Número de productos.
+     * @param loadFactor Probabilidad de que un usuario valore un producto.
+     * @param seed Semilla.
+     * @return Valoraciones ordenadas por usuario y producto.
+     */
+    public static List<Rating> randomRatings(int numUsers, int numItems, double loadFactor, long seed) {
+        return randomRatings(numUsers, numItems, loadFactor, false, seed);
+    }
+
+    /**
+     * Genera valoraciones en [1,5], enteras o con decimales.
+     *
+     * @param numUsers Número de usuarios.
+     * @param numItems Número de productos.
+     * @param loadFactor Probabilidad de que un usuario valore un producto.
+     * @param decimalValues Si las valoraciones tienen decimales.
+     * @param seed Semilla.
+     * @return Valoraciones ordenadas por usuario y producto.
+     */
+    public static List<Rating> randomRatings(int numUsers, int numItems, double loadFactor, boolean decimalValues, long seed) {
+        Random random = new Random(seed);
+        List<Rating> ratings = new ArrayList<>();
+        for (int idUser = 1; idUser <= numUsers; idUser++) {
+            for (int idItem = 1; idItem <= numItems; idItem++) {
+                if (random.nextDouble() < loadFactor) {
+                    double value = decimalValues ? 1 + 4 * random.nextDouble() : 1 + random.nextInt(5);
+                    ratings.add(new Rating(idUser, idItem, value));
+                }
+            }
+        }
+        return ratings;
+    }
+
+    public static BothIndexRatingsDataset<Rating> randomRatingsDataset(int numUsers, int numItems, double loadFactor, long seed) {
+        return new BothIndexRatingsDataset<>(randomRatings(numUsers, numItems, loadFactor, seed));
+    }
+
+    public static DatasetLoader<? extends Rating> randomDatasetLoader(int numUsers, int numItems, double loadFactor, long seed) {
+        return datasetLoader(randomRatingsDataset(numUsers, numItems, loadFactor, seed));
+    }
+
+    /**
+     * Dataset loader con los usuarios y productos que aparecen en las
+     * valoraciones indicadas.
+     *
+     * @param ratings Valoraciones.
+     * @return Dataset loader.
+     */
+    public static DatasetLoader<? extends Rating> datasetLoader(Collection<Rating> ratings) {
+        return datasetLoader(new BothIndexRatingsDataset<>(ratings));
+    }
+
+    /**
+     * Dataset loader con los usuarios y productos que aparecen en el dataset
+     * de valoraciones indicado.
+     *
+     * @param ratingsDataset Dataset de valoraciones.
+     * @return Dataset loader.
+     */
+    public static DatasetLoader<? extends Rating> datasetLoader(RatingsDataset<Rating> ratingsDataset) {
+        return new DatasetLoaderGivenRatingsContent(
+                ratingsDataset,
+                new ContentDatasetDefault(ratingsDataset.allRatedItems().stream()
+                        .map(idItem -> new Item(idItem))
+                        .collect(Collectors.toSet())),
+                new UsersDatasetAdapter(ratingsDataset.allUsers().stream()
+                        .map(idUser -> new User(idUser))
+                        .collect(Collectors.toSet())));
+    }
+
+    /**
+     * Selecciona cada valoración para el conjunto de test con la probabilidad
+     * indicada.
+     *
+     * @param ratings Valoraciones.
+     * @param testProbability Probabilidad de que una valoración sea de test.
+     * @param seed Semilla.
+     * @return Productos de test de cada usuario.
+     */
+    public static Map<Integer, Set<Integer>> randomTestSet(Collection<? extends Rating> ratings, double testProbability, long seed) {
+        Random random = new Random(seed);
+        Map<Integer, Set<Integer>> testSet = new TreeMap<>();
+        for (Rating rating : ratings) {
+            if (random.nextDouble() < testProbability) {
+                testSet.computeIfAbsent(rating.getIdUser(), idUser -> new TreeSet<>()).add(rating.getIdItem());
+            }
+        }
+        return testSet;
+    }
+}
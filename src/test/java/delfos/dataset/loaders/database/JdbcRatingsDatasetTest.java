@@ -0,0 +1,126 @@
+package delfos.dataset.loaders.database;
+
+import delfos.JdbcDatabaseMock;
+import delfos.constants.DelfosTest;
+import delfos.databaseconnections.ConnectionPool;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsColumns;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test del dataset de valoraciones leído mediante JDBC, sobre una base de
+ * datos en memoria.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class JdbcRatingsDatasetTest extends DelfosTest {
+
+    private static final double DELTA = 0.000001;
+
+    private JdbcDatabaseMock database;
+    private BothIndexRatingsDataset<Rating> expected;
+
+    public JdbcRatingsDatasetTest() {
+    }
+
+    @Before
+    public void initialiseDatabase() {
+        RatingsTable table = RatingsTable.DEFAULT;
+        database = new JdbcDatabaseMock();
+        database.createTable(table.getTableName(), table.getUserColumn(), table.getItemColumn(), table.getRatingColumn());
+
+        List<Rating> ratings = RandomRatings.randomRatings(100, 80, 0.2, 0);
+        for (Rating rating : ratings) {
+            database.insert(table.getTableName(), rating.getIdUser(), rating.getIdItem(), rating.getRatingValue().intValue());
+        }
+        expected = new BothIndexRatingsDataset<>(ratings);
+    }
+
+    private JdbcRatingsDataset newDataset(int cacheSize) {
+        return new JdbcRatingsDataset(new ConnectionPool(database::newConnection, 2), RatingsTable.DEFAULT, cacheSize);
+    }
+
+    private static void assertSameContent(RatingsDataset<? extends Rating> expected, RatingsDataset<? extends Rating> actual) {
+        Assert.assertEquals(expected.getNumRatings(), actual.getNumRatings());
+        Assert.assertEquals(expected.allUsers(), actual.allUsers());
+        Assert.assertEquals(expected.allRatedItems(), actual.allRatedItems());
+        for (int idUser : expected.allUsers()) {
+            Assert.assertEquals(expected.getUserRated(idUser), actual.getUserRated(idUser));
+            Assert.assertEquals(expected.getMeanRatingUser(idUser), actual.getMeanRatingUser(idUser), DELTA);
+        }
+        for (int idItem : expected.allRatedItems()) {
+            Assert.assertEquals(expected.getItemRated(idItem), actual.getItemRated(idItem));
+            Assert.assertEquals(expected.getMeanRatingItem(idItem), actual.getMeanRatingItem(idItem), DELTA);
+        }
+    }
+
+    @Test
+    public void testSameContent() {
+        try (JdbcRatingsDataset dataset = newDataset(JdbcRatingsDataset.DEFAULT_CACHE_SIZE)) {
+            assertSameContent(expected, dataset);
+
+            Rating rating = expected.iterator().next();
+            Assert.assertEquals(rating.getRatingValue().doubleValue(),
+                    dataset.getRating(rating.getIdUser(), rating.getIdItem()).getRatingValue().doubleValue(), DELTA);
+            Assert.assertNull(dataset.getRating(-1, rating.getIdItem()));
+        }
+    }
+
+    @Test
+    public void testStatementsAndProfilesAreReused() {
+        try (JdbcRatingsDataset dataset = newDataset(JdbcRatingsDataset.DEFAULT_CACHE_SIZE)) {
+            for (int i = 0; i < 3; i++) {
+                for (int idUser : dataset.allUsers()) {
+                    dataset.getUserRatingsRated(idUser);
+                }
+            }
+            int numUsers = expected.allUsers().size();
+
+            //Una consulta para los usuarios y otra por cada perfil.
+            Assert.assertEquals(1 + numUsers, database.getNumQueries());
+            Assert.assertEquals(2, database.getNumPreparedStatements());
+            Assert.assertEquals(1, database.getNumConnections());
+            Assert.assertEquals(numUsers, dataset.getCacheMisses());
+            Assert.assertEquals(2 * numUsers, dataset.getCacheHits());
+        }
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        try (JdbcRatingsDataset dataset = newDataset(10)) {
+            for (int i = 0; i < 2; i++) {
+                for (int idUser = 1; idUser <= 20; idUser++) {
+                    dataset.getUserRatingsRated(idUser);
+                }
+            }
+            //Recorrer más perfiles que el tamaño de la caché los descarta todos.
+            Assert.assertEquals(40, dataset.getCacheMisses());
+            Assert.assertEquals(0, dataset.getCacheHits());
+
+            dataset.getUserRatingsRated(20);
+            Assert.assertEquals(1, dataset.getCacheHits());
+        }
+    }
+
+    @Test
+    public void testLoadAll() {
+        try (JdbcRatingsDataset dataset = newDataset(JdbcRatingsDataset.DEFAULT_CACHE_SIZE)) {
+            dataset.setFetchSize(JdbcRatingsDataset.MYSQL_STREAMING_FETCH_SIZE);
+
+            RatingsColumns columns = dataset.loadAll();
+
+            Assert.assertEquals(expected.getNumRatings(), columns.size());
+            Assert.assertEquals(1, database.getNumQueries());
+            Assert.assertEquals(JdbcRatingsDataset.MYSQL_STREAMING_FETCH_SIZE, database.getLastFetchSize());
+
+            assertSameContent(expected, dataset.toMemoryDataset());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package delfos.dataset.memory.validationdatasets;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.storage.validationdatasets.PairOfTrainTestRatingsDataset;
+import delfos.dataset.storage.validationdatasets.TestRatingsDataset;
+import delfos.dataset.storage.validationdatasets.TestRatingsDataset_Bitmap;
+import delfos.dataset.storage.validationdatasets.TrainingRatingsDataset;
+import delfos.dataset.storage.validationdatasets.TrainingRatingsDataset_Bitmap;
+import delfos.dataset.storage.validationdatasets.ValidationDatasets;
+import delfos.experiment.validation.validationtechnique.HoldOut_Ratings;
+import delfos.experiment.validation.validationtechnique.ValidationTechnique;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que los conjuntos de validación con máscara de bits son
+ * equivalentes a los conjuntos de validación por defecto.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class BitmapValidationDatasetsTest extends DelfosTest {
+
+    public BitmapValidationDatasetsTest() {
+    }
+
+    @Test
+    public void testSameContentThanCPU() throws Exception {
+        List<Rating> ratings = RandomRatings.randomRatings(40, 60, 0.3, 0);
+        BothIndexRatingsDataset<Rating> originalDataset = new BothIndexRatingsDataset<>(ratings);
+        Map<Integer, Set<Integer>> testSet = RandomRatings.randomTestSet(ratings, 0.2, 1);
+
+        TrainingRatingsDataset<Rating> trainingCPU = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet, ValidationDatasets.Backend.CPU);
+        TestRatingsDataset<Rating> testCPU = ValidationDatasets.getInstance().createTestDataset(originalDataset, testSet, ValidationDatasets.Backend.CPU);
+
+        TrainingRatingsDataset<Rating> trainingBitmap = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet, ValidationDatasets.Backend.BITMAP);
+        TestRatingsDataset<Rating> testBitmap = ValidationDatasets.getInstance().createTestDataset(originalDataset, testSet, ValidationDatasets.Backend.BITMAP);
+
+        Assert.assertTrue(trainingBitmap instanceof TrainingRatingsDataset_Bitmap);
+        Assert.assertTrue(testBitmap instanceof TestRatingsDataset_Bitmap);
+
+        assertSameContent(originalDataset, trainingCPU, trainingBitmap);
+        assertSameContent(originalDataset, testCPU, testBitmap);
+
+        Assert.assertEquals(originalDataset.getNumRatings(), trainingBitmap.getNumRatings() + testBitmap.getNumRatings());
+        Assert.assertEquals(originalDataset.allUsers(), trainingBitmap.allUsers());
+        Assert.assertEquals(testSet.keySet(), testBitmap.allUsers());
+    }
+
+    @Test
+    public void testBackendIsParameterOfValidationTechnique() throws Exception {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(30, 40, 0.3, 4);
+
+        HoldOut_Ratings holdOut = new HoldOut_Ratings();
+        holdOut.setSeedValue(5);
+        PairOfTrainTestRatingsDataset cpu = holdOut.shuffle(datasetLoader)[0];
+
+        holdOut.setParameterValue(ValidationTechnique.VALIDATION_DATASETS_BACKEND, ValidationDatasets.Backend.BITMAP);
+        PairOfTrainTestRatingsDataset bitmap = holdOut.shuffle(datasetLoader)[0];
+
+        Assert.assertFalse(cpu.train instanceof TrainingRatingsDataset_Bitmap);
+        Assert.assertTrue(bitmap.train instanceof TrainingRatingsDataset_Bitmap);
+        Assert.assertTrue(bitmap.test instanceof TestRatingsDataset_Bitmap);
+        Assert.assertEquals(cpu.train, bitmap.train);
+        Assert.assertEquals(cpu.test, bitmap.test);
+    }
+
+    private static void assertSameContent(RatingsDataset<Rating> originalDataset, RatingsDataset<Rating> expected, RatingsDataset<Rating> actual) throws Exception {
+        Assert.assertEquals(expected.getNumRatings(), actual.getNumRatings());
+        Assert.assertEquals(expected.allRatedItems(), actual.allRatedItems());
+        Assert.assertEquals(expected.getMeanRating(), actual.getMeanRating(), 0.00001);
+
+        for (int idUser : expected.allUsers()) {
+            Assert.assertEquals(expected.getUserRatingsRated(idUser), actual.getUserRatingsRated(idUser));
+            Assert.assertEquals(expected.getUserRated(idUser), actual.getUserRated(idUser));
+            Assert.assertEquals(expected.getUserRatingsVector(idUser), actual.getUserRatingsVector(idUser));
+            Assert.assertEquals(expected.sizeOfUserRatings(idUser), actual.sizeOfUserRatings(idUser));
+            Assert.assertEquals(expected.getMeanRatingUser(idUser), actual.getMeanRatingUser(idUser), 0.00001);
+        }
+
+        for (int idItem : originalDataset.allRatedItems()) {
+            Assert.assertEquals(expected.getItemRatingsRated(idItem), actual.getItemRatingsRated(idItem));
+            Assert.assertEquals(expected.getItemRatingsVector(idItem), actual.getItemRatingsVector(idItem));
+            Assert.assertEquals(expected.sizeOfItemRatings(idItem), actual.sizeOfItemRatings(idItem));
+            Assert.assertEquals(expected.getMeanRatingItem(idItem), actual.getMeanRatingItem(idItem), 0.00001);
+        }
+
+        for (int idUser : originalDataset.allUsers()) {
+            for (int idItem : originalDataset.allRatedItems()) {
+                Assert.assertEquals(expected.getRating(idUser, idItem), actual.getRating(idUser, idItem));
+            }
+        }
+
+        int numRatingsIterated = 0;
+        for (Rating rating : actual) {
+            Assert.assertEquals(expected.getRating(rating.getIdUser(), rating.getIdItem()), rating);
+            numRatingsIterated++;
+        }
+        Assert.assertEquals(expected.getNumRatings(), numRatingsIterated);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreationFailureDueToInexistingRating() throws Exception {
+        BothIndexRatingsDataset<Rating> originalDataset = new BothIndexRatingsDataset<>(RandomRatings.randomRatings(5, 5, 0.5, 2));
+
+        Map<Integer, Set<Integer>> testSet = new TreeMap<>();
+        testSet.put(1, new TreeSet<>());
+        testSet.get(1).add(6);
+
+        ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet, ValidationDatasets.Backend.BITMAP);
+    }
+
+    /**
+     * Compara el tiempo de recorrer los perfiles de los usuarios de entrenamiento
+     * de varias particiones con ambas implementaciones.
+     *
+     * @throws java.lang.Exception
+     */
+    //@Test
+    public void testScanTimeComparedToCPU() throws Exception {
+        List<Rating> ratings = RandomRatings.randomRatings(1000, 800, 0.05, 3);
+        BothIndexRatingsDataset<Rating> originalDataset = new BothIndexRatingsDataset<>(ratings);
+        final int numFolds = 5;
+        List<Map<Integer, Set<Integer>>> testSets = new ArrayList<>();
+        for (int fold = 0; fold < numFolds; fold++) {
+            testSets.add(RandomRatings.randomTestSet(ratings, 1.0 / numFolds, fold));
+        }
+
+        long[] elapsed = new long[2];
+        double[] sums = new double[2];
+        ValidationDatasets.Backend[] backends = {ValidationDatasets.Backend.CPU, ValidationDatasets.Backend.BITMAP};
+        for (int i = 0; i < backends.length; i++) {
+            Chronometer chronometer = new Chronometer();
+            for (Map<Integer, Set<Integer>> testSet : testSets) {
+                TrainingRatingsDataset<Rating> training = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet, backends[i]);
+                for (int idUser : training.allUsers()) {
+                    for (Rating rating : training.getUserRatingsRated(idUser).values()) {
+                        sums[i] += rating.getRatingValue().doubleValue();
+                    }
+                }
+            }
+            elapsed[i] = chronometer.getTotalElapsed();
+        }
+
+        Global.showInfoMessage("Ratings: " + ratings.size() + ", folds: " + numFolds + "\n");
+        Global.showInfoMessage("CPU:    training scan " + elapsed[0] + " ms\n");
+        Global.showInfoMessage("BITMAP: training scan " + elapsed[1] + " ms\n");
+
+        Assert.assertEquals(sums[0], sums[1], 0.001);
+    }
+}
@@ -6,11 +6,15 @@ import delfos.constants.DelfosTest;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.generated.random.RandomRatings;
 import delfos.dataset.generated.random.RandomRatingsDatasetFactory;
 import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.storage.validationdatasets.TestRatingsDataset;
 import delfos.dataset.storage.validationdatasets.TrainingRatingsDataset;
 import delfos.dataset.storage.validationdatasets.ValidationDatasets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -242,4 +246,46 @@ public class TrainingRatingsDatasetTest extends DelfosTest {
 
         TrainingRatingsDataset<Rating> trainingRatingsDataset = ValidationDatasets.getInstance().createTrainingDataset(datasetLoader.getRatingsDataset(), testItems);
     }
+
+    /**
+     * Comprueba que el acceso primitivo a las valoraciones de los datasets de
+     * entrenamiento y test devuelve lo mismo que los mapas de valoraciones.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testPrimitiveAccessIsConsistentWithMaps() throws Exception {
+        List<Rating> ratings = RandomRatings.randomRatings(20, 30, 0.4, 0);
+        BothIndexRatingsDataset<Rating> originalDataset = new BothIndexRatingsDataset<>(ratings);
+
+        Map<Integer, Set<Integer>> testRatings = RandomRatings.randomTestSet(ratings, 0.2, 1);
+
+        TrainingRatingsDataset<Rating> trainingRatingsDataset = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testRatings);
+        TestRatingsDataset<Rating> testRatingsDataset = ValidationDatasets.getInstance().createTestDataset(originalDataset, testRatings);
+
+        for (RatingsDataset<Rating> ratingsDataset : Arrays.<RatingsDataset<Rating>>asList(trainingRatingsDataset, testRatingsDataset)) {
+            for (int idUser : ratingsDataset.allUsers()) {
+                RatingsVector expected = RatingsVector.of(ratingsDataset.getUserRatingsRated(idUser));
+                Assert.assertEquals(expected, ratingsDataset.getUserRatingsVector(idUser));
+
+                List<Integer> ids = new ArrayList<>();
+                ratingsDataset.forEachUserRating(idUser, (idItem, value) -> {
+                    Assert.assertEquals(expected.get(idItem), value, 0.0);
+                    ids.add(idItem);
+                });
+                Assert.assertEquals(new ArrayList<>(new TreeSet<>(ratingsDataset.getUserRated(idUser))), ids);
+            }
+            for (int idItem : originalDataset.allRatedItems()) {
+                RatingsVector expected = RatingsVector.of(ratingsDataset.getItemRatingsRated(idItem));
+                Assert.assertEquals(expected, ratingsDataset.getItemRatingsVector(idItem));
+
+                int[] size = {0};
+                ratingsDataset.forEachItemRating(idItem, (idUser, value) -> {
+                    Assert.assertEquals(expected.get(idUser), value, 0.0);
+                    size[0]++;
+                });
+                Assert.assertEquals(expected.size(), size[0]);
+            }
+        }
+    }
 }
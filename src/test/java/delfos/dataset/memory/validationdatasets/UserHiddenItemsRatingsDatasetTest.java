@@ -0,0 +1,131 @@
+package delfos.dataset.memory.validationdatasets;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.storage.validationdatasets.TrainingRatingsDataset;
+import delfos.dataset.storage.validationdatasets.ValidationDatasets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que el dataset que oculta productos de un usuario es
+ * equivalente al conjunto de entrenamiento con ese único usuario en test.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class UserHiddenItemsRatingsDatasetTest extends DelfosTest {
+
+    private static final double DELTA = 0.000001;
+
+    public UserHiddenItemsRatingsDatasetTest() {
+    }
+
+    private static BothIndexRatingsDataset<Rating> randomDataset(int numUsers, int numItems, double loadFactor, long seed) {
+        List<Rating> ratings = RandomRatings.randomRatings(numUsers, numItems, loadFactor, seed);
+        //Producto que sólo valora el usuario 1.
+        ratings.add(new Rating(1, numItems + 1, 5));
+        return new BothIndexRatingsDataset<>(ratings);
+    }
+
+    private static void assertSameContent(RatingsDataset<Rating> expected, RatingsDataset<Rating> actual) {
+        Assert.assertEquals(expected.getNumRatings(), actual.getNumRatings());
+        Assert.assertEquals(expected.allUsers(), actual.allUsers());
+        Assert.assertEquals(expected.allRatedItems(), actual.allRatedItems());
+        Assert.assertEquals(expected.getMeanRating(), actual.getMeanRating(), DELTA);
+        Assert.assertEquals(expected.getFingerprint(), actual.getFingerprint());
+
+        for (int idUser : expected.allUsers()) {
+            Assert.assertEquals(expected.getUserRatingsRated(idUser), actual.getUserRatingsRated(idUser));
+            Assert.assertEquals(expected.getUserRated(idUser), actual.getUserRated(idUser));
+            Assert.assertEquals(expected.sizeOfUserRatings(idUser), actual.sizeOfUserRatings(idUser));
+            Assert.assertEquals(expected.getUserRatingsVector(idUser), actual.getUserRatingsVector(idUser));
+            Assert.assertEquals(expected.getMeanRatingUser(idUser), actual.getMeanRatingUser(idUser), DELTA);
+        }
+        for (int idItem : expected.allRatedItems()) {
+            Assert.assertEquals(expected.getItemRatingsRated(idItem), actual.getItemRatingsRated(idItem));
+            Assert.assertEquals(expected.getItemRated(idItem), actual.getItemRated(idItem));
+            Assert.assertEquals(expected.sizeOfItemRatings(idItem), actual.sizeOfItemRatings(idItem));
+            Assert.assertEquals(expected.getItemRatingsVector(idItem), actual.getItemRatingsVector(idItem));
+            Assert.assertEquals(expected.getMeanRatingItem(idItem), actual.getMeanRatingItem(idItem), DELTA);
+        }
+        for (int idUser : expected.allUsers()) {
+            for (int idItem : expected.allRatedItems()) {
+                Assert.assertEquals(expected.getRating(idUser, idItem), actual.getRating(idUser, idItem));
+            }
+        }
+    }
+
+    @Test
+    public void testSameContentThanTrainingDataset() {
+        BothIndexRatingsDataset<Rating> originalDataset = randomDataset(40, 60, 0.3, 0);
+
+        for (int idUser : Arrays.asList(1, 7, 40)) {
+            Set<Integer> hiddenItems = new TreeSet<>(originalDataset.getUserRated(idUser));
+            hiddenItems.removeIf(idItem -> idItem % 3 == 0);
+
+            Map<Integer, Set<Integer>> testSet = new TreeMap<>();
+            testSet.put(idUser, hiddenItems);
+            TrainingRatingsDataset<Rating> expected = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet);
+            TrainingRatingsDataset<Rating> actual = ValidationDatasets.getInstance().createUserHiddenItemsDataset(originalDataset, idUser, hiddenItems);
+
+            assertSameContent(expected, actual);
+            Assert.assertSame(originalDataset, actual.getOriginalDataset());
+        }
+    }
+
+    @Test
+    public void testItemsNotRatedAreIgnored() {
+        BothIndexRatingsDataset<Rating> originalDataset = randomDataset(10, 10, 0.5, 1);
+        Set<Integer> ratedItems = originalDataset.getUserRated(2);
+        Set<Integer> hiddenItems = new TreeSet<>(Arrays.asList(1000, 1001));
+
+        RatingsDataset<Rating> actual = ValidationDatasets.getInstance().createUserHiddenItemsDataset(originalDataset, 2, hiddenItems);
+
+        Assert.assertEquals(originalDataset.getNumRatings(), actual.getNumRatings());
+        Assert.assertEquals(ratedItems, actual.getUserRated(2));
+        Assert.assertEquals(originalDataset.getFingerprint(), actual.getFingerprint());
+    }
+
+    /**
+     * Compara el tiempo de crear un dataset por petición y consultar el perfil
+     * del usuario y la media con el conjunto de entrenamiento.
+     */
+    //@Test
+    public void testTimeComparedToTrainingDataset() {
+        BothIndexRatingsDataset<Rating> originalDataset = randomDataset(2000, 1000, 0.05, 2);
+
+        Chronometer chronometer = new Chronometer();
+        double sumTraining = 0;
+        for (int idUser : originalDataset.allUsers()) {
+            Map<Integer, Set<Integer>> testSet = new TreeMap<>();
+            testSet.put(idUser, new TreeSet<>(originalDataset.getUserRated(idUser)));
+            RatingsDataset<Rating> training = ValidationDatasets.getInstance().createTrainingDataset(originalDataset, testSet);
+            sumTraining += training.getUserRatingsVector(idUser).size() + training.sizeOfItemRatings(1);
+        }
+        long trainingTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        double sumHidden = 0;
+        for (int idUser : originalDataset.allUsers()) {
+            RatingsDataset<Rating> hidden = ValidationDatasets.getInstance().createUserHiddenItemsDataset(originalDataset, idUser, originalDataset.getUserRated(idUser));
+            sumHidden += hidden.getUserRatingsVector(idUser).size() + hidden.sizeOfItemRatings(1);
+        }
+        long hiddenTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Per-request datasets for " + originalDataset.allUsers().size() + " users: training " + trainingTime + " ms, hidden items " + hiddenTime + " ms\n");
+
+        Assert.assertEquals(sumTraining, sumHidden, 0.0);
+    }
+}
@@ -0,0 +1,217 @@
+package delfos.dataset.storage.mapped;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.features.EntityWithFeatures;
+import delfos.dataset.basic.features.Feature;
+import delfos.dataset.basic.features.FeatureGenerator;
+import delfos.dataset.basic.features.FeatureType;
+import delfos.dataset.basic.item.ContentDataset;
+import delfos.dataset.basic.item.ContentDatasetDefault;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.domain.DecimalDomain;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.basic.user.UsersDataset;
+import delfos.dataset.basic.user.UsersDatasetAdapter;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.loaders.binary.BinaryFileDatasetLoader;
+import delfos.dataset.loaders.given.DatasetLoaderGivenRatingsContent;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.io.binary.dataset.DatasetToBinary;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que el dataset proyectado en memoria tiene el mismo
+ * contenido que el dataset del que se generó el fichero binario.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class MappedRatingsDatasetTest extends DelfosTest {
+
+    private static final double DELTA = 0.000001;
+
+    public MappedRatingsDatasetTest() {
+    }
+
+    /**
+     * Dataset aleatorio con identificadores no consecutivos.
+     */
+    private static BothIndexRatingsDataset<Rating> randomDataset(int numUsers, int numItems, double loadFactor, boolean decimalValues, long seed) {
+        return new BothIndexRatingsDataset<>(RandomRatings.randomRatings(numUsers, numItems, loadFactor, decimalValues, seed).stream()
+                .map(rating -> new Rating(rating.getIdUser() * 3, rating.getIdItem() * 7, rating.getRatingValue()))
+                .collect(Collectors.toList()));
+    }
+
+    private File[] binaryFiles(String name) {
+        File directory = new File(getTemporalDirectoryForTest(), name);
+        return new File[]{
+            new File(directory, "ratings.bin"),
+            new File(directory, "content.bin"),
+            new File(directory, "users.bin")};
+    }
+
+    private static void assertSameContent(RatingsDataset<Rating> expected, RatingsDataset<Rating> actual) {
+        Assert.assertEquals(expected.getNumRatings(), actual.getNumRatings());
+        Assert.assertEquals(expected.allUsers(), actual.allUsers());
+        Assert.assertEquals(expected.allRatedItems(), actual.allRatedItems());
+        Assert.assertEquals(expected.getMeanRating(), actual.getMeanRating(), DELTA);
+
+        for (int idUser : expected.allUsers()) {
+            Assert.assertEquals(expected.getUserRatingsRated(idUser), actual.getUserRatingsRated(idUser));
+            Assert.assertEquals(expected.getUserRated(idUser), actual.getUserRated(idUser));
+            Assert.assertEquals(expected.sizeOfUserRatings(idUser), actual.sizeOfUserRatings(idUser));
+            Assert.assertEquals(expected.getUserRatingsVector(idUser), actual.getUserRatingsVector(idUser));
+            Assert.assertEquals(expected.getMeanRatingUser(idUser), actual.getMeanRatingUser(idUser), DELTA);
+        }
+        for (int idItem : expected.allRatedItems()) {
+            Assert.assertEquals(expected.getItemRatingsRated(idItem), actual.getItemRatingsRated(idItem));
+            Assert.assertEquals(expected.getItemRated(idItem), actual.getItemRated(idItem));
+            Assert.assertEquals(expected.sizeOfItemRatings(idItem), actual.sizeOfItemRatings(idItem));
+            Assert.assertEquals(expected.getItemRatingsVector(idItem), actual.getItemRatingsVector(idItem));
+            Assert.assertEquals(expected.getMeanRatingItem(idItem), actual.getMeanRatingItem(idItem), DELTA);
+        }
+        for (int idUser : expected.allUsers()) {
+            for (int idItem : expected.allRatedItems()) {
+                Assert.assertEquals(expected.getRating(idUser, idItem), actual.getRating(idUser, idItem));
+            }
+        }
+        Assert.assertNull(actual.getRating(-1, -1));
+        Assert.assertTrue(actual.getUserRatingsRated(-1).isEmpty());
+    }
+
+    @Test
+    public void testSameContentThanOriginalDataset() {
+        BothIndexRatingsDataset<Rating> originalDataset = randomDataset(60, 80, 0.2, false, 0);
+        File[] files = binaryFiles("integer");
+
+        new DatasetToBinary(files[0], files[1], files[2]).saveRatingsDataset(originalDataset);
+        MappedRatingsDataset mappedDataset = new MappedRatingsDataset(files[0]);
+
+        assertSameContent(originalDataset, mappedDataset);
+        Assert.assertEquals(1, mappedDataset.getMinRating(), 0.0);
+        Assert.assertEquals(5, mappedDataset.getMaxRating(), 0.0);
+    }
+
+    @Test
+    public void testRatingsDomainFromHeader() {
+        List<Rating> ratings = new ArrayList<>();
+        ratings.add(new Rating(1, 1, 0.5));
+        ratings.add(new Rating(1, 2, 10));
+        ratings.add(new Rating(2, 1, 3.5));
+        File[] files = binaryFiles("domain");
+
+        new DatasetToBinary(files[0], files[1], files[2]).saveRatingsDataset(new BothIndexRatingsDataset<>(ratings));
+        DecimalDomain domain = (DecimalDomain) new MappedRatingsDataset(files[0]).getRatingsDomain();
+
+        Assert.assertEquals(0.5, domain.min().doubleValue(), 0.0);
+        Assert.assertEquals(10, domain.max().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testDoublePrecisionValues() {
+        BothIndexRatingsDataset<Rating> originalDataset = randomDataset(30, 40, 0.3, true, 1);
+        File[] files = binaryFiles("decimal");
+
+        new DatasetToBinary(files[0], files[1], files[2]).saveRatingsDataset(originalDataset);
+        MappedRatingsDataset mappedDataset = new MappedRatingsDataset(files[0]);
+
+        for (Rating rating : originalDataset) {
+            Assert.assertEquals(rating.getRatingValue().doubleValue(),
+                    mappedDataset.getRating(rating.getIdUser(), rating.getIdItem()).getRatingValue().doubleValue(), 0.0);
+        }
+    }
+
+    @Test
+    public void testDatasetLoaderWithUsersAndContent() {
+        BothIndexRatingsDataset<Rating> originalDataset = randomDataset(20, 30, 0.3, false, 2);
+
+        FeatureGenerator featureGenerator = new FeatureGenerator();
+        Feature age = featureGenerator.createFeature("age", FeatureType.Numerical);
+        Feature genre = featureGenerator.createFeature("genre", FeatureType.Nominal);
+
+        Set<User> users = originalDataset.allUsers().stream()
+                .map(idUser -> new User(idUser, "user " + idUser, new Feature[]{age}, new Object[]{(double) idUser % 50}))
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<Item> items = originalDataset.allRatedItems().stream()
+                .map(idItem -> idItem % 2 == 0
+                        ? new Item(idItem, "item " + idItem, new Feature[]{genre}, new Object[]{"g" + idItem % 3})
+                        : new Item(idItem, "item " + idItem))
+                .collect(Collectors.toCollection(TreeSet::new));
+        UsersDataset usersDataset = new UsersDatasetAdapter(users);
+        ContentDataset contentDataset = new ContentDatasetDefault(items);
+
+        File[] files = binaryFiles("loader");
+        new DatasetToBinary(files[0], files[1], files[2]).saveDataset(
+                new DatasetLoaderGivenRatingsContent(originalDataset, contentDataset, usersDataset));
+
+        BinaryFileDatasetLoader datasetLoader = new BinaryFileDatasetLoader(files[0], files[1], files[2]);
+
+        assertSameContent(originalDataset, datasetLoader.getRatingsDataset());
+        Assert.assertSame(datasetLoader.getRatingsDataset(), datasetLoader.getRatingsDataset());
+
+        Assert.assertEquals(usersDataset.size(), datasetLoader.getUsersDataset().size());
+        for (User user : usersDataset) {
+            User loaded = datasetLoader.getUsersDataset().get(user.getId());
+            Assert.assertEquals(user.getName(), loaded.getName());
+            Assert.assertEquals(featureValuesByName(user), featureValuesByName(loaded));
+        }
+
+        Assert.assertEquals(contentDataset.size(), datasetLoader.getContentDataset().size());
+        for (Item item : contentDataset) {
+            Item loaded = datasetLoader.getContentDataset().get(item.getId());
+            Assert.assertEquals(item.getName(), loaded.getName());
+            Assert.assertEquals(featureValuesByName(item), featureValuesByName(loaded));
+        }
+    }
+
+    /**
+     * Los datasets reindexan las características, por lo que se comparan los
+     * valores por el nombre de la característica.
+     */
+    private static Map<String, Object> featureValuesByName(EntityWithFeatures entity) {
+        Map<String, Object> featureValues = new TreeMap<>();
+        for (Feature feature : entity.getFeatures()) {
+            featureValues.put(feature.getExtendedName(), entity.getFeatureValue(feature));
+        }
+        return featureValues;
+    }
+
+    /**
+     * Compara el tiempo de proyectar el fichero binario con el de construir el
+     * dataset en memoria.
+     */
+    //@Test
+    public void testTimeComparedToMemoryDataset() {
+        BothIndexRatingsDataset<Rating> originalDataset = randomDataset(3000, 1000, 0.05, false, 3);
+        File[] files = binaryFiles("time");
+        new DatasetToBinary(files[0], files[1], files[2]).saveRatingsDataset(originalDataset);
+
+        List<Rating> ratings = new ArrayList<>();
+        originalDataset.forEach(ratings::add);
+
+        Chronometer chronometer = new Chronometer();
+        BothIndexRatingsDataset<Rating> memoryDataset = new BothIndexRatingsDataset<>(ratings);
+        long memoryTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        MappedRatingsDataset mappedDataset = new MappedRatingsDataset(files[0]);
+        long mappedTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Loading " + ratings.size() + " ratings: memory " + memoryTime + " ms, mapped " + mappedTime + " ms (" + files[0].length() + " bytes)\n");
+
+        Assert.assertEquals(memoryDataset.getNumRatings(), mappedDataset.getNumRatings());
+    }
+}
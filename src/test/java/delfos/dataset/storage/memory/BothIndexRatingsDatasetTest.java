@@ -0,0 +1,35 @@
+package delfos.dataset.storage.memory;
+
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.rating.Rating;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test de {@link BothIndexRatingsDataset}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class BothIndexRatingsDatasetTest extends DelfosTest {
+
+    public BothIndexRatingsDatasetTest() {
+    }
+
+    @Test
+    public void testIsRatedUserAndItem() {
+        BothIndexRatingsDataset<Rating> bothIndex = new BothIndexRatingsDataset<>(Arrays.asList(
+                new Rating(1, 1, 3),
+                new Rating(1, 2, 4),
+                new Rating(2, 2, 5)));
+
+        Assert.assertTrue(bothIndex.isRatedUser(1));
+        Assert.assertTrue(bothIndex.isRatedUser(2));
+        Assert.assertFalse(bothIndex.isRatedUser(3));
+
+        Assert.assertTrue(bothIndex.isRatedItem(1));
+        Assert.assertTrue(bothIndex.isRatedItem(2));
+        Assert.assertFalse(bothIndex.isRatedItem(3));
+    }
+}
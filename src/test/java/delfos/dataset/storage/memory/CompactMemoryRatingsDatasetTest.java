@@ -0,0 +1,177 @@
+package delfos.dataset.storage.memory;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.generated.random.RandomRatings;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que {@link CompactMemoryRatingsDataset} es intercambiable
+ * con {@link BothIndexRatingsDataset}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class CompactMemoryRatingsDatasetTest extends DelfosTest {
+
+    public CompactMemoryRatingsDatasetTest() {
+    }
+
+    /**
+     * Valoraciones aleatorias con identificadores no consecutivos.
+     */
+    private static List<Rating> randomRatings(int numUsers, int numItems, double loadFactor, long seed) {
+        return RandomRatings.randomRatings(numUsers, numItems, loadFactor, seed).stream()
+                .map(rating -> new Rating(rating.getIdUser() * 3, rating.getIdItem() * 7, rating.getRatingValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSameContentThanBothIndex() throws Exception {
+        List<Rating> ratings = randomRatings(50, 80, 0.3, 0);
+
+        BothIndexRatingsDataset<Rating> bothIndex = new BothIndexRatingsDataset<>(ratings);
+        CompactMemoryRatingsDataset compact = new CompactMemoryRatingsDataset(ratings);
+
+        Assert.assertEquals(bothIndex.getNumRatings(), compact.getNumRatings());
+        Assert.assertEquals(bothIndex.allUsers(), compact.allUsers());
+        Assert.assertEquals(bothIndex.allRatedItems(), compact.allRatedItems());
+        Assert.assertTrue(bothIndex.equals(compact));
+        Assert.assertTrue(compact.equals(bothIndex));
+        Assert.assertEquals(bothIndex.getMeanRating(), compact.getMeanRating(), 0.00001);
+
+        for (int idUser : bothIndex.allUsers()) {
+            Assert.assertEquals(bothIndex.getUserRatingsRated(idUser), compact.getUserRatingsRated(idUser));
+            Assert.assertEquals(bothIndex.getUserRated(idUser), compact.getUserRated(idUser));
+            Assert.assertEquals(bothIndex.getMeanRatingUser(idUser), compact.getMeanRatingUser(idUser), 0.00001);
+            Assert.assertEquals(bothIndex.sizeOfUserRatings(idUser), compact.sizeOfUserRatings(idUser));
+            Assert.assertEquals(bothIndex.getUserRatingsVector(idUser), compact.getUserRatingsVector(idUser));
+
+            List<Integer> itemsInOrder = new ArrayList<>(compact.getUserRated(idUser));
+            Assert.assertEquals(new ArrayList<>(new TreeSet<>(itemsInOrder)), itemsInOrder);
+        }
+
+        for (int idItem : bothIndex.allRatedItems()) {
+            Assert.assertEquals(bothIndex.getItemRatingsRated(idItem), compact.getItemRatingsRated(idItem));
+            Assert.assertEquals(bothIndex.getItemRated(idItem), compact.getItemRated(idItem));
+            Assert.assertEquals(bothIndex.getMeanRatingItem(idItem), compact.getMeanRatingItem(idItem), 0.00001);
+            Assert.assertEquals(bothIndex.sizeOfItemRatings(idItem), compact.sizeOfItemRatings(idItem));
+            Assert.assertEquals(bothIndex.getItemRatingsVector(idItem), compact.getItemRatingsVector(idItem));
+        }
+
+        for (int idUser : bothIndex.allUsers()) {
+            for (int idItem : bothIndex.allRatedItems()) {
+                Assert.assertEquals(bothIndex.getRating(idUser, idItem), compact.getRating(idUser, idItem));
+            }
+        }
+
+        int numRatingsIterated = 0;
+        for (Rating rating : compact) {
+            Assert.assertEquals(bothIndex.getRating(rating.getIdUser(), rating.getIdItem()), rating);
+            numRatingsIterated++;
+        }
+        Assert.assertEquals(ratings.size(), numRatingsIterated);
+    }
+
+    @Test
+    public void testCopyConstructor() throws Exception {
+        List<Rating> ratings = randomRatings(20, 20, 0.5, 1);
+
+        BothIndexRatingsDataset<Rating> bothIndex = new BothIndexRatingsDataset<>(ratings);
+        CompactMemoryRatingsDataset compact = new CompactMemoryRatingsDataset(bothIndex);
+
+        Assert.assertTrue(bothIndex.equals(compact));
+    }
+
+    @Test
+    public void testNotRepresentableInSinglePrecision() throws Exception {
+        List<Rating> ratings = Arrays.asList(
+                new Rating(1, 1, 3.7),
+                new Rating(1, 2, 1.0 / 3),
+                new Rating(2, 1, 4.5));
+
+        CompactMemoryRatingsDataset compact = new CompactMemoryRatingsDataset(ratings);
+
+        Assert.assertEquals(3.7, compact.getRating(1, 1).getRatingValue().doubleValue(), 0.0);
+        Assert.assertEquals(1.0 / 3, compact.getRating(1, 2).getRatingValue().doubleValue(), 0.0);
+        Assert.assertEquals(4.5, compact.getRating(2, 1).getRatingValue().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testUnknownEntities() throws Exception {
+        CompactMemoryRatingsDataset compact = new CompactMemoryRatingsDataset(randomRatings(5, 5, 1.0, 2));
+
+        Assert.assertNull(compact.getRating(1, 7));
+        Assert.assertNull(compact.getRating(3, 8));
+        Assert.assertTrue(compact.getUserRatingsRated(4).isEmpty());
+        Assert.assertTrue(compact.getItemRated(6).isEmpty());
+        Assert.assertNull(compact.getUserRatingsRated(3).get(8));
+        Assert.assertFalse(compact.isRatedUser(4));
+        Assert.assertTrue(compact.isRatedUser(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicatedRating() {
+        new CompactMemoryRatingsDataset(Arrays.asList(
+                new Rating(1, 1, 3),
+                new Rating(1, 2, 4),
+                new Rating(1, 1, 5)));
+    }
+
+    /**
+     * Compara memoria y tiempo de construcción y acceso con
+     * {@link BothIndexRatingsDataset} sobre un dataset sintético.
+     */
+    //@Test
+    public void testMemoryAndLatencyComparedToBothIndex() {
+        List<Rating> ratings = randomRatings(2000, 1500, 0.05, 3);
+
+        long memoryBefore = usedMemory();
+        Chronometer chronometer = new Chronometer();
+        BothIndexRatingsDataset<Rating> bothIndex = new BothIndexRatingsDataset<>(ratings);
+        long bothIndexBuild = chronometer.getTotalElapsed();
+        long bothIndexMemory = usedMemory() - memoryBefore;
+        long bothIndexScan = timeOfUserScan(bothIndex);
+
+        memoryBefore = usedMemory();
+        chronometer.reset();
+        CompactMemoryRatingsDataset compact = new CompactMemoryRatingsDataset(ratings);
+        long compactBuild = chronometer.getTotalElapsed();
+        long compactMemory = usedMemory() - memoryBefore;
+        long compactScan = timeOfUserScan(compact);
+
+        Global.showInfoMessage("Ratings: " + ratings.size() + "\n");
+        Global.showInfoMessage("INDEX_BOTH:         build " + bothIndexBuild + " ms, ~" + (bothIndexMemory / 1024) + " KB, user scan " + bothIndexScan + " ms\n");
+        Global.showInfoMessage("INDEX_BOTH_COMPACT: build " + compactBuild + " ms, ~" + (compactMemory / 1024) + " KB, user scan " + compactScan + " ms\n");
+
+        Assert.assertEquals(bothIndex.getNumRatings(), compact.getNumRatings());
+    }
+
+    private static long timeOfUserScan(RatingsDataset<? extends Rating> ratingsDataset) {
+        Chronometer chronometer = new Chronometer();
+        double sum = 0;
+        for (int idUser : ratingsDataset.allUsers()) {
+            for (Map.Entry<Integer, ? extends Rating> entry : ratingsDataset.getUserRatingsRated(idUser).entrySet()) {
+                sum += entry.getValue().getRatingValue().doubleValue();
+            }
+        }
+        Assert.assertTrue(sum > 0);
+        return chronometer.getTotalElapsed();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
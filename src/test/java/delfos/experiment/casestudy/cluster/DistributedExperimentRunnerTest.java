@@ -0,0 +1,267 @@
+package delfos.experiment.casestudy.cluster;
+
+import delfos.common.FileUtilities;
+import delfos.constants.DelfosTest;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que los trabajadores de {@link ExperimentQueue} ejecutan
+ * cada experimento una sola vez y reintentan los que fallan.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class DistributedExperimentRunnerTest extends DelfosTest {
+
+    private static final int NUM_EXPERIMENTS = 12;
+
+    private File experimentsDirectory;
+
+    public DistributedExperimentRunnerTest() {
+    }
+
+    /**
+     * Tarea que deja constancia de cada ejecución en el directorio del
+     * experimento, para poder comprobar que no hay solapamientos.
+     */
+    public static class MarkExecutionTask implements DistributedExperimentRunner.ExperimentTask {
+
+        @Override
+        public void execute(File experimentDirectory) throws Exception {
+            File running = new File(experimentDirectory, "running");
+            if (!running.createNewFile()) {
+                throw new IllegalStateException("Experiment " + experimentDirectory.getName() + " executed twice at the same time");
+            }
+            Thread.sleep(20);
+            Files.write(new File(experimentDirectory, "executed-" + System.nanoTime()).toPath(), new byte[0]);
+            Files.delete(running.toPath());
+        }
+    }
+
+    /**
+     * Programa que no termina hasta que se mata su proceso.
+     */
+    public static class SleepForever {
+
+        public static void main(String[] args) throws InterruptedException {
+            Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+
+    @Before
+    public void createExperimentsDirectory() throws IOException {
+        experimentsDirectory = Files.createTempDirectory("delfos-experiments").toFile();
+        for (int i = 0; i < NUM_EXPERIMENTS; i++) {
+            new File(experimentsDirectory, "experiment_" + i).mkdirs();
+        }
+    }
+
+    @After
+    public void deleteExperimentsDirectory() {
+        FileUtilities.deleteDirectoryRecursive(experimentsDirectory);
+    }
+
+    private static int numExecutions(File experimentDirectory) {
+        return experimentDirectory.list((directory, name) -> name.startsWith("executed-")).length;
+    }
+
+    private List<String> resultsIndex(ExperimentQueue experimentQueue) throws IOException {
+        return Files.readAllLines(experimentQueue.getResultsIndexFile().toPath());
+    }
+
+    private static long countStatus(List<String> resultsIndex, String status) {
+        return resultsIndex.stream().filter(line -> line.endsWith("," + status)).count();
+    }
+
+    @Test
+    public void testWorkersOfSameJVMExecuteEachExperimentOnce() throws IOException {
+        ExperimentQueue experimentQueue = new ExperimentQueue(experimentsDirectory);
+
+        int numExecuted = DistributedExperimentRunner.execute(experimentQueue, new MarkExecutionTask(), 4);
+
+        Assert.assertEquals(NUM_EXPERIMENTS, numExecuted);
+        Assert.assertTrue(experimentQueue.isFinished());
+        Assert.assertEquals(NUM_EXPERIMENTS, experimentQueue.getNumDone());
+        for (File experimentDirectory : experimentQueue.getExperiments()) {
+            Assert.assertEquals(experimentDirectory.getName(), 1, numExecutions(experimentDirectory));
+        }
+        Assert.assertEquals(NUM_EXPERIMENTS, countStatus(resultsIndex(experimentQueue), ExperimentQueue.STATUS_DONE));
+        Assert.assertEquals(NUM_EXPERIMENTS, new TuringPreparator().sizeOfAllExperimentsInDirectory(experimentsDirectory));
+    }
+
+    @Test
+    public void testExpiredLeaseIsExecutedAgain() throws IOException {
+        ExperimentQueue experimentQueue = new ExperimentQueue(experimentsDirectory, 200, 3);
+
+        ExperimentLease crashedLease = experimentQueue.claim("crashed-worker");
+        Assert.assertEquals(1, crashedLease.getAttempt());
+
+        DistributedExperimentRunner runner = new DistributedExperimentRunner(experimentQueue, new MarkExecutionTask());
+        runner.setPollMillis(50);
+        Assert.assertEquals(NUM_EXPERIMENTS, runner.execute());
+
+        Assert.assertFalse(experimentQueue.renew(crashedLease));
+        Assert.assertFalse(experimentQueue.complete(crashedLease));
+        Assert.assertEquals(1, numExecutions(crashedLease.getExperimentDirectory()));
+
+        List<String> resultsIndex = resultsIndex(experimentQueue);
+        Assert.assertEquals(1, countStatus(resultsIndex, ExperimentQueue.STATUS_EXPIRED));
+        Assert.assertTrue(resultsIndex.stream().anyMatch(line
+                -> line.startsWith(crashedLease.getExperimentName() + "," + runner.getWorker() + ",2,")
+                && line.endsWith("," + ExperimentQueue.STATUS_DONE)));
+    }
+
+    @Test
+    public void testExecutionIsCancelledWhenLeaseIsLost() throws IOException {
+        ExperimentQueue experimentQueue = new ExperimentQueue(experimentsDirectory, 300, 3);
+        File leaseFile = new File(experimentsDirectory, ExperimentQueue.QUEUE_DIRECTORY + File.separator + "leases" + File.separator + "experiment_0.lease");
+        AtomicInteger numCancelled = new AtomicInteger(0);
+        AtomicInteger numStarted = new AtomicInteger(0);
+
+        DistributedExperimentRunner runner = new DistributedExperimentRunner(experimentQueue, experimentDirectory -> {
+            if (experimentDirectory.getName().equals("experiment_0") && numStarted.getAndIncrement() == 0) {
+                //Otro trabajador se queda con el experimento.
+                Files.delete(leaseFile.toPath());
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException ex) {
+                    numCancelled.incrementAndGet();
+                    return;
+                }
+            }
+            new MarkExecutionTask().execute(experimentDirectory);
+        });
+        runner.setPollMillis(50);
+
+        Assert.assertEquals(NUM_EXPERIMENTS, runner.execute());
+        Assert.assertEquals(1, numCancelled.get());
+        Assert.assertEquals(1, numExecutions(new File(experimentsDirectory, "experiment_0")));
+        Assert.assertEquals(NUM_EXPERIMENTS, countStatus(resultsIndex(experimentQueue), ExperimentQueue.STATUS_DONE));
+    }
+
+    @Test
+    public void testNoExperimentIsClaimedUntilCancelledExecutionEnds() throws IOException {
+        ExperimentQueue experimentQueue = new ExperimentQueue(experimentsDirectory, 300, 3);
+        File leaseFile = new File(experimentsDirectory, ExperimentQueue.QUEUE_DIRECTORY + File.separator + "leases" + File.separator + "experiment_0.lease");
+        AtomicInteger numStarted = new AtomicInteger(0);
+        AtomicInteger numIgnoredInterrupts = new AtomicInteger(0);
+        AtomicInteger numRunning = new AtomicInteger(0);
+        AtomicInteger maxRunning = new AtomicInteger(0);
+
+        DistributedExperimentRunner runner = new DistributedExperimentRunner(experimentQueue, experimentDirectory -> {
+            maxRunning.accumulateAndGet(numRunning.incrementAndGet(), Math::max);
+            try {
+                if (experimentDirectory.getName().equals("experiment_0") && numStarted.getAndIncrement() == 0) {
+                    //Otro trabajador se queda con el experimento y esta ejecución no atiende a la interrupción.
+                    Files.delete(leaseFile.toPath());
+                    long end = System.currentTimeMillis() + 1500;
+                    while (System.currentTimeMillis() < end) {
+                        try {
+                            Thread.sleep(Math.max(1, end - System.currentTimeMillis()));
+                        } catch (InterruptedException ex) {
+                            numIgnoredInterrupts.incrementAndGet();
+                        }
+                    }
+                    return;
+                }
+                new MarkExecutionTask().execute(experimentDirectory);
+            } finally {
+                numRunning.decrementAndGet();
+            }
+        });
+        runner.setPollMillis(50);
+
+        Assert.assertEquals(NUM_EXPERIMENTS, runner.execute());
+        Assert.assertEquals(1, numIgnoredInterrupts.get());
+        Assert.assertEquals(1, maxRunning.get());
+        Assert.assertEquals(1, numExecutions(new File(experimentsDirectory, "experiment_0")));
+        Assert.assertEquals(NUM_EXPERIMENTS, countStatus(resultsIndex(experimentQueue), ExperimentQueue.STATUS_DONE));
+    }
+
+    @Test
+    public void testChildProcessIsKilledWhenInterrupted() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread execution = new Thread(() -> {
+            try {
+                DistributedExperimentRunner.executeInChildProcess(SleepForever.class);
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        execution.start();
+
+        Thread.sleep(500);
+        execution.interrupt();
+        execution.join(10000);
+
+        Assert.assertFalse(execution.isAlive());
+        Assert.assertTrue(String.valueOf(failure.get()), failure.get() instanceof InterruptedException);
+    }
+
+    @Test
+    public void testFailedExperimentIsRetriedUntilMaxAttempts() throws IOException {
+        ExperimentQueue experimentQueue = new ExperimentQueue(experimentsDirectory, 1000, 2);
+        AtomicInteger numAttempts = new AtomicInteger(0);
+
+        int numExecuted = DistributedExperimentRunner.execute(experimentQueue, experimentDirectory -> {
+            if (experimentDirectory.getName().equals("experiment_3")) {
+                numAttempts.incrementAndGet();
+                throw new IllegalArgumentException("Wrong experiment");
+            }
+            new MarkExecutionTask().execute(experimentDirectory);
+        }, 2);
+
+        Assert.assertEquals(NUM_EXPERIMENTS - 1, numExecuted);
+        Assert.assertEquals(2, numAttempts.get());
+        Assert.assertEquals(1, experimentQueue.getNumFailed());
+        Assert.assertTrue(experimentQueue.isFinished());
+
+        List<String> resultsIndex = resultsIndex(experimentQueue);
+        Assert.assertEquals(2, countStatus(resultsIndex, ExperimentQueue.STATUS_ERROR));
+        Assert.assertEquals(1, countStatus(resultsIndex, ExperimentQueue.STATUS_FAILED));
+    }
+
+    @Test
+    public void testSeveralJVMsExecuteEachExperimentOnce() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        List<Process> workers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ProcessBuilder processBuilder = new ProcessBuilder(
+                    java, "-cp", System.getProperty("java.class.path"),
+                    DistributedExperimentRunner.class.getName(),
+                    experimentsDirectory.getPath(),
+                    MarkExecutionTask.class.getName());
+            processBuilder.redirectErrorStream(true);
+            processBuilder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+            workers.add(processBuilder.start());
+        }
+        for (Process worker : workers) {
+            Assert.assertTrue(worker.waitFor(60, TimeUnit.SECONDS));
+            Assert.assertEquals(0, worker.exitValue());
+        }
+
+        ExperimentQueue experimentQueue = new ExperimentQueue(experimentsDirectory);
+        Assert.assertEquals(NUM_EXPERIMENTS, experimentQueue.getNumDone());
+        for (File experimentDirectory : experimentQueue.getExperiments()) {
+            Assert.assertEquals(experimentDirectory.getName(), 1, numExecutions(experimentDirectory));
+        }
+
+        List<String> resultsIndex = resultsIndex(experimentQueue);
+        Assert.assertEquals(NUM_EXPERIMENTS, countStatus(resultsIndex, ExperimentQueue.STATUS_DONE));
+        Assert.assertTrue(resultsIndex.stream().skip(1)
+                .map(line -> line.split(",")[1])
+                .allMatch(worker -> worker.contains("@")));
+    }
+}
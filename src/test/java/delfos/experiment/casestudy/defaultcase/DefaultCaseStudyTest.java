@@ -1,12 +1,28 @@
 package delfos.experiment.casestudy.defaultcase;
 
 import delfos.constants.DelfosTest;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.rating.RelevanceCriteria;
 import delfos.dataset.generated.random.RandomDatasetLoader;
+import delfos.dataset.generated.random.RandomRatings;
 import delfos.experiment.validation.predictionprotocol.NoPredictionProtocol;
+import delfos.experiment.validation.predictionprotocol.PredictN;
 import delfos.experiment.validation.validationtechnique.HoldOut_Ratings;
 import delfos.factories.EvaluationMeasuresFactory;
+import delfos.results.evaluationmeasures.EvaluationMeasure;
+import delfos.results.evaluationmeasures.ratingprediction.NRMSE;
+import delfos.results.evaluationmeasures.ratingprediction.RMSE;
+import delfos.rs.RecommenderSystem;
+import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborCandidatesGenerator;
+import delfos.rs.collaborativefiltering.knn.candidates.NeighborRecall;
+import delfos.rs.collaborativefiltering.knn.candidates.RandomHyperplaneNeighborCandidates;
 import delfos.rs.collaborativefiltering.knn.memorybased.nwr.KnnMemoryBasedNWR;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRS;
+import delfos.rs.nonpersonalised.randomrecommender.RandomRecommender;
+import java.util.Arrays;
+import org.junit.Assert;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -54,4 +70,75 @@ public class DefaultCaseStudyTest extends DelfosTest {
                 10);
         instance.execute();
     }
+
+    private static DatasetLoader<? extends Rating> randomDatasetLoader() {
+        return RandomRatings.randomDatasetLoader(100, 80, 0.2, 0);
+    }
+
+    private static DefaultCaseStudy caseStudy(RecommenderSystem<? extends Object> recommenderSystem, DatasetLoader<? extends Rating> datasetLoader, boolean pipelined) {
+        DefaultCaseStudy caseStudy = new DefaultCaseStudy(
+                recommenderSystem,
+                datasetLoader,
+                new HoldOut_Ratings(),
+                new PredictN(3),
+                new RelevanceCriteria(4),
+                Arrays.asList(new RMSE(), new NRMSE()),
+                6);
+        caseStudy.setSeedValue(77);
+        caseStudy.setParameterValue(DefaultCaseStudy.PIPELINED_FOLDS, pipelined);
+        return caseStudy;
+    }
+
+    /**
+     * Las particiones solapadas dan los mismos resultados que la ejecución
+     * secuencial con la misma semilla.
+     */
+    @Test
+    public void testPipelinedFoldsSameResults() {
+        DatasetLoader<? extends Rating> datasetLoader = randomDatasetLoader();
+
+        for (RecommenderSystem<? extends Object> recommenderSystem : Arrays.asList(new RandomRecommender(), new KnnMemoryBasedNWR())) {
+            DefaultCaseStudy sequential = caseStudy(recommenderSystem, datasetLoader, false);
+            sequential.execute();
+
+            DefaultCaseStudy pipelined = caseStudy(recommenderSystem, datasetLoader, true);
+            pipelined.execute();
+
+            for (EvaluationMeasure evaluationMeasure : sequential.getEvaluationMeasures()) {
+                for (int execution = 0; execution < sequential.getNumExecutions(); execution++) {
+                    for (int split = 0; split < sequential.getNumberOfSplits(); split++) {
+                        Assert.assertEquals(
+                                recommenderSystem.getName() + " " + evaluationMeasure.getName() + " (" + execution + "," + split + ")",
+                                sequential.getMeasureResult(evaluationMeasure, execution, split).getValue(),
+                                pipelined.getMeasureResult(evaluationMeasure, execution, split).getValue(),
+                                0.0);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * La proporción de vecinos recuperados por el generador de candidatos se
+     * guarda como medida del modelo de cada partición.
+     */
+    @Test
+    public void testNeighborRecallIsModelMeasure() {
+        RandomHyperplaneNeighborCandidates generator = new RandomHyperplaneNeighborCandidates(40, 3);
+        generator.setParameterValue(NeighborCandidatesGenerator.RECALL_SAMPLE_SIZE, 40);
+        KnnModelBasedCFRS knnModelBasedCFRS = new KnnModelBasedCFRS();
+        knnModelBasedCFRS.setParameterValue(KnnCollaborativeRecommender.NEIGHBOR_CANDIDATES, generator);
+
+        DefaultCaseStudy withRecall = caseStudy(knnModelBasedCFRS, randomDatasetLoader(), false);
+        withRecall.execute();
+        DefaultCaseStudy withoutRecall = caseStudy(new RandomRecommender(), randomDatasetLoader(), false);
+        withoutRecall.execute();
+
+        for (int split = 0; split < withRecall.getNumberOfSplits(); split++) {
+            Double neighborRecall = withRecall.getModelMeasures(0, split).get(NeighborRecall.MODEL_MEASURE_NAME);
+            Assert.assertNotNull(neighborRecall);
+            Assert.assertTrue(neighborRecall >= 0 && neighborRecall <= 1);
+            Assert.assertTrue(withoutRecall.getModelMeasures(0, split).isEmpty());
+        }
+    }
 }
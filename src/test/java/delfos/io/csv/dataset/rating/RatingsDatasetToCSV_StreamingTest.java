@@ -0,0 +1,167 @@
+package delfos.io.csv.dataset.rating;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.common.exceptions.dataset.CannotLoadRatingsDataset;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsColumns;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.dataset.storage.memory.CompactMemoryRatingsDataset;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test del lector de valoraciones por bloques.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class RatingsDatasetToCSV_StreamingTest extends DelfosTest {
+
+    public RatingsDatasetToCSV_StreamingTest() {
+    }
+
+    private static List<Rating> randomRatings(int numRatings, long seed) {
+        Random random = new Random(seed);
+        List<Rating> ratings = new ArrayList<>(numRatings);
+        for (int i = 0; i < numRatings; i++) {
+            double value = random.nextBoolean() ? 1 + random.nextInt(5) : Math.round(random.nextDouble() * 5000) / 1000.0;
+            ratings.add(new Rating(random.nextInt(100000), i, value));
+        }
+        return ratings;
+    }
+
+    private File writeCSV(String fileName, String header, List<Rating> ratings, boolean gzip) throws IOException {
+        File file = new File(getTemporalDirectoryForTest(), fileName);
+        file.getParentFile().mkdirs();
+        OutputStream output = new FileOutputStream(file);
+        if (gzip) {
+            output = new GZIPOutputStream(output);
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            writer.write(header + "\n");
+            for (Rating rating : ratings) {
+                writer.write(rating.getIdUser() + "," + rating.getIdItem() + "," + rating.getRatingValue() + "\n");
+            }
+        }
+        return file;
+    }
+
+    private static void assertSameRatings(List<Rating> expected, RatingsColumns actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Rating rating = expected.get(i);
+            Assert.assertEquals(rating.getIdUser(), actual.getIdUser(i));
+            Assert.assertEquals(rating.getIdItem(), actual.getIdItem(i));
+            Assert.assertEquals(rating.getRatingValue().doubleValue(), actual.getValue(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testSameRatingsWithSmallChunksAndSeveralThreads() throws Exception {
+        List<Rating> ratings = randomRatings(20000, 0);
+        File file = writeCSV("ratings.csv", "\"idUser\",\"idItem\",\"rating\"", ratings, false);
+
+        for (int numThreads : new int[]{1, 4}) {
+            RatingsColumns columns = new RatingsDatasetToCSV_Streaming(',', numThreads, 1000).readRatingsColumns(file);
+            assertSameRatings(ratings, columns);
+        }
+    }
+
+    @Test
+    public void testGzipFile() throws Exception {
+        List<Rating> ratings = randomRatings(5000, 1);
+        File file = writeCSV("ratings.csv.gz", "idUser,idItem,rating", ratings, true);
+
+        assertSameRatings(ratings, new RatingsDatasetToCSV_Streaming().readRatingsColumns(file));
+    }
+
+    @Test
+    public void testColumnOrderQuotesAndWrongRecords() throws Exception {
+        File file = new File(getTemporalDirectoryForTest(), "wrong.csv");
+        file.getParentFile().mkdirs();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write("rating,timestamp,idItem,idUser\r\n");
+            writer.write("4.5,1000,\"10\",1\r\n");
+            writer.write("\r\n");
+            writer.write("3,1001,abc,2\r\n");
+            writer.write("2,1002,11\r\n");
+            writer.write("1e0,1003,12,3");
+        }
+
+        RatingsColumns columns = new RatingsDatasetToCSV_Streaming(',', 2, 8).readRatingsColumns(file);
+
+        Assert.assertEquals(2, columns.size());
+        Assert.assertEquals(1, columns.getIdUser(0));
+        Assert.assertEquals(10, columns.getIdItem(0));
+        Assert.assertEquals(4.5, columns.getValue(0), 0.0);
+        Assert.assertEquals(3, columns.getIdUser(1));
+        Assert.assertEquals(12, columns.getIdItem(1));
+        Assert.assertEquals(1, columns.getValue(1), 0.0);
+    }
+
+    @Test(expected = CannotLoadRatingsDataset.class)
+    public void testMissingHeader() throws Exception {
+        File file = writeCSV("noheader.csv", "user,item,rating", randomRatings(10, 2), false);
+        new RatingsDatasetToCSV_Streaming().readRatingsColumns(file);
+    }
+
+    @Test
+    public void testParseDoubleSameAsJava() {
+        String[] values = {"0", "5", "-3.25", "4.1", "0.1", "3.999999999999999", "123456789.123456", "1e-3", "+2.5", "\"3.5\""};
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            Assert.assertEquals(value, Double.parseDouble(value.replace("\"", "")), RatingsDatasetToCSV_Streaming.parseDouble(bytes, 0, bytes.length), 0.0);
+        }
+    }
+
+    @Test
+    public void testCompactDatasetTakesOverColumns() throws Exception {
+        List<Rating> ratings = randomRatings(2000, 4);
+        File file = writeCSV("takeover.csv", "idUser,idItem,rating", ratings, false);
+        RatingsColumns columns = new RatingsDatasetToCSV_Streaming().readRatingsColumns(file);
+
+        CompactMemoryRatingsDataset compact = new CompactMemoryRatingsDataset(columns);
+
+        Assert.assertEquals(0, columns.size());
+        Assert.assertEquals(new BothIndexRatingsDataset<>(ratings), compact);
+    }
+
+    /**
+     * Compara el tiempo de leer el fichero en columnas y construir el dataset
+     * compacto con el de crear las valoraciones y el dataset doblemente
+     * indexado.
+     */
+    //@Test
+    public void testTimeComparedToRatingObjects() throws Exception {
+        List<Rating> ratings = randomRatings(500000, 3);
+        File file = writeCSV("time.csv", "idUser,idItem,rating", ratings, false);
+        RatingsDatasetToCSV_Streaming reader = new RatingsDatasetToCSV_Streaming();
+
+        Chronometer chronometer = new Chronometer();
+        CompactMemoryRatingsDataset compact = new CompactMemoryRatingsDataset(reader.readRatingsColumns(file));
+        long columnsTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        BothIndexRatingsDataset<Rating> bothIndex = new BothIndexRatingsDataset<>(reader.readRatingsDataset(file));
+        long ratingObjectsTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Loading " + ratings.size() + " ratings: columns " + columnsTime + " ms, rating objects " + ratingObjectsTime + " ms\n");
+
+        Assert.assertEquals(bothIndex.getNumRatings(), compact.getNumRatings());
+        Assert.assertEquals(bothIndex.getMeanRating(), compact.getMeanRating(), 0.000001);
+    }
+}
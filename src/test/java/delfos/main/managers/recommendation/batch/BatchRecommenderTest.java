@@ -0,0 +1,197 @@
+package delfos.main.managers.recommendation.batch;
+
+import delfos.common.Global;
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.recommendationcandidates.OnlyNewItems;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRS;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRSModel;
+import delfos.rs.output.RecommendationsOutputMethod;
+import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.Recommendations;
+import delfos.rs.recommendation.RecommendationsToUser;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test de la recomendación por lotes a todos los usuarios.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class BatchRecommenderTest extends DelfosTest {
+
+    private static final int NUMBER_OF_RECOMMENDATIONS = 10;
+
+    private DatasetLoader<? extends Rating> datasetLoader;
+    private KnnModelBasedCFRS recommender;
+    private KnnModelBasedCFRSModel model;
+
+    public BatchRecommenderTest() {
+    }
+
+    @Before
+    public void initialiseRecommender() {
+        datasetLoader = RandomRatings.randomDatasetLoader(300, 150, 0.1, 0);
+
+        recommender = new KnnModelBasedCFRS();
+        model = recommender.buildRecommendationModel(datasetLoader);
+    }
+
+    /**
+     * Guarda las recomendaciones escritas y los hilos que las escriben. Puede
+     * fallar tras un número de usuarios para simular una caída.
+     */
+    private static class CollectingOutput extends RecommendationsOutputMethod {
+
+        private final Map<Integer, List<Integer>> written = new TreeMap<>();
+        private final Set<Thread> writerThreads = new HashSet<>();
+        private final int failAfter;
+        private int numWrites = 0;
+
+        private CollectingOutput(int failAfter) {
+            this.failAfter = failAfter;
+            setParameterValue(NUMBER_OF_RECOMMENDATIONS, BatchRecommenderTest.NUMBER_OF_RECOMMENDATIONS);
+        }
+
+        @Override
+        public void writeRecommendations(Recommendations recommendations) {
+            if (numWrites == failAfter) {
+                throw new IllegalStateException("Simulated crash");
+            }
+            numWrites++;
+            writerThreads.add(Thread.currentThread());
+            int idUser = ((RecommendationsToUser) recommendations).getUser().getId();
+            Assert.assertNull("User " + idUser + " written twice", written.put(idUser, idItems(recommendations.getRecommendations())));
+        }
+    }
+
+    private static List<Integer> idItems(Iterable<Recommendation> recommendations) {
+        List<Integer> idItems = new ArrayList<>();
+        recommendations.forEach(recommendation -> idItems.add(recommendation.getIdItem()));
+        return idItems;
+    }
+
+    private RecommenderSystemConfiguration configuration(CollectingOutput output) {
+        return new RecommenderSystemConfiguration(recommender, datasetLoader, null, new OnlyNewItems(), output, null);
+    }
+
+    @Test
+    public void testSameRecommendationsThanOneByOne() throws IOException {
+        CollectingOutput output = new CollectingOutput(-1);
+        BatchRecommender batchRecommender = new BatchRecommender(configuration(output), model);
+        batchRecommender.setNumThreads(4);
+        batchRecommender.setPartitionSize(7);
+        //Una cola muy pequeña obliga a los hilos a esperar a la escritura.
+        batchRecommender.setQueueCapacity(2);
+
+        batchRecommender.recommendToAllUsers();
+
+        Assert.assertEquals(datasetLoader.getUsersDataset().size(), batchRecommender.getNumWritten());
+        Assert.assertEquals(0, batchRecommender.getNumFailed());
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()), output.writerThreads);
+
+        OnlyNewItems candidates = new OnlyNewItems();
+        for (User user : datasetLoader.getUsersDataset()) {
+            RecommendationsToUser expected = recommender.recommendTopN(datasetLoader, model, user,
+                    candidates.candidateItems(datasetLoader, user), NUMBER_OF_RECOMMENDATIONS);
+            Assert.assertEquals(idItems(expected.getRecommendations()), output.written.get(user.getId()));
+        }
+
+        Global.showInfoMessage("Batch recommendation to " + batchRecommender.getNumWritten() + " users: "
+                + batchRecommender.getElapsedMillis() + " ms, " + Math.round(batchRecommender.getUsersPerSecond()) + " users/s\n");
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() throws IOException {
+        File checkpointFile = new File(getTemporalDirectoryForTest(), "checkpoint.txt");
+        checkpointFile.delete();
+
+        CollectingOutput crashing = new CollectingOutput(120);
+        BatchRecommender crashed = new BatchRecommender(configuration(crashing), model);
+        crashed.setNumThreads(3);
+        crashed.setCheckpointFile(checkpointFile);
+        try {
+            crashed.recommendToAllUsers();
+            Assert.fail("The output method should have failed");
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals("Simulated crash", ex.getMessage());
+        }
+        Assert.assertEquals(120, crashed.getNumWritten());
+
+        CollectingOutput output = new CollectingOutput(-1);
+        BatchRecommender resumed = new BatchRecommender(configuration(output), model);
+        resumed.setNumThreads(3);
+        resumed.setCheckpointFile(checkpointFile);
+        resumed.recommendToAllUsers();
+
+        //Solo se guardaron en el fichero de control los usuarios del último volcado.
+        int numUsers = datasetLoader.getUsersDataset().size();
+        int numCheckpointed = RecommendationCheckpoint.DEFAULT_FLUSH_INTERVAL;
+        Assert.assertEquals(numCheckpointed, resumed.getNumSkipped());
+        Assert.assertEquals(numUsers - numCheckpointed, resumed.getNumWritten());
+
+        Set<Integer> allWritten = new HashSet<>(crashing.written.keySet());
+        allWritten.addAll(output.written.keySet());
+        Assert.assertEquals(new HashSet<>(datasetLoader.getUsersDataset().allIDs()), allWritten);
+
+        Set<Integer> writtenTwice = new HashSet<>(crashing.written.keySet());
+        writtenTwice.retainAll(output.written.keySet());
+        Assert.assertEquals(120 - numCheckpointed, writtenTwice.size());
+
+        try (RecommendationCheckpoint checkpoint = new RecommendationCheckpoint(checkpointFile)) {
+            Assert.assertEquals(numUsers, checkpoint.getDone().size());
+        }
+    }
+
+    @Test
+    public void testFailedUsersAreNotCheckpointed() throws IOException {
+        File checkpointFile = new File(getTemporalDirectoryForTest(), "checkpoint-failed.txt");
+        checkpointFile.delete();
+
+        CollectingOutput output = new CollectingOutput(-1);
+        BatchRecommender batchRecommender = new BatchRecommender(configuration(output), model);
+        batchRecommender.setCheckpointFile(checkpointFile);
+        batchRecommender.recommendToUsers(Arrays.asList(1, 2, 99999));
+
+        Assert.assertEquals(2, batchRecommender.getNumWritten());
+        Assert.assertEquals(1, batchRecommender.getNumFailed());
+        try (RecommendationCheckpoint checkpoint = new RecommendationCheckpoint(checkpointFile)) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2)), checkpoint.getDone());
+        }
+    }
+
+    @Test
+    public void testCheckpointIgnoresLastLineWithoutNewline() throws IOException {
+        File checkpointFile = new File(getTemporalDirectoryForTest(), "checkpoint-torn.txt");
+        checkpointFile.getParentFile().mkdirs();
+        Files.write(checkpointFile.toPath(), "1\n2\n3".getBytes(StandardCharsets.UTF_8));
+
+        try (RecommendationCheckpoint checkpoint = new RecommendationCheckpoint(checkpointFile)) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2)), checkpoint.getDone());
+            checkpoint.markDone(34);
+            checkpoint.flush();
+        }
+
+        try (RecommendationCheckpoint checkpoint = new RecommendationCheckpoint(checkpointFile)) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2, 34)), checkpoint.getDone());
+        }
+    }
+}
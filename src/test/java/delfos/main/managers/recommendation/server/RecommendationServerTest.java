@@ -0,0 +1,278 @@
+package delfos.main.managers.recommendation.server;
+
+import delfos.configfile.rs.single.RecommenderSystemConfiguration;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.recommendationcandidates.OnlyNewItems;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRS;
+import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.Recommendations;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test del servidor de recomendaciones, atendiendo peticiones en la interfaz
+ * local.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class RecommendationServerTest extends DelfosTest {
+
+    private static final Pattern ID_ITEM = Pattern.compile("\"idItem\":(\\d+)");
+
+    private RecommenderSystemConfiguration rsc;
+    private final AtomicInteger numModelsLoaded = new AtomicInteger();
+    private RecommendationServer server;
+
+    public RecommendationServerTest() {
+    }
+
+    @Before
+    public void initialiseRecommender() {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(60, 200, 0.1, 0);
+
+        rsc = new RecommenderSystemConfiguration(new KnnModelBasedCFRS(), datasetLoader, null, new OnlyNewItems(), null, null);
+    }
+
+    @After
+    public void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Servicio que construye el modelo en lugar de leerlo de la persistencia.
+     */
+    private class BuildingService extends SingleUserRecommendationService {
+
+        private BuildingService() {
+            super(rsc);
+        }
+
+        @Override
+        public Object loadModel() {
+            numModelsLoaded.incrementAndGet();
+            return ((KnnModelBasedCFRS) rsc.recommenderSystem).buildRecommendationModel(rsc.datasetLoader);
+        }
+    }
+
+    private RecommendationServer startServer(RecommendationService service, int numThreads) throws Exception {
+        server = new RecommendationServer(service, 0, numThreads, RecommendationServer.DEFAULT_MAX_BATCH_SIZE);
+        server.start();
+        return server;
+    }
+
+    private static class Client implements AutoCloseable {
+
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        private Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        }
+
+        private String send(String line) throws IOException {
+            out.println(line);
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static List<Integer> idItems(String response) {
+        Assert.assertTrue(response, response.startsWith("OK {"));
+        List<Integer> idItems = new ArrayList<>();
+        Matcher matcher = ID_ITEM.matcher(response);
+        while (matcher.find()) {
+            idItems.add(Integer.parseInt(matcher.group(1)));
+        }
+        return idItems;
+    }
+
+    private List<Integer> expectedIdItems(Object model, int idUser, int n) {
+        Recommendations recommendations = new BuildingService().recommend(model, Arrays.asList(idUser), n);
+        return recommendations.getRecommendations().stream()
+                .map(Recommendation::getIdItem)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRecommendOverSocket() throws Exception {
+        startServer(new BuildingService(), 2);
+        Object model = new BuildingService().loadModel();
+
+        try (Client client = new Client(server.getPort())) {
+            Assert.assertEquals("OK {}", client.send("PING"));
+            for (int idUser : new int[]{1, 17, 60}) {
+                List<Integer> idItems = idItems(client.send("RECOMMEND " + idUser + " 5"));
+                Assert.assertEquals(expectedIdItems(model, idUser, 5), idItems);
+            }
+        }
+        Assert.assertEquals(2, numModelsLoaded.get());
+    }
+
+    @Test
+    public void testErrorsKeepConnectionOpen() throws Exception {
+        startServer(new BuildingService(), 1);
+
+        try (Client client = new Client(server.getPort())) {
+            Assert.assertTrue(client.send("RECOMMEND 9999 5").startsWith("ERROR "));
+            Assert.assertTrue(client.send("RECOMMEND one 5").startsWith("ERROR "));
+            Assert.assertTrue(client.send("RECOMMEND 1,2 5").startsWith("ERROR "));
+            Assert.assertTrue(client.send("UNKNOWN").startsWith("ERROR "));
+            Assert.assertEquals(5, idItems(client.send("RECOMMEND 1 5")).size());
+        }
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        startServer(new BuildingService(), 4);
+        Object model = new BuildingService().loadModel();
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int numClient = 0; numClient < 8; numClient++) {
+                int firstUser = numClient;
+                results.add(clients.submit(() -> {
+                    try (Client client = new Client(server.getPort())) {
+                        for (int i = 0; i < 30; i++) {
+                            int idUser = 1 + (firstUser + i) % 60;
+                            List<Integer> idItems = idItems(client.send("RECOMMEND " + idUser + " 10"));
+                            if (!idItems.equals(expectedIdItems(model, idUser, 10))) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        Assert.assertEquals(8 * 30, server.getLatencyHistogram().getCount());
+        Assert.assertTrue(server.getNumBatches() <= 8 * 30);
+    }
+
+    @Test
+    public void testSameRequestsInBatchAreComputedOnce() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        startServer(new BuildingService() {
+            @Override
+            public Recommendations recommend(Object recommendationModel, List<Integer> idUsers, int numberOfRecommendations) {
+                if (firstStarted.getCount() > 0) {
+                    firstStarted.countDown();
+                    try {
+                        releaseFirst.await();
+                    } catch (InterruptedException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+                return super.recommend(recommendationModel, idUsers, numberOfRecommendations);
+            }
+        }, 2);
+
+        CompletableFuture<Recommendations> first = server.submit(Arrays.asList(1), 5);
+        Assert.assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+        //Mientras se atiende la primera, las demás se acumulan en un lote.
+        List<CompletableFuture<Recommendations>> waiting = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            waiting.add(server.submit(Arrays.asList(2), 5));
+        }
+        releaseFirst.countDown();
+
+        Assert.assertEquals(5, first.get().getRecommendations().size());
+        for (CompletableFuture<Recommendations> future : waiting) {
+            Assert.assertSame(waiting.get(0).get(), future.get());
+        }
+        Assert.assertEquals(2, server.getNumBatches());
+        Assert.assertEquals(2, server.getNumComputed());
+    }
+
+    @Test
+    public void testReloadAndStats() throws Exception {
+        startServer(new BuildingService(), 1);
+
+        try (Client client = new Client(server.getPort())) {
+            client.send("RECOMMEND 1 5");
+            Assert.assertEquals("OK {\"modelVersion\":2}", client.send("RELOAD"));
+            Assert.assertEquals(5, idItems(client.send("RECOMMEND 1 5")).size());
+
+            String stats = client.send("STATS");
+            Assert.assertTrue(stats, stats.startsWith("OK {\"modelVersion\":2,\"requests\":2,"));
+            Assert.assertTrue(stats, stats.contains("\"reloads\":1"));
+            Assert.assertTrue(stats, stats.contains("\"latency\":{\"count\":2,"));
+
+            Assert.assertEquals("OK {}", client.send("SHUTDOWN"));
+        }
+        server.awaitTermination();
+        Assert.assertEquals(2, numModelsLoaded.get());
+        Assert.assertTrue(server.submit(Arrays.asList(1), 5).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentile(99));
+
+        for (long micros = 1; micros <= 10000; micros++) {
+            histogram.record(micros, TimeUnit.MICROSECONDS);
+        }
+        Assert.assertEquals(10000, histogram.getCount());
+        Assert.assertEquals(10000, histogram.getMax());
+        Assert.assertEquals(5000.5, histogram.getMean(), 0.001);
+
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(percentile / 100 * 10000);
+            long approximated = histogram.getPercentile(percentile);
+            Assert.assertTrue(percentile + ": " + approximated, approximated >= exact);
+            Assert.assertTrue(percentile + ": " + approximated, approximated <= exact * 1.125 + 1);
+        }
+        Assert.assertEquals(10000, histogram.getPercentile(100));
+
+        for (long micros : new long[]{0, 7, 8, 15, 16, 1000, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            Assert.assertTrue(micros <= LatencyHistogram.bucketUpperBound(index));
+            Assert.assertTrue(index == 0 || micros > LatencyHistogram.bucketUpperBound(index - 1));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package delfos.recommendationcandidates;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.item.ContentDatasetDefault;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.basic.user.UsersDatasetAdapter;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.loaders.given.DatasetLoaderGivenRatingsContent;
+import delfos.group.groupsofusers.GroupOfUsers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que los productos candidatos calculados sobre el mapa de
+ * bits del catálogo son los mismos que filtrando el catálogo.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class OnlyNewItemsTest extends DelfosTest {
+
+    private DatasetLoader<? extends Rating> datasetLoader = null;
+
+    public OnlyNewItemsTest() {
+    }
+
+    @Before
+    public void initialiseDataset() {
+        RatingsDataset<Rating> ratingsDataset = RandomRatings.randomRatingsDataset(200, 2000, 0.05, 0);
+
+        //El catálogo incluye productos sin valoraciones.
+        Set<Item> catalogue = new TreeSet<>();
+        for (int idItem = 1; idItem <= 2100; idItem++) {
+            catalogue.add(new Item(idItem));
+        }
+
+        datasetLoader = new DatasetLoaderGivenRatingsContent(
+                ratingsDataset,
+                new ContentDatasetDefault(catalogue),
+                new UsersDatasetAdapter(ratingsDataset.allUsers().stream()
+                        .map(idUser -> new User(idUser))
+                        .collect(Collectors.toSet())));
+    }
+
+    private Set<Integer> notRatedByAny(int... idUsers) {
+        Set<Integer> expected = new TreeSet<>();
+        for (Item item : datasetLoader.getContentDataset()) {
+            boolean rated = false;
+            for (int idUser : idUsers) {
+                rated |= datasetLoader.getRatingsDataset().getUserRated(idUser).contains(item.getId());
+            }
+            if (!rated) {
+                expected.add(item.getId());
+            }
+        }
+        return expected;
+    }
+
+    private static Set<Integer> ids(Set<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Test
+    public void testSameCandidatesThanFiltering() {
+        OnlyNewItems onlyNewItems = new OnlyNewItems();
+
+        for (int idUser : new int[]{1, 50, 200}) {
+            Set<Item> candidates = onlyNewItems.candidateItems(datasetLoader, new User(idUser));
+
+            Set<Integer> expected = notRatedByAny(idUser);
+            Assert.assertEquals(expected, ids(candidates));
+            Assert.assertEquals(expected.size(), candidates.size());
+            for (Item item : datasetLoader.getContentDataset()) {
+                Assert.assertEquals(expected.contains(item.getId()), candidates.contains(item));
+            }
+        }
+
+        Set<Item> groupCandidates = onlyNewItems.candidateItems(datasetLoader, new GroupOfUsers(3, 4, 5));
+        Assert.assertEquals(notRatedByAny(3, 4, 5), ids(groupCandidates));
+    }
+
+    @Test
+    public void testAllCatalogItems() {
+        Set<Item> allItems = new AllCatalogItems().candidateItems(datasetLoader, new User(1));
+
+        Assert.assertEquals(new TreeSet<>(datasetLoader.getContentDataset()), new TreeSet<>(allItems));
+        Assert.assertEquals(allItems, datasetLoader.getContentDataset().stream().collect(Collectors.toSet()));
+        Assert.assertEquals(allItems, new AllCatalogItems().candidateItems(datasetLoader, new GroupOfUsers(1, 2)));
+    }
+
+    @Test
+    public void testCatalogueIsCached() {
+        Assert.assertSame(
+                CatalogueItems.of(datasetLoader.getContentDataset()),
+                CatalogueItems.of(datasetLoader.getContentDataset()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCandidatesAreReadOnly() {
+        new OnlyNewItems().candidateItems(datasetLoader, new User(1)).add(new Item(5000));
+    }
+
+    /**
+     * Compara el tiempo de filtrar el catálogo para cada grupo con el de
+     * calcular los candidatos sobre el mapa de bits.
+     */
+    //@Test
+    public void testTimeComparedToFiltering() {
+        List<GroupOfUsers> groups = new ArrayList<>();
+        for (int idUser = 1; idUser + 4 <= 200; idUser += 5) {
+            groups.add(new GroupOfUsers(idUser, idUser + 1, idUser + 2, idUser + 3, idUser + 4));
+        }
+
+        Chronometer chronometer = new Chronometer();
+        long sizeFiltering = 0;
+        for (GroupOfUsers group : groups) {
+            Set<Integer> rated = group.getMembers().stream()
+                    .flatMap(member -> datasetLoader.getRatingsDataset().getUserRated(member.getId()).stream())
+                    .collect(Collectors.toSet());
+            sizeFiltering += datasetLoader.getContentDataset().stream()
+                    .filter(item -> !rated.contains(item.getId()))
+                    .collect(Collectors.toSet()).size();
+        }
+        long filteringTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        long sizeBitmap = 0;
+        OnlyNewItems onlyNewItems = new OnlyNewItems();
+        for (GroupOfUsers group : groups) {
+            sizeBitmap += onlyNewItems.candidateItems(datasetLoader, group).size();
+        }
+        long bitmapTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Candidates of " + groups.size() + " groups: filtering " + filteringTime + " ms, bitmap " + bitmapTime + " ms\n");
+
+        Assert.assertEquals(sizeFiltering, sizeBitmap);
+    }
+}
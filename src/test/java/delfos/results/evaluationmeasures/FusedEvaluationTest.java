@@ -0,0 +1,159 @@
+package delfos.results.evaluationmeasures;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RelevanceCriteria;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.results.MeasureResult;
+import delfos.results.RecommendationResults;
+import delfos.results.evaluationmeasures.prediction.PredicitonErrorHistogram;
+import delfos.results.evaluationmeasures.prediction.list.HalfLifeUtility;
+import delfos.results.evaluationmeasures.ratingprediction.FScoreCollaborative;
+import delfos.results.evaluationmeasures.ratingprediction.MAE;
+import delfos.results.evaluationmeasures.ratingprediction.NMAE;
+import delfos.results.evaluationmeasures.ratingprediction.NRMSE;
+import delfos.results.evaluationmeasures.ratingprediction.PrecisionCollaborative;
+import delfos.results.evaluationmeasures.ratingprediction.RMSE;
+import delfos.results.evaluationmeasures.ratingprediction.RatingMaximization;
+import delfos.results.evaluationmeasures.ratingprediction.RecallCollaborative;
+import delfos.results.evaluationmeasures.roccurve.AreaUnderROC;
+import delfos.rs.recommendation.Recommendation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que {@link FusedEvaluation} da el mismo resultado que
+ * calcular cada medida por separado.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class FusedEvaluationTest extends DelfosTest {
+
+    private static final double DELTA = 0.000001;
+
+    private BothIndexRatingsDataset<Rating> testDataset;
+    private RecommendationResults recommendationResults;
+    private final RelevanceCriteria relevanceCriteria = new RelevanceCriteria(4);
+
+    public FusedEvaluationTest() {
+    }
+
+    @Before
+    public void initialiseResults() {
+        testDataset = RandomRatings.randomRatingsDataset(2000, 300, 0.05, 0);
+
+        Random random = new Random(1);
+        recommendationResults = new RecommendationResults();
+        for (int idUser : testDataset.allUsers()) {
+            List<Recommendation> recommendations = new ArrayList<>();
+            for (Map.Entry<Integer, Rating> entry : testDataset.getUserRatingsRated(idUser).entrySet()) {
+                if (random.nextDouble() < 0.8) {
+                    double prediction = entry.getValue().getRatingValue().doubleValue() + random.nextGaussian();
+                    recommendations.add(new Recommendation(entry.getKey(), Math.max(1, Math.min(5, prediction))));
+                }
+            }
+            recommendationResults.add(idUser, recommendations);
+        }
+    }
+
+    private static List<EvaluationMeasure> accumulatedMeasures() {
+        return Arrays.asList(
+                new MAE(),
+                new RMSE(),
+                new NMAE(),
+                new NRMSE(),
+                new PrecisionCollaborative(),
+                new RecallCollaborative(),
+                new FScoreCollaborative(),
+                new Coverage(),
+                new NumberOfRecommendations(),
+                new NDCG(),
+                new PRSpace(),
+                new HalfLifeUtility(),
+                new AreaUnderROC());
+    }
+
+    @Test
+    public void testSameResultThanEachMeasure() {
+        Map<EvaluationMeasure, MeasureResult> fused = FusedEvaluation.evaluate(
+                accumulatedMeasures(), recommendationResults, testDataset, relevanceCriteria);
+
+        Assert.assertEquals(accumulatedMeasures().size(), fused.size());
+        for (EvaluationMeasure evaluationMeasure : accumulatedMeasures()) {
+            double expected = evaluationMeasure.getMeasureResult(recommendationResults, testDataset, relevanceCriteria).getValue();
+            Assert.assertEquals(evaluationMeasure.getName(), expected, fused.get(evaluationMeasure).getValue(), DELTA);
+        }
+    }
+
+    @Test
+    public void testSameResultThanSequentialComputation() {
+        double sumAbsoluteError = 0;
+        long numPredictions = 0;
+        long numRecommendations = 0;
+        long numTestRatings = 0;
+
+        for (int idUser : testDataset.allUsers()) {
+            Map<Integer, Rating> userRatings = testDataset.getUserRatingsRated(idUser);
+            for (Recommendation recommendation : recommendationResults.getRecommendationsForUser(idUser)) {
+                sumAbsoluteError += Math.abs(userRatings.get(recommendation.getIdItem()).getRatingValue().doubleValue()
+                        - recommendation.getPreference().doubleValue());
+                numPredictions++;
+            }
+            numRecommendations += recommendationResults.getRecommendationsForUser(idUser).size();
+            numTestRatings += userRatings.size();
+        }
+
+        Map<EvaluationMeasure, MeasureResult> fused = FusedEvaluation.evaluate(
+                accumulatedMeasures(), recommendationResults, testDataset, relevanceCriteria);
+
+        Assert.assertEquals(sumAbsoluteError / numPredictions, fused.get(new MAE()).getValue(), DELTA);
+        Assert.assertEquals(numRecommendations, fused.get(new NumberOfRecommendations()).getValue(), DELTA);
+        Assert.assertEquals((double) numRecommendations / numTestRatings, fused.get(new Coverage()).getValue(), DELTA);
+    }
+
+    @Test
+    public void testLegacyMeasuresAndFailures() {
+        List<EvaluationMeasure> evaluationMeasures = new ArrayList<>(accumulatedMeasures());
+        evaluationMeasures.add(new PredicitonErrorHistogram());
+        evaluationMeasures.add(new RatingMaximization());
+
+        Map<EvaluationMeasure, MeasureResult> fused = FusedEvaluation.evaluate(
+                evaluationMeasures, recommendationResults, testDataset, relevanceCriteria);
+
+        Assert.assertTrue(fused.containsKey(new PredicitonErrorHistogram()));
+        Assert.assertFalse(fused.containsKey(new RatingMaximization()));
+        Assert.assertEquals(accumulatedMeasures().size() + 1, fused.size());
+    }
+
+    /**
+     * Compara el tiempo de calcular todas las medidas en un solo recorrido con
+     * el de recorrer los usuarios una vez por medida.
+     */
+    //@Test
+    public void testTimeComparedToEachMeasure() {
+        Chronometer chronometer = new Chronometer();
+        for (EvaluationMeasure evaluationMeasure : accumulatedMeasures()) {
+            evaluationMeasure.getMeasureResult(recommendationResults, testDataset, relevanceCriteria);
+        }
+        long eachMeasureTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        Map<EvaluationMeasure, MeasureResult> fused = FusedEvaluation.evaluate(
+                accumulatedMeasures(), recommendationResults, testDataset, relevanceCriteria);
+        long fusedTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Evaluation of " + fused.size() + " measures: each measure " + eachMeasureTime + " ms, fused " + fusedTime + " ms\n");
+
+        Assert.assertEquals(accumulatedMeasures().size(), fused.size());
+    }
+}
@@ -21,11 +21,16 @@ import delfos.dataset.basic.item.Item;
 import delfos.dataset.basic.loader.types.DatasetLoader;
 import delfos.dataset.basic.rating.Rating;
 import delfos.dataset.basic.user.User;
+import delfos.dataset.generated.random.RandomRatings;
 import delfos.recommendationcandidates.OnlyNewItems;
 import delfos.rs.collaborativefiltering.factorization.MatrixFactorizationModel;
 import delfos.rs.output.RecommendationsOutputStandardRaw;
 import delfos.rs.recommendation.RecommendationsToUser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -61,4 +66,99 @@ public class ALSRecommenderTest {
         output.writeRecommendations(recommendToUser);
 
     }
+
+    @Test
+    public void testCholeskySolve() {
+        double[] a = {
+            4, 12, -16,
+            12, 37, -43,
+            -16, -43, 98};
+        double[] b = {1, 2, 3};
+
+        Assert.assertTrue(LeastSquares.solve(a, b, 3));
+
+        //Solución de referencia: A^-1·b
+        Assert.assertArrayEquals(new double[]{28.583333333, -7.666666667, 1.333333333}, b, 0.000001);
+        Assert.assertFalse(LeastSquares.solve(new double[]{1, 2, 2, 1}, new double[]{1, 1}, 2));
+    }
+
+    @Test
+    public void testExplicitFitsLowRankRatings() {
+        Random random = new Random(0);
+        double[][] userVectors = new double[100][2];
+        double[][] itemVectors = new double[60][2];
+        for (double[] vector : userVectors) {
+            vector[0] = random.nextDouble();
+            vector[1] = random.nextDouble();
+        }
+        for (double[] vector : itemVectors) {
+            vector[0] = random.nextDouble();
+            vector[1] = random.nextDouble();
+        }
+
+        List<Rating> ratings = new ArrayList<>();
+        for (int idUser = 1; idUser <= userVectors.length; idUser++) {
+            for (int idItem = 1; idItem <= itemVectors.length; idItem++) {
+                if (random.nextDouble() < 0.3) {
+                    double[] u = userVectors[idUser - 1];
+                    double[] i = itemVectors[idItem - 1];
+                    ratings.add(new Rating(idUser, idItem, 1 + 2 * (u[0] * i[0] + u[1] * i[1])));
+                }
+            }
+        }
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.datasetLoader(ratings);
+
+        ALSRecommender aLSRecommender = new ALSRecommender();
+        aLSRecommender.setSeedValue(1);
+        aLSRecommender.setParameterValue(ALSRecommender.DIMENSION, 3);
+        aLSRecommender.setParameterValue(ALSRecommender.NUM_ITERATIONS, 15);
+        aLSRecommender.setParameterValue(ALSRecommender.LAMBDA, 0.01);
+
+        MatrixFactorizationModel model = aLSRecommender.buildRecommendationModel(datasetLoader);
+
+        double sumOfErrors = 0;
+        for (Rating rating : ratings) {
+            sumOfErrors += Math.abs(rating.getRatingValue().doubleValue() - model.predictRating(new User(rating.getIdUser()), new Item(rating.getIdItem())));
+        }
+        double mae = sumOfErrors / ratings.size();
+
+        Assert.assertTrue("MAE " + mae, mae < 0.05);
+    }
+
+    @Test
+    public void testImplicitPrefersObservedItems() {
+        Random random = new Random(2);
+        List<Rating> ratings = new ArrayList<>();
+        for (int idUser = 1; idUser <= 80; idUser++) {
+            int group = idUser % 2;
+            for (int idItem = 1; idItem <= 40; idItem++) {
+                if (idItem % 2 == group && random.nextDouble() < 0.6) {
+                    ratings.add(new Rating(idUser, idItem, 1 + random.nextInt(5)));
+                }
+            }
+        }
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.datasetLoader(ratings);
+
+        ALSRecommender aLSRecommender = new ALSRecommender();
+        aLSRecommender.setSeedValue(3);
+        aLSRecommender.setParameterValue(ALSRecommender.IMPLICIT_FEEDBACK, true);
+        aLSRecommender.setParameterValue(ALSRecommender.ALPHA, 10.0);
+
+        MatrixFactorizationModel model = aLSRecommender.buildRecommendationModel(datasetLoader);
+        Assert.assertNull(model.getBias());
+
+        for (int idUser = 1; idUser <= 80; idUser++) {
+            double ownGroup = 0;
+            double otherGroup = 0;
+            for (int idItem = 1; idItem <= 40; idItem++) {
+                double prediction = model.predictRating(new User(idUser), new Item(idItem));
+                if (idItem % 2 == idUser % 2) {
+                    ownGroup += prediction;
+                } else {
+                    otherGroup += prediction;
+                }
+            }
+            Assert.assertTrue("User " + idUser, ownGroup > otherGroup);
+        }
+    }
 }
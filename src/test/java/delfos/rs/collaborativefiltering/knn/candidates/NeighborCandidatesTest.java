@@ -0,0 +1,186 @@
+package delfos.rs.collaborativefiltering.knn.candidates;
+
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
+import delfos.rs.collaborativefiltering.knn.memorybased.KnnMemoryBasedCFRS;
+import delfos.rs.collaborativefiltering.knn.memorybased.KnnMemoryModel;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRS;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRSModel;
+import delfos.similaritymeasures.PearsonCorrelationCoefficient;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test de las técnicas de selección de vecinos candidatos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class NeighborCandidatesTest extends DelfosTest {
+
+    private static final int NUM_GROUPS = 4;
+    private static final int USERS_PER_GROUP = 50;
+    private static final int ITEMS_PER_GROUP = 40;
+
+    private DatasetLoader<? extends Rating> datasetLoader = null;
+
+    public NeighborCandidatesTest() {
+    }
+
+    /**
+     * Usuarios en grupos disjuntos, cada uno valora sobre todo los productos de
+     * su grupo.
+     */
+    @Before
+    public void initialiseDataset() {
+        Random random = new Random(0);
+        List<Rating> ratings = new ArrayList<>();
+        for (int idUser = 1; idUser <= NUM_GROUPS * USERS_PER_GROUP; idUser++) {
+            int group = (idUser - 1) / USERS_PER_GROUP;
+            for (int idItem = 1; idItem <= NUM_GROUPS * ITEMS_PER_GROUP; idItem++) {
+                boolean ownGroup = (idItem - 1) / ITEMS_PER_GROUP == group;
+                if (random.nextDouble() < (ownGroup ? 0.5 : 0.02)) {
+                    int value = ownGroup ? (idItem % 2 == 0 ? 4 : 2) + idUser % 2 : 1 + random.nextInt(5);
+                    ratings.add(new Rating(idUser, idItem, value));
+                }
+            }
+        }
+        RatingsDataset<Rating> ratingsDataset = new BothIndexRatingsDataset<>(ratings);
+
+        datasetLoader = RandomRatings.datasetLoader(ratingsDataset);
+    }
+
+    private Map<Integer, RatingsVector> userProfiles() {
+        RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+        Map<Integer, RatingsVector> profiles = new TreeMap<>();
+        for (int idUser : ratingsDataset.allUsers()) {
+            profiles.put(idUser, ratingsDataset.getUserRatingsVector(idUser));
+        }
+        return profiles;
+    }
+
+    private static List<NeighborCandidatesGenerator> approximateGenerators() {
+        MinHashNeighborCandidates minHash = new MinHashNeighborCandidates(20, 3);
+        minHash.setSeedValue(1);
+        RandomHyperplaneNeighborCandidates randomHyperplane = new RandomHyperplaneNeighborCandidates(10, 6);
+        randomHyperplane.setSeedValue(1);
+        return Arrays.asList(minHash, randomHyperplane);
+    }
+
+    /**
+     * Configuraciones con más bandas y menos filas, que recuperan más vecinos a
+     * cambio de más candidatos.
+     */
+    private static List<NeighborCandidatesGenerator> permissiveGenerators() {
+        MinHashNeighborCandidates minHash = new MinHashNeighborCandidates(60, 2);
+        minHash.setSeedValue(1);
+        RandomHyperplaneNeighborCandidates randomHyperplane = new RandomHyperplaneNeighborCandidates(40, 3);
+        randomHyperplane.setSeedValue(1);
+        return Arrays.asList(minHash, randomHyperplane);
+    }
+
+    @Test
+    public void testCandidatesAreSymmetricAndExcludeProfile() {
+        Map<Integer, RatingsVector> profiles = userProfiles();
+
+        for (NeighborCandidatesGenerator generator : approximateGenerators()) {
+            NeighborCandidatesIndex index = generator.buildIndex(profiles);
+
+            for (int idUser : profiles.keySet()) {
+                Set<Integer> candidates = index.getCandidates(idUser);
+                Assert.assertFalse(candidates.contains(idUser));
+                for (int idCandidate : candidates) {
+                    Assert.assertTrue(generator.getName() + ": " + idUser + " not candidate of " + idCandidate,
+                            index.getCandidates(idCandidate).contains(idUser));
+                }
+            }
+            Assert.assertTrue(index.getCandidates(-1).isEmpty());
+        }
+    }
+
+    @Test
+    public void testIdenticalProfilesAreAlwaysCandidates() {
+        Map<Integer, RatingsVector> profiles = new TreeMap<>();
+        profiles.put(1, new RatingsVector(new int[]{1, 5, 9}, new double[]{1, 3, 5}));
+        profiles.put(2, new RatingsVector(new int[]{1, 5, 9}, new double[]{1, 3, 5}));
+        profiles.put(3, new RatingsVector(new int[]{2, 4}, new double[]{4, 2}));
+
+        for (NeighborCandidatesGenerator generator : approximateGenerators()) {
+            NeighborCandidatesIndex index = generator.buildIndex(profiles);
+            Assert.assertTrue(index.getCandidates(1).contains(2));
+            Assert.assertTrue(index.getCandidates(2).contains(1));
+        }
+    }
+
+    @Test
+    public void testCandidatesReduceComparisons() {
+        Map<Integer, RatingsVector> profiles = userProfiles();
+
+        for (NeighborCandidatesGenerator generator : approximateGenerators()) {
+            NeighborCandidatesIndex index = generator.buildIndex(profiles);
+
+            long numCandidates = profiles.keySet().stream().mapToLong(idUser -> index.getCandidates(idUser).size()).sum();
+            long numPairs = (long) profiles.size() * (profiles.size() - 1);
+            Assert.assertTrue(generator.getName() + " does not reduce the comparisons: " + numCandidates + " of " + numPairs,
+                    numCandidates < numPairs / 2);
+        }
+    }
+
+    @Test
+    public void testMemoryBasedRecall() {
+        for (NeighborCandidatesGenerator generator : permissiveGenerators()) {
+            generator.setParameterValue(NeighborCandidatesGenerator.RECALL_SAMPLE_SIZE, 40);
+
+            KnnMemoryBasedCFRS knnMemoryBasedCFRS = new KnnMemoryBasedCFRS();
+            knnMemoryBasedCFRS.setParameterValue(KnnCollaborativeRecommender.SIMILARITY_MEASURE, new PearsonCorrelationCoefficient());
+            knnMemoryBasedCFRS.setParameterValue(KnnCollaborativeRecommender.NEIGHBOR_CANDIDATES, generator);
+            knnMemoryBasedCFRS.setParameterValue(KnnMemoryBasedCFRS.PRECOMPUTED_NEIGHBORHOOD, true);
+
+            KnnMemoryModel model = knnMemoryBasedCFRS.buildRecommendationModel(datasetLoader);
+
+            Assert.assertNotNull(model.getNeighborCandidates());
+            Assert.assertTrue(generator.getName() + " recall " + model.getNeighborRecall(), model.getNeighborRecall() > 0.8);
+            Assert.assertTrue(model.getNeighborRecall() <= 1);
+        }
+    }
+
+    @Test
+    public void testModelBasedRecall() {
+        for (NeighborCandidatesGenerator generator : permissiveGenerators()) {
+            generator.setParameterValue(NeighborCandidatesGenerator.RECALL_SAMPLE_SIZE, 40);
+
+            KnnModelBasedCFRS knnModelBasedCFRS = new KnnModelBasedCFRS();
+            knnModelBasedCFRS.setParameterValue(KnnCollaborativeRecommender.NEIGHBOR_CANDIDATES, generator);
+
+            KnnModelBasedCFRSModel model = knnModelBasedCFRS.buildRecommendationModel(datasetLoader);
+
+            Assert.assertTrue(generator.getName() + " recall " + model.getNeighborRecall(), model.getNeighborRecall() > 0.8);
+            Assert.assertTrue(model.getNeighborRecall() <= 1);
+        }
+    }
+
+    @Test
+    public void testAllCandidatesKeepsExactModel() {
+        KnnMemoryBasedCFRS knnMemoryBasedCFRS = new KnnMemoryBasedCFRS();
+
+        KnnMemoryModel model = knnMemoryBasedCFRS.buildRecommendationModel(datasetLoader);
+
+        Assert.assertNull(model.getNeighborCandidates());
+        Assert.assertFalse(model.isNeighborhoodPrecomputed());
+        Assert.assertTrue(Double.isNaN(model.getNeighborRecall()));
+    }
+}
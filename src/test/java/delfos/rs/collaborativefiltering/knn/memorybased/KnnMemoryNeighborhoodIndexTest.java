@@ -0,0 +1,137 @@
+package delfos.rs.collaborativefiltering.knn.memorybased;
+
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
+import delfos.rs.recommendation.Recommendation;
+import delfos.similaritymeasures.CollaborativeSimilarityMeasure;
+import delfos.similaritymeasures.PearsonCorrelationCoefficient;
+import delfos.similaritymeasures.useruser.CosineAsymmetric;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que los vecinos precalculados por
+ * {@link KnnMemoryBasedCFRS} son los mismos que se calculan al recomendar.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class KnnMemoryNeighborhoodIndexTest extends DelfosTest {
+
+    private static final int NEIGHBORHOOD_SIZE_STORE = 15;
+
+    private DatasetLoader<? extends Rating> datasetLoader = null;
+
+    public KnnMemoryNeighborhoodIndexTest() {
+    }
+
+    @Before
+    public void initialiseDataset() {
+        datasetLoader = RandomRatings.randomDatasetLoader(300, 100, 0.1, 0);
+    }
+
+    private KnnMemoryBasedCFRS precomputedRecommender(CollaborativeSimilarityMeasure similarityMeasure) {
+        KnnMemoryBasedCFRS knnMemoryBasedCFRS = new KnnMemoryBasedCFRS();
+        knnMemoryBasedCFRS.setParameterValue(KnnCollaborativeRecommender.SIMILARITY_MEASURE, similarityMeasure);
+        knnMemoryBasedCFRS.setParameterValue(KnnCollaborativeRecommender.NEIGHBORHOOD_SIZE, 10);
+        knnMemoryBasedCFRS.setParameterValue(KnnMemoryBasedCFRS.NEIGHBORHOOD_SIZE_STORE, NEIGHBORHOOD_SIZE_STORE);
+        knnMemoryBasedCFRS.setParameterValue(KnnMemoryBasedCFRS.PRECOMPUTED_NEIGHBORHOOD, true);
+        return knnMemoryBasedCFRS;
+    }
+
+    private void assertSameNeighborsThanOnline(KnnMemoryBasedCFRS knnMemoryBasedCFRS, KnnMemoryModel model) {
+        Assert.assertTrue(model.isNeighborhoodPrecomputed());
+
+        for (User user : datasetLoader.getUsersDataset()) {
+            List<Neighbor> expected = KnnMemoryBasedCFRS.getNeighbors(datasetLoader, user, knnMemoryBasedCFRS).stream()
+                    .filter(neighbor -> Double.isFinite(neighbor.getSimilarity()) && neighbor.getSimilarity() > 0)
+                    .limit(NEIGHBORHOOD_SIZE_STORE)
+                    .collect(Collectors.toList());
+
+            Assert.assertEquals("Neighbors of user " + user.getId(), expected, model.getNeighbors(user.getId()));
+        }
+    }
+
+    @Test
+    public void testSameNeighborsThanOnlineWithSymmetricMeasure() {
+        KnnMemoryBasedCFRS knnMemoryBasedCFRS = precomputedRecommender(new PearsonCorrelationCoefficient());
+
+        KnnMemoryModel model = knnMemoryBasedCFRS.buildRecommendationModel(datasetLoader);
+
+        assertSameNeighborsThanOnline(knnMemoryBasedCFRS, model);
+    }
+
+    @Test
+    public void testSameNeighborsThanOnlineWithAsymmetricMeasure() {
+        KnnMemoryBasedCFRS knnMemoryBasedCFRS = precomputedRecommender(new CosineAsymmetric());
+
+        KnnMemoryModel model = knnMemoryBasedCFRS.buildRecommendationModel(datasetLoader);
+
+        assertSameNeighborsThanOnline(knnMemoryBasedCFRS, model);
+    }
+
+    @Test
+    public void testModelIsSerializable() throws Exception {
+        KnnMemoryBasedCFRS knnMemoryBasedCFRS = precomputedRecommender(new PearsonCorrelationCoefficient());
+        KnnMemoryModel model = knnMemoryBasedCFRS.buildRecommendationModel(datasetLoader);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(model);
+        }
+        KnnMemoryModel loaded;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (KnnMemoryModel) ois.readObject();
+        }
+
+        Assert.assertEquals(model.getUsersWithNeighborhood(), loaded.getUsersWithNeighborhood());
+        for (int idUser : model.getUsersWithNeighborhood()) {
+            Assert.assertEquals(model.getNeighbors(idUser), loaded.getNeighbors(idUser));
+        }
+    }
+
+    @Test
+    public void testSameRecommendationsThanOnline() throws Exception {
+        KnnMemoryBasedCFRS knnMemoryBasedCFRS = precomputedRecommender(new PearsonCorrelationCoefficient());
+
+        KnnMemoryModel model = knnMemoryBasedCFRS.buildRecommendationModel(datasetLoader);
+
+        Set<Integer> candidateItems = datasetLoader.getRatingsDataset().allRatedItems();
+
+        List<Map<Integer, Double>> precomputed = new ArrayList<>();
+        for (User user : datasetLoader.getUsersDataset()) {
+            precomputed.add(predictions(knnMemoryBasedCFRS.recommendToUser(datasetLoader, model, user.getId(), candidateItems)));
+        }
+
+        List<Map<Integer, Double>> online = new ArrayList<>();
+        for (User user : datasetLoader.getUsersDataset()) {
+            online.add(predictions(knnMemoryBasedCFRS.recommendToUser(datasetLoader, new KnnMemoryModel(), user.getId(), candidateItems)));
+        }
+
+        Assert.assertEquals(online, precomputed);
+    }
+
+    private static Map<Integer, Double> predictions(Iterable<Recommendation> recommendations) {
+        Map<Integer, Double> predictions = new TreeMap<>();
+        for (Recommendation recommendation : recommendations) {
+            predictions.put(recommendation.getItem().getId(), recommendation.getPreference().doubleValue());
+        }
+        return predictions;
+    }
+}
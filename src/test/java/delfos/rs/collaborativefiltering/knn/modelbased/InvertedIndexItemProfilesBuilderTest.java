@@ -0,0 +1,123 @@
+package delfos.rs.collaborativefiltering.knn.modelbased;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.rs.collaborativefiltering.knn.KnnCollaborativeRecommender;
+import delfos.rs.collaborativefiltering.profile.Neighbor;
+import delfos.similaritymeasures.CollaborativeSimilarityMeasure;
+import delfos.similaritymeasures.CosineCoefficient;
+import delfos.similaritymeasures.MSD;
+import delfos.similaritymeasures.PearsonCorrelationCoefficient;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que el modelo de {@link KnnModelBasedCFRS} construido
+ * con el índice invertido es el mismo que el construido comparando cada par de
+ * productos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class InvertedIndexItemProfilesBuilderTest extends DelfosTest {
+
+    private static final double DELTA = 0.000001;
+
+    public InvertedIndexItemProfilesBuilderTest() {
+    }
+
+    private static KnnModelBasedCFRS recommender(CollaborativeSimilarityMeasure similarityMeasure, boolean relevanceFactor, boolean invertedIndex) {
+        KnnModelBasedCFRS knnModelBasedCFRS = new KnnModelBasedCFRS();
+        knnModelBasedCFRS.setParameterValue(KnnCollaborativeRecommender.SIMILARITY_MEASURE, similarityMeasure);
+        knnModelBasedCFRS.setParameterValue(KnnCollaborativeRecommender.RELEVANCE_FACTOR, relevanceFactor);
+        knnModelBasedCFRS.setParameterValue(KnnModelBasedCFRS.INVERTED_INDEX_BUILD, invertedIndex);
+        return knnModelBasedCFRS;
+    }
+
+    private static Map<Integer, Double> finiteNeighbors(KnnModelItemProfile profile) {
+        Map<Integer, Double> neighbors = new TreeMap<>();
+        for (Neighbor neighbor : profile.getAllNeighbors()) {
+            if (Double.isFinite(neighbor.getSimilarity())) {
+                neighbors.put(neighbor.getIdNeighbor(), neighbor.getSimilarity());
+            }
+        }
+        return neighbors;
+    }
+
+    @Test
+    public void testSameModelThanPairwise() {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(100, 80, 0.15, 0);
+
+        for (CollaborativeSimilarityMeasure similarityMeasure : Arrays.asList(
+                new PearsonCorrelationCoefficient(), new CosineCoefficient(), new MSD())) {
+            for (boolean relevanceFactor : Arrays.asList(false, true)) {
+                KnnModelBasedCFRSModel pairwise = recommender(similarityMeasure, relevanceFactor, false).buildRecommendationModel(datasetLoader);
+                KnnModelBasedCFRSModel invertedIndex = recommender(similarityMeasure, relevanceFactor, true).buildRecommendationModel(datasetLoader);
+
+                for (Item item : datasetLoader.getContentDataset()) {
+                    String message = similarityMeasure.getName() + (relevanceFactor ? " with relevance factor" : "") + ", item " + item.getId();
+
+                    Map<Integer, Double> expected = finiteNeighbors(pairwise.getItemProfile(item.getId()));
+                    Map<Integer, Double> actual = finiteNeighbors(invertedIndex.getItemProfile(item.getId()));
+
+                    Assert.assertEquals(message, expected.keySet(), actual.keySet());
+                    for (int idNeighbor : expected.keySet()) {
+                        Assert.assertEquals(message, expected.get(idNeighbor), actual.get(idNeighbor), DELTA);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNeighborsAreSortedAndPruned() {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(100, 80, 0.15, 1);
+
+        KnnModelBasedCFRS knnModelBasedCFRS = recommender(new PearsonCorrelationCoefficient(), true, true);
+        knnModelBasedCFRS.setParameterValue(KnnCollaborativeRecommender.NEIGHBORHOOD_SIZE, 5);
+        knnModelBasedCFRS.setParameterValue(KnnModelBasedCFRS.NEIGHBORHOOD_SIZE_STORE, 10);
+
+        KnnModelBasedCFRSModel model = knnModelBasedCFRS.buildRecommendationModel(datasetLoader);
+
+        for (Item item : datasetLoader.getContentDataset()) {
+            List<Neighbor> neighbors = model.getItemProfile(item.getId()).getAllNeighbors();
+            Assert.assertFalse(neighbors.isEmpty());
+            Assert.assertTrue(neighbors.size() <= 10);
+
+            List<Neighbor> sorted = new ArrayList<>(neighbors);
+            sorted.sort(Neighbor.BY_SIMILARITY_DESC);
+            Assert.assertEquals(sorted, neighbors);
+        }
+    }
+
+    /**
+     * Compara el tiempo de construcción del modelo comparando cada par de
+     * productos y con el índice invertido.
+     */
+    //@Test
+    public void testTimeComparedToPairwise() {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(400, 300, 0.05, 2);
+
+        Chronometer chronometer = new Chronometer();
+        recommender(new PearsonCorrelationCoefficient(), true, false).buildRecommendationModel(datasetLoader);
+        long pairwiseTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        KnnModelBasedCFRSModel model = recommender(new PearsonCorrelationCoefficient(), true, true).buildRecommendationModel(datasetLoader);
+        long invertedIndexTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Item-item model build: pairwise " + pairwiseTime + " ms, inverted index " + invertedIndexTime + " ms\n");
+
+        Assert.assertEquals(datasetLoader.getContentDataset().size(), model.getNumProfiles());
+    }
+}
@@ -1,15 +1,27 @@
 package delfos.rs.collaborativefiltering.knn.modelbased;
 
+import delfos.common.exceptions.CouldNotPredictRating;
 import delfos.dataset.basic.item.ContentDataset;
 import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
 import delfos.dataset.basic.user.User;
 import delfos.dataset.generated.random.RandomDatasetLoader;
+import delfos.dataset.generated.random.RandomRatings;
 import delfos.recommendationcandidates.AllCatalogItems;
+import delfos.rs.collaborativefiltering.knn.MatchRating;
+import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
+import delfos.rs.collaborativefiltering.predictiontechniques.PredictionTechnique;
 import delfos.rs.collaborativefiltering.profile.Neighbor;
 import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.RecommendationsToUser;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 import org.junit.Assert;
@@ -88,4 +100,36 @@ public class KnnModelBasedCFRSTest {
                 + "a neighbor item should be returned for each item.",
                 requirementViolated);
     }
+
+    /**
+     * Los productos que no alcanza ningún vecino del usuario compiten con las
+     * predicciones fallidas por id de producto, independientemente del orden
+     * en que se recorren los productos candidatos.
+     */
+    @Test
+    public void testRecommendTopNNotReachedItemsByIdOrder() {
+        Map<Integer, KnnModelItemProfile> profiles = new TreeMap<>();
+        profiles.put(100, new KnnModelItemProfile(100, Arrays.asList(new Neighbor(RecommendationEntity.ITEM, 50, 0.9))));
+        profiles.put(1, new KnnModelItemProfile(1));
+        profiles.put(2, new KnnModelItemProfile(2));
+        KnnModelBasedCFRSModel model = new KnnModelBasedCFRSModel(profiles);
+
+        KnnModelBasedCFRS instance = new KnnModelBasedCFRS();
+        instance.setParameterValue(KnnModelBasedCFRS.PREDICTION_TECHNIQUE, new PredictionTechnique() {
+            @Override
+            public double predictRating(int idUser, int idItem, Collection<MatchRating> ratings, RatingsDataset<? extends Rating> ratingsDataset) throws CouldNotPredictRating {
+                throw new CouldNotPredictRating("Prediction fails for item " + idItem);
+            }
+        });
+
+        Set<Item> candidateItems = new LinkedHashSet<>(Arrays.asList(new Item(2), new Item(100), new Item(1)));
+        RecommendationsToUser recommendations = instance.recommendTopN(
+                RandomRatings.datasetLoader(Arrays.asList(new Rating(1, 50, 4))),
+                model, new User(1), candidateItems, 2);
+
+        List<Integer> recommendedItems = recommendations.getRecommendations().stream()
+                .map(recommendation -> recommendation.getItem().getId())
+                .collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList(1, 2), recommendedItems);
+    }
 }
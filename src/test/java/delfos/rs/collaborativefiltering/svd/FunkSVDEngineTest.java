@@ -0,0 +1,252 @@
+package delfos.rs.collaborativefiltering.svd;
+
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsDataset;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.generated.random.RandomRatings;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que {@link FunkSVDEngine} entrena las mismas
+ * características que el cálculo directo con el producto escalar completo, y
+ * la conversión entre {@link TryThisAtHomeSVDModel} y
+ * {@link DenseFactorsModel}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class FunkSVDEngineTest extends DelfosTest {
+
+    private static final double DELTA = 0.0000001;
+
+    public FunkSVDEngineTest() {
+    }
+
+    private static DenseFactorsModel initialModel(RatingsDataset<? extends Rating> ratingsDataset, int numFeatures, long seed) {
+        DenseFactorsModel model = new DenseFactorsModel(
+                ratingsDataset.allUsers().stream().mapToInt(id -> id).sorted().toArray(),
+                ratingsDataset.allRatedItems().stream().mapToInt(id -> id).sorted().toArray(),
+                numFeatures);
+        Random random = new Random(seed);
+        for (int i = 0; i < model.getUserFactors().length; i++) {
+            model.getUserFactors()[i] = 0.1 * random.nextDouble();
+        }
+        for (int i = 0; i < model.getItemFactors().length; i++) {
+            model.getItemFactors()[i] = 0.1 * random.nextDouble();
+        }
+        return model;
+    }
+
+    /**
+     * Entrenamiento de referencia, que recalcula el producto escalar completo
+     * para cada valoración.
+     */
+    private static void referenceTraining(DenseFactorsModel model, RatingsDataset<? extends Rating> ratingsDataset,
+            boolean normalise, int numIterations, double learningRate, double k) {
+        final int numFeatures = model.getNumFeatures();
+        final double[] userFactors = model.getUserFactors();
+        final double[] itemFactors = model.getItemFactors();
+        final double meanRating = ratingsDataset.getMeanRating();
+
+        for (int feature = 0; feature < numFeatures; feature++) {
+            for (int iteration = 0; iteration < numIterations; iteration++) {
+                for (int idUser : model.getUserIds()) {
+                    final int userIndex = model.userIndex(idUser);
+                    final int[] idItems = ratingsDataset.getUserRatingsVector(idUser).getIds();
+                    final double[] values = ratingsDataset.getUserRatingsVector(idUser).getValues();
+                    for (int i = 0; i < idItems.length; i++) {
+                        final int itemIndex = model.itemIndex(idItems[i]);
+                        double prediction = model.dotProduct(userIndex, itemIndex);
+                        if (normalise) {
+                            prediction += meanRating
+                                    + meanRating - ratingsDataset.getMeanRatingUser(idUser)
+                                    + meanRating - ratingsDataset.getMeanRatingItem(idItems[i]);
+                        }
+                        final double error = values[i] - prediction;
+                        final double userValue = userFactors[userIndex * numFeatures + feature];
+                        final double itemValue = itemFactors[itemIndex * numFeatures + feature];
+                        userFactors[userIndex * numFeatures + feature] = userValue + learningRate * (error * itemValue - k * userValue);
+                        itemFactors[itemIndex * numFeatures + feature] = itemValue + learningRate * (error * userValue - k * itemValue);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameFactorsThanFullDotProduct() {
+        RatingsDataset<? extends Rating> ratingsDataset = RandomRatings.randomDatasetLoader(60, 40, 0.2, 0).getRatingsDataset();
+
+        for (boolean normalise : Arrays.asList(false, true)) {
+            DenseFactorsModel expected = initialModel(ratingsDataset, 4, 1);
+            referenceTraining(expected, ratingsDataset, normalise, 5, 0.01, 0.02);
+
+            DenseFactorsModel actual = initialModel(ratingsDataset, 4, 1);
+            FunkSVDEngine engine = new FunkSVDEngine(actual, ratingsDataset, normalise);
+            for (int feature = 0; feature < 4; feature++) {
+                engine.startFeature(feature);
+                for (int iteration = 0; iteration < 5; iteration++) {
+                    engine.iterate(0.01, 0.02);
+                }
+                engine.finishFeature();
+            }
+
+            Assert.assertEquals(ratingsDataset.getNumRatings(), engine.getNumRatings());
+            Assert.assertArrayEquals(expected.getUserFactors(), actual.getUserFactors(), DELTA);
+            Assert.assertArrayEquals(expected.getItemFactors(), actual.getItemFactors(), DELTA);
+        }
+    }
+
+    @Test
+    public void testErrorDecreases() {
+        RatingsDataset<? extends Rating> ratingsDataset = RandomRatings.randomDatasetLoader(60, 40, 0.2, 2).getRatingsDataset();
+        FunkSVDEngine engine = new FunkSVDEngine(initialModel(ratingsDataset, 2, 3), ratingsDataset, false);
+
+        engine.startFeature(0);
+        double firstError = engine.iterate(0.01, 0.02);
+        double lastError = firstError;
+        for (int iteration = 0; iteration < 50; iteration++) {
+            lastError = engine.iterate(0.01, 0.02);
+        }
+        engine.finishFeature();
+
+        Assert.assertTrue(firstError + " -> " + lastError, lastError < firstError);
+    }
+
+    @Test
+    public void testConversionToAndFromDenseFactors() throws Exception {
+        RatingsDataset<? extends Rating> ratingsDataset = RandomRatings.randomDatasetLoader(30, 20, 0.3, 4).getRatingsDataset();
+        DenseFactorsModel dense = initialModel(ratingsDataset, 3, 5);
+
+        TryThisAtHomeSVDModel model = new TryThisAtHomeSVDModel(dense);
+        for (int idUser : dense.getUserIds()) {
+            for (int idItem : dense.getItemIds()) {
+                Assert.assertEquals(dense.predict(idUser, idItem), model.predictRating(new User(idUser), new Item(idItem)), DELTA);
+            }
+        }
+
+        TryThisAtHomeSVDModel extended = TryThisAtHomeSVDModel.addUser(model, 0, Arrays.asList(1.0, 2.0, 3.0));
+        DenseFactorsModel extendedDense = extended.toDenseFactorsModel();
+        Assert.assertEquals(0, extendedDense.getUserIds()[0]);
+        Assert.assertArrayEquals(new double[]{1.0, 2.0, 3.0}, Arrays.copyOf(extendedDense.getUserFactors(), 3), 0.0);
+        Assert.assertArrayEquals(dense.getItemFactors(), extendedDense.getItemFactors(), 0.0);
+        Assert.assertTrue(Double.isNaN(extendedDense.predict(-1, dense.getItemIds()[0])));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(extendedDense);
+        }
+        DenseFactorsModel loaded;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (DenseFactorsModel) ois.readObject();
+        }
+        Assert.assertArrayEquals(extendedDense.getUserIds(), loaded.getUserIds());
+        Assert.assertArrayEquals(extendedDense.getUserFactors(), loaded.getUserFactors(), 0.0);
+        Assert.assertArrayEquals(extendedDense.getItemFactors(), loaded.getItemFactors(), 0.0);
+    }
+
+    @Test
+    public void testBuildRecommendationModel() {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(500, 300, 0.05, 6);
+
+        TryThisAtHomeSVD tryThisAtHomeSVD = new TryThisAtHomeSVD(20, 10);
+
+        TryThisAtHomeSVDModel model = tryThisAtHomeSVD.buildRecommendationModel(datasetLoader);
+
+        DenseFactorsModel dense = model.toDenseFactorsModel();
+        Assert.assertEquals(20, dense.getNumFeatures());
+        Assert.assertEquals(datasetLoader.getRatingsDataset().allUsers().size(), dense.getNumUsers());
+        Assert.assertEquals(datasetLoader.getRatingsDataset().allRatedItems().size(), dense.getNumItems());
+        for (double value : dense.getUserFactors()) {
+            Assert.assertTrue(Double.isFinite(value));
+        }
+    }
+
+    @Test
+    public void testShuffledParallelWithOnePartitionIsSequential() {
+        RatingsDataset<? extends Rating> ratingsDataset = RandomRatings.randomDatasetLoader(60, 40, 0.2, 7).getRatingsDataset();
+
+        DenseFactorsModel sequential = initialModel(ratingsDataset, 2, 8);
+        FunkSVDEngine sequentialEngine = new FunkSVDEngine(sequential, ratingsDataset, false);
+        sequentialEngine.shuffle(9);
+
+        DenseFactorsModel parallel = initialModel(ratingsDataset, 2, 8);
+        FunkSVDEngine parallelEngine = new FunkSVDEngine(parallel, ratingsDataset, false);
+        parallelEngine.shuffle(9);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int feature = 0; feature < 2; feature++) {
+                sequentialEngine.startFeature(feature);
+                parallelEngine.startFeature(feature);
+                for (int iteration = 0; iteration < 5; iteration++) {
+                    Assert.assertEquals(
+                            sequentialEngine.iterate(0.01, 0.02),
+                            parallelEngine.iterate(0.01, 0.02, executor, 1), 0.0);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertArrayEquals(sequential.getUserFactors(), parallel.getUserFactors(), 0.0);
+        Assert.assertArrayEquals(sequential.getItemFactors(), parallel.getItemFactors(), 0.0);
+    }
+
+    @Test
+    public void testParallelTrainingIsReproducibleWithOneThread() {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(100, 60, 0.1, 10);
+
+        TryThisAtHomeSVD tryThisAtHomeSVD = new TryThisAtHomeSVD(5, 10);
+        tryThisAtHomeSVD.setParameterValue(TryThisAtHomeSVD.PARALLEL_TRAINING, true);
+        tryThisAtHomeSVD.setParameterValue(TryThisAtHomeSVD.PARALLEL_TRAINING_THREADS, 1);
+        tryThisAtHomeSVD.setSeedValue(11);
+
+        DenseFactorsModel first = tryThisAtHomeSVD.buildRecommendationModel(datasetLoader).toDenseFactorsModel();
+        DenseFactorsModel second = tryThisAtHomeSVD.buildRecommendationModel(datasetLoader).toDenseFactorsModel();
+
+        Assert.assertArrayEquals(first.getUserFactors(), second.getUserFactors(), 0.0);
+        Assert.assertArrayEquals(first.getItemFactors(), second.getItemFactors(), 0.0);
+    }
+
+    @Test
+    public void testParallelTrainingConverges() {
+        DatasetLoader<? extends Rating> datasetLoader = RandomRatings.randomDatasetLoader(1000, 500, 0.05, 12);
+        RatingsDataset<? extends Rating> ratingsDataset = datasetLoader.getRatingsDataset();
+
+        TryThisAtHomeSVD sequential = new TryThisAtHomeSVD(10, 20);
+        DenseFactorsModel sequentialModel = sequential.buildRecommendationModel(datasetLoader).toDenseFactorsModel();
+
+        TryThisAtHomeSVD parallel = new TryThisAtHomeSVD(10, 20);
+        parallel.setParameterValue(TryThisAtHomeSVD.PARALLEL_TRAINING, true);
+        parallel.setParameterValue(TryThisAtHomeSVD.PARALLEL_TRAINING_THREADS, 4);
+        DenseFactorsModel parallelModel = parallel.buildRecommendationModel(datasetLoader).toDenseFactorsModel();
+
+        double sequentialMAE = trainingMAE(sequentialModel, ratingsDataset);
+        double parallelMAE = trainingMAE(parallelModel, ratingsDataset);
+
+        Assert.assertEquals(sequentialMAE, parallelMAE, sequentialMAE * 0.05);
+    }
+
+    private static double trainingMAE(DenseFactorsModel model, RatingsDataset<? extends Rating> ratingsDataset) {
+        double sumOfAbsoluteErrors = 0;
+        int numRatings = 0;
+        for (Rating rating : ratingsDataset) {
+            sumOfAbsoluteErrors += Math.abs(rating.getRatingValue().doubleValue() - model.predict(rating.getIdUser(), rating.getIdItem()));
+            numRatings++;
+        }
+        return sumOfAbsoluteErrors / numRatings;
+    }
+}
@@ -0,0 +1,137 @@
+package delfos.rs.output;
+
+import delfos.JdbcDatabaseMock;
+import delfos.constants.DelfosTest;
+import delfos.databaseconnections.ConnectionPool;
+import delfos.dataset.basic.user.User;
+import delfos.rs.recommendation.Recommendation;
+import delfos.rs.recommendation.RecommendationsToUser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test de la escritura por lotes de recomendaciones en base de datos, sobre
+ * una base de datos en memoria.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class RecommendationsOutputDatabaseTest extends DelfosTest {
+
+    private static final double DELTA = 0.000001;
+    private static final String TABLE = "recommendations_table";
+    private static final int NUM_USERS = 1000;
+    private static final int NUM_RECOMMENDATIONS = 20;
+
+    private JdbcDatabaseMock database;
+    private List<RecommendationsToUser> recommendations;
+
+    public RecommendationsOutputDatabaseTest() {
+    }
+
+    @Before
+    public void initialiseRecommendations() {
+        database = new JdbcDatabaseMock();
+
+        Random random = new Random(0);
+        recommendations = new ArrayList<>();
+        for (int idUser = 1; idUser <= NUM_USERS; idUser++) {
+            List<Recommendation> list = new ArrayList<>();
+            for (int idItem = 1; idItem <= NUM_RECOMMENDATIONS; idItem++) {
+                list.add(new Recommendation(idItem, 1 + 4 * random.nextDouble()));
+            }
+            recommendations.add(new RecommendationsToUser(new User(idUser), list));
+        }
+    }
+
+    private RecommendationsOutputDatabase newOutput(int batchSize, boolean asynchronous) {
+        RecommendationsOutputDatabase output = new RecommendationsOutputDatabase(
+                new ConnectionPool(database::newConnection, 1),
+                TABLE, "idUser", "idItem", "preference", "system", "recommender");
+        output.setParameterValue(RecommendationsOutputDatabase.BATCH_SIZE, batchSize);
+        output.setParameterValue(RecommendationsOutputDatabase.ASYNCHRONOUS, asynchronous);
+        return output;
+    }
+
+    private void writeAll(RecommendationsOutputDatabase output) {
+        recommendations.forEach(output::writeRecommendations);
+        output.flush();
+    }
+
+    private void assertSameContent(List<RecommendationsToUser> expected) {
+        Map<String, Map<Integer, Double>> written = new TreeMap<>();
+        for (Object[] row : database.getRows(TABLE)) {
+            Assert.assertEquals("recommender", row[3]);
+            written.computeIfAbsent((String) row[0], target -> new TreeMap<>())
+                    .put((Integer) row[1], (Double) row[2]);
+        }
+        Assert.assertEquals(expected.size(), written.size());
+        for (RecommendationsToUser recommendationsToUser : expected) {
+            Map<Integer, Double> rows = written.get(recommendationsToUser.getTargetIdentifier());
+            Assert.assertEquals(recommendationsToUser.getRecommendations().size(), rows.size());
+            for (Recommendation recommendation : recommendationsToUser.getRecommendations()) {
+                Assert.assertEquals(recommendation.getPreference().doubleValue(), rows.get(recommendation.getItem().getId()), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testBatchedWrite() {
+        writeAll(newOutput(100, false));
+
+        assertSameContent(recommendations);
+        Assert.assertEquals(1, database.getNumTablesCreated());
+        Assert.assertEquals(NUM_USERS / 100, database.getNumCommits());
+        //La creación de la tabla y, por cada lote, los borrados y las inserciones de varias filas en dos lotes JDBC.
+        Assert.assertEquals(1 + 2 * NUM_USERS / 100, database.getNumUpdates());
+    }
+
+    @Test
+    public void testAsynchronousWrite() {
+        writeAll(newOutput(64, true));
+
+        assertSameContent(recommendations);
+        Assert.assertEquals(1, database.getNumTablesCreated());
+        Assert.assertEquals((NUM_USERS + 63) / 64, database.getNumCommits());
+    }
+
+    @Test
+    public void testWritesWhenBatchIsFull() {
+        RecommendationsOutputDatabase output = newOutput(10, false);
+
+        recommendations.subList(0, 9).forEach(output::writeRecommendations);
+        Assert.assertEquals(0, database.getNumCommits());
+
+        output.writeRecommendations(recommendations.get(9));
+        Assert.assertEquals(1, database.getNumCommits());
+        assertSameContent(recommendations.subList(0, 10));
+
+        output.writeRecommendations(recommendations.get(10));
+        output.flush();
+        Assert.assertEquals(2, database.getNumCommits());
+        assertSameContent(recommendations.subList(0, 11));
+    }
+
+    @Test
+    public void testRewriteReplacesPreviousRecommendations() {
+        RecommendationsOutputDatabase output = newOutput(1, false);
+        output.writeRecommendations(recommendations.get(0));
+        database.insert(TABLE, recommendations.get(0).getTargetIdentifier(), 1, 5.0, "other recommender", null);
+
+        //Una lista más corta para el mismo usuario sustituye a la anterior.
+        List<Recommendation> shorter = new ArrayList<>(recommendations.get(0).getRecommendations()).subList(0, 3);
+        RecommendationsToUser rewritten = new RecommendationsToUser(recommendations.get(0).getUser(), shorter);
+        output.writeRecommendations(rewritten);
+
+        long ownRows = database.getRows(TABLE).stream().filter(row -> row[3].equals("recommender")).count();
+        Assert.assertEquals(3, ownRows);
+        Assert.assertEquals(4, database.getRows(TABLE).size());
+        Assert.assertEquals(1, database.getNumTablesCreated());
+    }
+}
@@ -0,0 +1,176 @@
+package delfos.rs.recommendation;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.item.Item;
+import delfos.dataset.basic.loader.types.DatasetLoader;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.user.User;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.rs.RecommenderSystem;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRS;
+import delfos.rs.collaborativefiltering.knn.modelbased.KnnModelBasedCFRSModel;
+import delfos.rs.collaborativefiltering.svd.TryThisAtHomeSVD;
+import delfos.rs.collaborativefiltering.svd.TryThisAtHomeSVDModel;
+import delfos.rs.output.sort.SortBy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que la selección de las n mejores recomendaciones da el
+ * mismo resultado que predecir todos los productos y ordenarlos.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class TopNRecommendationsTest extends DelfosTest {
+
+    private static final double DELTA = 0.000001;
+
+    private DatasetLoader<? extends Rating> datasetLoader = null;
+
+    public TopNRecommendationsTest() {
+    }
+
+    @Before
+    public void initialiseDataset() {
+        datasetLoader = RandomRatings.randomDatasetLoader(150, 400, 0.05, 0);
+    }
+
+    private static void assertSameRecommendations(List<Recommendation> expected, Collection<Recommendation> actual) {
+        List<Recommendation> actualList = new ArrayList<>(actual);
+        Assert.assertEquals(expected.size(), actualList.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals("Position " + i, expected.get(i).getIdItem(), actualList.get(i).getIdItem());
+            Assert.assertEquals("Position " + i,
+                    expected.get(i).getPreference().doubleValue(),
+                    actualList.get(i).getPreference().doubleValue(), DELTA);
+        }
+    }
+
+    private <Model> void assertSameTopNThanSorting(RecommenderSystem<Model> recommender, Model model, int n) {
+        Set<Item> candidateItems = datasetLoader.getContentDataset().stream().collect(Collectors.toSet());
+
+        for (User user : datasetLoader.getUsersDataset()) {
+            List<Recommendation> all = new ArrayList<>(recommender.recommendToUser(datasetLoader, model, user, candidateItems).getRecommendations());
+            Collections.sort(all, TopNRecommendations.BEST_FIRST);
+            List<Recommendation> expected = all.subList(0, Math.min(n, all.size()));
+
+            RecommendationsToUser topN = recommender.recommendTopN(datasetLoader, model, user, candidateItems, n);
+
+            assertSameRecommendations(expected, topN.getRecommendations());
+        }
+    }
+
+    @Test
+    public void testSelectIsSameThanSorting() {
+        Random random = new Random(1);
+        List<Recommendation> recommendations = new ArrayList<>();
+        for (int idItem = 1; idItem <= 1000; idItem++) {
+            //Muchos empates y algunas predicciones fallidas.
+            double preference = random.nextDouble() < 0.1 ? Double.NaN : random.nextInt(20) / 4.0;
+            recommendations.add(new Recommendation(idItem, preference));
+        }
+        Collections.shuffle(recommendations, random);
+
+        for (int n : Arrays.asList(1, 10, 100, 999, 1000, 2000)) {
+            List<Recommendation> sorted = new ArrayList<>(recommendations);
+            Collections.sort(sorted, TopNRecommendations.BEST_FIRST);
+
+            assertSameRecommendations(sorted.subList(0, Math.min(n, sorted.size())), TopNRecommendations.select(recommendations, n));
+        }
+        assertSameRecommendations(
+                SortBy.SORT_BY_PREFERENCE.sortAndLimit(recommendations, -1),
+                TopNRecommendations.select(recommendations, 0));
+
+        List<Recommendation> byId = new ArrayList<>(recommendations);
+        Collections.sort(byId, Recommendation.BY_ID);
+        assertSameRecommendations(byId.subList(0, 10), SortBy.SORT_BY_ID_ITEM.sortAndLimit(recommendations, 10));
+        Assert.assertEquals(recommendations.subList(0, 10), SortBy.SORT_BY_NO_SORT.sortAndLimit(recommendations, 10));
+    }
+
+    @Test
+    public void testThreshold() {
+        TopNRecommendations topN = new TopNRecommendations(2);
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, topN.getThreshold(), 0.0);
+
+        topN.add(new Recommendation(1, 3.0));
+        topN.add(new Recommendation(2, Double.NaN));
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, topN.getThreshold(), 0.0);
+
+        Assert.assertTrue(topN.add(new Recommendation(3, 4.0)));
+        Assert.assertEquals(3.0, topN.getThreshold(), 0.0);
+        Assert.assertFalse(topN.add(new Recommendation(4, 2.0)));
+        Assert.assertEquals(Arrays.asList(3, 1), topN.toList().stream().map(Recommendation::getIdItem).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testMatrixFactorisationSameThanSorting() {
+        for (boolean normalised : Arrays.asList(false, true)) {
+            for (boolean inRange : Arrays.asList(false, true)) {
+                TryThisAtHomeSVD tryThisAtHomeSVD = new TryThisAtHomeSVD(20, 5);
+                tryThisAtHomeSVD.setSeedValue(0);
+                tryThisAtHomeSVD.setParameterValue(TryThisAtHomeSVD.NORMALIZE_WITH_USER_MEAN, normalised);
+                tryThisAtHomeSVD.setParameterValue(TryThisAtHomeSVD.PREDICT_IN_RATING_RANGE, inRange);
+
+                TryThisAtHomeSVDModel model = tryThisAtHomeSVD.buildRecommendationModel(datasetLoader);
+
+                for (int n : Arrays.asList(1, 10, 1000)) {
+                    assertSameTopNThanSorting(tryThisAtHomeSVD, model, n);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testKnnModelBasedSameThanSorting() {
+        KnnModelBasedCFRS knnModelBasedCFRS = new KnnModelBasedCFRS();
+        KnnModelBasedCFRSModel model = knnModelBasedCFRS.buildRecommendationModel(datasetLoader);
+
+        for (int n : Arrays.asList(1, 10, 1000)) {
+            assertSameTopNThanSorting(knnModelBasedCFRS, model, n);
+        }
+    }
+
+    /**
+     * Compara el tiempo de predecir todos los productos y ordenarlos con el de
+     * seleccionar directamente los diez mejores.
+     */
+    //@Test
+    public void testTimeComparedToSorting() {
+        TryThisAtHomeSVD tryThisAtHomeSVD = new TryThisAtHomeSVD(40, 5);
+        tryThisAtHomeSVD.setSeedValue(0);
+        TryThisAtHomeSVDModel model = tryThisAtHomeSVD.buildRecommendationModel(datasetLoader);
+        Set<Item> candidateItems = datasetLoader.getContentDataset().stream().collect(Collectors.toSet());
+
+        Chronometer chronometer = new Chronometer();
+        int sizeSorting = 0;
+        for (User user : datasetLoader.getUsersDataset()) {
+            List<Recommendation> all = new ArrayList<>(tryThisAtHomeSVD.recommendToUser(datasetLoader, model, user, candidateItems).getRecommendations());
+            Collections.sort(all);
+            sizeSorting += all.subList(0, 10).size();
+        }
+        long sortingTime = chronometer.getTotalElapsed();
+
+        chronometer.reset();
+        int sizeTopN = 0;
+        for (User user : datasetLoader.getUsersDataset()) {
+            sizeTopN += tryThisAtHomeSVD.recommendTopN(datasetLoader, model, user, candidateItems, 10).getRecommendations().size();
+        }
+        long topNTime = chronometer.getTotalElapsed();
+
+        Global.showInfoMessage("Top-10 for " + datasetLoader.getUsersDataset().size() + " users: sorting " + sortingTime + " ms, top-N " + topNTime + " ms\n");
+
+        Assert.assertEquals(sizeSorting, sizeTopN);
+    }
+}
@@ -0,0 +1,170 @@
+package delfos.similaritymeasures.kernels;
+
+import delfos.common.Chronometer;
+import delfos.common.Global;
+import delfos.common.exceptions.CouldNotComputeSimilarity;
+import delfos.constants.DelfosTest;
+import delfos.dataset.basic.rating.Rating;
+import delfos.dataset.basic.rating.RatingsVector;
+import delfos.dataset.generated.random.RandomRatings;
+import delfos.dataset.storage.memory.BothIndexRatingsDataset;
+import delfos.rs.collaborativefiltering.knn.CommonRating;
+import delfos.rs.collaborativefiltering.knn.RecommendationEntity;
+import delfos.similaritymeasures.CollaborativeSimilarityMeasure;
+import delfos.similaritymeasures.CosineCoefficient;
+import delfos.similaritymeasures.MSD;
+import delfos.similaritymeasures.PearsonCorrelationCoefficient;
+import delfos.similaritymeasures.useruser.Jaccard;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test para comprobar que las medidas que implementan
+ * {@link SparseSimilarityKernel} devuelven la misma similitud que su cálculo
+ * con la lista de {@link CommonRating}.
+ *
+ * @author jcastro-inf ( https://github.com/jcastro-inf )
+ * @version 18-oct-2026
+ */
+public class SparseSimilarityKernelsTest extends DelfosTest {
+
+    public SparseSimilarityKernelsTest() {
+    }
+
+    private static final double DELTA = 0.000001;
+
+    private static final IntToDoubleFunction WEIGHTS = idItem -> 0.5 + (idItem % 7) / 3.0;
+
+    private static List<CollaborativeSimilarityMeasure> measures() {
+        return Arrays.asList(
+                new PearsonCorrelationCoefficient(),
+                new CosineCoefficient(),
+                new MSD(),
+                new Jaccard());
+    }
+
+    private static List<CommonRating> common(RatingsVector v1, RatingsVector v2, int idUser1, int idUser2, IntToDoubleFunction weights) {
+        List<CommonRating> common = CommonRating.intersection(v1, v2,
+                RecommendationEntity.ITEM, RecommendationEntity.USER, idUser1, idUser2);
+        if (weights != null) {
+            for (CommonRating commonRating : common) {
+                commonRating.setWeight(weights.applyAsDouble(commonRating.getIdCommon()));
+            }
+        }
+        return common;
+    }
+
+    private static boolean hasConstantProfile(List<CommonRating> common) {
+        return common.stream().mapToDouble(CommonRating::getRating1).distinct().count() <= 1
+                || common.stream().mapToDouble(CommonRating::getRating2).distinct().count() <= 1;
+    }
+
+    private static double commonRatingsSimilarity(CollaborativeSimilarityMeasure measure, List<CommonRating> common, BothIndexRatingsDataset<Rating> ratingsDataset) {
+        try {
+            return measure.similarity(common, ratingsDataset);
+        } catch (CouldNotComputeSimilarity ex) {
+            return Double.NaN;
+        }
+    }
+
+    private static double kernelSimilarity(CollaborativeSimilarityMeasure measure, RatingsVector v1, RatingsVector v2, IntToDoubleFunction weights) {
+        try {
+            return ((SparseSimilarityKernel) measure).similarity(v1, v2, weights);
+        } catch (CouldNotComputeSimilarity ex) {
+            return Double.NaN;
+        }
+    }
+
+    @Test
+    public void testSameSimilarityThanCommonRatings() {
+        BothIndexRatingsDataset<Rating> ratingsDataset = RandomRatings.randomRatingsDataset(40, 60, 0.15, 0);
+
+        for (CollaborativeSimilarityMeasure measure : measures()) {
+            for (IntToDoubleFunction weights : Arrays.asList(null, WEIGHTS)) {
+                if (weights != null && measure instanceof Jaccard) {
+                    continue;
+                }
+                for (int idUser1 : ratingsDataset.allUsers()) {
+                    for (int idUser2 : ratingsDataset.allUsers()) {
+                        RatingsVector v1 = ratingsDataset.getUserRatingsVector(idUser1);
+                        RatingsVector v2 = ratingsDataset.getUserRatingsVector(idUser2);
+
+                        List<CommonRating> common = common(v1, v2, idUser1, idUser2, weights);
+                        double expected = commonRatingsSimilarity(measure, common, ratingsDataset);
+                        double actual = kernelSimilarity(measure, v1, v2, weights);
+
+                        String message = measure.getName() + (weights == null ? "" : " weighted")
+                                + " (" + idUser1 + "," + idUser2 + ")";
+                        if (measure instanceof PearsonCorrelationCoefficient && hasConstantProfile(common)) {
+                            //La versión ponderada con listas da cero por error de redondeo en la media.
+                            Assert.assertTrue(message + " expected NaN but was " + actual, Double.isNaN(actual));
+                        } else if (Double.isNaN(expected)) {
+                            Assert.assertTrue(message + " expected NaN but was " + actual, Double.isNaN(actual));
+                        } else {
+                            Assert.assertEquals(message, expected, actual, DELTA);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoCommonRatings() {
+        RatingsVector v1 = new RatingsVector(new int[]{1, 2, 3}, new double[]{1, 2, 3});
+        RatingsVector v2 = new RatingsVector(new int[]{4, 5}, new double[]{4, 5});
+
+        Assert.assertTrue(Double.isNaN(new PearsonCorrelationCoefficient().similarity(v1, v2, null)));
+        Assert.assertTrue(Double.isNaN(new CosineCoefficient().similarity(v1, v2, null)));
+        Assert.assertTrue(Double.isNaN(new MSD().similarity(v1, v2, WEIGHTS)));
+        Assert.assertEquals(0, new Jaccard().similarity(v1, v2, null), 0.0);
+        Assert.assertEquals(0, CoRatingStatistics.of(v1, v2).getCommonSize());
+        Assert.assertEquals(5, CoRatingStatistics.of(v1, v2).getUnionSize());
+    }
+
+    /**
+     * Compara el tiempo de cálculo de todos los pares de usuarios con la lista
+     * de valoraciones en común y con el kernel.
+     */
+    //@Test
+    public void testTimeComparedToCommonRatings() {
+        BothIndexRatingsDataset<Rating> ratingsDataset = RandomRatings.randomRatingsDataset(300, 1000, 0.1, 1);
+        List<RatingsVector> vectors = new ArrayList<>();
+        List<Integer> idUsers = new ArrayList<>(ratingsDataset.allUsers());
+        for (int idUser : idUsers) {
+            vectors.add(ratingsDataset.getUserRatingsVector(idUser));
+        }
+
+        for (CollaborativeSimilarityMeasure measure : measures()) {
+            Chronometer chronometer = new Chronometer();
+            double sumCommonRatings = 0;
+            for (int i = 0; i < vectors.size(); i++) {
+                for (int j = 0; j < vectors.size(); j++) {
+                    double sim = commonRatingsSimilarity(measure,
+                            common(vectors.get(i), vectors.get(j), idUsers.get(i), idUsers.get(j), null),
+                            ratingsDataset);
+                    sumCommonRatings += Double.isNaN(sim) ? 0 : sim;
+                }
+            }
+            long commonRatingsTime = chronometer.getTotalElapsed();
+
+            chronometer.reset();
+            double sumKernel = 0;
+            for (int i = 0; i < vectors.size(); i++) {
+                for (int j = 0; j < vectors.size(); j++) {
+                    double sim = kernelSimilarity(measure, vectors.get(i), vectors.get(j), null);
+                    sumKernel += Double.isNaN(sim) ? 0 : sim;
+                }
+            }
+            long kernelTime = chronometer.getTotalElapsed();
+
+            Global.showInfoMessage(measure.getName() + ": common ratings " + commonRatingsTime + " ms, kernel " + kernelTime + " ms\n");
+
+            Assert.assertEquals(sumCommonRatings, sumKernel, sumCommonRatings * DELTA + DELTA);
+        }
+    }
+}